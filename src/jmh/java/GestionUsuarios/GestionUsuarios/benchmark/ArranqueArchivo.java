@@ -0,0 +1,171 @@
+package GestionUsuarios.GestionUsuarios.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import GestionUsuarios.GestionUsuarios.GestionUsuariosApplication;
+
+/**
+ * Tiempo hasta la primera respuesta con el perfil "archivo": siembra una vez la base en disco (si no existe)
+ * y luego arranca la aplicación en un proceso JVM nuevo por repetición, midiendo desde el lanzamiento hasta
+ * el primer 200 de GET /clientes/1, hasta que la sonda de readiness responde 200, hasta que GET /pedidos/estadisticas
+ * deja de responder 503 (las cargas en memoria corren en segundo plano después de ApplicationReadyEvent; el tiempo
+ * de cada una queda en arranque.log) y el cierre ordenado (SIGTERM, incluye la compactación acotada de H2).
+ * La primera repetición tras sembrar suele tener la caché de páginas del sistema operativo caliente; para
+ * un arranque en frío real hay que vaciarla entre ejecuciones (p. ej. echo 3 > /proc/sys/vm/drop_caches).
+ *
+ * Opciones (--clave=valor): ruta=target/arranque/db, clientes=100000, pedidos=1000000, repeticiones=5.
+ * Con 30 millones de pedidos el archivo recién sembrado ocupa unos 27 GB.
+ */
+public final class ArranqueArchivo {
+
+    private static final Duration ESPERA_MAXIMA = Duration.ofMinutes(10);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = new HashMap<>();
+        for (String arg : args) {
+            String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+            opciones.put(partes[0], partes.length > 1 ? partes[1] : "true");
+        }
+        Path ruta = Path.of(opciones.getOrDefault("ruta", "target/arranque/db")).toAbsolutePath();
+        int clientes = Integer.parseInt(opciones.getOrDefault("clientes", "100000"));
+        long pedidos = Long.parseLong(opciones.getOrDefault("pedidos", "1000000"));
+        int repeticiones = Integer.parseInt(opciones.getOrDefault("repeticiones", "5"));
+
+        Path archivo = Path.of(ruta + ".mv.db");
+        if (Files.notExists(archivo)) {
+            Files.createDirectories(ruta.getParent());
+            long inicio = System.nanoTime();
+            sembrar(ruta, clientes, pedidos);
+            System.out.printf("Sembrados %d clientes y %d pedidos en %d s%n", clientes, pedidos,
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - inicio));
+        }
+        System.out.printf("Archivo: %s (%.2f GB), Java %d, %d CPU%n", archivo, Files.size(archivo) / 1e9,
+                Runtime.version().feature(), Runtime.getRuntime().availableProcessors());
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        File registro = ruta.resolveSibling("arranque.log").toFile();
+        System.out.println("| Repetición | Primera respuesta (ms) | Lista (ms) | Estadísticas (ms) | Cierre (ms) |");
+        System.out.println("|---|---|---|---|---|");
+        for (int i = 1; i <= repeticiones; i++) {
+            medir(i, ruta, http, registro);
+        }
+    }
+
+    private static void sembrar(Path ruta, int clientes, long pedidos) {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(GestionUsuariosApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("archivo")
+                .run("--h2.archivo.ruta=" + ruta, "--logging.level.root=WARN")) {
+            JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+            Datos.sembrar(jdbc, clientes, pedidos);
+            // Los ids sembrados son explícitos: las altas posteriores deben seguir después
+            jdbc.execute("alter sequence pedidos_seq restart with " + (pedidos + 1));
+            jdbc.execute("alter table usuarios alter column id restart with " + (clientes + 1));
+            jdbc.execute("alter table tipos_usuario alter column id restart with 2");
+        }
+    }
+
+    private static void medir(int repeticion, Path ruta, HttpClient http, File registro) throws Exception {
+        int puerto = puertoLibre();
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process proceso = new ProcessBuilder(List.of(java, "-cp", classpath(),
+                GestionUsuariosApplication.class.getName(),
+                "--spring.profiles.active=archivo",
+                "--h2.archivo.ruta=" + ruta,
+                "--server.port=" + puerto,
+                "--management.endpoint.health.probes.enabled=true",
+                "--logging.level.root=WARN",
+                "--logging.level.GestionUsuarios.GestionUsuarios.service=INFO",
+                "--logging.level.GestionUsuarios.GestionUsuarios.config=INFO"))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(registro))
+                .start();
+        long inicio = System.nanoTime();
+        try {
+            long limite = inicio + ESPERA_MAXIMA.toNanos();
+            esperar200(http, "http://localhost:" + puerto + "/clientes/1", proceso, limite, registro);
+            long primeraRespuesta = System.nanoTime() - inicio;
+            // Tomcat atiende antes de ApplicationReadyEvent; readiness pasa a 200 al terminar los listeners
+            esperar200(http, "http://localhost:" + puerto + "/actuator/health/readiness", proceso, limite, registro);
+            long lista = System.nanoTime() - inicio;
+            try {
+                esperar200(http, "http://localhost:" + puerto + "/pedidos/estadisticas", proceso, limite, registro);
+            } catch (IllegalStateException e) {
+                // La carga falló o no terminó (p. ej. sin memoria): la fila conserva lo que sí se midió
+                System.out.printf("| %d | %d | %d | sin estadísticas tras %d ms | - |%n", repeticion,
+                        TimeUnit.NANOSECONDS.toMillis(primeraRespuesta), TimeUnit.NANOSECONDS.toMillis(lista),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+                throw e;
+            }
+            long estadisticas = System.nanoTime() - inicio;
+
+            long inicioCierre = System.nanoTime();
+            proceso.destroy();
+            proceso.waitFor();
+            System.out.printf("| %d | %d | %d | %d | %d |%n", repeticion, TimeUnit.NANOSECONDS.toMillis(primeraRespuesta),
+                    TimeUnit.NANOSECONDS.toMillis(lista), TimeUnit.NANOSECONDS.toMillis(estadisticas),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioCierre));
+        } finally {
+            proceso.destroyForcibly();
+        }
+    }
+
+    // Con exec:java el classpath del proyecto está en el cargador de contexto, no en java.class.path
+    private static String classpath() throws URISyntaxException {
+        if (Thread.currentThread().getContextClassLoader() instanceof URLClassLoader cargador) {
+            List<String> rutas = new ArrayList<>();
+            for (URL url : cargador.getURLs()) {
+                rutas.add(Path.of(url.toURI()).toString());
+            }
+            return String.join(File.pathSeparator, rutas);
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    private static void esperar200(HttpClient http, String url, Process proceso, long limite, File registro)
+            throws InterruptedException {
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+        while (!responde(http, peticion)) {
+            if (!proceso.isAlive() || System.nanoTime() > limite) {
+                throw new IllegalStateException("La aplicación no respondió en " + url + "; ver " + registro);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static boolean responde(HttpClient http, HttpRequest peticion) throws InterruptedException {
+        try {
+            return http.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
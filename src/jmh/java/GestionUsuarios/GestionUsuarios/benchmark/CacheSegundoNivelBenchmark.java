@@ -0,0 +1,94 @@
+package GestionUsuarios.GestionUsuarios.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import GestionUsuarios.GestionUsuarios.GestionUsuariosApplication;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.repository.ClienteRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+// findById repetido sobre clientes (JOIN de usuarios y clientes) con y sin caché de segundo nivel. Cada llamada
+// abre su propia sesión, como un GET por id. Al cerrar cada iteración imprime las sentencias SQL por llamada
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CacheSegundoNivelBenchmark {
+
+    private static final int CLIENTES = 1_000;
+
+    @Param({"false", "true"})
+    public boolean cache;
+
+    private ConfigurableApplicationContext contexto;
+    private ClienteRepository clienteRepository;
+    private Statistics estadisticas;
+    private long siguiente;
+    private long llamadas;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexto = new SpringApplicationBuilder(GestionUsuariosApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:cache_" + cache + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--cache.segundo-nivel.habilitado=" + cache,
+                        "--cache.segundo-nivel.regiones.usuarios.tamano-maximo=" + CLIENTES,
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--logging.level.root=WARN");
+        Datos.sembrar(contexto.getBean(JdbcTemplate.class), CLIENTES, 0);
+        clienteRepository = contexto.getBean(ClienteRepository.class);
+        // Una pasada completa antes de medir: con caché, las iteraciones miden el estado estable (todo en caché)
+        for (long id = 1; id <= CLIENTES; id++) {
+            clienteRepository.findById(id);
+        }
+        estadisticas = contexto.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void reiniciarConteo() {
+        estadisticas.clear();
+        llamadas = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void imprimirConteo() {
+        System.out.printf("%n  SQL por findById (cache=%s): %.3f%n", cache,
+                (double) estadisticas.getPrepareStatementCount() / llamadas);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Optional<Cliente> findById() {
+        llamadas++;
+        siguiente = siguiente % CLIENTES + 1;
+        return clienteRepository.findById(siguiente);
+    }
+}
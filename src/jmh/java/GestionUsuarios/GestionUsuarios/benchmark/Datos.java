@@ -0,0 +1,89 @@
+package GestionUsuarios.GestionUsuarios.benchmark;
+
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import GestionUsuarios.GestionUsuarios.mapper.AdministradorMapper;
+import GestionUsuarios.GestionUsuarios.mapper.ClienteMapper;
+import GestionUsuarios.GestionUsuarios.mapper.EmpleadoVentasMapper;
+import GestionUsuarios.GestionUsuarios.mapper.GerenteTiendaMapper;
+import GestionUsuarios.GestionUsuarios.mapper.PedidoMapper;
+import GestionUsuarios.GestionUsuarios.mapper.TipoUsuarioMapper;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.model.Pedido;
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
+import GestionUsuarios.GestionUsuarios.service.TipoUsuarioCache;
+
+// Mapeadores cableados a mano (sin contexto Spring) y entidades de ejemplo compartidas por los benchmarks
+final class Datos {
+
+    static final TipoUsuario TIPO_CLIENTE = new TipoUsuario(1L, "CLIENTE");
+
+    final TipoUsuarioMapper tipoUsuarioMapper = new TipoUsuarioMapper();
+    final ClienteMapper clienteMapper = new ClienteMapper();
+    final PedidoMapper pedidoMapper = new PedidoMapper();
+    final AdministradorMapper administradorMapper = new AdministradorMapper();
+    final EmpleadoVentasMapper empleadoVentasMapper = new EmpleadoVentasMapper();
+    final GerenteTiendaMapper gerenteTiendaMapper = new GerenteTiendaMapper();
+
+    Datos() {
+        // El caché solo se consulta con proxies sin inicializar; aquí las entidades se construyen completas
+        ReflectionTestUtils.setField(tipoUsuarioMapper, "tipoUsuarioCache", new TipoUsuarioCache(null, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(clienteMapper, "tipoUsuarioMapper", tipoUsuarioMapper);
+        ReflectionTestUtils.setField(pedidoMapper, "clienteMapper", clienteMapper);
+        ReflectionTestUtils.setField(administradorMapper, "tipoUsuarioMapper", tipoUsuarioMapper);
+        ReflectionTestUtils.setField(empleadoVentasMapper, "tipoUsuarioMapper", tipoUsuarioMapper);
+        ReflectionTestUtils.setField(gerenteTiendaMapper, "tipoUsuarioMapper", tipoUsuarioMapper);
+    }
+
+    static Cliente cliente(long id) {
+        Cliente cliente = new Cliente();
+        cliente.setId(id);
+        cliente.setNombre("Cliente " + id);
+        cliente.setEmail("cliente" + id + "@test.com");
+        cliente.setPassword("password");
+        cliente.setFechaNacimiento("1995-05-10");
+        cliente.setRut(Rut.parsear("22333444-K"));
+        cliente.setTipoUsuario(TIPO_CLIENTE);
+        cliente.setDireccionEnvio("Calle Falsa 123");
+        return cliente;
+    }
+
+    static Pedido pedido(long id, Cliente cliente) {
+        Pedido pedido = new Pedido();
+        pedido.setId(id);
+        pedido.setFechaPedido(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(id));
+        pedido.setEstado("Pendiente");
+        pedido.setTotal(150.99);
+        pedido.setCliente(cliente);
+        pedido.setDireccionEnvio("Calle Falsa 123");
+        pedido.setMetodoPago("Tarjeta de Crédito");
+        return pedido;
+    }
+
+    // Inserción por conjuntos con SYSTEM_RANGE: siembra millones de filas en segundos, sin pasar por JPA.
+    // Los ids son explícitos; quien vaya a crear filas después debe reiniciar las secuencias
+    static void sembrar(JdbcTemplate jdbc, int clientes, long pedidos) {
+        jdbc.update("insert into tipos_usuario (id, nombre) values (1, 'CLIENTE')");
+        // Dígito verificador por módulo 11 con los factores 2..7 sobre los dígitos del cuerpo (hasta 8)
+        jdbc.update("insert into usuarios (id, nombre, email, password, fecha_nacimiento, rut_numero, rut_dv, version, tipo_usuario_id, tipo_entidad) "
+                + "select x, 'Cliente ' || x, 'cliente' || x || '@test.com', 'password', '1995-05-10', x, "
+                + "case 11 - mod(s, 11) when 11 then '0' when 10 then 'K' else cast(11 - mod(s, 11) as varchar) end, 0, 1, 'CLIENTE' "
+                + "from (select x, mod(x, 10) * 2 + mod(x / 10, 10) * 3 + mod(x / 100, 10) * 4 + mod(x / 1000, 10) * 5 "
+                + "+ mod(x / 10000, 10) * 6 + mod(x / 100000, 10) * 7 + mod(x / 1000000, 10) * 2 + mod(x / 10000000, 10) * 3 as s "
+                + "from system_range(1, ?))", clientes);
+        jdbc.update("insert into clientes (id, direccion_envio) select x, 'Calle ' || x from system_range(1, ?)", clientes);
+        // Por bloques de un millón (una transacción cada uno) para no acumular un undo log de decenas de millones
+        for (long desde = 1; desde <= pedidos; desde += 1_000_000) {
+            jdbc.update("insert into pedidos (id, fecha_pedido, estado, total, cliente_id, direccion_envio, metodo_pago, version) "
+                    + "select x, timestamp '2024-01-01 00:00:00' + x * interval '1' minute, 'Pendiente', 100 + mod(x, 500), "
+                    + "mod(x, ?) + 1, 'Calle Falsa 123', 'Tarjeta', 0 "
+                    + "from system_range(?, ?)", clientes, desde, Math.min(pedidos, desde + 999_999));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package GestionUsuarios.GestionUsuarios.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import GestionUsuarios.GestionUsuarios.GestionUsuariosApplication;
+import GestionUsuarios.GestionUsuarios.DTO.ClienteResponseDTO;
+import GestionUsuarios.GestionUsuarios.mapper.ClienteMapper;
+import GestionUsuarios.GestionUsuarios.repository.ClienteRepository;
+
+// Listado de GET /clientes: entidades completas + ClienteMapper frente a la proyección de
+// ClienteRepository.listarRespuestas, ambos en una transacción de solo lectura como en el servicio.
+// Los tiempos van por fila; con -prof gc, gc.alloc.rate.norm da los bytes asignados por fila
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@OperationsPerInvocation(ListadoClientesBenchmark.CLIENTES)
+public class ListadoClientesBenchmark {
+
+    static final int CLIENTES = 1_000;
+
+    private ConfigurableApplicationContext contexto;
+    private ClienteRepository clienteRepository;
+    private ClienteMapper clienteMapper;
+    private TransactionTemplate soloLectura;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexto = new SpringApplicationBuilder(GestionUsuariosApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:listado;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--logging.level.root=WARN");
+        Datos.sembrar(contexto.getBean(JdbcTemplate.class), CLIENTES, 0);
+        clienteRepository = contexto.getBean(ClienteRepository.class);
+        clienteMapper = contexto.getBean(ClienteMapper.class);
+        soloLectura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        soloLectura.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<ClienteResponseDTO> entidadesYMapeador() {
+        return soloLectura.execute(estado -> clienteRepository.findAll().stream()
+                .map(clienteMapper::toResponseDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<ClienteResponseDTO> proyeccion() {
+        return soloLectura.execute(estado -> clienteRepository.listarRespuestas());
+    }
+}
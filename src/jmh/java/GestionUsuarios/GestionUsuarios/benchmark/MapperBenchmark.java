@@ -0,0 +1,126 @@
+package GestionUsuarios.GestionUsuarios.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import GestionUsuarios.GestionUsuarios.DTO.AdministradorRequestDTO;
+import GestionUsuarios.GestionUsuarios.DTO.AdministradorResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.ClienteRequestDTO;
+import GestionUsuarios.GestionUsuarios.DTO.ClienteResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasRequestDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaRequestDTO;
+import GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PedidoRequestDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PedidoResponseDTO;
+import GestionUsuarios.GestionUsuarios.model.Administrador;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.model.EmpleadoVentas;
+import GestionUsuarios.GestionUsuarios.model.GerenteTienda;
+import GestionUsuarios.GestionUsuarios.model.Pedido;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Datos datos;
+
+    private Cliente cliente;
+    private Pedido pedido;
+    private Administrador administrador;
+    private EmpleadoVentas empleadoVentas;
+    private GerenteTienda gerenteTienda;
+
+    private ClienteRequestDTO clienteRequest;
+    private PedidoRequestDTO pedidoRequest;
+    private AdministradorRequestDTO administradorRequest;
+    private EmpleadoVentasRequestDTO empleadoVentasRequest;
+    private GerenteTiendaRequestDTO gerenteTiendaRequest;
+
+    @Setup
+    public void setUp() {
+        datos = new Datos();
+        cliente = Datos.cliente(1L);
+        pedido = Datos.pedido(1L, cliente);
+
+        clienteRequest = new ClienteRequestDTO("Cliente de Prueba", "cliente@test.com", "password", "1995-05-10", "22333444-K", 1L, "Calle Falsa 123");
+        pedidoRequest = new PedidoRequestDTO("Pendiente", 150.99, 1L, "Calle Falsa 123", "Tarjeta de Crédito");
+        administradorRequest = new AdministradorRequestDTO("Admin de Prueba", "admin@test.com", "password", "2000-01-01", "12345678-5", 1L);
+        empleadoVentasRequest = new EmpleadoVentasRequestDTO("Empleado de Prueba", "empleado@test.com", "password", "1998-11-20", "33444555-0", 2L, "2023-01-15", 500000.0);
+        gerenteTiendaRequest = new GerenteTiendaRequestDTO("Gerente de Prueba", "gerente@test.com", "password", "1985-03-15", "11222333-9", 3L, 5, "Tienda Central");
+
+        administrador = datos.administradorMapper.toEntity(administradorRequest);
+        administrador.setId(1L);
+        administrador.setTipoUsuario(Datos.TIPO_CLIENTE);
+        empleadoVentas = datos.empleadoVentasMapper.toEntity(empleadoVentasRequest);
+        empleadoVentas.setId(1L);
+        empleadoVentas.setTipoUsuario(Datos.TIPO_CLIENTE);
+        gerenteTienda = datos.gerenteTiendaMapper.toEntity(gerenteTiendaRequest);
+        gerenteTienda.setId(1L);
+        gerenteTienda.setTipoUsuario(Datos.TIPO_CLIENTE);
+    }
+
+    @Benchmark
+    public ClienteResponseDTO clienteToResponseDTO() {
+        return datos.clienteMapper.toResponseDTO(cliente);
+    }
+
+    @Benchmark
+    public Cliente clienteToEntity() {
+        return datos.clienteMapper.toEntity(clienteRequest);
+    }
+
+    @Benchmark
+    public PedidoResponseDTO pedidoToResponseDTO() {
+        return datos.pedidoMapper.toResponseDTO(pedido);
+    }
+
+    @Benchmark
+    public Pedido pedidoToEntity() {
+        return datos.pedidoMapper.toEntity(pedidoRequest);
+    }
+
+    @Benchmark
+    public AdministradorResponseDTO administradorToResponseDTO() {
+        return datos.administradorMapper.toResponseDTO(administrador);
+    }
+
+    @Benchmark
+    public Administrador administradorToEntity() {
+        return datos.administradorMapper.toEntity(administradorRequest);
+    }
+
+    @Benchmark
+    public EmpleadoVentasResponseDTO empleadoVentasToResponseDTO() {
+        return datos.empleadoVentasMapper.toResponseDTO(empleadoVentas);
+    }
+
+    @Benchmark
+    public EmpleadoVentas empleadoVentasToEntity() {
+        return datos.empleadoVentasMapper.toEntity(empleadoVentasRequest);
+    }
+
+    @Benchmark
+    public GerenteTiendaResponseDTO gerenteTiendaToResponseDTO() {
+        return datos.gerenteTiendaMapper.toResponseDTO(gerenteTienda);
+    }
+
+    @Benchmark
+    public GerenteTienda gerenteTiendaToEntity() {
+        return datos.gerenteTiendaMapper.toEntity(gerenteTiendaRequest);
+    }
+}
@@ -0,0 +1,83 @@
+package GestionUsuarios.GestionUsuarios.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import GestionUsuarios.GestionUsuarios.GestionUsuariosApplication;
+import GestionUsuarios.GestionUsuarios.DTO.PaginaDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PedidoResponseDTO;
+import GestionUsuarios.GestionUsuarios.service.PedidoService;
+import GestionUsuarios.GestionUsuarios.service.TipoUsuarioCache;
+
+// Listado completo de pedidos (consulta keyset + mapeo a DTO) a través del proxy transaccional de PedidoService,
+// contra un H2 en memoria sembrado con el número de filas indicado
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PedidoServiceBenchmark {
+
+    private static final int CLIENTES = 1_000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int filas;
+
+    private ConfigurableApplicationContext contexto;
+    private PedidoService pedidoService;
+    private long cursorCentral;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexto = new SpringApplicationBuilder(GestionUsuariosApplication.class)
+                .web(WebApplicationType.NONE)
+                // Como argumentos (no .properties(), que son valores por defecto) para prevalecer sobre application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark_" + filas + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        Datos.sembrar(contexto.getBean(JdbcTemplate.class), CLIENTES, filas);
+        // El caché se precargó al arrancar, antes de sembrar los tipos de usuario
+        contexto.getBean(TipoUsuarioCache.class).recargar();
+        pedidoService = contexto.getBean(PedidoService.class);
+        cursorCentral = filas / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public PaginaDTO<PedidoResponseDTO> primeraPagina() {
+        return pedidoService.obtenerPedidos(null, 20);
+    }
+
+    @Benchmark
+    public PaginaDTO<PedidoResponseDTO> paginaCentral() {
+        return pedidoService.obtenerPedidos(cursorCentral, 20);
+    }
+
+    @Benchmark
+    public PaginaDTO<PedidoResponseDTO> paginaMaxima() {
+        return pedidoService.obtenerPedidos(cursorCentral, PedidoService.LIMITE_MAXIMO);
+    }
+}
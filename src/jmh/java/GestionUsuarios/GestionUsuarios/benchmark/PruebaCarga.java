@@ -0,0 +1,191 @@
+package GestionUsuarios.GestionUsuarios.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import GestionUsuarios.GestionUsuarios.GestionUsuariosApplication;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
+import GestionUsuarios.GestionUsuarios.repository.ClienteRepository;
+import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
+import GestionUsuarios.GestionUsuarios.service.TipoUsuarioCache;
+
+/**
+ * Prueba de carga de lazo cerrado contra la aplicación levantada en este mismo proceso: mantiene N peticiones
+ * en vuelo (una conexión HTTP/1.1 cada una) sobre GET /clientes/{id} y POST /pedidos y reporta throughput y
+ * latencias p50/p99. Sirve para comparar el pool de hilos de Tomcat con el perfil Spring "virtual" (Java 21).
+ *
+ * Opciones (--clave=valor): perfil=plataforma|virtual, conexiones=1000,5000,10000, calentamiento=10, duracion=30 (s).
+ */
+public final class PruebaCarga {
+
+    // Tope de muestras de latencia por medición; el throughput se cuenta aunque se supere
+    private static final int MAXIMO_MUESTRAS = 5_000_000;
+
+    private final HttpClient http;
+    private final Duration calentamiento;
+    private final Duration duracion;
+
+    private PruebaCarga(HttpClient http, Duration calentamiento, Duration duracion) {
+        this.http = http;
+        this.calentamiento = calentamiento;
+        this.duracion = duracion;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = new HashMap<>();
+        for (String arg : args) {
+            String[] partes = arg.replaceFirst("^--", "").split("=", 2);
+            opciones.put(partes[0], partes.length > 1 ? partes[1] : "true");
+        }
+        boolean virtual = "virtual".equals(opciones.getOrDefault("perfil", "plataforma"));
+        int[] conexiones = Arrays.stream(opciones.getOrDefault("conexiones", "1000,5000,10000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        Duration calentamiento = Duration.ofSeconds(Long.parseLong(opciones.getOrDefault("calentamiento", "10")));
+        Duration duracion = Duration.ofSeconds(Long.parseLong(opciones.getOrDefault("duracion", "30")));
+        if (virtual && Runtime.version().feature() < 21) {
+            System.err.println("AVISO: Java " + Runtime.version().feature()
+                    + " no tiene hilos virtuales; spring.threads.virtual.enabled se ignora y se medirá el pool de plataforma");
+        }
+
+        int maximoConexiones = Arrays.stream(conexiones).max().orElse(1000);
+        SpringApplicationBuilder aplicacion = new SpringApplicationBuilder(GestionUsuariosApplication.class);
+        if (virtual) {
+            aplicacion.profiles("virtual");
+        }
+
+        // Como argumentos de línea de comandos para que prevalezcan sobre application.properties
+        try (ConfigurableApplicationContext contexto = aplicacion.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:carga;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                // Tomcat debe aceptar todas las conexiones en ambos modos para que la comparación sea justa
+                "--server.tomcat.max-connections=" + (maximoConexiones + 1000),
+                "--server.tomcat.accept-count=" + maximoConexiones)) {
+            Long clienteId = sembrar(contexto);
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            PruebaCarga prueba = new PruebaCarga(http, calentamiento, duracion);
+
+            HttpRequest lectura = HttpRequest.newBuilder(URI.create(base + "/clientes/" + clienteId)).GET().build();
+            HttpRequest escritura = HttpRequest.newBuilder(URI.create(base + "/pedidos"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"estado\":\"Pendiente\",\"total\":150.99,\"clienteId\":"
+                            + clienteId + ",\"direccionEnvio\":\"Calle Falsa 123\",\"metodoPago\":\"Tarjeta\"}"))
+                    .build();
+
+            System.out.printf("Perfil: %s, Java %d, %d CPU%n", virtual ? "virtual" : "plataforma",
+                    Runtime.version().feature(), Runtime.getRuntime().availableProcessors());
+            System.out.println("| Endpoint | Conexiones | Peticiones/s | p50 (ms) | p99 (ms) | Errores |");
+            System.out.println("|---|---|---|---|---|---|");
+            for (int n : conexiones) {
+                prueba.medir("GET /clientes/{id}", () -> lectura, n).imprimir();
+                prueba.medir("POST /pedidos", () -> escritura, n).imprimir();
+            }
+        }
+    }
+
+    private static Long sembrar(ConfigurableApplicationContext contexto) {
+        TipoUsuario tipo = contexto.getBean(TipoUsuarioRepository.class).save(new TipoUsuario(null, "CLIENTE"));
+        contexto.getBean(TipoUsuarioCache.class).recargar();
+        Cliente cliente = Datos.cliente(0);
+        cliente.setId(null);
+        cliente.setTipoUsuario(tipo);
+        return contexto.getBean(ClienteRepository.class).save(cliente).getId();
+    }
+
+    // Cada una de las n "conexiones" encadena una petición tras otra; solo cuentan las iniciadas tras el calentamiento
+    private Resultado medir(String endpoint, Supplier<HttpRequest> peticion, int n) throws InterruptedException {
+        long inicioMedicion = System.nanoTime() + calentamiento.toNanos();
+        long finMedicion = inicioMedicion + duracion.toNanos();
+        Resultado resultado = new Resultado(endpoint, n, duracion);
+        CountDownLatch terminadas = new CountDownLatch(n);
+        for (int i = 0; i < n; i++) {
+            lanzar(peticion, inicioMedicion, finMedicion, resultado, terminadas);
+        }
+        terminadas.await();
+        return resultado;
+    }
+
+    private void lanzar(Supplier<HttpRequest> peticion, long inicioMedicion, long finMedicion,
+                        Resultado resultado, CountDownLatch terminadas) {
+        long inicio = System.nanoTime();
+        if (inicio >= finMedicion) {
+            terminadas.countDown();
+            return;
+        }
+        http.sendAsync(peticion.get(), HttpResponse.BodyHandlers.discarding()).whenComplete((respuesta, error) -> {
+            if (inicio >= inicioMedicion) {
+                boolean correcta = error == null && respuesta.statusCode() < 400;
+                resultado.registrar(System.nanoTime() - inicio, correcta);
+            }
+            lanzar(peticion, inicioMedicion, finMedicion, resultado, terminadas);
+        });
+    }
+
+    private static final class Resultado {
+        private final String endpoint;
+        private final int conexiones;
+        private final Duration duracion;
+        private final AtomicLongArray latencias = new AtomicLongArray(MAXIMO_MUESTRAS);
+        private final AtomicInteger muestras = new AtomicInteger();
+        private final AtomicLong completadas = new AtomicLong();
+        private final AtomicLong errores = new AtomicLong();
+
+        Resultado(String endpoint, int conexiones, Duration duracion) {
+            this.endpoint = endpoint;
+            this.conexiones = conexiones;
+            this.duracion = duracion;
+        }
+
+        void registrar(long nanos, boolean correcta) {
+            if (!correcta) {
+                errores.incrementAndGet();
+                return;
+            }
+            completadas.incrementAndGet();
+            int indice = muestras.getAndIncrement();
+            if (indice < MAXIMO_MUESTRAS) {
+                latencias.set(indice, nanos);
+            }
+        }
+
+        private double percentilMs(long[] ordenadas, double percentil) {
+            if (ordenadas.length == 0) {
+                return Double.NaN;
+            }
+            int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+            return ordenadas[Math.max(0, indice)] / 1_000_000.0;
+        }
+
+        void imprimir() {
+            long[] ordenadas = new long[Math.min(muestras.get(), MAXIMO_MUESTRAS)];
+            for (int i = 0; i < ordenadas.length; i++) {
+                ordenadas[i] = latencias.get(i);
+            }
+            Arrays.sort(ordenadas);
+            System.out.printf("| %s | %d | %.0f | %.1f | %.1f | %d |%n", endpoint, conexiones,
+                    completadas.get() / (double) duracion.toSeconds(),
+                    percentilMs(ordenadas, 0.50), percentilMs(ordenadas, 0.99), errores.get());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package GestionUsuarios.GestionUsuarios.benchmark;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import GestionUsuarios.GestionUsuarios.model.Rut;
+
+/**
+ * Throughput de validación de RUT para importaciones masivas: Rut.esValido y Rut.parsear (una pasada, sin
+ * asignaciones en la validación) frente a la forma habitual con replace + regex + substring.
+ * Cada invocación valida un lote de RUT en formatos mixtos con un 10% de verificadores incorrectos.
+ * Con -prof gc se ve además la asignación por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RutBenchmark {
+
+    private static final int LOTE = 1024;
+    private static final Pattern FORMATO = Pattern.compile("^\\d{1,8}-[\\dK]$");
+
+    private String[] ruts;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        ruts = new String[LOTE];
+        for (int i = 0; i < LOTE; i++) {
+            Rut rut = Rut.de(aleatorio.nextInt(1_000_000, 99_999_999));
+            String texto = i % 2 == 0 ? rut.formatear() : rut.toString();
+            if (i % 10 == 0) {
+                texto = texto.substring(0, texto.length() - 1) + (rut.getDv() == '1' ? '2' : '1');
+            }
+            ruts[i] = texto;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int esValido() {
+        int validos = 0;
+        for (String rut : ruts) {
+            if (Rut.esValido(rut)) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public long parsear() {
+        long suma = 0;
+        for (String rut : ruts) {
+            if (Rut.esValido(rut)) {
+                suma += Rut.parsear(rut).getNumero();
+            }
+        }
+        return suma;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int regex() {
+        int validos = 0;
+        for (String rut : ruts) {
+            if (validarConRegex(rut)) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    private static boolean validarConRegex(String texto) {
+        String limpio = texto.replace(".", "").trim().toUpperCase(Locale.ROOT);
+        if (!FORMATO.matcher(limpio).matches()) {
+            return false;
+        }
+        String[] partes = limpio.split("-");
+        int numero = Integer.parseInt(partes[0]);
+        return numero > 0 && partes[1].charAt(0) == Rut.digitoVerificador(numero);
+    }
+}
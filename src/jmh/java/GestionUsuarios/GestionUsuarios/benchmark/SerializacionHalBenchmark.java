@@ -0,0 +1,79 @@
+package GestionUsuarios.GestionUsuarios.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import GestionUsuarios.GestionUsuarios.DTO.PedidoResponseDTO;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+
+// Serialización HAL de la respuesta de GET /pedidos, con los mismos enlaces que arma PedidoController
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionHalBenchmark {
+
+    private static final String BASE = "http://localhost:8082/pedidos";
+
+    // 20 = tamaño de página por defecto; 500 = PedidoService.LIMITE_MAXIMO
+    @Param({"20", "500"})
+    public int tamanoPagina;
+
+    private ObjectWriter writer;
+    private CollectionModel<EntityModel<PedidoResponseDTO>> pagina;
+
+    @Setup
+    public void setUp() {
+        // Misma configuración que aplica Spring Boot al ObjectMapper HAL: fechas ISO-8601 y módulo HAL
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new Jackson2HalModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        writer = mapper.writer();
+
+        Datos datos = new Datos();
+        Link coleccion = Link.of(BASE, LinkRelation.of("pedidos"));
+        List<EntityModel<PedidoResponseDTO>> elementos = new ArrayList<>(tamanoPagina);
+        for (long id = 1; id <= tamanoPagina; id++) {
+            Cliente cliente = Datos.cliente(id % 50 + 1);
+            PedidoResponseDTO dto = datos.pedidoMapper.toResponseDTO(Datos.pedido(id, cliente));
+            elementos.add(EntityModel.of(dto, Link.of(BASE + "/" + id), coleccion));
+        }
+        pagina = CollectionModel.of(elementos, Link.of(BASE + "?limit=" + tamanoPagina));
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws Exception {
+        return writer.writeValueAsBytes(pagina);
+    }
+}
@@ -0,0 +1,20 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Totales acumulados de una clave; tasaAciertosCache es null si no hubo lecturas de la caché de segundo nivel
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActividadConsultasDTO {
+    private long llamadas;
+    private long sentencias;
+    private double tiempoSentenciasMs;
+    private long entidadesCargadas;
+    private long coleccionesCargadas;
+    private long aciertosCache;
+    private long fallosCache;
+    private Double tasaAciertosCache;
+}
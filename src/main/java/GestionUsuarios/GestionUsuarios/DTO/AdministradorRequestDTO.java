@@ -4,6 +4,7 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import GestionUsuarios.GestionUsuarios.validation.RutValido;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -28,6 +29,7 @@ public class AdministradorRequestDTO {
     private String fechaNacimiento;
 
     @NotBlank(message = "El RUT no puede estar vacío")
+    @RutValido
     private String rut;
 
     @NotNull(message = "El ID del tipo de usuario no puede ser nulo")
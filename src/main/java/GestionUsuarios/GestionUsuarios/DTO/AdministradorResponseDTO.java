@@ -1,5 +1,6 @@
 package GestionUsuarios.GestionUsuarios.DTO;
 
+import GestionUsuarios.GestionUsuarios.model.Rut;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -17,4 +18,12 @@ public class AdministradorResponseDTO extends RepresentationModel<AdministradorR
     private String fechaNacimiento;
     private String rut;
     private TipoUsuarioResponseDTO tipoUsuario;
+
+    // Constructor de la proyección JPA de los listados: sin entidad gestionada ni mapeador; el RUT llega como
+    // embeddable y el tipo de usuario como id y nombre
+    public AdministradorResponseDTO(Long id, String nombre, String email, String fechaNacimiento, Rut rut,
+                                    Long tipoUsuarioId, String tipoUsuarioNombre) {
+        this(id, nombre, email, fechaNacimiento, rut != null ? rut.toString() : null,
+                new TipoUsuarioResponseDTO(tipoUsuarioId, tipoUsuarioNombre));
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package GestionUsuarios.GestionUsuarios.DTO;
 
+import GestionUsuarios.GestionUsuarios.model.Rut;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -18,4 +19,12 @@ public class ClienteResponseDTO extends RepresentationModel<ClienteResponseDTO>
     private String rut;
     private TipoUsuarioResponseDTO tipoUsuario;
     private String direccionEnvio;
+
+    // Constructor de la proyección JPA de los listados: sin entidad gestionada ni mapeador; el RUT llega como
+    // embeddable y el tipo de usuario como id y nombre
+    public ClienteResponseDTO(Long id, String nombre, String email, String fechaNacimiento, Rut rut,
+                              Long tipoUsuarioId, String tipoUsuarioNombre, String direccionEnvio) {
+        this(id, nombre, email, fechaNacimiento, rut != null ? rut.toString() : null,
+                new TipoUsuarioResponseDTO(tipoUsuarioId, tipoUsuarioNombre), direccionEnvio);
+    }
 }
\ No newline at end of file
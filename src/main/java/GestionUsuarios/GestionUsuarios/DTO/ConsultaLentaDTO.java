@@ -0,0 +1,18 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Sentencia que superó el umbral de consultas lentas; endpoint y método son null fuera de una petición o servicio
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsultaLentaDTO {
+    private Instant instante;
+    private long duracionMs;
+    private String endpoint;
+    private String metodo;
+    private String sql;
+}
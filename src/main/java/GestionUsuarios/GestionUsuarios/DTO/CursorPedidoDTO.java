@@ -0,0 +1,17 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Posición keyset en el listado de pedidos: el último pedido devuelto. La fecha solo viaja cuando el filtro
+// tiene un rango de fechas y el listado se ordena por (fecha_pedido, id); sin rango el orden es solo por id
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPedidoDTO {
+    private LocalDateTime fechaPedido;
+    private Long id;
+}
@@ -2,6 +2,7 @@ package GestionUsuarios.GestionUsuarios.DTO;
 
 
 import jakarta.validation.constraints.*;
+import GestionUsuarios.GestionUsuarios.validation.RutValido;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -25,6 +26,7 @@ public class EmpleadoVentasRequestDTO {
     private String fechaNacimiento;
 
     @NotBlank(message = "El RUT no puede estar vacío")
+    @RutValido
     private String rut;
 
     @NotNull(message = "El ID del tipo de usuario no puede ser nulo")
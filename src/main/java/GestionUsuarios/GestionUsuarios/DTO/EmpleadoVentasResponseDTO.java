@@ -1,5 +1,6 @@
 package GestionUsuarios.GestionUsuarios.DTO;
 
+import GestionUsuarios.GestionUsuarios.model.Rut;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -19,4 +20,12 @@ public class EmpleadoVentasResponseDTO extends RepresentationModel<EmpleadoVenta
     private TipoUsuarioResponseDTO tipoUsuario;
     private String fechaContratacion;
     private Double salario;
+
+    // Constructor de la proyección JPA de los listados: sin entidad gestionada ni mapeador; el RUT llega como
+    // embeddable y el tipo de usuario como id y nombre
+    public EmpleadoVentasResponseDTO(Long id, String nombre, String email, String fechaNacimiento, Rut rut,
+                                     Long tipoUsuarioId, String tipoUsuarioNombre, String fechaContratacion, Double salario) {
+        this(id, nombre, email, fechaNacimiento, rut != null ? rut.toString() : null,
+                new TipoUsuarioResponseDTO(tipoUsuarioId, tipoUsuarioNombre), fechaContratacion, salario);
+    }
 }
\ No newline at end of file
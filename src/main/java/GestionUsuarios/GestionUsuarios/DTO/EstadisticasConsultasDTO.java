@@ -0,0 +1,17 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Actividad de Hibernate agrupada por endpoint ("GET /clientes/{id}") y por método de servicio, ordenada por clave
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasConsultasDTO {
+    private Map<String, ActividadConsultasDTO> porEndpoint;
+    private Map<String, ActividadConsultasDTO> porMetodo;
+    private List<ConsultaLentaDTO> consultasLentas;
+}
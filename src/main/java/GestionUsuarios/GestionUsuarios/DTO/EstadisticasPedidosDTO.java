@@ -0,0 +1,18 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import java.time.LocalDate;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Ventas agregadas por dimensión; los mapas vienen ordenados por clave. Las de cada cliente se piden por separado
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasPedidosDTO {
+    private ResumenVentasDTO general;
+    private Map<LocalDate, ResumenVentasDTO> porDia;
+    private Map<String, ResumenVentasDTO> porEstado;
+    private Map<String, ResumenVentasDTO> porMetodoPago;
+}
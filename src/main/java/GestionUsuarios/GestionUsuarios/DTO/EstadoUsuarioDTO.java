@@ -0,0 +1,16 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Versión, email y cuerpo del RUT vigentes de un usuario, leídos sin cargar la entidad antes de una actualización:
+// la versión decide el If-Match y los otros dos evitan comprobar la unicidad de valores que no cambian
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoUsuarioDTO {
+    private Long version;
+    private String email;
+    private Integer rutNumero;
+}
@@ -0,0 +1,28 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroPedidosDTO {
+    private Long clienteId;
+    private String estado;
+    // Rango semiabierto [desde, hasta)
+    private LocalDateTime desde;
+    private LocalDateTime hasta;
+    private String metodoPago;
+
+    // Con un rango de fechas el listado se ordena y pagina por (fecha_pedido, id)
+    public boolean tieneRangoDeFechas() {
+        return desde != null || hasta != null;
+    }
+
+    public boolean estaVacio() {
+        return clienteId == null && estado == null && desde == null && hasta == null && metodoPago == null;
+    }
+}
@@ -0,0 +1,18 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Criterios opcionales de GET /usuarios; los nulos o vacíos no filtran. email es exacto, rut se compara
+// normalizado (con o sin puntos), nombre es un prefijo (sensible a mayúsculas para poder usar el índice)
+// y tipo es el discriminador
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroUsuariosDTO {
+    private String email;
+    private String rut;
+    private String nombre;
+    private String tipo;
+}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import GestionUsuarios.GestionUsuarios.validation.RutValido;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -29,6 +30,7 @@ public class GerenteTiendaRequestDTO {
     private String fechaNacimiento;
 
     @NotBlank(message = "El RUT no puede estar vacío")
+    @RutValido
     private String rut;
 
     @NotNull(message = "El ID del tipo de usuario no puede ser nulo")
@@ -1,5 +1,6 @@
 package GestionUsuarios.GestionUsuarios.DTO;
 
+import GestionUsuarios.GestionUsuarios.model.Rut;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,4 +18,12 @@ public class GerenteTiendaResponseDTO {
     private TipoUsuarioResponseDTO tipoUsuario;
     private Integer anosExperiencia;
     private String tiendaAsignada;
+
+    // Constructor de la proyección JPA de los listados: sin entidad gestionada ni mapeador; el RUT llega como
+    // embeddable y el tipo de usuario como id y nombre
+    public GerenteTiendaResponseDTO(Long id, String nombre, String email, String fechaNacimiento, Rut rut,
+                                    Long tipoUsuarioId, String tipoUsuarioNombre, Integer anosExperiencia, String tiendaAsignada) {
+        this(id, nombre, email, fechaNacimiento, rut != null ? rut.toString() : null,
+                new TipoUsuarioResponseDTO(tipoUsuarioId, tipoUsuarioNombre), anosExperiencia, tiendaAsignada);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+    private List<T> elementos;
+    // Id del último elemento devuelto; null cuando no quedan más páginas. La API lo publica como cursor opaco
+    private Long siguienteCursor;
+    // Validador débil de la página devuelta; null en los listados que no lo calculan
+    private String etag;
+    // Fecha del último elemento cuando el listado se ordena por (fecha, id); null si el orden es solo por id
+    private LocalDateTime siguienteFecha;
+
+    public PaginaDTO(List<T> elementos, Long siguienteCursor) {
+        this(elementos, siguienteCursor, null, null);
+    }
+
+    public PaginaDTO(List<T> elementos, Long siguienteCursor, String etag) {
+        this(elementos, siguienteCursor, etag, null);
+    }
+}
@@ -0,0 +1,20 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Fila plana de la exportación NDJSON: el cliente va solo por id para no cargar su entidad
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoExportDTO {
+    private Long id;
+    private LocalDateTime fechaPedido;
+    private String estado;
+    private Double total;
+    private Long clienteId;
+    private String direccionEnvio;
+    private String metodoPago;
+}
@@ -0,0 +1,20 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoPedidoLoteDTO {
+
+    public static final String CREADO = "CREADO";
+    public static final String RECHAZADO = "RECHAZADO";
+
+    // Posición del pedido dentro de la solicitud recibida
+    private int indice;
+    private Long id;
+    private String resultado;
+    private String mensaje;
+}
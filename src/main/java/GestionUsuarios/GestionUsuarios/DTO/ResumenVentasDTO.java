@@ -0,0 +1,14 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Cantidad de pedidos e importe acumulado de un bucket de las estadísticas de ventas
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenVentasDTO {
+    private long cantidad;
+    private double total;
+}
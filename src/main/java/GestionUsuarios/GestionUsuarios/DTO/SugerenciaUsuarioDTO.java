@@ -0,0 +1,16 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Elemento de GET /usuarios/autocomplete; tipo es el discriminador del subtipo
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SugerenciaUsuarioDTO {
+    private Long id;
+    private String nombre;
+    private String email;
+    private String tipo;
+}
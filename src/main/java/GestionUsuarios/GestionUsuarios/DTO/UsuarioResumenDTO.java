@@ -0,0 +1,24 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resumen de un usuario de cualquier subtipo, proyectado solo desde la tabla base usuarios.
+// tipo es el discriminador: ADMINISTRADOR, CLIENTE, EMPLEADO_VENTAS o GERENTE_TIENDA
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsuarioResumenDTO {
+    private Long id;
+    private String nombre;
+    private String email;
+    private String rut;
+    private String tipo;
+
+    // Constructor de la proyección JPA: el RUT llega como embeddable y se expone en su forma canónica
+    public UsuarioResumenDTO(Long id, String nombre, String email, Rut rut, String tipo) {
+        this(id, nombre, email, rut != null ? rut.toString() : null, tipo);
+    }
+}
@@ -0,0 +1,14 @@
+package GestionUsuarios.GestionUsuarios.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Respuesta junto con la versión de la entidad de la que salió: en una escritura, la que dejó su propia transacción
+// (leída tras el flush, antes del commit); en una lectura por id, la que se cargó y guardó en caché con el DTO.
+// Los controladores la devuelven como ETag sin volver a consultarla.
+@Data
+@AllArgsConstructor
+public class VersionadoDTO<T> {
+    private T respuesta;
+    private String version;
+}
@@ -0,0 +1,92 @@
+package GestionUsuarios.GestionUsuarios.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Caché de segundo nivel de Hibernate sobre JCache (Caffeine). Regiones de entidad: "usuarios" (raíz de la
+ * jerarquía JOINED, así que cubre los cuatro subtipos) y "tipos-usuario"; región de consultas
+ * "consultas-usuarios" para el estado (versión, email y RUT) que leen las actualizaciones y el estado de
+ * colección que piden los ETag en cada GET.
+ * Las regiones se crean aquí con su tamaño y TTL (ver {@link CacheSegundoNivelProperties}) y una región
+ * que no figure en la lista hace fallar el arranque, en vez de crearse sin límite.
+ * Las escrituras por Hibernate actualizan o invalidan las entradas (READ_WRITE); los DELETE masivos
+ * (eliminarPorId) vacían la región afectada y cualquier escritura sobre las tablas invalida las consultas
+ * guardadas. Lo que se escriba por JDBC directo (siembras de benchmarks) no se ve reflejado.
+ * Las estadísticas de cada región se publican como métricas cache.* con el tag cache=&lt;región&gt;.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "cache.segundo-nivel.habilitado", havingValue = "true", matchIfMissing = true)
+public class CacheSegundoNivel {
+
+    public static final String USUARIOS = "usuarios";
+    public static final String TIPOS_USUARIO = "tipos-usuario";
+    public static final String CONSULTAS_USUARIOS = "consultas-usuarios";
+
+    private static final List<String> REGIONES = List.of(USUARIOS, TIPOS_USUARIO, CONSULTAS_USUARIOS,
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    // Un CacheManager propio por contexto (URI única): los tests levantan varios contextos en la misma JVM
+    @Bean(destroyMethod = "close")
+    CacheManager cacheManagerSegundoNivel(CacheSegundoNivelProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("segundo-nivel-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : REGIONES) {
+            cacheManager.createCache(region, configuracion(properties.tamanoMaximoDe(region), properties.ttlDe(region)));
+        }
+        // Las marcas de tiempo por tabla deciden si una consulta guardada sigue vigente: no deben expirar
+        // ni desalojarse antes que los resultados (hay una entrada por tabla)
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                configuracion(1_000, Duration.ZERO));
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuracion(long tamanoMaximo, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setMaximumSize(OptionalLong.of(tamanoMaximo));
+        if (!ttl.isZero()) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        // Hibernate ya guarda entradas desensambladas e inmutables: copiarlas por valor solo añade serialización
+        configuracion.setStoreByValue(false);
+        configuracion.setStatisticsEnabled(true);
+        return configuracion;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheManagerSegundoNivel) {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            propiedades.put(AvailableSettings.USE_QUERY_CACHE, true);
+            propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+            propiedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    MeterBinder metricasCacheSegundoNivel(CacheManager cacheManagerSegundoNivel) {
+        return registro -> {
+            for (String region : cacheManagerSegundoNivel.getCacheNames()) {
+                JCacheMetrics.monitor(registro, cacheManagerSegundoNivel.getCache(region));
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package GestionUsuarios.GestionUsuarios.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuración de {@link CacheSegundoNivel}. Los valores globales aplican a todas las regiones y pueden
+ * sobrescribirse por región, p. ej. {@code cache.segundo-nivel.regiones.usuarios.tamano-maximo=200000}.
+ * Un ttl de cero deja las entradas sin expiración (solo se desalojan por tamaño o por escrituras).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache.segundo-nivel")
+public class CacheSegundoNivelProperties {
+
+    private boolean habilitado = true;
+    private Duration ttl = Duration.ofMinutes(10);
+    private long tamanoMaximo = 10_000;
+    private Map<String, Region> regiones = new HashMap<>();
+
+    @Data
+    public static class Region {
+        private Duration ttl;
+        private Long tamanoMaximo;
+    }
+
+    public Duration ttlDe(String region) {
+        Region config = regiones.get(region);
+        return config != null && config.getTtl() != null ? config.getTtl() : ttl;
+    }
+
+    public long tamanoMaximoDe(String region) {
+        Region config = regiones.get(region);
+        return config != null && config.getTamanoMaximo() != null ? config.getTamanoMaximo() : tamanoMaximo;
+    }
+}
@@ -0,0 +1,59 @@
+package GestionUsuarios.GestionUsuarios.config;
+
+import GestionUsuarios.GestionUsuarios.service.AutocompletadoUsuariosService;
+import GestionUsuarios.GestionUsuarios.service.EstadisticasPedidosService;
+import GestionUsuarios.GestionUsuarios.service.UnicidadUsuariosService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cargas en memoria que recorren tablas completas: índice de autocompletado, filtros de unicidad de email/RUT y
+ * estadísticas de ventas. Se lanzan en segundo plano al llegar ApplicationReadyEvent, así que readiness pasa a
+ * ACCEPTING_TRAFFIC sin esperarlas (con 30 millones de pedidos las estadísticas tardan unos 4 minutos). Mientras
+ * tanto cada servicio limita solo lo que depende de su carga: el autocompletado y las estadísticas responden 503
+ * y la unicidad confirma cada valor con la base en lugar de usar el filtro.
+ */
+@Component
+public class CargasIniciales {
+
+    private static final Logger log = LoggerFactory.getLogger(CargasIniciales.class);
+
+    private final AutocompletadoUsuariosService autocompletado;
+    private final UnicidadUsuariosService unicidadUsuarios;
+    private final EstadisticasPedidosService estadisticasPedidos;
+    private final TaskExecutor ejecutor;
+
+    public CargasIniciales(AutocompletadoUsuariosService autocompletado,
+                           UnicidadUsuariosService unicidadUsuarios,
+                           EstadisticasPedidosService estadisticasPedidos,
+                           @Qualifier("applicationTaskExecutor") TaskExecutor ejecutor) {
+        this.autocompletado = autocompletado;
+        this.unicidadUsuarios = unicidadUsuarios;
+        this.estadisticasPedidos = estadisticasPedidos;
+        this.ejecutor = ejecutor;
+    }
+
+    // Cada carga por separado: las dos cortas no esperan a las agregaciones de pedidos
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        lanzar("índice de autocompletado", autocompletado::precargar);
+        lanzar("filtros de unicidad de email/RUT", unicidadUsuarios::precargar);
+        lanzar("estadísticas de ventas", estadisticasPedidos::precargar);
+    }
+
+    // Una carga fallida deja limitada su función; las estadísticas se pueden recargar con POST /actuator/estadisticas-ventas
+    private void lanzar(String nombre, Runnable carga) {
+        ejecutor.execute(() -> {
+            try {
+                carga.run();
+            } catch (RuntimeException e) {
+                log.error("Falló la carga inicial de {}", nombre, e);
+            }
+        });
+    }
+}
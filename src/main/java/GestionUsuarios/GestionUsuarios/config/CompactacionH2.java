@@ -0,0 +1,28 @@
+package GestionUsuarios.GestionUsuarios.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compactación completa del archivo H2 al apagar la aplicación (perfil "archivo" con
+ * h2.archivo.compactar-al-cerrar=true). Se ejecuta al destruir el bean, después de que Tomcat dejó de
+ * aceptar peticiones y antes de cerrar el pool, que depende de él; SHUTDOWN cierra la base para todas
+ * las conexiones, así que el pool solo descarta las suyas.
+ */
+@Component
+@ConditionalOnProperty(name = "h2.archivo.compactar-al-cerrar", havingValue = "true")
+public class CompactacionH2 {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CompactacionH2(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PreDestroy
+    public void compactar() {
+        jdbcTemplate.execute("SHUTDOWN COMPACT");
+    }
+}
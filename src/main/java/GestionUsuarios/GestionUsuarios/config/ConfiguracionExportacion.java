@@ -0,0 +1,46 @@
+package GestionUsuarios.GestionUsuarios.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Plazo propio para la exportación NDJSON de pedidos (/pedidos/export), que puede escribir durante minutos.
+ * El StreamingResponseBody se procesa con el plazo asíncrono global, así que se amplía aquí solo para esa
+ * ruta, antes de que empiece el procesamiento asíncrono. El resto de peticiones asíncronas conserva el
+ * plazo por defecto.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ConfiguracionExportacion implements WebMvcConfigurer {
+
+    static final String RUTA_EXPORTACION = "/pedidos/export";
+
+    private final Duration plazo;
+
+    public ConfiguracionExportacion(@Value("${pedidos.export.timeout:1h}") Duration plazo) {
+        this.plazo = plazo;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                // Se llama con la AsyncWebRequest antes de startAsync: aún admite cambiar el plazo
+                if (request instanceof AsyncWebRequest asincrona && RUTA_EXPORTACION.equals(
+                        request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST))) {
+                    asincrona.setTimeout(plazo.toMillis());
+                }
+            }
+        });
+    }
+}
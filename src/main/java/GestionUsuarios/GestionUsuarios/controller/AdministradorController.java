@@ -2,20 +2,20 @@ package GestionUsuarios.GestionUsuarios.controller;
 
 import GestionUsuarios.GestionUsuarios.DTO.AdministradorRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.AdministradorResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
 import GestionUsuarios.GestionUsuarios.service.AdministradorService;
 import jakarta.validation.Valid;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @RestController
 @RequestMapping("/administradores")
 public class AdministradorController {
@@ -27,37 +27,50 @@ public class AdministradorController {
     }
 
     @GetMapping
-    public CollectionModel<EntityModel<AdministradorResponseDTO>> obtenerTodosLosAdministradores() {
+    public CollectionModel<EntityModel<AdministradorResponseDTO>> obtenerTodosLosAdministradores(WebRequest webRequest) {
+        if (webRequest.checkNotModified(administradorService.obtenerEtagAdministradores())) {
+            return null;
+        }
+        Enlaces enlaces = Enlaces.de(AdministradorController.class, "administradores");
         List<EntityModel<AdministradorResponseDTO>> administradores = administradorService.obtenerTodosLosAdministradores().stream()
                 .map(admin -> EntityModel.of(admin,
-                        linkTo(methodOn(AdministradorController.class).obtenerAdministradorPorId(admin.getId())).withSelfRel(),
-                        linkTo(methodOn(AdministradorController.class).obtenerTodosLosAdministradores()).withRel("administradores")))
+                        enlaces.elemento(admin.getId()),
+                        enlaces.coleccion()))
                 .collect(Collectors.toList());
-        return CollectionModel.of(administradores, linkTo(methodOn(AdministradorController.class).obtenerTodosLosAdministradores()).withSelfRel());
+        return CollectionModel.of(administradores, enlaces.coleccionSelf());
     }
 
     @GetMapping("/{id}")
-    public EntityModel<AdministradorResponseDTO> obtenerAdministradorPorId(@PathVariable Long id) {
-        AdministradorResponseDTO admin = administradorService.obtenerAdministradorPorId(id);
-        return EntityModel.of(admin,
-                linkTo(methodOn(AdministradorController.class).obtenerAdministradorPorId(id)).withSelfRel(),
-                linkTo(methodOn(AdministradorController.class).obtenerTodosLosAdministradores()).withRel("administradores"));
+    public EntityModel<AdministradorResponseDTO> obtenerAdministradorPorId(@PathVariable Long id, WebRequest webRequest) {
+        // ETag y cuerpo salen de la misma entrada de caché; con un 304 no se serializa ni se transfiere el DTO
+        VersionadoDTO<AdministradorResponseDTO> admin = administradorService.obtenerAdministradorPorId(id);
+        if (webRequest.checkNotModified(Etags.deVersion(admin.getVersion()))) {
+            return null;
+        }
+        Enlaces enlaces = Enlaces.de(AdministradorController.class, "administradores");
+        return EntityModel.of(admin.getRespuesta(),
+                enlaces.elemento(id),
+                enlaces.coleccion());
     }
 
     @PostMapping
     public ResponseEntity<EntityModel<AdministradorResponseDTO>> crearAdministrador(@Valid @RequestBody AdministradorRequestDTO requestDTO) {
         AdministradorResponseDTO nuevoAdmin = administradorService.crearAdministrador(requestDTO);
         EntityModel<AdministradorResponseDTO> resource = EntityModel.of(nuevoAdmin,
-                linkTo(methodOn(AdministradorController.class).obtenerAdministradorPorId(nuevoAdmin.getId())).withSelfRel());
+                Enlaces.de(AdministradorController.class, "administradores").elemento(nuevoAdmin.getId()));
         return ResponseEntity.status(HttpStatus.CREATED).body(resource);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<EntityModel<AdministradorResponseDTO>> actualizarAdministrador(@PathVariable Long id, @Valid @RequestBody AdministradorRequestDTO requestDTO) {
-        AdministradorResponseDTO adminActualizado = administradorService.actualizarAdministrador(id, requestDTO);
-        EntityModel<AdministradorResponseDTO> resource = EntityModel.of(adminActualizado,
-                linkTo(methodOn(AdministradorController.class).obtenerAdministradorPorId(id)).withSelfRel());
-        return ResponseEntity.ok(resource);
+    public ResponseEntity<EntityModel<AdministradorResponseDTO>> actualizarAdministrador(@PathVariable Long id, @Valid @RequestBody AdministradorRequestDTO requestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        VersionadoDTO<AdministradorResponseDTO> adminActualizado = administradorService.actualizarAdministrador(id, requestDTO, Etags.versionDeIfMatch(ifMatch));
+        EntityModel<AdministradorResponseDTO> resource = EntityModel.of(adminActualizado.getRespuesta(),
+                Enlaces.de(AdministradorController.class, "administradores").elemento(id));
+        // Versión que escribió esta actualización, para el siguiente If-Match (no una relectura tras el commit)
+        return ResponseEntity.ok()
+                .eTag(Etags.deVersion(adminActualizado.getVersion()))
+                .body(resource);
     }
 
     @DeleteMapping("/{id}")
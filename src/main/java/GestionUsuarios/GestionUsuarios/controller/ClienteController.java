@@ -2,62 +2,96 @@ package GestionUsuarios.GestionUsuarios.controller;
 
 import GestionUsuarios.GestionUsuarios.DTO.ClienteRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.ClienteResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PaginaDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PedidoResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
 import GestionUsuarios.GestionUsuarios.service.ClienteService;
+import GestionUsuarios.GestionUsuarios.service.PedidoService;
 import jakarta.validation.Valid;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @RestController
 @RequestMapping("/clientes")
 public class ClienteController {
 
     private final ClienteService clienteService;
+    private final PedidoService pedidoService;
 
-    public ClienteController(ClienteService clienteService) {
+    public ClienteController(ClienteService clienteService, PedidoService pedidoService) {
         this.clienteService = clienteService;
+        this.pedidoService = pedidoService;
     }
 
     @GetMapping
-    public CollectionModel<EntityModel<ClienteResponseDTO>> obtenerTodosLosClientes() {
+    public CollectionModel<EntityModel<ClienteResponseDTO>> obtenerTodosLosClientes(WebRequest webRequest) {
+        if (webRequest.checkNotModified(clienteService.obtenerEtagClientes())) {
+            return null;
+        }
+        Enlaces enlaces = Enlaces.de(ClienteController.class, "clientes");
         List<EntityModel<ClienteResponseDTO>> clientes = clienteService.obtenerTodosLosClientes().stream()
                 .map(cliente -> EntityModel.of(cliente,
-                        linkTo(methodOn(ClienteController.class).obtenerClientePorId(cliente.getId())).withSelfRel(),
-                        linkTo(methodOn(ClienteController.class).obtenerTodosLosClientes()).withRel("clientes")))
+                        enlaces.elemento(cliente.getId()),
+                        enlaces.coleccion()))
                 .collect(Collectors.toList());
-        return CollectionModel.of(clientes, linkTo(methodOn(ClienteController.class).obtenerTodosLosClientes()).withSelfRel());
+        return CollectionModel.of(clientes, enlaces.coleccionSelf());
     }
 
     @GetMapping("/{id}")
-    public EntityModel<ClienteResponseDTO> obtenerClientePorId(@PathVariable Long id) {
-        ClienteResponseDTO cliente = clienteService.obtenerClientePorId(id);
-        return EntityModel.of(cliente,
-                linkTo(methodOn(ClienteController.class).obtenerClientePorId(id)).withSelfRel(),
-                linkTo(methodOn(ClienteController.class).obtenerTodosLosClientes()).withRel("clientes"));
+    public EntityModel<ClienteResponseDTO> obtenerClientePorId(@PathVariable Long id, WebRequest webRequest) {
+        // ETag y cuerpo salen de la misma entrada de caché; con un 304 no se serializa ni se transfiere el DTO
+        VersionadoDTO<ClienteResponseDTO> cliente = clienteService.obtenerClientePorId(id);
+        if (webRequest.checkNotModified(Etags.deVersion(cliente.getVersion()))) {
+            return null;
+        }
+        Enlaces enlaces = Enlaces.de(ClienteController.class, "clientes");
+        return EntityModel.of(cliente.getRespuesta(),
+                enlaces.elemento(id),
+                enlaces.coleccion());
+    }
+
+    // Historial paginado por cursor; consulta pedidos por el índice de cliente_id sin inicializar Cliente.pedidos
+    @GetMapping("/{id}/pedidos")
+    public CollectionModel<EntityModel<PedidoResponseDTO>> obtenerPedidosDeCliente(
+            @PathVariable Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        // Un cliente inexistente responde 404 antes de evaluar If-None-Match. El validador sale de la página leída,
+        // igual que en GET /pedidos: un cliente con un historial largo cuesta lo mismo por página
+        PaginaDTO<PedidoResponseDTO> pagina = pedidoService.obtenerPedidosDeCliente(id, Cursores.decodificar(after), limit);
+        if (webRequest.checkNotModified(pagina.getEtag())) {
+            return null;
+        }
+        return PedidoController.aColeccion(pagina);
     }
 
     @PostMapping
     public ResponseEntity<EntityModel<ClienteResponseDTO>> crearCliente(@Valid @RequestBody ClienteRequestDTO requestDTO) {
         ClienteResponseDTO nuevoCliente = clienteService.crearCliente(requestDTO);
         EntityModel<ClienteResponseDTO> resource = EntityModel.of(nuevoCliente,
-                linkTo(methodOn(ClienteController.class).obtenerClientePorId(nuevoCliente.getId())).withSelfRel());
+                Enlaces.de(ClienteController.class, "clientes").elemento(nuevoCliente.getId()));
         return ResponseEntity.status(HttpStatus.CREATED).body(resource);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<EntityModel<ClienteResponseDTO>> actualizarCliente(@PathVariable Long id, @Valid @RequestBody ClienteRequestDTO requestDTO) {
-        ClienteResponseDTO clienteActualizado = clienteService.actualizarCliente(id, requestDTO);
-        EntityModel<ClienteResponseDTO> resource = EntityModel.of(clienteActualizado,
-                linkTo(methodOn(ClienteController.class).obtenerClientePorId(id)).withSelfRel());
-        return ResponseEntity.ok(resource);
+    public ResponseEntity<EntityModel<ClienteResponseDTO>> actualizarCliente(@PathVariable Long id, @Valid @RequestBody ClienteRequestDTO requestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        VersionadoDTO<ClienteResponseDTO> clienteActualizado = clienteService.actualizarCliente(id, requestDTO, Etags.versionDeIfMatch(ifMatch));
+        EntityModel<ClienteResponseDTO> resource = EntityModel.of(clienteActualizado.getRespuesta(),
+                Enlaces.de(ClienteController.class, "clientes").elemento(id));
+        // Versión que escribió esta actualización, para el siguiente If-Match (no una relectura tras el commit)
+        return ResponseEntity.ok()
+                .eTag(Etags.deVersion(clienteActualizado.getVersion()))
+                .body(resource);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,76 @@
+package GestionUsuarios.GestionUsuarios.controller;
+
+import GestionUsuarios.GestionUsuarios.DTO.CursorPedidoDTO;
+import GestionUsuarios.GestionUsuarios.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Cursor opaco de los listados keyset ("after"): Base64 URL de la clave de orden con un prefijo que la nombra.
+// Los clientes solo reenvían el valor del enlace "next"; cambiar la clave de orden cambia el prefijo
+// y los cursores viejos se rechazan con 400 en lugar de interpretarse con otra clave.
+final class Cursores {
+
+    private static final String PREFIJO_ID = "id:";
+    // Listados de pedidos con rango de fechas: "fecha,id:<fecha ISO>,<id>"
+    private static final String PREFIJO_FECHA_ID = "fecha,id:";
+
+    private Cursores() {
+    }
+
+    static String codificar(Long id) {
+        if (id == null) {
+            return null;
+        }
+        return aBase64(PREFIJO_ID + id);
+    }
+
+    static String codificar(LocalDateTime fecha, Long id) {
+        if (fecha == null) {
+            return codificar(id);
+        }
+        return aBase64(PREFIJO_FECHA_ID + fecha + "," + id);
+    }
+
+    private static String aBase64(String clave) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(clave.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // null si no se envió (primera página)
+    static Long decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String clave = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.US_ASCII);
+            if (clave.startsWith(PREFIJO_ID)) {
+                return Long.valueOf(clave.substring(PREFIJO_ID.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Base64 o número mal formado: mismo 400 que un prefijo desconocido
+        }
+        throw new BadRequestException("Cursor inválido: " + cursor);
+    }
+
+    // Cursor de GET /pedidos: acepta las dos claves de orden; PedidoService comprueba que coincida con el filtro
+    static CursorPedidoDTO decodificarPedido(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String clave = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.US_ASCII);
+            if (clave.startsWith(PREFIJO_FECHA_ID)) {
+                String valor = clave.substring(PREFIJO_FECHA_ID.length());
+                int separador = valor.lastIndexOf(',');
+                return new CursorPedidoDTO(LocalDateTime.parse(valor.substring(0, separador)),
+                        Long.valueOf(valor.substring(separador + 1)));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            // Mismo 400 que cualquier otro cursor mal formado
+            throw new BadRequestException("Cursor inválido: " + cursor);
+        }
+        return new CursorPedidoDTO(null, decodificar(cursor));
+    }
+}
@@ -2,20 +2,20 @@ package GestionUsuarios.GestionUsuarios.controller;
 
 import GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
 import GestionUsuarios.GestionUsuarios.service.EmpleadoVentasService;
 import jakarta.validation.Valid;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @RestController
 @RequestMapping("/empleados-ventas")
 public class EmpleadoVentasController {
@@ -27,37 +27,50 @@ public class EmpleadoVentasController {
     }
 
     @GetMapping
-    public CollectionModel<EntityModel<EmpleadoVentasResponseDTO>> obtenerTodosLosEmpleadosVentas() {
+    public CollectionModel<EntityModel<EmpleadoVentasResponseDTO>> obtenerTodosLosEmpleadosVentas(WebRequest webRequest) {
+        if (webRequest.checkNotModified(empleadoVentasService.obtenerEtagEmpleadosVentas())) {
+            return null;
+        }
+        Enlaces enlaces = Enlaces.de(EmpleadoVentasController.class, "empleados-ventas");
         List<EntityModel<EmpleadoVentasResponseDTO>> empleados = empleadoVentasService.obtenerTodosLosEmpleadosVentas().stream()
                 .map(empleado -> EntityModel.of(empleado,
-                        linkTo(methodOn(EmpleadoVentasController.class).obtenerEmpleadoVentasPorId(empleado.getId())).withSelfRel(),
-                        linkTo(methodOn(EmpleadoVentasController.class).obtenerTodosLosEmpleadosVentas()).withRel("empleados-ventas")))
+                        enlaces.elemento(empleado.getId()),
+                        enlaces.coleccion()))
                 .collect(Collectors.toList());
-        return CollectionModel.of(empleados, linkTo(methodOn(EmpleadoVentasController.class).obtenerTodosLosEmpleadosVentas()).withSelfRel());
+        return CollectionModel.of(empleados, enlaces.coleccionSelf());
     }
 
     @GetMapping("/{id}")
-    public EntityModel<EmpleadoVentasResponseDTO> obtenerEmpleadoVentasPorId(@PathVariable Long id) {
-        EmpleadoVentasResponseDTO empleado = empleadoVentasService.obtenerEmpleadoVentasPorId(id);
-        return EntityModel.of(empleado,
-                linkTo(methodOn(EmpleadoVentasController.class).obtenerEmpleadoVentasPorId(id)).withSelfRel(),
-                linkTo(methodOn(EmpleadoVentasController.class).obtenerTodosLosEmpleadosVentas()).withRel("empleados-ventas"));
+    public EntityModel<EmpleadoVentasResponseDTO> obtenerEmpleadoVentasPorId(@PathVariable Long id, WebRequest webRequest) {
+        // ETag y cuerpo salen de la misma entrada de caché; con un 304 no se serializa ni se transfiere el DTO
+        VersionadoDTO<EmpleadoVentasResponseDTO> empleado = empleadoVentasService.obtenerEmpleadoVentasPorId(id);
+        if (webRequest.checkNotModified(Etags.deVersion(empleado.getVersion()))) {
+            return null;
+        }
+        Enlaces enlaces = Enlaces.de(EmpleadoVentasController.class, "empleados-ventas");
+        return EntityModel.of(empleado.getRespuesta(),
+                enlaces.elemento(id),
+                enlaces.coleccion());
     }
 
     @PostMapping
     public ResponseEntity<EntityModel<EmpleadoVentasResponseDTO>> crearEmpleadoVentas(@Valid @RequestBody EmpleadoVentasRequestDTO requestDTO) {
         EmpleadoVentasResponseDTO nuevoEmpleado = empleadoVentasService.crearEmpleadoVentas(requestDTO);
         EntityModel<EmpleadoVentasResponseDTO> resource = EntityModel.of(nuevoEmpleado,
-                linkTo(methodOn(EmpleadoVentasController.class).obtenerEmpleadoVentasPorId(nuevoEmpleado.getId())).withSelfRel());
+                Enlaces.de(EmpleadoVentasController.class, "empleados-ventas").elemento(nuevoEmpleado.getId()));
         return ResponseEntity.status(HttpStatus.CREATED).body(resource);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<EntityModel<EmpleadoVentasResponseDTO>> actualizarEmpleadoVentas(@PathVariable Long id, @Valid @RequestBody EmpleadoVentasRequestDTO requestDTO) {
-        EmpleadoVentasResponseDTO empleadoActualizado = empleadoVentasService.actualizarEmpleadoVentas(id, requestDTO);
-        EntityModel<EmpleadoVentasResponseDTO> resource = EntityModel.of(empleadoActualizado,
-                linkTo(methodOn(EmpleadoVentasController.class).obtenerEmpleadoVentasPorId(id)).withSelfRel());
-        return ResponseEntity.ok(resource);
+    public ResponseEntity<EntityModel<EmpleadoVentasResponseDTO>> actualizarEmpleadoVentas(@PathVariable Long id, @Valid @RequestBody EmpleadoVentasRequestDTO requestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        VersionadoDTO<EmpleadoVentasResponseDTO> empleadoActualizado = empleadoVentasService.actualizarEmpleadoVentas(id, requestDTO, Etags.versionDeIfMatch(ifMatch));
+        EntityModel<EmpleadoVentasResponseDTO> resource = EntityModel.of(empleadoActualizado.getRespuesta(),
+                Enlaces.de(EmpleadoVentasController.class, "empleados-ventas").elemento(id));
+        // Versión que escribió esta actualización, para el siguiente If-Match (no una relectura tras el commit)
+        return ResponseEntity.ok()
+                .eTag(Etags.deVersion(empleadoActualizado.getVersion()))
+                .body(resource);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,39 @@
+package GestionUsuarios.GestionUsuarios.controller;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+// Enlaces HATEOAS de un controlador resueltos una sola vez por petición.
+// linkTo(methodOn(...)) crea un proxy e interpreta la plantilla de URI en cada elemento; aquí la URI base
+// se calcula al construir el objeto y los enlaces por id solo concatenan. El href resultante es el mismo.
+final class Enlaces {
+
+    private final String base;
+    private final Link coleccion;
+
+    private Enlaces(String base, String relacionColeccion) {
+        this.base = base;
+        this.coleccion = Link.of(base, LinkRelation.of(relacionColeccion));
+    }
+
+    static Enlaces de(Class<?> controlador, String relacionColeccion) {
+        return new Enlaces(linkTo(controlador).withSelfRel().getHref(), relacionColeccion);
+    }
+
+    // self de un elemento: {base}/{id}
+    Link elemento(Long id) {
+        return Link.of(base + "/" + id);
+    }
+
+    // Enlace a la colección con la relación del recurso ("clientes", "pedidos", ...); inmutable y compartido
+    Link coleccion() {
+        return coleccion;
+    }
+
+    // self de la propia colección
+    Link coleccionSelf() {
+        return Link.of(base);
+    }
+}
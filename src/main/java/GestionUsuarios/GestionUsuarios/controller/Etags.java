@@ -0,0 +1,39 @@
+package GestionUsuarios.GestionUsuarios.controller;
+
+import GestionUsuarios.GestionUsuarios.exception.PreconditionFailedException;
+
+// Formato de los validadores HTTP derivados de la columna @Version de las entidades
+final class Etags {
+
+    private Etags() {
+    }
+
+    static String deVersion(Object version) {
+        return "\"" + version + "\"";
+    }
+
+    // Valor sin comillas de un If-Match, o null si no se envió o es "*" (basta con que el recurso exista).
+    // If-Match exige comparación fuerte, así que un ETag débil o mal formado nunca coincide.
+    static String valorDeIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.length() < 2 || !etag.startsWith("\"") || !etag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match no coincide con la versión actual: " + ifMatch);
+        }
+        return etag.substring(1, etag.length() - 1);
+    }
+
+    static Long versionDeIfMatch(String ifMatch) {
+        String valor = valorDeIfMatch(ifMatch);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match no coincide con la versión actual: " + ifMatch);
+        }
+    }
+}
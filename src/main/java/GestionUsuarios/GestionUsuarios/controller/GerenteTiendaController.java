@@ -2,20 +2,20 @@ package GestionUsuarios.GestionUsuarios.controller;
 
 import GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
 import GestionUsuarios.GestionUsuarios.service.GerenteTiendaService;
 import jakarta.validation.Valid;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @RestController
 @RequestMapping("/gerentes-tienda")
 public class GerenteTiendaController {
@@ -27,37 +27,50 @@ public class GerenteTiendaController {
     }
 
     @GetMapping
-    public CollectionModel<EntityModel<GerenteTiendaResponseDTO>> obtenerTodosLosGerentes() {
+    public CollectionModel<EntityModel<GerenteTiendaResponseDTO>> obtenerTodosLosGerentes(WebRequest webRequest) {
+        if (webRequest.checkNotModified(gerenteTiendaService.obtenerEtagGerentes())) {
+            return null;
+        }
+        Enlaces enlaces = Enlaces.de(GerenteTiendaController.class, "gerentes-tienda");
         List<EntityModel<GerenteTiendaResponseDTO>> gerentes = gerenteTiendaService.obtenerTodosLosGerentes().stream()
                 .map(gerente -> EntityModel.of(gerente,
-                        linkTo(methodOn(GerenteTiendaController.class).obtenerGerentePorId(gerente.getId())).withSelfRel(),
-                        linkTo(methodOn(GerenteTiendaController.class).obtenerTodosLosGerentes()).withRel("gerentes-tienda")))
+                        enlaces.elemento(gerente.getId()),
+                        enlaces.coleccion()))
                 .collect(Collectors.toList());
-        return CollectionModel.of(gerentes, linkTo(methodOn(GerenteTiendaController.class).obtenerTodosLosGerentes()).withSelfRel());
+        return CollectionModel.of(gerentes, enlaces.coleccionSelf());
     }
 
     @GetMapping("/{id}")
-    public EntityModel<GerenteTiendaResponseDTO> obtenerGerentePorId(@PathVariable Long id) {
-        GerenteTiendaResponseDTO gerente = gerenteTiendaService.obtenerGerentePorId(id);
-        return EntityModel.of(gerente,
-                linkTo(methodOn(GerenteTiendaController.class).obtenerGerentePorId(id)).withSelfRel(),
-                linkTo(methodOn(GerenteTiendaController.class).obtenerTodosLosGerentes()).withRel("gerentes-tienda"));
+    public EntityModel<GerenteTiendaResponseDTO> obtenerGerentePorId(@PathVariable Long id, WebRequest webRequest) {
+        // ETag y cuerpo salen de la misma entrada de caché; con un 304 no se serializa ni se transfiere el DTO
+        VersionadoDTO<GerenteTiendaResponseDTO> gerente = gerenteTiendaService.obtenerGerentePorId(id);
+        if (webRequest.checkNotModified(Etags.deVersion(gerente.getVersion()))) {
+            return null;
+        }
+        Enlaces enlaces = Enlaces.de(GerenteTiendaController.class, "gerentes-tienda");
+        return EntityModel.of(gerente.getRespuesta(),
+                enlaces.elemento(id),
+                enlaces.coleccion());
     }
 
     @PostMapping
     public ResponseEntity<EntityModel<GerenteTiendaResponseDTO>> crearGerente(@Valid @RequestBody GerenteTiendaRequestDTO requestDTO) {
         GerenteTiendaResponseDTO nuevoGerente = gerenteTiendaService.crearGerente(requestDTO);
         EntityModel<GerenteTiendaResponseDTO> resource = EntityModel.of(nuevoGerente,
-                linkTo(methodOn(GerenteTiendaController.class).obtenerGerentePorId(nuevoGerente.getId())).withSelfRel());
+                Enlaces.de(GerenteTiendaController.class, "gerentes-tienda").elemento(nuevoGerente.getId()));
         return ResponseEntity.status(HttpStatus.CREATED).body(resource);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<EntityModel<GerenteTiendaResponseDTO>> actualizarGerente(@PathVariable Long id, @Valid @RequestBody GerenteTiendaRequestDTO requestDTO) {
-        GerenteTiendaResponseDTO gerenteActualizado = gerenteTiendaService.actualizarGerente(id, requestDTO);
-        EntityModel<GerenteTiendaResponseDTO> resource = EntityModel.of(gerenteActualizado,
-                linkTo(methodOn(GerenteTiendaController.class).obtenerGerentePorId(id)).withSelfRel());
-        return ResponseEntity.ok(resource);
+    public ResponseEntity<EntityModel<GerenteTiendaResponseDTO>> actualizarGerente(@PathVariable Long id, @Valid @RequestBody GerenteTiendaRequestDTO requestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        VersionadoDTO<GerenteTiendaResponseDTO> gerenteActualizado = gerenteTiendaService.actualizarGerente(id, requestDTO, Etags.versionDeIfMatch(ifMatch));
+        EntityModel<GerenteTiendaResponseDTO> resource = EntityModel.of(gerenteActualizado.getRespuesta(),
+                Enlaces.de(GerenteTiendaController.class, "gerentes-tienda").elemento(id));
+        // Versión que escribió esta actualización, para el siguiente If-Match (no una relectura tras el commit)
+        return ResponseEntity.ok()
+                .eTag(Etags.deVersion(gerenteActualizado.getVersion()))
+                .body(resource);
     }
 
     @DeleteMapping("/{id}")
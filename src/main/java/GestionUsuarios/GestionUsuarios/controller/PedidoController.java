@@ -1,63 +1,188 @@
 package GestionUsuarios.GestionUsuarios.controller;
 
+import GestionUsuarios.GestionUsuarios.DTO.EstadisticasPedidosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.FiltroPedidosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PaginaDTO;
 import GestionUsuarios.GestionUsuarios.DTO.PedidoRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.PedidoResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.ResultadoPedidoLoteDTO;
+import GestionUsuarios.GestionUsuarios.DTO.ResumenVentasDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
+import GestionUsuarios.GestionUsuarios.exception.BadRequestException;
+import GestionUsuarios.GestionUsuarios.exception.PayloadTooLargeException;
+import GestionUsuarios.GestionUsuarios.service.EstadisticasPedidosService;
 import GestionUsuarios.GestionUsuarios.service.PedidoService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
-
 @RestController
 @RequestMapping("/pedidos")
 public class PedidoController {
 
     private final PedidoService pedidoService;
+    private final EstadisticasPedidosService estadisticasPedidos;
+    private final ObjectMapper objectMapper;
+    private final int maximoLote;
 
-    public PedidoController(PedidoService pedidoService) {
+    public PedidoController(PedidoService pedidoService, EstadisticasPedidosService estadisticasPedidos,
+                            ObjectMapper objectMapper, @Value("${pedidos.lote.maximo:5000}") int maximoLote) {
         this.pedidoService = pedidoService;
+        this.estadisticasPedidos = estadisticasPedidos;
+        this.objectMapper = objectMapper;
+        this.maximoLote = maximoLote;
     }
 
     @GetMapping
-    public CollectionModel<EntityModel<PedidoResponseDTO>> obtenerTodosLosPedidos() {
-        List<EntityModel<PedidoResponseDTO>> pedidos = pedidoService.obtenerTodosLosPedidos().stream()
+    public CollectionModel<EntityModel<PedidoResponseDTO>> obtenerTodosLosPedidos(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(required = false) String metodoPago,
+            WebRequest webRequest) {
+        PaginaDTO<PedidoResponseDTO> pagina = pedidoService.obtenerPedidos(
+                new FiltroPedidosDTO(clienteId, estado, desde, hasta, metodoPago), Cursores.decodificarPedido(after), limit);
+        // El validador sale de la página leída (ver PedidoService): un 304 evita los enlaces, la serialización
+        // y la transferencia sin sumar una consulta que recorra toda la tabla de pedidos
+        if (webRequest.checkNotModified(pagina.getEtag())) {
+            return null;
+        }
+        return aColeccion(pagina);
+    }
+
+    // Página keyset como colección HAL: self con la URL pedida y "next" con el cursor avanzado (opaco, ver Cursores).
+    // Compartido con el historial de pedidos de ClienteController.
+    static CollectionModel<EntityModel<PedidoResponseDTO>> aColeccion(PaginaDTO<PedidoResponseDTO> pagina) {
+        Enlaces enlaces = Enlaces.de(PedidoController.class, "pedidos");
+        List<EntityModel<PedidoResponseDTO>> pedidos = pagina.getElementos().stream()
                 .map(pedido -> EntityModel.of(pedido,
-                        linkTo(methodOn(PedidoController.class).obtenerPedidoPorId(pedido.getId())).withSelfRel(),
-                        linkTo(methodOn(PedidoController.class).obtenerTodosLosPedidos()).withRel("pedidos")))
+                        enlaces.elemento(pedido.getId()),
+                        enlaces.coleccion()))
                 .collect(Collectors.toList());
-        return CollectionModel.of(pedidos, linkTo(methodOn(PedidoController.class).obtenerTodosLosPedidos()).withSelfRel());
+
+        CollectionModel<EntityModel<PedidoResponseDTO>> resultado = CollectionModel.of(pedidos,
+                Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+        if (pagina.getSiguienteCursor() != null) {
+            // El enlace "next" conserva el resto de parámetros de la petición y solo avanza el cursor
+            resultado.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", Cursores.codificar(pagina.getSiguienteFecha(), pagina.getSiguienteCursor()))
+                    .toUriString(), IanaLinkRelations.NEXT));
+        }
+        return resultado;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarPedidos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        // La escritura ocurre en un hilo asíncrono; la transacción de lectura se abre dentro del servicio
+        StreamingResponseBody cuerpo = salida -> pedidoService.exportarPedidos(desde, hasta, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(cuerpo);
+    }
+
+    // Se responde desde los acumulados en memoria: el coste depende del número de buckets, no de pedidos
+    @GetMapping("/estadisticas")
+    public EstadisticasPedidosDTO obtenerEstadisticas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return estadisticasPedidos.obtenerEstadisticas(desde, hasta);
+    }
+
+    @GetMapping("/estadisticas/clientes/{clienteId}")
+    public ResumenVentasDTO obtenerEstadisticasDeCliente(@PathVariable Long clienteId) {
+        return estadisticasPedidos.obtenerEstadisticasDeCliente(clienteId);
     }
 
     @GetMapping("/{id}")
-    public EntityModel<PedidoResponseDTO> obtenerPedidoPorId(@PathVariable Long id) {
-        PedidoResponseDTO pedido = pedidoService.obtenerPedidoPorId(id);
-        return EntityModel.of(pedido,
-                linkTo(methodOn(PedidoController.class).obtenerPedidoPorId(id)).withSelfRel(),
-                linkTo(methodOn(PedidoController.class).obtenerTodosLosPedidos()).withRel("pedidos"));
+    public EntityModel<PedidoResponseDTO> obtenerPedidoPorId(@PathVariable Long id, WebRequest webRequest) {
+        // ETag y cuerpo salen de la misma entrada de caché; con un 304 no se serializa ni se transfiere el DTO
+        VersionadoDTO<PedidoResponseDTO> pedido = pedidoService.obtenerPedidoPorId(id);
+        if (webRequest.checkNotModified(Etags.deVersion(pedido.getVersion()))) {
+            return null;
+        }
+        Enlaces enlaces = Enlaces.de(PedidoController.class, "pedidos");
+        return EntityModel.of(pedido.getRespuesta(),
+                enlaces.elemento(id),
+                enlaces.coleccion());
     }
 
     @PostMapping
     public ResponseEntity<EntityModel<PedidoResponseDTO>> crearPedido(@Valid @RequestBody PedidoRequestDTO requestDTO) {
         PedidoResponseDTO nuevoPedido = pedidoService.crearPedido(requestDTO);
         EntityModel<PedidoResponseDTO> resource = EntityModel.of(nuevoPedido,
-                linkTo(methodOn(PedidoController.class).obtenerPedidoPorId(nuevoPedido.getId())).withSelfRel());
+                Enlaces.de(PedidoController.class, "pedidos").elemento(nuevoPedido.getId()));
         return ResponseEntity.status(HttpStatus.CREATED).body(resource);
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ResultadoPedidoLoteDTO>> crearPedidosEnLote(InputStream cuerpo) throws IOException {
+        List<PedidoRequestDTO> solicitudes = leerLote(cuerpo);
+        // La validación se hace por elemento en el servicio para devolver un resultado por pedido
+        return ResponseEntity.ok(pedidoService.crearPedidosEnLote(solicitudes));
+    }
+
+    // El arreglo se lee elemento a elemento: un lote por encima del máximo se rechaza al llegar al primer pedido
+    // que sobra, sin construir la lista completa ni leer el resto del cuerpo, y sin crear ninguno
+    private List<PedidoRequestDTO> leerLote(InputStream cuerpo) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(cuerpo)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("El lote debe ser un arreglo JSON de pedidos");
+            }
+            List<PedidoRequestDTO> solicitudes = new ArrayList<>();
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    throw new BadRequestException("El lote termina antes de cerrar el arreglo");
+                }
+                if (solicitudes.size() == maximoLote) {
+                    throw new PayloadTooLargeException("El lote tiene más de " + maximoLote + " pedidos");
+                }
+                solicitudes.add(parser.readValueAs(PedidoRequestDTO.class));
+            }
+            return solicitudes;
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("El lote no es JSON válido: " + e.getOriginalMessage());
+        }
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<EntityModel<PedidoResponseDTO>> actualizarPedido(@PathVariable Long id, @Valid @RequestBody PedidoRequestDTO requestDTO) {
-        PedidoResponseDTO pedidoActualizado = pedidoService.actualizarPedido(id, requestDTO);
-        EntityModel<PedidoResponseDTO> resource = EntityModel.of(pedidoActualizado,
-                linkTo(methodOn(PedidoController.class).obtenerPedidoPorId(id)).withSelfRel());
-        return ResponseEntity.ok(resource);
+    public ResponseEntity<EntityModel<PedidoResponseDTO>> actualizarPedido(@PathVariable Long id, @Valid @RequestBody PedidoRequestDTO requestDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        VersionadoDTO<PedidoResponseDTO> pedidoActualizado = pedidoService.actualizarPedido(id, requestDTO, Etags.valorDeIfMatch(ifMatch));
+        EntityModel<PedidoResponseDTO> resource = EntityModel.of(pedidoActualizado.getRespuesta(),
+                Enlaces.de(PedidoController.class, "pedidos").elemento(id));
+        // Versión que escribió esta actualización, para el siguiente If-Match (no una relectura tras el commit)
+        return ResponseEntity.ok()
+                .eTag(Etags.deVersion(pedidoActualizado.getVersion()))
+                .body(resource);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,93 @@
+package GestionUsuarios.GestionUsuarios.controller;
+
+import GestionUsuarios.GestionUsuarios.DTO.FiltroUsuariosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PaginaDTO;
+import GestionUsuarios.GestionUsuarios.DTO.SugerenciaUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.DTO.UsuarioResumenDTO;
+import GestionUsuarios.GestionUsuarios.service.AutocompletadoUsuariosService;
+import GestionUsuarios.GestionUsuarios.service.UsuarioService;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/usuarios")
+public class UsuarioController {
+
+    private final UsuarioService usuarioService;
+    private final AutocompletadoUsuariosService autocompletadoUsuarios;
+
+    public UsuarioController(UsuarioService usuarioService, AutocompletadoUsuariosService autocompletadoUsuarios) {
+        this.usuarioService = usuarioService;
+        this.autocompletadoUsuarios = autocompletadoUsuarios;
+    }
+
+    // Cada resumen enlaza al recurso de su subtipo (/clientes/{id}, /administradores/{id}, ...)
+    @GetMapping
+    public CollectionModel<EntityModel<UsuarioResumenDTO>> buscarUsuarios(
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String rut,
+            @RequestParam(required = false) String nombre,
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        PaginaDTO<UsuarioResumenDTO> pagina = usuarioService.buscarUsuarios(
+                new FiltroUsuariosDTO(email, rut, nombre, tipo), Cursores.decodificar(after), limit);
+
+        Map<String, Enlaces> enlacesPorTipo = new HashMap<>();
+        List<EntityModel<UsuarioResumenDTO>> usuarios = pagina.getElementos().stream()
+                .map(usuario -> aModelo(usuario, enlacesPorTipo.computeIfAbsent(usuario.getTipo(), UsuarioController::enlacesDe)))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<UsuarioResumenDTO>> resultado = CollectionModel.of(usuarios,
+                Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+        if (pagina.getSiguienteCursor() != null) {
+            resultado.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", Cursores.codificar(pagina.getSiguienteCursor()))
+                    .toUriString(), IanaLinkRelations.NEXT));
+        }
+        return resultado;
+    }
+
+    // Type-ahead por prefijo de nombre (de cualquier palabra) o email; se resuelve en memoria sin consultar la base
+    @GetMapping("/autocomplete")
+    public List<SugerenciaUsuarioDTO> autocompletar(@RequestParam String q,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        return autocompletadoUsuarios.sugerir(q, limit);
+    }
+
+    // Acepta el RUT con o sin puntos ("12.345.678-5" o "12345678-5"); 400 si el verificador no cuadra
+    @GetMapping("/rut/{rut}")
+    public EntityModel<UsuarioResumenDTO> buscarPorRut(@PathVariable String rut) {
+        UsuarioResumenDTO usuario = usuarioService.buscarPorRut(rut);
+        return aModelo(usuario, enlacesDe(usuario.getTipo()));
+    }
+
+    private static EntityModel<UsuarioResumenDTO> aModelo(UsuarioResumenDTO usuario, Enlaces enlaces) {
+        return enlaces != null
+                ? EntityModel.of(usuario, enlaces.elemento(usuario.getId()), enlaces.coleccion())
+                : EntityModel.of(usuario);
+    }
+
+    private static Enlaces enlacesDe(String tipo) {
+        return switch (tipo) {
+            case "ADMINISTRADOR" -> Enlaces.de(AdministradorController.class, "administradores");
+            case "CLIENTE" -> Enlaces.de(ClienteController.class, "clientes");
+            case "EMPLEADO_VENTAS" -> Enlaces.de(EmpleadoVentasController.class, "empleados-ventas");
+            case "GERENTE_TIENDA" -> Enlaces.de(GerenteTiendaController.class, "gerentes-tienda");
+            default -> null;
+        };
+    }
+}
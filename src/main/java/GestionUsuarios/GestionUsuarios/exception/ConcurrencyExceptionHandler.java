@@ -0,0 +1,56 @@
+package GestionUsuarios.GestionUsuarios.exception;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class ConcurrencyExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyExceptionHandler.class);
+
+    // Nombres de Usuario/@Table y db/h2/schema.sql. H2 los informa en mayúsculas y con el índice como
+    // sufijo (PUBLIC.UK_USUARIOS_EMAIL_INDEX_3), de ahí que se comparen por contención
+    private static final List<String> RESTRICCIONES_DE_UNICIDAD = List.of("uk_usuarios_email", "uk_usuarios_rut_numero");
+
+    // Otra transacción confirmó una versión nueva entre la lectura y el flush: el cliente debe releer y reintentar
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(value = HttpStatus.CONFLICT, reason = "El recurso fue modificado concurrentemente")
+    public void conflictoDeVersion() {
+    }
+
+    // Caso típico: dos altas con el mismo email o RUT pasaron a la vez la comprobación previa de
+    // UnicidadUsuariosService y la restricción única de la base rechazó la segunda. Cualquier otra violación
+    // (NOT NULL, FK, longitud) es un fallo propio: 500 sin el detalle del SQL, que queda en el log
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ProblemDetail> conflictoDeUnicidad(DataIntegrityViolationException excepcion) {
+        if (esRestriccionDeUnicidad(excepcion)) {
+            return ResponseEntity.of(ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                    "Los datos entran en conflicto con un registro existente")).build();
+        }
+        log.error("Violación de integridad no esperada", excepcion);
+        return ResponseEntity.of(ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR,
+                "No se pudieron guardar los datos")).build();
+    }
+
+    static boolean esRestriccionDeUnicidad(DataIntegrityViolationException excepcion) {
+        for (Throwable causa = excepcion.getCause(); causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion && violacion.getConstraintName() != null) {
+                String nombre = violacion.getConstraintName().toLowerCase(Locale.ROOT);
+                return RESTRICCIONES_DE_UNICIDAD.stream().anyMatch(nombre::contains);
+            }
+        }
+        return false;
+    }
+}
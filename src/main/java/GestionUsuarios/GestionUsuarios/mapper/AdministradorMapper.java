@@ -5,13 +5,15 @@ import GestionUsuarios.GestionUsuarios.DTO.AdministradorRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.AdministradorResponseDTO;
 // Corrected model import (assuming model is in this package structure)
 import GestionUsuarios.GestionUsuarios.model.Administrador;
+import GestionUsuarios.GestionUsuarios.model.Rut;
 // Model import for TipoUsuario will also be needed if not already correctly inferred by TipoUsuarioMapper
 // import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-// import org.springframework.security.crypto.password.PasswordEncoder; // Para hashear contraseñas
+
+import java.util.Objects;
 
 @Component
 public class AdministradorMapper {
@@ -19,9 +21,6 @@ public class AdministradorMapper {
     @Autowired
     private TipoUsuarioMapper tipoUsuarioMapper;
 
-    // @Autowired
-    // private PasswordEncoder passwordEncoder; // Descomentar si usas Spring Security
-
     public AdministradorResponseDTO toResponseDTO(Administrador administrador) {
         if (administrador == null) {
             return null;
@@ -31,7 +30,7 @@ public class AdministradorMapper {
                 administrador.getNombre(),
                 administrador.getEmail(),
                 administrador.getFechaNacimiento(),
-                administrador.getRut(),
+                Objects.toString(administrador.getRut(), null),
                 tipoUsuarioMapper.toResponseDTO(administrador.getTipoUsuario())
         );
     }
@@ -43,11 +42,9 @@ public class AdministradorMapper {
         Administrador administrador = new Administrador();
         administrador.setNombre(requestDTO.getNombre());
         administrador.setEmail(requestDTO.getEmail());
-        // La contraseña se debe hashear en el servicio antes de guardar
-        // administrador.setPassword(passwordEncoder.encode(requestDTO.getPassword()));
-        administrador.setPassword(requestDTO.getPassword()); // Temporal: guardar como viene
+        // La contraseña no se copia: el servicio guarda su hash (HashContrasenas)
         administrador.setFechaNacimiento(requestDTO.getFechaNacimiento());
-        administrador.setRut(requestDTO.getRut());
+        administrador.setRut(Rut.parsear(requestDTO.getRut()));
 
         // TipoUsuario se establecerá en el servicio después de cargarlo por ID
         return administrador;
@@ -60,13 +57,9 @@ public class AdministradorMapper {
         administrador.setNombre(requestDTO.getNombre());
         administrador.setEmail(requestDTO.getEmail());
 
-        if (requestDTO.getPassword() != null && !requestDTO.getPassword().isEmpty()) {
-            // La contraseña se debe hashear en el servicio antes de guardar
-            // administrador.setPassword(passwordEncoder.encode(requestDTO.getPassword()));
-             administrador.setPassword(requestDTO.getPassword()); // Temporal: guardar como viene
-        }
+        // La contraseña (si viene) la hashea y asigna el servicio
         administrador.setFechaNacimiento(requestDTO.getFechaNacimiento());
-        administrador.setRut(requestDTO.getRut());
+        administrador.setRut(Rut.parsear(requestDTO.getRut()));
         // TipoUsuario se actualizará en el servicio
     }
 }
\ No newline at end of file
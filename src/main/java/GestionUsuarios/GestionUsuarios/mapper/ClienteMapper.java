@@ -3,9 +3,11 @@ package GestionUsuarios.GestionUsuarios.mapper;
 import GestionUsuarios.GestionUsuarios.DTO.ClienteRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.ClienteResponseDTO;
 import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.model.Rut;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-// import org.springframework.security.crypto.password.PasswordEncoder; // Para hashear contraseñas
+
+import java.util.Objects;
 
 @Component
 public class ClienteMapper {
@@ -13,9 +15,6 @@ public class ClienteMapper {
     @Autowired
     private TipoUsuarioMapper tipoUsuarioMapper;
 
-    // @Autowired
-    // private PasswordEncoder passwordEncoder; // Descomentar si usas Spring Security
-
     public ClienteResponseDTO toResponseDTO(Cliente cliente) {
         if (cliente == null) {
             return null;
@@ -25,7 +24,7 @@ public class ClienteMapper {
         dto.setNombre(cliente.getNombre());
         dto.setEmail(cliente.getEmail());
         dto.setFechaNacimiento(cliente.getFechaNacimiento());
-        dto.setRut(cliente.getRut());
+        dto.setRut(Objects.toString(cliente.getRut(), null));
         dto.setTipoUsuario(tipoUsuarioMapper.toResponseDTO(cliente.getTipoUsuario()));
         dto.setDireccionEnvio(cliente.getDireccionEnvio());
         // La lista de pedidos se omitiría aquí a menos que se quiera una carga profunda por defecto.
@@ -40,11 +39,9 @@ public class ClienteMapper {
         Cliente cliente = new Cliente();
         cliente.setNombre(requestDTO.getNombre());
         cliente.setEmail(requestDTO.getEmail());
-        // La contraseña se debe hashear en el servicio antes de guardar
-        // cliente.setPassword(passwordEncoder.encode(requestDTO.getPassword()));
-        cliente.setPassword(requestDTO.getPassword()); // Temporal: guardar como viene
+        // La contraseña no se copia: el servicio guarda su hash (HashContrasenas)
         cliente.setFechaNacimiento(requestDTO.getFechaNacimiento());
-        cliente.setRut(requestDTO.getRut());
+        cliente.setRut(Rut.parsear(requestDTO.getRut()));
         cliente.setDireccionEnvio(requestDTO.getDireccionEnvio());
         // TipoUsuario se establecerá en el servicio después de cargarlo por ID
         return cliente;
@@ -57,13 +54,9 @@ public class ClienteMapper {
         cliente.setNombre(requestDTO.getNombre());
         cliente.setEmail(requestDTO.getEmail());
 
-        if (requestDTO.getPassword() != null && !requestDTO.getPassword().isEmpty()) {
-            // La contraseña se debe hashear en el servicio antes de guardar
-            // cliente.setPassword(passwordEncoder.encode(requestDTO.getPassword()));
-            cliente.setPassword(requestDTO.getPassword()); // Temporal: guardar como viene
-        }
+        // La contraseña (si viene) la hashea y asigna el servicio
         cliente.setFechaNacimiento(requestDTO.getFechaNacimiento());
-        cliente.setRut(requestDTO.getRut());
+        cliente.setRut(Rut.parsear(requestDTO.getRut()));
         cliente.setDireccionEnvio(requestDTO.getDireccionEnvio());
         // TipoUsuario se actualizará en el servicio
     }
@@ -4,11 +4,13 @@ package GestionUsuarios.GestionUsuarios.mapper;
 import GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasResponseDTO;
 import GestionUsuarios.GestionUsuarios.model.EmpleadoVentas;
+import GestionUsuarios.GestionUsuarios.model.Rut;
 // import GestionUsuarios.GestionUsuarios.model.TipoUsuario; // Already imported by TipoUsuarioMapper if used
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-// import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Objects;
 
 @Component
 public class EmpleadoVentasMapper {
@@ -16,9 +18,6 @@ public class EmpleadoVentasMapper {
     @Autowired
     private TipoUsuarioMapper tipoUsuarioMapper;
 
-    // @Autowired
-    // private PasswordEncoder passwordEncoder;
-
     public EmpleadoVentasResponseDTO toResponseDTO(EmpleadoVentas empleado) {
         if (empleado == null) {
             return null;
@@ -28,7 +27,7 @@ public class EmpleadoVentasMapper {
                 empleado.getNombre(),
                 empleado.getEmail(),
                 empleado.getFechaNacimiento(),
-                empleado.getRut(),
+                Objects.toString(empleado.getRut(), null),
                 tipoUsuarioMapper.toResponseDTO(empleado.getTipoUsuario()),
                 empleado.getFechaContratacion(),
                 empleado.getSalario()
@@ -42,10 +41,9 @@ public class EmpleadoVentasMapper {
         EmpleadoVentas empleado = new EmpleadoVentas();
         empleado.setNombre(requestDTO.getNombre());
         empleado.setEmail(requestDTO.getEmail());
-        // empleado.setPassword(passwordEncoder.encode(requestDTO.getPassword()));
-        empleado.setPassword(requestDTO.getPassword()); // Temporal
+        // La contraseña no se copia: el servicio guarda su hash (HashContrasenas)
         empleado.setFechaNacimiento(requestDTO.getFechaNacimiento());
-        empleado.setRut(requestDTO.getRut());
+        empleado.setRut(Rut.parsear(requestDTO.getRut()));
         empleado.setFechaContratacion(requestDTO.getFechaContratacion());
         empleado.setSalario(requestDTO.getSalario());
         // TipoUsuario se establece en el servicio
@@ -58,12 +56,9 @@ public class EmpleadoVentasMapper {
         }
         empleado.setNombre(requestDTO.getNombre());
         empleado.setEmail(requestDTO.getEmail());
-        if (requestDTO.getPassword() != null && !requestDTO.getPassword().isEmpty()) {
-            // empleado.setPassword(passwordEncoder.encode(requestDTO.getPassword()));
-            empleado.setPassword(requestDTO.getPassword()); // Temporal
-        }
+        // La contraseña (si viene) la hashea y asigna el servicio
         empleado.setFechaNacimiento(requestDTO.getFechaNacimiento());
-        empleado.setRut(requestDTO.getRut());
+        empleado.setRut(Rut.parsear(requestDTO.getRut()));
         empleado.setFechaContratacion(requestDTO.getFechaContratacion());
         empleado.setSalario(requestDTO.getSalario());
         // TipoUsuario se actualiza en el servicio
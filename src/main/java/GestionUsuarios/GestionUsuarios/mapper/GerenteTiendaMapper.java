@@ -4,11 +4,13 @@ package GestionUsuarios.GestionUsuarios.mapper;
 import GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaResponseDTO;
 import GestionUsuarios.GestionUsuarios.model.GerenteTienda;
+import GestionUsuarios.GestionUsuarios.model.Rut;
 // import GestionUsuarios.GestionUsuarios.model.TipoUsuario; // Already imported by TipoUsuarioMapper
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-// import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Objects;
 
 @Component
 public class GerenteTiendaMapper {
@@ -16,9 +18,6 @@ public class GerenteTiendaMapper {
     @Autowired
     private TipoUsuarioMapper tipoUsuarioMapper;
 
-    // @Autowired
-    // private PasswordEncoder passwordEncoder;
-
     public GerenteTiendaResponseDTO toResponseDTO(GerenteTienda gerente) {
         if (gerente == null) {
             return null;
@@ -28,7 +27,7 @@ public class GerenteTiendaMapper {
                 gerente.getNombre(),
                 gerente.getEmail(),
                 gerente.getFechaNacimiento(),
-                gerente.getRut(),
+                Objects.toString(gerente.getRut(), null),
                 tipoUsuarioMapper.toResponseDTO(gerente.getTipoUsuario()),
                 gerente.getAnosExperiencia(),
                 gerente.getTiendaAsignada()
@@ -42,10 +41,9 @@ public class GerenteTiendaMapper {
         GerenteTienda gerente = new GerenteTienda();
         gerente.setNombre(requestDTO.getNombre());
         gerente.setEmail(requestDTO.getEmail());
-        // gerente.setPassword(passwordEncoder.encode(requestDTO.getPassword()));
-        gerente.setPassword(requestDTO.getPassword()); // Temporal
+        // La contraseña no se copia: el servicio guarda su hash (HashContrasenas)
         gerente.setFechaNacimiento(requestDTO.getFechaNacimiento());
-        gerente.setRut(requestDTO.getRut());
+        gerente.setRut(Rut.parsear(requestDTO.getRut()));
         gerente.setAnosExperiencia(requestDTO.getAnosExperiencia());
         gerente.setTiendaAsignada(requestDTO.getTiendaAsignada());
         // TipoUsuario se establece en el servicio
@@ -58,12 +56,9 @@ public class GerenteTiendaMapper {
         }
         gerente.setNombre(requestDTO.getNombre());
         gerente.setEmail(requestDTO.getEmail());
-        if (requestDTO.getPassword() != null && !requestDTO.getPassword().isEmpty()) {
-            // gerente.setPassword(passwordEncoder.encode(requestDTO.getPassword()));
-            gerente.setPassword(requestDTO.getPassword()); // Temporal
-        }
+        // La contraseña (si viene) la hashea y asigna el servicio
         gerente.setFechaNacimiento(requestDTO.getFechaNacimiento());
-        gerente.setRut(requestDTO.getRut());
+        gerente.setRut(Rut.parsear(requestDTO.getRut()));
         gerente.setAnosExperiencia(requestDTO.getAnosExperiencia());
         gerente.setTiendaAsignada(requestDTO.getTiendaAsignada());
         // TipoUsuario se actualiza en el servicio
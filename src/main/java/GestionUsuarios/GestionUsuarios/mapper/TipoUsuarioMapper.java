@@ -3,18 +3,36 @@ package GestionUsuarios.GestionUsuarios.mapper;
 // Corrected DTO imports
 import GestionUsuarios.GestionUsuarios.DTO.TipoUsuarioRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.TipoUsuarioResponseDTO;
+import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 // Corrected model import (assuming model is in this package structure)
 import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
+import GestionUsuarios.GestionUsuarios.service.TipoUsuarioCache;
 
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
 public class TipoUsuarioMapper {
 
+    @Autowired
+    private TipoUsuarioCache tipoUsuarioCache;
+
     public TipoUsuarioResponseDTO toResponseDTO(TipoUsuario tipoUsuario) {
         if (tipoUsuario == null) {
             return null;
         }
+        // La asociación es LAZY: un proxy sin inicializar se resuelve por id desde la caché (que va al repositorio
+        // si no lo tiene). Nunca se devuelve el proxy: se mapea fuera de la sesión y getNombre() fallaría
+        if (tipoUsuario instanceof HibernateProxy proxy) {
+            LazyInitializer inicializador = proxy.getHibernateLazyInitializer();
+            if (inicializador.isUninitialized()) {
+                Long id = (Long) inicializador.getIdentifier();
+                tipoUsuario = tipoUsuarioCache.buscarPorId(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + id));
+            }
+        }
         return new TipoUsuarioResponseDTO(
                 tipoUsuario.getId(),
                 tipoUsuario.getNombre()
@@ -1,5 +1,6 @@
 package GestionUsuarios.GestionUsuarios.model;
 
+import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import lombok.Data;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 // import lombok.AllArgsConstructor;
 
 @Entity
+@DiscriminatorValue("ADMINISTRADOR")
 @Table(name = "administradores")
 @Data
 @EqualsAndHashCode(callSuper = true) // Importante para Lombok con herencia
@@ -4,11 +4,13 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 // import lombok.AllArgsConstructor;
 
 import java.util.List;
 
 @Entity
+@DiscriminatorValue("CLIENTE")
 @Table(name = "clientes")
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -19,6 +21,10 @@ public class Cliente extends Usuario {
     @Column(name = "direccion_envio")
     private String direccionEnvio; //
 
+    // Nunca se recorre completa: el historial se pagina con PedidoService.obtenerPedidosDeCliente.
+    // Fuera de equals/hashCode/toString para que ninguna de esas llamadas inicialice la colección.
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Pedido> pedidos;
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package GestionUsuarios.GestionUsuarios.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import lombok.Data;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 // import lombok.AllArgsConstructor;
 
 @Entity
+@DiscriminatorValue("EMPLEADO_VENTAS")
 @Table(name = "empleados_ventas")
 @Data
 @EqualsAndHashCode(callSuper = true)
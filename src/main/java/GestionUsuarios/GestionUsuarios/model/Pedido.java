@@ -2,19 +2,31 @@ package GestionUsuarios.GestionUsuarios.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.ToString;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "pedidos")
+// Índices compuestos en el orden del keyset: (filtro, id) para los filtros de igualdad y (..., fecha_pedido, id)
+// para los rangos de fechas, que se paginan por fecha. Ver PedidoEspecificaciones
+@Table(name = "pedidos", indexes = {
+        @Index(name = "idx_pedidos_cliente_id", columnList = "cliente_id, id"),
+        @Index(name = "idx_pedidos_estado_id", columnList = "estado, id"),
+        @Index(name = "idx_pedidos_metodo_pago_id", columnList = "metodo_pago, id"),
+        @Index(name = "idx_pedidos_fecha_pedido", columnList = "fecha_pedido, id"),
+        @Index(name = "idx_pedidos_cliente_fecha", columnList = "cliente_id, fecha_pedido, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Pedido {
 
+    // Secuencia con asignación en bloques (pooled): permite que Hibernate agrupe los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_seq")
+    @SequenceGenerator(name = "pedidos_seq", sequenceName = "pedidos_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "fecha_pedido", nullable = false)
@@ -26,8 +38,11 @@ public class Pedido {
     @Column(nullable = false)
     private Double total; //
 
+    // Fuera de equals/hashCode/toString: evita cargar el proxy del cliente (y el ciclo Cliente <-> Pedido)
     @ManyToOne(fetch = FetchType.LAZY) // EAGER si siempre necesitas el cliente con el pedido
     @JoinColumn(name = "cliente_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Cliente cliente;
 
     @Column(name = "direccion_envio", nullable = false)
@@ -35,4 +50,8 @@ public class Pedido {
 
     @Column(name = "metodo_pago", nullable = false)
     private String metodoPago; //
+
+    // Versión para bloqueo optimista; también sirve de ETag fuerte en las respuestas HTTP
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package GestionUsuarios.GestionUsuarios.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * RUT chileno normalizado: cuerpo numérico más dígito verificador (0-9 o K). Se guarda como un entero
+ * con índice único y un CHAR(1), así "12.345.678-5", "12345678-5" y "12345678-5 " son la misma clave.
+ * El análisis recorre el texto una sola vez de derecha a izquierda, acumulando a la vez el número y la
+ * suma del módulo 11, sin expresiones regulares ni cadenas intermedias.
+ */
+@Embeddable
+public final class Rut {
+
+    // Hasta 99.999.999: cubre personas y empresas y cabe en un int
+    private static final int MAXIMO_DIGITOS = 8;
+
+    // El dígito verificador depende solo del cuerpo, así que el índice único basta sobre esta columna
+    // (uk_usuarios_rut_numero, declarado en la @Table de Usuario)
+    @Column(name = "rut_numero", nullable = false)
+    private int numero;
+
+    @Column(name = "rut_dv", nullable = false, length = 1)
+    private char dv;
+
+    protected Rut() {
+    }
+
+    private Rut(int numero, char dv) {
+        this.numero = numero;
+        this.dv = dv;
+    }
+
+    public static Rut de(int numero) {
+        if (numero <= 0 || numero > 99_999_999) {
+            throw new IllegalArgumentException("Cuerpo de RUT fuera de rango: " + numero);
+        }
+        return new Rut(numero, digitoVerificador(numero));
+    }
+
+    // null si el texto es null; IllegalArgumentException si el formato o el dígito verificador no cuadran
+    public static Rut parsear(CharSequence texto) {
+        if (texto == null) {
+            return null;
+        }
+        int numero = cuerpoValido(texto);
+        if (numero < 0) {
+            throw new IllegalArgumentException("RUT inválido: " + texto);
+        }
+        return new Rut(numero, digitoVerificador(numero));
+    }
+
+    public static boolean esValido(CharSequence texto) {
+        return texto != null && cuerpoValido(texto) >= 0;
+    }
+
+    /**
+     * Cuerpo numérico de un RUT bien formado con su dígito verificador correcto, o -1. Acepta puntos de
+     * miles (el primer grupo de uno a tres dígitos y los siguientes de tres exactos) y guion opcional antes
+     * del verificador; ignora espacios en los extremos.
+     */
+    static int cuerpoValido(CharSequence texto) {
+        int inicio = 0;
+        int fin = texto.length();
+        while (inicio < fin && Character.isWhitespace(texto.charAt(inicio))) {
+            inicio++;
+        }
+        while (fin > inicio && Character.isWhitespace(texto.charAt(fin - 1))) {
+            fin--;
+        }
+        if (fin - inicio < 2) {
+            return -1;
+        }
+
+        char verificador = Character.toUpperCase(texto.charAt(fin - 1));
+        int i = fin - 2;
+        if (texto.charAt(i) == '-') {
+            i--;
+        }
+        int numero = 0;
+        int potencia = 1;
+        int suma = 0;
+        int factor = 2;
+        int digitos = 0;
+        int enGrupo = 0;
+        boolean conPuntos = false;
+        for (; i >= inicio; i--) {
+            char c = texto.charAt(i);
+            if (c == '.') {
+                // Un punto solo separa grupos completos de tres dígitos
+                if (enGrupo != 3 || i == inicio) {
+                    return -1;
+                }
+                enGrupo = 0;
+                conPuntos = true;
+                continue;
+            }
+            if (c < '0' || c > '9' || ++digitos > MAXIMO_DIGITOS) {
+                return -1;
+            }
+            int digito = c - '0';
+            numero += digito * potencia;
+            potencia *= 10;
+            suma += digito * factor;
+            factor = factor == 7 ? 2 : factor + 1;
+            enGrupo++;
+        }
+        // El grupo más a la izquierda no se cierra con un punto: se comprueba aquí
+        if (numero == 0 || conPuntos && enGrupo > 3) {
+            return -1;
+        }
+        return verificador == caracterVerificador(suma) ? numero : -1;
+    }
+
+    public static char digitoVerificador(int numero) {
+        int suma = 0;
+        int factor = 2;
+        for (int resto = numero; resto > 0; resto /= 10) {
+            suma += (resto % 10) * factor;
+            factor = factor == 7 ? 2 : factor + 1;
+        }
+        return caracterVerificador(suma);
+    }
+
+    private static char caracterVerificador(int suma) {
+        int valor = 11 - suma % 11;
+        return valor == 11 ? '0' : valor == 10 ? 'K' : (char) ('0' + valor);
+    }
+
+    public int getNumero() {
+        return numero;
+    }
+
+    public char getDv() {
+        return dv;
+    }
+
+    // Forma con puntos para mostrar: 12.345.678-5
+    public String formatear() {
+        StringBuilder texto = new StringBuilder(12).append(numero);
+        for (int i = texto.length() - 3; i > 0; i -= 3) {
+            texto.insert(i, '.');
+        }
+        return texto.append('-').append(dv).toString();
+    }
+
+    // Forma canónica (sin puntos, con guion): la que se expone en los DTO
+    @Override
+    public String toString() {
+        return numero + "-" + dv;
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        return this == otro || otro instanceof Rut rut && numero == rut.numero && dv == rut.dv;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * numero + dv;
+    }
+}
@@ -4,11 +4,16 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
 @Table(name = "tipos_usuario")
+// Caché de segundo nivel: resuelve el proxy LAZY de Usuario.tipoUsuario sin SELECT (ver CacheSegundoNivel)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tipos-usuario")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -4,10 +4,29 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table(name = "usuarios")
+// email y rut_numero ya tienen índice por su restricción unique; nombre (búsqueda por prefijo) y tipo_entidad
+// cubren el resto de filtros de /usuarios con el id como desempate del orden. Las restricciones llevan el mismo
+// nombre que en db/h2/schema.sql porque ConcurrencyExceptionHandler las reconoce por nombre
+@Table(name = "usuarios", indexes = {
+        @Index(name = "idx_usuarios_nombre_id", columnList = "nombre, id"),
+        @Index(name = "idx_usuarios_tipo_entidad_id", columnList = "tipo_entidad, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_usuarios_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_usuarios_rut_numero", columnNames = "rut_numero")
+})
 @Inheritance(strategy = InheritanceType.JOINED) // O TABLE_PER_CLASS, SINGLE_TABLE
+// Discriminador explícito en la tabla base: el subtipo se conoce sin hacer JOIN a las cuatro tablas hijas
+@DiscriminatorColumn(name = "tipo_entidad", discriminatorType = DiscriminatorType.STRING, length = 31)
+// Caché de segundo nivel en la raíz: una región para los cuatro subtipos (ver CacheSegundoNivel)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,7 +39,7 @@ public abstract class Usuario {
     @Column(nullable = false)
     private String nombre;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
@@ -29,10 +48,23 @@ public abstract class Usuario {
     @Column(name = "fecha_nacimiento")
     private String fechaNacimiento; // Considerar java.time.LocalDate para mejor manejo
 
-    @Column(nullable = false, unique = true)
-    private String rut;
+    // Columnas rut_numero (índice único) y rut_dv
+    @Embedded
+    private Rut rut;
+
+    // Versión para bloqueo optimista; también sirve de ETag fuerte en las respuestas HTTP
+    @Version
+    private Long version;
+
+    // Lectura del discriminador como atributo (lo escribe Hibernate): permite filtrar y proyectar el subtipo
+    // en consultas sobre usuarios sin resolver la entidad concreta
+    @Column(name = "tipo_entidad", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    private String tipoEntidad;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // LAZY: el nombre del tipo se resuelve desde TipoUsuarioCache al mapear, sin JOIN a tipos_usuario
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tipo_usuario_id", nullable = false)
     private TipoUsuario tipoUsuario;
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Engancha {@link EstadisticasConsultas} a Hibernate (inspector de sentencias, eventos de sesión y listeners
+ * de carga) y a Spring MVC (interceptor por endpoint). En los tests de controlador (@WebMvcTest) no hay
+ * estadísticas ni JPA y el interceptor no se registra.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ConfiguracionConsultas implements WebMvcConfigurer {
+
+    private final ObjectProvider<EstadisticasConsultas> estadisticas;
+
+    public ConfiguracionConsultas(ObjectProvider<EstadisticasConsultas> estadisticas) {
+        this.estadisticas = estadisticas;
+    }
+
+    @Bean
+    static HibernatePropertiesCustomizer estadisticasConsultasHibernate() {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, new InspectorSentencias());
+            propiedades.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, EscuchaSesionConsultas.class.getName());
+            propiedades.put(JpaSettings.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(new IntegradorConsultas()));
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        estadisticas.ifAvailable(valor -> registry.addInterceptor(new InterceptorConsultas(valor)));
+    }
+}
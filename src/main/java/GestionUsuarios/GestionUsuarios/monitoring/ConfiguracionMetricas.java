@@ -0,0 +1,54 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+// Registra {@link MetodosServicioConsultas} y {@link MetricasServicios} como advisors de Spring AOP sobre los
+// mismos métodos de servicio: un MethodInterceptor directo evita el join point que @Around crea en cada llamada
+@Configuration(proxyBeanMethods = false)
+public class ConfiguracionMetricas {
+
+    private static final Duration[] SLO_POR_DEFECTO = {
+            Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50),
+            Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1)};
+
+    // Los advisors se crean mientras se registran los post-procesadores: como infraestructura no esperan pasar por
+    // ellos, y sus dependencias (estadísticas, registro, buckets SLO) se resuelven en la primera llamada
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor consultasPorMetodoServicio(ObjectProvider<EstadisticasConsultas> estadisticas) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(metodosDeServicio(),
+                new MetodosServicioConsultas(estadisticas));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    // Va justo por dentro de la atribución de consultas y por fuera de @Transactional, así el tiempo incluye el commit
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor metricasServicios(ObjectProvider<MeterRegistry> meterRegistry, Environment environment) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(metodosDeServicio(), new MetricasServicios(meterRegistry,
+                () -> Binder.get(environment).bind("metricas.servicios.slo", Duration[].class).orElse(SLO_POR_DEFECTO)));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return advisor;
+    }
+
+    private static AspectJExpressionPointcut metodosDeServicio() {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression("within(GestionUsuarios.GestionUsuarios.service..*)"
+                + " && @within(org.springframework.stereotype.Service) && execution(public * *(..))");
+        return pointcut;
+    }
+}
@@ -0,0 +1,154 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+/**
+ * Actividad de Hibernate del hilo actual, atribuida a la petición HTTP en curso y al método de servicio
+ * más interno. Los eventos de Hibernate (sentencias, cargas, lecturas de caché) suman en contadores
+ * simples del hilo, sin sincronización; cada petición o llamada vuelca sus totales en
+ * {@link EstadisticasConsultas} una sola vez, al cerrarse. Fuera de una petición o de un servicio
+ * (p. ej. repositorios usados directamente) los eventos se ignoran.
+ */
+final class ContextoConsultas {
+
+    private static final ThreadLocal<ContextoConsultas> ACTUAL = new ThreadLocal<>();
+
+    private final EstadisticasConsultas estadisticas;
+    // Cimas de las pilas: una petición puede anidar otra (despacho de error) y un servicio llamar a otro
+    private Actividad peticion;
+    private Actividad metodo;
+    private String ultimaSentencia;
+
+    private ContextoConsultas(EstadisticasConsultas estadisticas) {
+        this.estadisticas = estadisticas;
+    }
+
+    static Actividad abrirPeticion(EstadisticasConsultas estadisticas, String endpoint) {
+        ContextoConsultas contexto = obtenerOCrear(estadisticas);
+        contexto.peticion = new Actividad(endpoint, true, contexto.peticion);
+        return contexto.peticion;
+    }
+
+    static Actividad abrirMetodo(EstadisticasConsultas estadisticas, String metodo) {
+        ContextoConsultas contexto = obtenerOCrear(estadisticas);
+        contexto.metodo = new Actividad(metodo, false, contexto.metodo);
+        return contexto.metodo;
+    }
+
+    private static ContextoConsultas obtenerOCrear(EstadisticasConsultas estadisticas) {
+        ContextoConsultas contexto = ACTUAL.get();
+        if (contexto == null) {
+            contexto = new ContextoConsultas(estadisticas);
+            ACTUAL.set(contexto);
+        }
+        return contexto;
+    }
+
+    // Vuelca la actividad y la quita de su pila; sin nada abierto el hilo queda limpio para la siguiente petición
+    static void cerrar(Actividad actividad) {
+        ContextoConsultas contexto = ACTUAL.get();
+        if (contexto == null) {
+            return;
+        }
+        if (actividad.peticion) {
+            contexto.peticion = actividad.anterior;
+        } else {
+            contexto.metodo = actividad.anterior;
+        }
+        contexto.estadisticas.acumular(actividad);
+        if (contexto.peticion == null && contexto.metodo == null) {
+            ACTUAL.remove();
+        }
+    }
+
+    // El inspector ve la sentencia al prepararla; la duración llega después, al terminar de ejecutarla
+    static void sentenciaPreparada(String sql) {
+        ContextoConsultas contexto = ACTUAL.get();
+        if (contexto != null) {
+            contexto.ultimaSentencia = sql;
+        }
+    }
+
+    static void sentenciaEjecutada(long nanos) {
+        ContextoConsultas contexto = ACTUAL.get();
+        if (contexto == null) {
+            return;
+        }
+        if (contexto.peticion != null) {
+            contexto.peticion.sentencias++;
+            contexto.peticion.nanosSentencias += nanos;
+        }
+        if (contexto.metodo != null) {
+            contexto.metodo.sentencias++;
+            contexto.metodo.nanosSentencias += nanos;
+        }
+        if (nanos >= contexto.estadisticas.umbralLentaNanos()) {
+            contexto.estadisticas.registrarLenta(nanos, contexto.ultimaSentencia,
+                    contexto.peticion != null ? contexto.peticion.clave : null,
+                    contexto.metodo != null ? contexto.metodo.clave : null);
+        }
+    }
+
+    static void entidadCargada() {
+        ContextoConsultas contexto = ACTUAL.get();
+        if (contexto == null) {
+            return;
+        }
+        if (contexto.peticion != null) {
+            contexto.peticion.entidades++;
+        }
+        if (contexto.metodo != null) {
+            contexto.metodo.entidades++;
+        }
+    }
+
+    static void coleccionCargada() {
+        ContextoConsultas contexto = ACTUAL.get();
+        if (contexto == null) {
+            return;
+        }
+        if (contexto.peticion != null) {
+            contexto.peticion.colecciones++;
+        }
+        if (contexto.metodo != null) {
+            contexto.metodo.colecciones++;
+        }
+    }
+
+    static void lecturaCache(boolean acierto) {
+        ContextoConsultas contexto = ACTUAL.get();
+        if (contexto == null) {
+            return;
+        }
+        if (contexto.peticion != null) {
+            contexto.peticion.contarLecturaCache(acierto);
+        }
+        if (contexto.metodo != null) {
+            contexto.metodo.contarLecturaCache(acierto);
+        }
+    }
+
+    static final class Actividad {
+        final String clave;
+        final boolean peticion;
+        private final Actividad anterior;
+        long sentencias;
+        long nanosSentencias;
+        long entidades;
+        long colecciones;
+        long aciertosCache;
+        long fallosCache;
+
+        private Actividad(String clave, boolean peticion, Actividad anterior) {
+            this.clave = clave;
+            this.peticion = peticion;
+            this.anterior = anterior;
+        }
+
+        private void contarLecturaCache(boolean acierto) {
+            if (acierto) {
+                aciertosCache++;
+            } else {
+                fallosCache++;
+            }
+        }
+    }
+}
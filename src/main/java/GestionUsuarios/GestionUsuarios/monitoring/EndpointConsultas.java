@@ -0,0 +1,29 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+import GestionUsuarios.GestionUsuarios.DTO.EstadisticasConsultasDTO;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// GET /actuator/consultas devuelve los totales acumulados; DELETE los pone a cero (p. ej. antes de una prueba de carga)
+@Component
+@Endpoint(id = "consultas")
+public class EndpointConsultas {
+
+    private final EstadisticasConsultas estadisticas;
+
+    public EndpointConsultas(EstadisticasConsultas estadisticas) {
+        this.estadisticas = estadisticas;
+    }
+
+    @ReadOperation
+    public EstadisticasConsultasDTO consultas() {
+        return estadisticas.instantanea();
+    }
+
+    @DeleteOperation
+    public void reiniciar() {
+        estadisticas.reiniciar();
+    }
+}
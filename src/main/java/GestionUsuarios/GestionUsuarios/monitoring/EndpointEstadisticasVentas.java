@@ -0,0 +1,24 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+import GestionUsuarios.GestionUsuarios.service.EstadisticasPedidosService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+// POST /actuator/estadisticas-ventas recalcula los acumulados de ventas desde la tabla de pedidos. Recorre toda
+// la tabla, así que vive en la superficie de administración y no entre los endpoints públicos de /pedidos
+@Component
+@Endpoint(id = "estadisticas-ventas")
+public class EndpointEstadisticasVentas {
+
+    private final EstadisticasPedidosService estadisticasPedidos;
+
+    public EndpointEstadisticasVentas(EstadisticasPedidosService estadisticasPedidos) {
+        this.estadisticasPedidos = estadisticasPedidos;
+    }
+
+    @WriteOperation
+    public void reconstruir() {
+        estadisticasPedidos.reconstruir();
+    }
+}
@@ -0,0 +1,40 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Mide la ejecución de sentencias y lotes JDBC y cuenta las lecturas de la caché de segundo nivel.
+ * Hibernate crea una instancia por sesión a partir del nombre de la clase (hibernate.session.events.auto),
+ * así que debe ser pública y sin argumentos; una sesión se usa desde un solo hilo, por eso los campos no
+ * necesitan sincronización.
+ */
+public class EscuchaSesionConsultas implements SessionEventListener {
+
+    private long inicioSentencia;
+    private long inicioLote;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicioSentencia = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        ContextoConsultas.sentenciaEjecutada(System.nanoTime() - inicioSentencia);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicioLote = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        ContextoConsultas.sentenciaEjecutada(System.nanoTime() - inicioLote);
+    }
+
+    @Override
+    public void cacheGetEnd(boolean acierto) {
+        ContextoConsultas.lecturaCache(acierto);
+    }
+}
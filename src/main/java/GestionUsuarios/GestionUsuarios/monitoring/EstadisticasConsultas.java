@@ -0,0 +1,124 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+import GestionUsuarios.GestionUsuarios.DTO.ActividadConsultasDTO;
+import GestionUsuarios.GestionUsuarios.DTO.ConsultaLentaDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EstadisticasConsultasDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totales de sentencias SQL, entidades y colecciones cargadas y lecturas de la caché de segundo nivel
+ * por endpoint y por método de servicio, más un registro muestreado de consultas lentas. Reemplaza a
+ * spring.jpa.show-sql en producción: en vez de imprimir cada sentencia, acumula contadores por clave
+ * (LongAdder, un volcado por petición o llamada) y solo escribe en el log las sentencias que superan el umbral.
+ * Se consulta y se reinicia en el endpoint de actuator "consultas".
+ */
+@Component
+public class EstadisticasConsultas {
+
+    private static final Logger log = LoggerFactory.getLogger(EstadisticasConsultas.class);
+
+    private final long umbralLentaNanos;
+    private final double muestreoLentas;
+    private final int maximoLentas;
+
+    private final ConcurrentMap<String, Contadores> porEndpoint = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Contadores> porMetodo = new ConcurrentHashMap<>();
+    // Últimas consultas lentas muestreadas, la más antigua primero
+    private final Deque<ConsultaLentaDTO> lentas = new ArrayDeque<>();
+
+    public EstadisticasConsultas(@Value("${consultas.lentas.umbral-ms:200}") long umbralLentaMs,
+                                 @Value("${consultas.lentas.muestreo:1.0}") double muestreoLentas,
+                                 @Value("${consultas.lentas.maximo:100}") int maximoLentas) {
+        this.umbralLentaNanos = TimeUnit.MILLISECONDS.toNanos(umbralLentaMs);
+        this.muestreoLentas = muestreoLentas;
+        this.maximoLentas = maximoLentas;
+    }
+
+    long umbralLentaNanos() {
+        return umbralLentaNanos;
+    }
+
+    void acumular(ContextoConsultas.Actividad actividad) {
+        (actividad.peticion ? porEndpoint : porMetodo)
+                .computeIfAbsent(actividad.clave, clave -> new Contadores())
+                .sumar(actividad);
+    }
+
+    void registrarLenta(long nanos, String sql, String endpoint, String metodo) {
+        if (maximoLentas <= 0 || muestreoLentas < 1 && ThreadLocalRandom.current().nextDouble() >= muestreoLentas) {
+            return;
+        }
+        ConsultaLentaDTO consulta = new ConsultaLentaDTO(Instant.now(), TimeUnit.NANOSECONDS.toMillis(nanos),
+                endpoint, metodo, sql);
+        log.warn("Consulta lenta ({} ms) en {} / {}: {}", consulta.getDuracionMs(), endpoint, metodo, sql);
+        synchronized (lentas) {
+            if (lentas.size() == maximoLentas) {
+                lentas.removeFirst();
+            }
+            lentas.addLast(consulta);
+        }
+    }
+
+    public EstadisticasConsultasDTO instantanea() {
+        synchronized (lentas) {
+            return new EstadisticasConsultasDTO(resumir(porEndpoint), resumir(porMetodo), new ArrayList<>(lentas));
+        }
+    }
+
+    public void reiniciar() {
+        porEndpoint.clear();
+        porMetodo.clear();
+        synchronized (lentas) {
+            lentas.clear();
+        }
+    }
+
+    private static Map<String, ActividadConsultasDTO> resumir(Map<String, Contadores> contadores) {
+        Map<String, ActividadConsultasDTO> resumen = new TreeMap<>();
+        contadores.forEach((clave, valor) -> resumen.put(clave, valor.aDTO()));
+        return resumen;
+    }
+
+    private static final class Contadores {
+        private final LongAdder llamadas = new LongAdder();
+        private final LongAdder sentencias = new LongAdder();
+        private final LongAdder nanosSentencias = new LongAdder();
+        private final LongAdder entidades = new LongAdder();
+        private final LongAdder colecciones = new LongAdder();
+        private final LongAdder aciertosCache = new LongAdder();
+        private final LongAdder fallosCache = new LongAdder();
+
+        void sumar(ContextoConsultas.Actividad actividad) {
+            llamadas.increment();
+            sentencias.add(actividad.sentencias);
+            nanosSentencias.add(actividad.nanosSentencias);
+            entidades.add(actividad.entidades);
+            colecciones.add(actividad.colecciones);
+            aciertosCache.add(actividad.aciertosCache);
+            fallosCache.add(actividad.fallosCache);
+        }
+
+        ActividadConsultasDTO aDTO() {
+            long aciertos = aciertosCache.sum();
+            long lecturas = aciertos + fallosCache.sum();
+            return new ActividadConsultasDTO(llamadas.sum(), sentencias.sum(), nanosSentencias.sum() / 1e6,
+                    entidades.sum(), colecciones.sum(), aciertos, lecturas - aciertos,
+                    lecturas == 0 ? null : (double) aciertos / lecturas);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Anota el SQL de cada sentencia preparada para el registro de consultas lentas; no lo modifica
+final class InspectorSentencias implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        ContextoConsultas.sentenciaPreparada(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,28 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+// Cuenta entidades hidratadas (desde JDBC o desde la caché) e inicializaciones perezosas de colecciones.
+// Los listeners se agregan después de los de Hibernate, así que solo observan
+final class IntegradorConsultas implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registro = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) evento -> ContextoConsultas.entidadCargada());
+        registro.appendListeners(EventType.INIT_COLLECTION,
+                (InitializeCollectionEventListener) evento -> ContextoConsultas.coleccionCargada());
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
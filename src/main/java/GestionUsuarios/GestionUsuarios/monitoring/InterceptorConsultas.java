@@ -0,0 +1,47 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Abre la actividad de la petición con su patrón de ruta ("GET /clientes/{id}"), no con la URL concreta,
+// para que las claves queden acotadas. Las peticiones sin handler (404) no se atribuyen
+final class InterceptorConsultas implements AsyncHandlerInterceptor {
+
+    private static final String ATRIBUTO = InterceptorConsultas.class.getName() + ".actividad";
+
+    private final EstadisticasConsultas estadisticas;
+
+    InterceptorConsultas(EstadisticasConsultas estadisticas) {
+        this.estadisticas = estadisticas;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (patron != null) {
+            request.setAttribute(ATRIBUTO, ContextoConsultas.abrirPeticion(estadisticas, request.getMethod() + " " + patron));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        cerrar(request);
+    }
+
+    // Una respuesta asíncrona (p. ej. la exportación NDJSON) sigue en otro hilo: se libera este
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        cerrar(request);
+    }
+
+    private static void cerrar(HttpServletRequest request) {
+        Object actividad = request.getAttribute(ATRIBUTO);
+        if (actividad != null) {
+            request.removeAttribute(ATRIBUTO);
+            ContextoConsultas.cerrar((ContextoConsultas.Actividad) actividad);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Atribuye la actividad de Hibernate al método público de servicio en curso ("ClienteService.crearCliente").
+ * Va por fuera de @Transactional para incluir el flush y las sentencias del commit. Se registra como advisor
+ * en {@link ConfiguracionMetricas}, igual que {@link MetricasServicios}.
+ */
+final class MetodosServicioConsultas implements MethodInterceptor {
+
+    private final ObjectProvider<EstadisticasConsultas> proveedor;
+    private final ConcurrentMap<Method, String> nombres = new ConcurrentHashMap<>();
+    private volatile EstadisticasConsultas estadisticas;
+
+    // Las estadísticas se resuelven en la primera llamada: el advisor se crea antes que los beans normales
+    MetodosServicioConsultas(ObjectProvider<EstadisticasConsultas> proveedor) {
+        this.proveedor = proveedor;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacion) throws Throwable {
+        EstadisticasConsultas actuales = estadisticas;
+        if (actuales == null) {
+            actuales = proveedor.getIfAvailable();
+            if (actuales == null) {
+                return invocacion.proceed();
+            }
+            estadisticas = actuales;
+        }
+        Method metodo = invocacion.getMethod();
+        ContextoConsultas.Actividad actividad = ContextoConsultas.abrirMetodo(actuales,
+                nombres.computeIfAbsent(metodo, m -> m.getDeclaringClass().getSimpleName() + "." + m.getName()));
+        try {
+            return invocacion.proceed();
+        } finally {
+            ContextoConsultas.cerrar(actividad);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Métricas de cada método público de servicio, con tags clase y metodo:
+ * timer servicio.llamadas (histograma con los buckets SLO configurados), gauge servicio.en_curso y
+ * contador servicio.errores con tag excepcion (p. ej. ResourceNotFoundException).
+ * Los medidores de un método se crean en su primera llamada y luego solo se buscan por Method, así que una
+ * llamada normal no asigna memoria: nanoTime, un contador atómico y Timer.record(long, TimeUnit), sin
+ * Timer.Sample ni join points de AspectJ. Los contadores de error se crean al ver cada tipo de excepción.
+ */
+final class MetricasServicios implements MethodInterceptor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Supplier<Duration[]> slo;
+    private final ConcurrentMap<Method, Medidores> medidores = new ConcurrentHashMap<>();
+
+    // Registro y buckets se resuelven al crear los medidores de cada método: el advisor se crea antes que los
+    // post-procesadores de métricas
+    MetricasServicios(ObjectProvider<MeterRegistry> meterRegistry, Supplier<Duration[]> slo) {
+        this.meterRegistry = meterRegistry;
+        this.slo = slo;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacion) throws Throwable {
+        Method metodo = invocacion.getMethod();
+        Medidores actuales = medidores.get(metodo);
+        if (actuales == null) {
+            actuales = medidores.computeIfAbsent(metodo, this::crear);
+        }
+        actuales.enCurso.incrementAndGet();
+        long inicio = System.nanoTime();
+        try {
+            return invocacion.proceed();
+        } catch (Throwable error) {
+            actuales.error(error);
+            throw error;
+        } finally {
+            actuales.tiempo.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            actuales.enCurso.decrementAndGet();
+        }
+    }
+
+    private Medidores crear(Method metodo) {
+        return new Medidores(meterRegistry.getObject(),
+                Tags.of("clase", metodo.getDeclaringClass().getSimpleName(), "metodo", metodo.getName()), slo.get());
+    }
+
+    private static final class Medidores {
+        private final MeterRegistry registro;
+        private final Tags tags;
+        private final Timer tiempo;
+        private final AtomicInteger enCurso = new AtomicInteger();
+        private final ConcurrentMap<Class<?>, Counter> errores = new ConcurrentHashMap<>();
+
+        Medidores(MeterRegistry registro, Tags tags, Duration[] slo) {
+            this.registro = registro;
+            this.tags = tags;
+            this.tiempo = Timer.builder("servicio.llamadas")
+                    .description("Duración de los métodos públicos de servicio, incluidas las que terminan en error")
+                    .tags(tags)
+                    .serviceLevelObjectives(slo)
+                    .register(registro);
+            Gauge.builder("servicio.en_curso", enCurso, AtomicInteger::get)
+                    .description("Llamadas en curso al método de servicio")
+                    .tags(tags)
+                    .register(registro);
+        }
+
+        void error(Throwable error) {
+            errores.computeIfAbsent(error.getClass(), tipo -> Counter.builder("servicio.errores")
+                    .description("Llamadas al método de servicio que terminaron en excepción, por tipo")
+                    .tags(tags)
+                    .tag("excepcion", tipo.getSimpleName())
+                    .register(registro))
+                    .increment();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package GestionUsuarios.GestionUsuarios.repository;
+
+import GestionUsuarios.GestionUsuarios.DTO.FiltroUsuariosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.UsuarioResumenDTO;
+
+import java.util.List;
+
+// Fragmento de UsuarioRepository: búsqueda polimórfica proyectada que no toca las tablas de los subtipos
+public interface BusquedaUsuarios {
+
+    // Resúmenes ordenados por id a partir del cursor after (exclusivo), como mucho limite filas
+    List<UsuarioResumenDTO> buscarResumenes(FiltroUsuariosDTO filtro, Long after, int limite);
+}
@@ -0,0 +1,74 @@
+package GestionUsuarios.GestionUsuarios.repository;
+
+import GestionUsuarios.GestionUsuarios.DTO.FiltroUsuariosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.UsuarioResumenDTO;
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import GestionUsuarios.GestionUsuarios.model.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Construye con Criteria una única consulta sobre la tabla usuarios. Solo se seleccionan columnas de la
+ * tabla base (el subtipo sale de tipo_entidad), así que Hibernate no agrega los JOIN a las tablas hijas
+ * que haría al cargar entidades polimórficas. Solo se añaden los predicados de los filtros presentes,
+ * para que el plan use el índice que corresponde (unique de email/rut_numero, nombre o tipo_entidad) en vez de
+ * condiciones "(:x is null or ...)" que H2 no puede resolver con un índice.
+ */
+class BusquedaUsuariosImpl implements BusquedaUsuarios {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UsuarioResumenDTO> buscarResumenes(FiltroUsuariosDTO filtro, Long after, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UsuarioResumenDTO> consulta = cb.createQuery(UsuarioResumenDTO.class);
+        Root<Usuario> usuario = consulta.from(Usuario.class);
+
+        List<Predicate> condiciones = new ArrayList<>();
+        if (after != null) {
+            condiciones.add(cb.greaterThan(usuario.get("id"), after));
+        }
+        if (tieneValor(filtro.getEmail())) {
+            condiciones.add(cb.equal(usuario.get("email"), filtro.getEmail()));
+        }
+        if (tieneValor(filtro.getRut())) {
+            // Un RUT mal formado o con verificador incorrecto no puede estar guardado: no hace falta consultar
+            if (!Rut.esValido(filtro.getRut())) {
+                return List.of();
+            }
+            condiciones.add(cb.equal(usuario.get("rut").get("numero"), Rut.parsear(filtro.getRut()).getNumero()));
+        }
+        if (tieneValor(filtro.getNombre())) {
+            condiciones.add(cb.like(usuario.get("nombre"), escaparLike(filtro.getNombre()) + "%", '\\'));
+        }
+        if (tieneValor(filtro.getTipo())) {
+            condiciones.add(cb.equal(usuario.get("tipoEntidad"), filtro.getTipo()));
+        }
+
+        consulta.select(cb.construct(UsuarioResumenDTO.class,
+                        usuario.get("id"), usuario.get("nombre"), usuario.get("email"),
+                        usuario.get("rut"), usuario.get("tipoEntidad")))
+                .where(condiciones.toArray(new Predicate[0]))
+                .orderBy(cb.asc(usuario.get("id")));
+        return entityManager.createQuery(consulta)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    private static boolean tieneValor(String valor) {
+        return valor != null && !valor.isBlank();
+    }
+
+    // El prefijo del usuario se busca literal: % y _ no actúan como comodines
+    private static String escaparLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,9 +1,42 @@
 package GestionUsuarios.GestionUsuarios.repository;
 
+import GestionUsuarios.GestionUsuarios.DTO.ClienteResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
 import GestionUsuarios.GestionUsuarios.model.Cliente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
-}
\ No newline at end of file
+
+    // Un único IN para comprobar existencia sin cargar las entidades Cliente
+    @Query("select c.id from Cliente c where c.id in :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    // DELETE masivo sobre clientes y usuarios sin cargar la entidad; devuelve las filas borradas (0 si no existía)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Cliente c where c.id = :id")
+    int eliminarPorId(@Param("id") Long id);
+
+    @ConsultaEnCache
+    @Query("select new GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO(c.version, c.email, c.rut.numero) "
+            + "from Cliente c where c.id = :id")
+    Optional<EstadoUsuarioDTO> findEstadoById(@Param("id") Long id);
+
+    @ConsultaEnCache
+    @Query("select count(c) as total, coalesce(sum(c.version), 0) as sumaVersiones, coalesce(max(c.id), 0) as maxId from Cliente c")
+    EstadoColeccion obtenerEstadoColeccion();
+
+    // Listado proyectado directamente al DTO de respuesta: solo las columnas expuestas (sin password) y sin
+    // entidades gestionadas que el contexto de persistencia tenga que registrar y revisar
+    @Query("select new GestionUsuarios.GestionUsuarios.DTO.ClienteResponseDTO(c.id, c.nombre, c.email, c.fechaNacimiento, c.rut, "
+            + "c.tipoUsuario.id, c.tipoUsuario.nombre, c.direccionEnvio) from Cliente c order by c.id")
+    List<ClienteResponseDTO> listarRespuestas();
+}
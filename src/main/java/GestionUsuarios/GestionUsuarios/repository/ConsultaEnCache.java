@@ -0,0 +1,22 @@
+package GestionUsuarios.GestionUsuarios.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Guarda el resultado en la región de consultas de usuarios de la caché de segundo nivel (CacheSegundoNivel).
+// Hibernate lo descarta en cuanto se escribe en alguna de las tablas consultadas, así que solo conviene en
+// lecturas que se repiten mucho más de lo que cambian sus tablas, como las de los ETag
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas-usuarios")
+})
+@interface ConsultaEnCache {
+}
@@ -1,9 +1,30 @@
 package GestionUsuarios.GestionUsuarios.repository;
 
+import GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
 import GestionUsuarios.GestionUsuarios.model.EmpleadoVentas;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface EmpleadoVentasRepository extends JpaRepository<EmpleadoVentas, Long> {
-}
\ No newline at end of file
+
+    @ConsultaEnCache
+    @Query("select new GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO(u.version, u.email, u.rut.numero) "
+            + "from EmpleadoVentas u where u.id = :id")
+    Optional<EstadoUsuarioDTO> findEstadoById(@Param("id") Long id);
+
+    @ConsultaEnCache
+    @Query("select count(u) as total, coalesce(sum(u.version), 0) as sumaVersiones, coalesce(max(u.id), 0) as maxId from EmpleadoVentas u")
+    EstadoColeccion obtenerEstadoColeccion();
+
+    // Listado de GET /empleados-ventas, proyectado al DTO como en ClienteRepository.listarRespuestas
+    @Query("select new GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasResponseDTO(u.id, u.nombre, u.email, u.fechaNacimiento, u.rut, "
+            + "u.tipoUsuario.id, u.tipoUsuario.nombre, u.fechaContratacion, u.salario) from EmpleadoVentas u order by u.id")
+    List<EmpleadoVentasResponseDTO> listarRespuestas();
+}
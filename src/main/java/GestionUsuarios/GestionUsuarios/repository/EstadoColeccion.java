@@ -0,0 +1,16 @@
+package GestionUsuarios.GestionUsuarios.repository;
+
+// Resumen agregado de una tabla usado como validador de colección (ETag débil).
+// Cualquier alta, baja o modificación cambia al menos uno de los tres valores, porque las versiones solo crecen.
+public interface EstadoColeccion {
+
+    Long getTotal();
+
+    Long getSumaVersiones();
+
+    Long getMaxId();
+
+    default String comoEtag() {
+        return "W/\"" + getTotal() + "-" + getSumaVersiones() + "-" + getMaxId() + "\"";
+    }
+}
@@ -1,9 +1,30 @@
 package GestionUsuarios.GestionUsuarios.repository;
 
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaResponseDTO;
 import GestionUsuarios.GestionUsuarios.model.GerenteTienda;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface GerenteTiendaRepository extends JpaRepository<GerenteTienda, Long> {
-}
\ No newline at end of file
+
+    @ConsultaEnCache
+    @Query("select new GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO(u.version, u.email, u.rut.numero) "
+            + "from GerenteTienda u where u.id = :id")
+    Optional<EstadoUsuarioDTO> findEstadoById(@Param("id") Long id);
+
+    @ConsultaEnCache
+    @Query("select count(u) as total, coalesce(sum(u.version), 0) as sumaVersiones, coalesce(max(u.id), 0) as maxId from GerenteTienda u")
+    EstadoColeccion obtenerEstadoColeccion();
+
+    // Listado de GET /gerentes-tienda, proyectado al DTO como en ClienteRepository.listarRespuestas
+    @Query("select new GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaResponseDTO(u.id, u.nombre, u.email, u.fechaNacimiento, u.rut, "
+            + "u.tipoUsuario.id, u.tipoUsuario.nombre, u.anosExperiencia, u.tiendaAsignada) from GerenteTienda u order by u.id")
+    List<GerenteTiendaResponseDTO> listarRespuestas();
+}
@@ -0,0 +1,65 @@
+package GestionUsuarios.GestionUsuarios.repository;
+
+import GestionUsuarios.GestionUsuarios.DTO.CursorPedidoDTO;
+import GestionUsuarios.GestionUsuarios.DTO.FiltroPedidosDTO;
+import GestionUsuarios.GestionUsuarios.model.Pedido;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+// Predicados de filtrado de pedidos y del cursor keyset. Sin rango de fechas el listado se ordena por id y cada
+// filtro de igualdad tiene su índice (columna, id): el motor usa uno y lee las filas ya en el orden del cursor.
+// Con rango de fechas el orden y el cursor pasan a ser (fecha_pedido, id), que idx_pedidos_fecha_pedido y
+// idx_pedidos_cliente_fecha entregan ordenados; cada página arranca en el cursor y no relee el rango entero.
+// Las demás combinaciones (estado o método de pago junto a otro filtro) usan uno de esos índices y evalúan
+// el resto de los filtros fila a fila.
+public final class PedidoEspecificaciones {
+
+    private PedidoEspecificaciones() {
+    }
+
+    public static Specification<Pedido> conFiltro(FiltroPedidosDTO filtro, CursorPedidoDTO after) {
+        Specification<Pedido> cursor = after == null ? null
+                : filtro.tieneRangoDeFechas() ? posteriorA(after.getFechaPedido(), after.getId()) : idMayorQue(after.getId());
+        return Specification.where(cursor)
+                .and(deCliente(filtro.getClienteId()))
+                .and(conEstado(filtro.getEstado()))
+                .and(conMetodoPago(filtro.getMetodoPago()))
+                .and(desde(filtro.getDesde()))
+                .and(hasta(filtro.getHasta()));
+    }
+
+    // Las especificaciones nulas se ignoran al combinarlas
+    static Specification<Pedido> idMayorQue(Long after) {
+        return after == null ? null : (root, query, cb) -> cb.greaterThan(root.get("id"), after);
+    }
+
+    // (fecha_pedido, id) > (fecha, id). La condición redundante fecha_pedido >= fecha acota el rango del índice;
+    // el OR por sí solo no se resuelve con un seek
+    static Specification<Pedido> posteriorA(LocalDateTime fecha, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("fechaPedido"), fecha),
+                cb.or(cb.greaterThan(root.get("fechaPedido"), fecha), cb.greaterThan(root.get("id"), id)));
+    }
+
+    // cliente.id se resuelve sobre la columna cliente_id, sin JOIN a clientes
+    static Specification<Pedido> deCliente(Long clienteId) {
+        return clienteId == null ? null : (root, query, cb) -> cb.equal(root.get("cliente").get("id"), clienteId);
+    }
+
+    static Specification<Pedido> conEstado(String estado) {
+        return estado == null ? null : (root, query, cb) -> cb.equal(root.get("estado"), estado);
+    }
+
+    static Specification<Pedido> conMetodoPago(String metodoPago) {
+        return metodoPago == null ? null : (root, query, cb) -> cb.equal(root.get("metodoPago"), metodoPago);
+    }
+
+    static Specification<Pedido> desde(LocalDateTime desde) {
+        return desde == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("fechaPedido"), desde);
+    }
+
+    static Specification<Pedido> hasta(LocalDateTime hasta) {
+        return hasta == null ? null : (root, query, cb) -> cb.lessThan(root.get("fechaPedido"), hasta);
+    }
+}
@@ -1,9 +1,73 @@
 package GestionUsuarios.GestionUsuarios.repository;
 
+import GestionUsuarios.GestionUsuarios.DTO.PedidoExportDTO;
 import GestionUsuarios.GestionUsuarios.model.Pedido;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface PedidoRepository extends JpaRepository<Pedido, Long> {
-}
\ No newline at end of file
+public interface PedidoRepository extends JpaRepository<Pedido, Long>, JpaSpecificationExecutor<Pedido> {
+
+    // Paginación por cursor (keyset): recorre el índice de la PK desde el último id visto.
+    // El grafo trae el cliente en el mismo SELECT para evitar el N+1 al mapear; el tipo de usuario
+    // se resuelve desde TipoUsuarioCache.
+    @EntityGraph(attributePaths = "cliente")
+    List<Pedido> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Override
+    @EntityGraph(attributePaths = "cliente")
+    Optional<Pedido> findById(Long id);
+
+    // Proyección directa a DTO (sin entidades en el contexto de persistencia) leída con un cursor JDBC.
+    // Debe consumirse dentro de una transacción y cerrarse al terminar.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new GestionUsuarios.GestionUsuarios.DTO.PedidoExportDTO("
+            + "p.id, p.fechaPedido, p.estado, p.total, p.cliente.id, p.direccionEnvio, p.metodoPago) "
+            + "from Pedido p "
+            + "where (:desde is null or p.fechaPedido >= :desde) and (:hasta is null or p.fechaPedido < :hasta) "
+            + "order by p.id")
+    Stream<PedidoExportDTO> streamParaExportar(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    // Ids de un bloque de pedidos del cliente, leídos del índice (cliente_id, id) para el borrado masivo
+    @Query("select p.id from Pedido p where p.cliente.id = :clienteId order by p.id")
+    List<Long> findIdsByClienteId(@Param("clienteId") Long clienteId, Limit limit);
+
+    // Importe en centavos redondeado por pedido, igual que el acumulado incremental en memoria
+    String VENTAS = "count(p) as cantidad, cast(sum(round(p.total * 100, 0)) as Long) as centavos from Pedido p ";
+
+    String AGRUPAR_VENTAS = "select cast(p.fechaPedido as LocalDate) as dia, p.estado as estado, "
+            + "p.metodoPago as metodoPago, p.cliente.id as clienteId, " + VENTAS;
+
+    // Reconstrucción de las estadísticas de ventas, una agregación por dimensión (las demás quedan en null):
+    // agrupar por las cuatro a la vez da casi un grupo por pedido (día × cliente) y con decenas de millones
+    // de pedidos ni la base ni la JVM pueden tenerlos todos en memoria
+    @Query("select cast(p.fechaPedido as LocalDate) as dia, " + VENTAS + "group by cast(p.fechaPedido as LocalDate)")
+    List<VentasAgrupadas> agruparVentasPorDia();
+
+    @Query("select p.estado as estado, " + VENTAS + "group by p.estado")
+    List<VentasAgrupadas> agruparVentasPorEstado();
+
+    @Query("select p.metodoPago as metodoPago, " + VENTAS + "group by p.metodoPago")
+    List<VentasAgrupadas> agruparVentasPorMetodoPago();
+
+    @Query("select p.cliente.id as clienteId, " + VENTAS + "group by p.cliente.id")
+    List<VentasAgrupadas> agruparVentasPorCliente();
+
+    // Ventas de un cliente, leídas por el índice (cliente_id, id) antes de su borrado masivo
+    @Query(AGRUPAR_VENTAS + "where p.cliente.id = :clienteId "
+            + "group by cast(p.fechaPedido as LocalDate), p.estado, p.metodoPago, p.cliente.id")
+    List<VentasAgrupadas> agruparVentasDeCliente(@Param("clienteId") Long clienteId);
+}
@@ -0,0 +1,20 @@
+package GestionUsuarios.GestionUsuarios.repository;
+
+import GestionUsuarios.GestionUsuarios.model.Usuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+// Acceso polimórfico a todos los subtipos; las búsquedas van por el fragmento BusquedaUsuarios
+@Repository
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, BusquedaUsuarios {
+
+    // Confirmación de un positivo del filtro de unicidad: lee el índice único de la tabla base y excluye
+    // al propio usuario en una actualización (idExcluido null en un alta)
+    @Query("select count(u) > 0 from Usuario u where u.email = :email and (:idExcluido is null or u.id <> :idExcluido)")
+    boolean existeEmail(@Param("email") String email, @Param("idExcluido") Long idExcluido);
+
+    @Query("select count(u) > 0 from Usuario u where u.rut.numero = :numero and (:idExcluido is null or u.id <> :idExcluido)")
+    boolean existeRut(@Param("numero") int numero, @Param("idExcluido") Long idExcluido);
+}
@@ -0,0 +1,23 @@
+package GestionUsuarios.GestionUsuarios.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Fila agregada de pedidos por día, estado, método de pago y cliente. El importe viene en
+ * centavos redondeados pedido a pedido, igual que los acumula EstadisticasPedidosService.
+ * Las agregaciones por una sola dimensión devuelven null en las otras.
+ */
+public interface VentasAgrupadas {
+
+    LocalDate getDia();
+
+    String getEstado();
+
+    String getMetodoPago();
+
+    Long getClienteId();
+
+    Long getCantidad();
+
+    Long getCentavos();
+}
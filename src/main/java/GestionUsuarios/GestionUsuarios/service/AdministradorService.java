@@ -2,72 +2,147 @@ package GestionUsuarios.GestionUsuarios.service;
 
 import GestionUsuarios.GestionUsuarios.DTO.AdministradorRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.AdministradorResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
+import GestionUsuarios.GestionUsuarios.exception.PreconditionFailedException;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 import GestionUsuarios.GestionUsuarios.mapper.AdministradorMapper;
 import GestionUsuarios.GestionUsuarios.model.Administrador;
 import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
 import GestionUsuarios.GestionUsuarios.repository.AdministradorRepository;
-import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class AdministradorService {
 
     private final AdministradorRepository administradorRepository;
-    private final TipoUsuarioRepository tipoUsuarioRepository;
+    private final TipoUsuarioCache tipoUsuarioCache;
     private final AdministradorMapper administradorMapper;
+    private final CacheRespuestas cacheRespuestas;
+    private final HashContrasenas hashContrasenas;
+    private final TransactionTemplate transaccion;
+    private final AutocompletadoUsuariosService autocompletado;
+    private final UnicidadUsuariosService unicidadUsuarios;
+    private final ReintentosOptimistas reintentos;
 
     public AdministradorService(AdministradorRepository administradorRepository,
-                                TipoUsuarioRepository tipoUsuarioRepository,
-                                AdministradorMapper administradorMapper) {
+                                TipoUsuarioCache tipoUsuarioCache,
+                                AdministradorMapper administradorMapper,
+                                CacheRespuestas cacheRespuestas,
+                                HashContrasenas hashContrasenas,
+                                TransactionTemplate transaccion,
+                                AutocompletadoUsuariosService autocompletado,
+                                UnicidadUsuariosService unicidadUsuarios,
+                                ReintentosOptimistas reintentos) {
         this.administradorRepository = administradorRepository;
-        this.tipoUsuarioRepository = tipoUsuarioRepository;
+        this.tipoUsuarioCache = tipoUsuarioCache;
         this.administradorMapper = administradorMapper;
+        this.cacheRespuestas = cacheRespuestas;
+        this.hashContrasenas = hashContrasenas;
+        this.transaccion = transaccion;
+        this.autocompletado = autocompletado;
+        this.unicidadUsuarios = unicidadUsuarios;
+        this.reintentos = reintentos;
     }
 
     @Transactional(readOnly = true)
     public List<AdministradorResponseDTO> obtenerTodosLosAdministradores() {
-        return administradorRepository.findAll().stream()
-                .map(administradorMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return administradorRepository.listarRespuestas();
     }
 
+    public VersionadoDTO<AdministradorResponseDTO> obtenerAdministradorPorId(Long id) {
+        return cacheRespuestas.obtener(CacheRespuestas.ADMINISTRADORES, id, () -> {
+            Administrador administrador = administradorRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Administrador no encontrado con id: " + id));
+            return new VersionadoDTO<>(administradorMapper.toResponseDTO(administrador), String.valueOf(administrador.getVersion()));
+        });
+    }
+
+    // Versión, email y RUT sin cargar la entidad: If-Match y unicidad de las actualizaciones
     @Transactional(readOnly = true)
-    public AdministradorResponseDTO obtenerAdministradorPorId(Long id) {
-        Administrador administrador = administradorRepository.findById(id)
+    public EstadoUsuarioDTO obtenerEstadoAdministrador(Long id) {
+        return administradorRepository.findEstadoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Administrador no encontrado con id: " + id));
-        return administradorMapper.toResponseDTO(administrador);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
+    public String obtenerEtagAdministradores() {
+        return administradorRepository.obtenerEstadoColeccion().comoEtag();
+    }
+
+    // El hash BCrypt (CPU) se calcula antes de abrir la transacción para no retener una conexión mientras tanto
+    // y solo si el email y el RUT están libres, para no gastarlo en un registro duplicado
     public AdministradorResponseDTO crearAdministrador(AdministradorRequestDTO requestDTO) {
-        TipoUsuario tipoUsuario = tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())
-                .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
+        unicidadUsuarios.comprobarDisponibles(requestDTO.getEmail(), requestDTO.getRut(), null);
+        String hash = hashContrasenas.hashear(requestDTO.getPassword());
+        return transaccion.execute(estado -> {
+            TipoUsuario tipoUsuario = tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())
+                    .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
 
-        Administrador administrador = administradorMapper.toEntity(requestDTO);
-        administrador.setTipoUsuario(tipoUsuario);
+            Administrador administrador = administradorMapper.toEntity(requestDTO);
+            administrador.setTipoUsuario(tipoUsuario);
+            administrador.setPassword(hash);
 
-        Administrador nuevoAdministrador = administradorRepository.save(administrador);
-        return administradorMapper.toResponseDTO(nuevoAdministrador);
+            Administrador nuevoAdministrador = administradorRepository.save(administrador);
+            autocompletado.registrar(nuevoAdministrador);
+            unicidadUsuarios.registrar(nuevoAdministrador);
+            return administradorMapper.toResponseDTO(nuevoAdministrador);
+        });
     }
 
-    @Transactional
+    // Para llamadores internos, sin If-Match: un conflicto de versión se reintenta (ReintentosOptimistas)
+    // con una transacción nueva que relee la entidad, en vez de devolverse como 409
     public AdministradorResponseDTO actualizarAdministrador(Long id, AdministradorRequestDTO requestDTO) {
-        Administrador administradorExistente = administradorRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Administrador no encontrado con id: " + id));
+        // Unicidad y hash una sola vez: cada reintento repite solo la transacción, que relee la entidad
+        String hash = prepararActualizacion(id, requestDTO, null);
+        return reintentos.ejecutar(() -> guardarActualizacion(id, requestDTO, null, hash)).getRespuesta();
+    }
+
+    // versionEsperada viene de If-Match; null omite la precondición, pero la columna @Version sigue
+    // rechazando en el flush cualquier escritura concurrente confirmada después de la lectura
+    public VersionadoDTO<AdministradorResponseDTO> actualizarAdministrador(Long id, AdministradorRequestDTO requestDTO, Long versionEsperada) {
+        String hash = prepararActualizacion(id, requestDTO, versionEsperada);
+        return guardarActualizacion(id, requestDTO, versionEsperada, hash);
+    }
+
+    // Fuera de la transacción: existencia, If-Match, unicidad y hash de la contraseña (null si la petición no la cambia)
+    private String prepararActualizacion(Long id, AdministradorRequestDTO requestDTO, Long versionEsperada) {
+        EstadoUsuarioDTO actual = obtenerEstadoAdministrador(id);
+        Long versionActual = actual.getVersion();
+        if (versionEsperada != null && !versionEsperada.equals(versionActual)) {
+            throw new PreconditionFailedException("Administrador con id " + id + " fue modificado; versión actual: " + versionActual);
+        }
+        unicidadUsuarios.comprobarCambios(id, actual, requestDTO.getEmail(), requestDTO.getRut());
+        return hashContrasenas.hashearSiPresente(requestDTO.getPassword());
+    }
+
+    private VersionadoDTO<AdministradorResponseDTO> guardarActualizacion(Long id, AdministradorRequestDTO requestDTO, Long versionEsperada, String hash) {
+        return transaccion.execute(estado -> {
+            Administrador administradorExistente = administradorRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Administrador no encontrado con id: " + id));
+            if (versionEsperada != null && !versionEsperada.equals(administradorExistente.getVersion())) {
+                throw new PreconditionFailedException("Administrador con id " + id + " fue modificado; versión actual: " + administradorExistente.getVersion());
+            }
 
-        TipoUsuario tipoUsuario = tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())
-                .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
+            TipoUsuario tipoUsuario = tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())
+                    .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
 
-        administradorMapper.updateEntityFromDto(requestDTO, administradorExistente);
-        administradorExistente.setTipoUsuario(tipoUsuario);
+            administradorMapper.updateEntityFromDto(requestDTO, administradorExistente);
+            if (hash != null) {
+                administradorExistente.setPassword(hash);
+            }
+            administradorExistente.setTipoUsuario(tipoUsuario);
 
-        Administrador administradorActualizado = administradorRepository.save(administradorExistente);
-        return administradorMapper.toResponseDTO(administradorActualizado);
+            Administrador administradorActualizado = administradorRepository.saveAndFlush(administradorExistente);
+            autocompletado.registrar(administradorActualizado);
+            unicidadUsuarios.registrar(administradorActualizado);
+            cacheRespuestas.invalidar(CacheRespuestas.ADMINISTRADORES, id);
+            return new VersionadoDTO<>(administradorMapper.toResponseDTO(administradorActualizado), String.valueOf(administradorActualizado.getVersion()));
+        });
     }
 
     @Transactional
@@ -76,5 +151,7 @@ public class AdministradorService {
             throw new ResourceNotFoundException("Administrador no encontrado con id: " + id);
         }
         administradorRepository.deleteById(id);
+        autocompletado.eliminar(id);
+        cacheRespuestas.invalidar(CacheRespuestas.ADMINISTRADORES, id);
     }
 }
\ No newline at end of file
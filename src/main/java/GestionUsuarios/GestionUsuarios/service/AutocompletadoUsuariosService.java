@@ -0,0 +1,230 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import GestionUsuarios.GestionUsuarios.DTO.FiltroUsuariosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.SugerenciaUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.DTO.UsuarioResumenDTO;
+import GestionUsuarios.GestionUsuarios.exception.ServiceUnavailableException;
+import GestionUsuarios.GestionUsuarios.model.Usuario;
+import GestionUsuarios.GestionUsuarios.repository.UsuarioRepository;
+import jakarta.persistence.DiscriminatorValue;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de prefijos en memoria para el autocompletado de usuarios (todos los subtipos) por nombre
+ * y email. Las claves normalizadas (minúsculas, sin tildes) viven en ConcurrentSkipListMap, así que
+ * un prefijo es un subMap recorrido en orden hasta llenar el límite: O(log n + límite) y sin tocar la base.
+ * El nombre se indexa desde el inicio de cada una de sus primeras palabras ("perez" encuentra a
+ * "Juan Pérez") y las claves se truncan; los prefijos más largos se verifican contra el valor completo.
+ * Con los topes actuales son a lo sumo 1 + MAXIMO_PALABRAS claves cortas por usuario, del orden de
+ * 0,5 KB en total por usuario (unos 500 MB por millón).
+ * Los servicios de cada subtipo registran altas, cambios y bajas al confirmar la transacción; las
+ * escrituras se serializan y son idempotentes, así que una reconstrucción concurrente no las pierde.
+ */
+@Service
+public class AutocompletadoUsuariosService {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompletadoUsuariosService.class);
+
+    static final int LONGITUD_CLAVE = 24;
+    static final int MAXIMO_PALABRAS = 3;
+    public static final int LIMITE_MAXIMO = 20;
+
+    private static final int TAMANO_BLOQUE_CARGA = 1000;
+    // Ordena antes que cualquier carácter del texto normalizado, así "ana" y "ana maria" no se mezclan
+    private static final char SEPARADOR = '\u0000';
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("[\\s\\p{Cntrl}]+");
+
+    private final UsuarioRepository usuarioRepository;
+
+    private volatile Tablas tablas = new Tablas();
+    // Hasta la primera carga el índice solo tiene las altas recientes: sugerir responde 503 en lugar de resultados parciales
+    private volatile boolean cargado;
+
+    public AutocompletadoUsuariosService(UsuarioRepository usuarioRepository) {
+        this.usuarioRepository = usuarioRepository;
+    }
+
+    // La lanza CargasIniciales en segundo plano después del arranque
+    public void precargar() {
+        long inicio = System.nanoTime();
+        reconstruir();
+        log.info("Índice de autocompletado cargado en {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+    }
+
+    // Carga por cursor con la proyección de la tabla base (sin entidades ni joins a los subtipos)
+    public synchronized void reconstruir() {
+        Tablas nuevas = new Tablas();
+        FiltroUsuariosDTO sinFiltro = new FiltroUsuariosDTO();
+        Long after = null;
+        List<UsuarioResumenDTO> bloque;
+        do {
+            bloque = usuarioRepository.buscarResumenes(sinFiltro, after, TAMANO_BLOQUE_CARGA);
+            for (UsuarioResumenDTO usuario : bloque) {
+                nuevas.agregar(new Entrada(usuario.getId(), usuario.getNombre(), usuario.getEmail(), usuario.getTipo()));
+            }
+            if (!bloque.isEmpty()) {
+                after = bloque.get(bloque.size() - 1).getId();
+            }
+        } while (bloque.size() == TAMANO_BLOQUE_CARGA);
+        tablas = nuevas;
+        cargado = true;
+    }
+
+    public boolean estaCargado() {
+        return cargado;
+    }
+
+    // Alta o cambio: los valores se toman ahora y se aplican solo si la transacción confirma
+    void registrar(Usuario usuario) {
+        Entrada entrada = new Entrada(usuario.getId(), usuario.getNombre(), usuario.getEmail(), tipoDe(usuario));
+        SincronizacionTransaccion.alConfirmar(() -> aplicar(entrada));
+    }
+
+    void eliminar(Long id) {
+        SincronizacionTransaccion.alConfirmar(() -> quitar(id));
+    }
+
+    private synchronized void aplicar(Entrada entrada) {
+        Tablas actuales = tablas;
+        actuales.quitar(entrada.id());
+        actuales.agregar(entrada);
+    }
+
+    private synchronized void quitar(Long id) {
+        tablas.quitar(id);
+    }
+
+    // Coincidencias por nombre primero y luego por email, sin repetir usuarios
+    public List<SugerenciaUsuarioDTO> sugerir(String consulta, int limit) {
+        if (!cargado) {
+            throw new ServiceUnavailableException("El índice de autocompletado aún se está cargando");
+        }
+        int tamano = Math.max(1, Math.min(limit, LIMITE_MAXIMO));
+        String prefijo = normalizar(consulta);
+        if (prefijo.isEmpty()) {
+            return List.of();
+        }
+        Tablas actuales = tablas;
+        Map<Long, Entrada> encontradas = new LinkedHashMap<>();
+        buscar(actuales.porNombre, prefijo, true, tamano, encontradas);
+        buscar(actuales.porEmail, prefijo, false, tamano, encontradas);
+
+        List<SugerenciaUsuarioDTO> sugerencias = new ArrayList<>(encontradas.size());
+        encontradas.values().forEach(entrada -> sugerencias.add(
+                new SugerenciaUsuarioDTO(entrada.id(), entrada.nombre(), entrada.email(), entrada.tipo())));
+        return sugerencias;
+    }
+
+    private static void buscar(NavigableMap<String, Entrada> indice, String prefijo, boolean porNombre,
+                               int tamano, Map<Long, Entrada> encontradas) {
+        String clave = truncar(prefijo);
+        boolean verificar = clave.length() < prefijo.length();
+        for (Entrada entrada : indice.subMap(clave, true, clave + Character.MAX_VALUE, false).values()) {
+            if (encontradas.size() >= tamano) {
+                return;
+            }
+            if (!verificar || coincideCompleto(entrada, prefijo, porNombre)) {
+                encontradas.putIfAbsent(entrada.id(), entrada);
+            }
+        }
+    }
+
+    // Solo para prefijos más largos que la clave truncada
+    private static boolean coincideCompleto(Entrada entrada, String prefijo, boolean porNombre) {
+        if (!porNombre) {
+            return normalizar(entrada.email()).startsWith(prefijo);
+        }
+        String nombre = normalizar(entrada.nombre());
+        return nombre.startsWith(prefijo) || nombre.contains(" " + prefijo);
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(sinTildes).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String truncar(String texto) {
+        return texto.length() > LONGITUD_CLAVE ? texto.substring(0, LONGITUD_CLAVE) : texto;
+    }
+
+    // tipoEntidad no es insertable: en un alta recién guardada sigue en null y se toma de la subclase
+    private static String tipoDe(Usuario usuario) {
+        if (usuario.getTipoEntidad() != null) {
+            return usuario.getTipoEntidad();
+        }
+        DiscriminatorValue discriminador = Hibernate.getClass(usuario).getAnnotation(DiscriminatorValue.class);
+        return discriminador != null ? discriminador.value() : null;
+    }
+
+    private record Entrada(Long id, String nombre, String email, String tipo) {
+
+        List<String> clavesNombre() {
+            String nombre = normalizar(this.nombre);
+            List<String> claves = new ArrayList<>(MAXIMO_PALABRAS);
+            int inicio = 0;
+            while (inicio >= 0 && inicio < nombre.length() && claves.size() < MAXIMO_PALABRAS) {
+                claves.add(clave(nombre.substring(inicio)));
+                int espacio = nombre.indexOf(' ', inicio);
+                inicio = espacio < 0 ? -1 : espacio + 1;
+            }
+            return claves;
+        }
+
+        String claveEmail() {
+            String email = normalizar(this.email);
+            return email.isEmpty() ? null : clave(email);
+        }
+
+        private String clave(String texto) {
+            return truncar(texto) + SEPARADOR + id;
+        }
+    }
+
+    private static final class Tablas {
+        private final ConcurrentSkipListMap<String, Entrada> porNombre = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListMap<String, Entrada> porEmail = new ConcurrentSkipListMap<>();
+        // Última entrada indexada de cada usuario, para retirar sus claves en un cambio o una baja
+        private final ConcurrentMap<Long, Entrada> porId = new ConcurrentHashMap<>();
+
+        void agregar(Entrada entrada) {
+            entrada.clavesNombre().forEach(clave -> porNombre.put(clave, entrada));
+            String claveEmail = entrada.claveEmail();
+            if (claveEmail != null) {
+                porEmail.put(claveEmail, entrada);
+            }
+            porId.put(entrada.id(), entrada);
+        }
+
+        void quitar(Long id) {
+            Entrada anterior = porId.remove(id);
+            if (anterior == null) {
+                return;
+            }
+            anterior.clavesNombre().forEach(porNombre::remove);
+            String claveEmail = anterior.claveEmail();
+            if (claveEmail != null) {
+                porEmail.remove(claveEmail);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import GestionUsuarios.GestionUsuarios.DTO.PedidoResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caché de lectura de los *ResponseDTO de las consultas por id, cada uno con la versión leída junto a él (el
+ * ETag de la respuesta), con expiración por TTL y tamaño máximo por entidad. Las operaciones actualizar/eliminar invalidan la entrada exacta; los pedidos
+ * guardan además un índice inverso por cliente para invalidarse cuando cambia el cliente embebido.
+ * La caché se consulta fuera de toda transacción: un acierto no abre transacción ni toma una conexión
+ * del pool; solo el cargador de un fallo corre en una transacción de solo lectura (o se une a la del llamador).
+ */
+@Component
+public class CacheRespuestas {
+
+    public static final String CLIENTES = "clientes";
+    public static final String PEDIDOS = "pedidos";
+    public static final String ADMINISTRADORES = "administradores";
+    public static final String EMPLEADOS_VENTAS = "empleados-ventas";
+    public static final String GERENTES_TIENDA = "gerentes-tienda";
+
+    private final Map<String, Cache<Long, Object>> caches = new HashMap<>();
+    // clienteId -> ids de pedidos en caché que embeben a ese cliente
+    private final Map<Long, Set<Long>> pedidosPorCliente = new ConcurrentHashMap<>();
+    private final TransactionTemplate lectura;
+
+    public CacheRespuestas(CacheRespuestasProperties properties, MeterRegistry meterRegistry,
+                           PlatformTransactionManager transactionManager) {
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        for (String entidad : new String[] {CLIENTES, PEDIDOS, ADMINISTRADORES, EMPLEADOS_VENTAS, GERENTES_TIENDA}) {
+            if (!properties.estaHabilitada(entidad)) {
+                continue;
+            }
+            Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                    .expireAfterWrite(properties.ttlDe(entidad))
+                    .maximumSize(properties.tamanoMaximoDe(entidad))
+                    .recordStats();
+            // evictionListener corre de forma atómica con el desalojo (TTL/tamaño); las invalidaciones
+            // explícitas dejan como mucho una entrada sobrante en el índice, que es inocua
+            Cache<Long, Object> cache = PEDIDOS.equals(entidad)
+                    ? builder.<Long, Object>evictionListener((id, valor, causa) -> desindexarPedido(id, valor)).build()
+                    : builder.build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "respuestas." + entidad);
+            caches.put(entidad, cache);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T obtener(String entidad, Long id, Supplier<T> cargador) {
+        Cache<Long, Object> cache = caches.get(entidad);
+        if (cache == null) {
+            return cargar(cargador);
+        }
+        return (T) cache.get(id, clave -> cargar(cargador));
+    }
+
+    private <T> T cargar(Supplier<T> cargador) {
+        return lectura.execute(estado -> cargador.get());
+    }
+
+    public VersionadoDTO<PedidoResponseDTO> obtenerPedido(Long id, Supplier<VersionadoDTO<PedidoResponseDTO>> cargador) {
+        return obtener(PEDIDOS, id, () -> {
+            VersionadoDTO<PedidoResponseDTO> versionado = cargador.get();
+            PedidoResponseDTO pedido = versionado != null ? versionado.getRespuesta() : null;
+            if (pedido != null && pedido.getCliente() != null && pedido.getCliente().getId() != null) {
+                pedidosPorCliente.computeIfAbsent(pedido.getCliente().getId(), clave -> ConcurrentHashMap.newKeySet())
+                        .add(id);
+            }
+            return versionado;
+        });
+    }
+
+    public void invalidar(String entidad, Long id) {
+        Cache<Long, Object> cache = caches.get(entidad);
+        if (cache != null) {
+            SincronizacionTransaccion.ahoraYAlCompletar(() -> cache.invalidate(id));
+        }
+    }
+
+    public void invalidarPedidosDeCliente(Long clienteId) {
+        Cache<Long, Object> cache = caches.get(PEDIDOS);
+        if (cache != null) {
+            SincronizacionTransaccion.ahoraYAlCompletar(() -> {
+                Set<Long> pedidos = pedidosPorCliente.remove(clienteId);
+                if (pedidos != null) {
+                    cache.invalidateAll(pedidos);
+                }
+            });
+        }
+    }
+
+    private void desindexarPedido(Long pedidoId, Object valor) {
+        if (valor instanceof VersionadoDTO<?> versionado && versionado.getRespuesta() instanceof PedidoResponseDTO pedido
+                && pedido.getCliente() != null) {
+            pedidosPorCliente.computeIfPresent(pedido.getCliente().getId(), (clienteId, pedidos) -> {
+                pedidos.remove(pedidoId);
+                return pedidos.isEmpty() ? null : pedidos;
+            });
+        }
+    }
+}
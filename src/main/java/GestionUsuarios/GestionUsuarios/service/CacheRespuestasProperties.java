@@ -0,0 +1,46 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuración de {@link CacheRespuestas}. Los valores globales aplican a todas las entidades
+ * y pueden sobrescribirse por entidad, p. ej. {@code cache.respuestas.entidades.pedidos.habilitado=false}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache.respuestas")
+public class CacheRespuestasProperties {
+
+    private boolean habilitado = true;
+    private Duration ttl = Duration.ofMinutes(5);
+    private long tamanoMaximo = 10_000;
+    private Map<String, Entidad> entidades = new HashMap<>();
+
+    @Data
+    public static class Entidad {
+        private Boolean habilitado;
+        private Duration ttl;
+        private Long tamanoMaximo;
+    }
+
+    public boolean estaHabilitada(String entidad) {
+        Entidad config = entidades.get(entidad);
+        return config != null && config.getHabilitado() != null ? config.getHabilitado() : habilitado;
+    }
+
+    public Duration ttlDe(String entidad) {
+        Entidad config = entidades.get(entidad);
+        return config != null && config.getTtl() != null ? config.getTtl() : ttl;
+    }
+
+    public long tamanoMaximoDe(String entidad) {
+        Entidad config = entidades.get(entidad);
+        return config != null && config.getTamanoMaximo() != null ? config.getTamanoMaximo() : tamanoMaximo;
+    }
+}
@@ -2,79 +2,187 @@ package GestionUsuarios.GestionUsuarios.service;
 
 import GestionUsuarios.GestionUsuarios.DTO.ClienteRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.ClienteResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
+import GestionUsuarios.GestionUsuarios.exception.PreconditionFailedException;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 import GestionUsuarios.GestionUsuarios.mapper.ClienteMapper;
 import GestionUsuarios.GestionUsuarios.model.Cliente;
 import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
 import GestionUsuarios.GestionUsuarios.repository.ClienteRepository;
-import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
+import GestionUsuarios.GestionUsuarios.repository.PedidoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class ClienteService {
 
     private final ClienteRepository clienteRepository;
-    private final TipoUsuarioRepository tipoUsuarioRepository;
+    private final PedidoRepository pedidoRepository;
+    private final TipoUsuarioCache tipoUsuarioCache;
     private final ClienteMapper clienteMapper;
+    private final CacheRespuestas cacheRespuestas;
+    private final EstadisticasPedidosService estadisticasPedidos;
+    private final HashContrasenas hashContrasenas;
+    private final TransactionTemplate transaccion;
+    private final AutocompletadoUsuariosService autocompletado;
+    private final UnicidadUsuariosService unicidadUsuarios;
+    private final ReintentosOptimistas reintentos;
+
+    // Pedidos borrados por sentencia al eliminar un cliente; acota el tamaño del IN y la memoria de ids
+    @Value("${clientes.eliminacion.tamano-bloque:1000}")
+    private int tamanoBloqueEliminacion = 1000;
 
     public ClienteService(ClienteRepository clienteRepository,
-                          TipoUsuarioRepository tipoUsuarioRepository,
-                          ClienteMapper clienteMapper) {
+                          PedidoRepository pedidoRepository,
+                          TipoUsuarioCache tipoUsuarioCache,
+                          ClienteMapper clienteMapper,
+                          CacheRespuestas cacheRespuestas,
+                          EstadisticasPedidosService estadisticasPedidos,
+                          HashContrasenas hashContrasenas,
+                          TransactionTemplate transaccion,
+                          AutocompletadoUsuariosService autocompletado,
+                          UnicidadUsuariosService unicidadUsuarios,
+                          ReintentosOptimistas reintentos) {
         this.clienteRepository = clienteRepository;
-        this.tipoUsuarioRepository = tipoUsuarioRepository;
+        this.pedidoRepository = pedidoRepository;
+        this.tipoUsuarioCache = tipoUsuarioCache;
         this.clienteMapper = clienteMapper;
+        this.cacheRespuestas = cacheRespuestas;
+        this.estadisticasPedidos = estadisticasPedidos;
+        this.hashContrasenas = hashContrasenas;
+        this.transaccion = transaccion;
+        this.autocompletado = autocompletado;
+        this.unicidadUsuarios = unicidadUsuarios;
+        this.reintentos = reintentos;
     }
 
+    // Proyección directa al DTO: no carga entidades (ni su password) ni pasa por el mapeador
     @Transactional(readOnly = true)
     public List<ClienteResponseDTO> obtenerTodosLosClientes() {
-        return clienteRepository.findAll().stream()
-                .map(clienteMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return clienteRepository.listarRespuestas();
+    }
+
+    // Sin @Transactional: la transacción de lectura la abre CacheRespuestas solo en un fallo. La versión se guarda
+    // en la misma entrada que el DTO, así el ETag siempre describe el cuerpo que se sirve
+    public VersionadoDTO<ClienteResponseDTO> obtenerClientePorId(Long id) {
+        return cacheRespuestas.obtener(CacheRespuestas.CLIENTES, id, () -> {
+            Cliente cliente = clienteRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con id: " + id));
+            return new VersionadoDTO<>(clienteMapper.toResponseDTO(cliente), String.valueOf(cliente.getVersion()));
+        });
     }
 
+    // Versión, email y RUT sin cargar la entidad: If-Match y unicidad de las actualizaciones
     @Transactional(readOnly = true)
-    public ClienteResponseDTO obtenerClientePorId(Long id) {
-        Cliente cliente = clienteRepository.findById(id)
+    public EstadoUsuarioDTO obtenerEstadoCliente(Long id) {
+        return clienteRepository.findEstadoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con id: " + id));
-        return clienteMapper.toResponseDTO(cliente);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
+    public String obtenerEtagClientes() {
+        return clienteRepository.obtenerEstadoColeccion().comoEtag();
+    }
+
+    // El hash BCrypt (CPU) se calcula antes de abrir la transacción para no retener una conexión mientras tanto
+    // y solo si el email y el RUT están libres, para no gastarlo en un registro duplicado
     public ClienteResponseDTO crearCliente(ClienteRequestDTO requestDTO) {
-        TipoUsuario tipoUsuario = tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())
-                .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
+        unicidadUsuarios.comprobarDisponibles(requestDTO.getEmail(), requestDTO.getRut(), null);
+        String hash = hashContrasenas.hashear(requestDTO.getPassword());
+        return transaccion.execute(estado -> {
+            TipoUsuario tipoUsuario = tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())
+                    .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
 
-        Cliente cliente = clienteMapper.toEntity(requestDTO);
-        cliente.setTipoUsuario(tipoUsuario);
+            Cliente cliente = clienteMapper.toEntity(requestDTO);
+            cliente.setTipoUsuario(tipoUsuario);
+            cliente.setPassword(hash);
 
-        Cliente nuevoCliente = clienteRepository.save(cliente);
-        return clienteMapper.toResponseDTO(nuevoCliente);
+            Cliente nuevoCliente = clienteRepository.save(cliente);
+            autocompletado.registrar(nuevoCliente);
+            unicidadUsuarios.registrar(nuevoCliente);
+            return clienteMapper.toResponseDTO(nuevoCliente);
+        });
     }
 
-    @Transactional
+    // Para llamadores internos, sin If-Match: un conflicto de versión se reintenta (ReintentosOptimistas)
+    // con una transacción nueva que relee la entidad, en vez de devolverse como 409
     public ClienteResponseDTO actualizarCliente(Long id, ClienteRequestDTO requestDTO) {
-        Cliente clienteExistente = clienteRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con id: " + id));
+        // Unicidad y hash una sola vez: cada reintento repite solo la transacción, que relee la entidad
+        String hash = prepararActualizacion(id, requestDTO, null);
+        return reintentos.ejecutar(() -> guardarActualizacion(id, requestDTO, null, hash)).getRespuesta();
+    }
+
+    // versionEsperada viene de If-Match; null omite la precondición, pero la columna @Version sigue
+    // rechazando en el flush cualquier escritura concurrente confirmada después de la lectura
+    public VersionadoDTO<ClienteResponseDTO> actualizarCliente(Long id, ClienteRequestDTO requestDTO, Long versionEsperada) {
+        String hash = prepararActualizacion(id, requestDTO, versionEsperada);
+        return guardarActualizacion(id, requestDTO, versionEsperada, hash);
+    }
+
+    // Fuera de la transacción: existencia, If-Match, unicidad y hash de la contraseña (null si la petición no la cambia)
+    private String prepararActualizacion(Long id, ClienteRequestDTO requestDTO, Long versionEsperada) {
+        // Existencia e If-Match antes de ocupar el pool de BCrypt: un id inexistente o una versión obsoleta
+        // responden 404/412 sin hashear. La transacción vuelve a comprobar sobre la entidad cargada.
+        EstadoUsuarioDTO actual = obtenerEstadoCliente(id);
+        Long versionActual = actual.getVersion();
+        if (versionEsperada != null && !versionEsperada.equals(versionActual)) {
+            throw new PreconditionFailedException("Cliente con id " + id + " fue modificado; versión actual: " + versionActual);
+        }
+        unicidadUsuarios.comprobarCambios(id, actual, requestDTO.getEmail(), requestDTO.getRut());
+        return hashContrasenas.hashearSiPresente(requestDTO.getPassword());
+    }
 
-        TipoUsuario tipoUsuario = tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())
-                .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
+    private VersionadoDTO<ClienteResponseDTO> guardarActualizacion(Long id, ClienteRequestDTO requestDTO, Long versionEsperada, String hash) {
+        return transaccion.execute(estado -> {
+            Cliente clienteExistente = clienteRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Cliente no encontrado con id: " + id));
+            if (versionEsperada != null && !versionEsperada.equals(clienteExistente.getVersion())) {
+                throw new PreconditionFailedException("Cliente con id " + id + " fue modificado; versión actual: " + clienteExistente.getVersion());
+            }
 
-        clienteMapper.updateEntityFromDto(requestDTO, clienteExistente);
-        clienteExistente.setTipoUsuario(tipoUsuario);
+            TipoUsuario tipoUsuario = tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())
+                    .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
 
-        Cliente clienteActualizado = clienteRepository.save(clienteExistente);
-        return clienteMapper.toResponseDTO(clienteActualizado);
+            clienteMapper.updateEntityFromDto(requestDTO, clienteExistente);
+            if (hash != null) {
+                clienteExistente.setPassword(hash);
+            }
+            clienteExistente.setTipoUsuario(tipoUsuario);
+
+            // El flush incrementa @Version dentro de la transacción: esa es la versión que escribió este cambio
+            Cliente clienteActualizado = clienteRepository.saveAndFlush(clienteExistente);
+            autocompletado.registrar(clienteActualizado);
+            unicidadUsuarios.registrar(clienteActualizado);
+            cacheRespuestas.invalidar(CacheRespuestas.CLIENTES, id);
+            cacheRespuestas.invalidarPedidosDeCliente(id);
+            return new VersionadoDTO<>(clienteMapper.toResponseDTO(clienteActualizado), String.valueOf(clienteActualizado.getVersion()));
+        });
     }
 
+    // Borrado masivo: deleteById cargaría el cliente y, por orphanRemoval, cada pedido para borrarlos de a uno.
+    // Los pedidos se borran por bloques de ids y el propio DELETE del cliente hace de comprobación de existencia.
     @Transactional
     public void eliminarCliente(Long id) {
-        if (!clienteRepository.existsById(id)) {
+        estadisticasPedidos.registrarBajasDeCliente(id);
+        List<Long> bloque;
+        do {
+            bloque = pedidoRepository.findIdsByClienteId(id, Limit.of(tamanoBloqueEliminacion));
+            if (!bloque.isEmpty()) {
+                pedidoRepository.deleteAllByIdInBatch(bloque);
+            }
+        } while (bloque.size() == tamanoBloqueEliminacion);
+
+        if (clienteRepository.eliminarPorId(id) == 0) {
             throw new ResourceNotFoundException("Cliente no encontrado con id: " + id);
         }
-        clienteRepository.deleteById(id);
+        autocompletado.eliminar(id);
+        cacheRespuestas.invalidar(CacheRespuestas.CLIENTES, id);
+        cacheRespuestas.invalidarPedidosDeCliente(id);
     }
 }
\ No newline at end of file
@@ -2,72 +2,147 @@ package GestionUsuarios.GestionUsuarios.service;
 
 import GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
+import GestionUsuarios.GestionUsuarios.exception.PreconditionFailedException;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 import GestionUsuarios.GestionUsuarios.mapper.EmpleadoVentasMapper;
 import GestionUsuarios.GestionUsuarios.model.EmpleadoVentas;
 import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
 import GestionUsuarios.GestionUsuarios.repository.EmpleadoVentasRepository;
-import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class EmpleadoVentasService {
 
     private final EmpleadoVentasRepository empleadoVentasRepository;
-    private final TipoUsuarioRepository tipoUsuarioRepository;
+    private final TipoUsuarioCache tipoUsuarioCache;
     private final EmpleadoVentasMapper empleadoVentasMapper;
+    private final CacheRespuestas cacheRespuestas;
+    private final HashContrasenas hashContrasenas;
+    private final TransactionTemplate transaccion;
+    private final AutocompletadoUsuariosService autocompletado;
+    private final UnicidadUsuariosService unicidadUsuarios;
+    private final ReintentosOptimistas reintentos;
 
     public EmpleadoVentasService(EmpleadoVentasRepository empleadoVentasRepository,
-                                 TipoUsuarioRepository tipoUsuarioRepository,
-                                 EmpleadoVentasMapper empleadoVentasMapper) {
+                                 TipoUsuarioCache tipoUsuarioCache,
+                                 EmpleadoVentasMapper empleadoVentasMapper,
+                                 CacheRespuestas cacheRespuestas,
+                                 HashContrasenas hashContrasenas,
+                                 TransactionTemplate transaccion,
+                                 AutocompletadoUsuariosService autocompletado,
+                                 UnicidadUsuariosService unicidadUsuarios,
+                                 ReintentosOptimistas reintentos) {
         this.empleadoVentasRepository = empleadoVentasRepository;
-        this.tipoUsuarioRepository = tipoUsuarioRepository;
+        this.tipoUsuarioCache = tipoUsuarioCache;
         this.empleadoVentasMapper = empleadoVentasMapper;
+        this.cacheRespuestas = cacheRespuestas;
+        this.hashContrasenas = hashContrasenas;
+        this.transaccion = transaccion;
+        this.autocompletado = autocompletado;
+        this.unicidadUsuarios = unicidadUsuarios;
+        this.reintentos = reintentos;
     }
 
     @Transactional(readOnly = true)
     public List<EmpleadoVentasResponseDTO> obtenerTodosLosEmpleadosVentas() {
-        return empleadoVentasRepository.findAll().stream()
-                .map(empleadoVentasMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return empleadoVentasRepository.listarRespuestas();
     }
 
+    public VersionadoDTO<EmpleadoVentasResponseDTO> obtenerEmpleadoVentasPorId(Long id) {
+        return cacheRespuestas.obtener(CacheRespuestas.EMPLEADOS_VENTAS, id, () -> {
+            EmpleadoVentas empleado = empleadoVentasRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Empleado de Ventas no encontrado con id: " + id));
+            return new VersionadoDTO<>(empleadoVentasMapper.toResponseDTO(empleado), String.valueOf(empleado.getVersion()));
+        });
+    }
+
+    // Versión, email y RUT sin cargar la entidad: If-Match y unicidad de las actualizaciones
     @Transactional(readOnly = true)
-    public EmpleadoVentasResponseDTO obtenerEmpleadoVentasPorId(Long id) {
-        EmpleadoVentas empleado = empleadoVentasRepository.findById(id)
+    public EstadoUsuarioDTO obtenerEstadoEmpleadoVentas(Long id) {
+        return empleadoVentasRepository.findEstadoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Empleado de Ventas no encontrado con id: " + id));
-        return empleadoVentasMapper.toResponseDTO(empleado);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
+    public String obtenerEtagEmpleadosVentas() {
+        return empleadoVentasRepository.obtenerEstadoColeccion().comoEtag();
+    }
+
+    // El hash BCrypt (CPU) se calcula antes de abrir la transacción para no retener una conexión mientras tanto
+    // y solo si el email y el RUT están libres, para no gastarlo en un registro duplicado
     public EmpleadoVentasResponseDTO crearEmpleadoVentas(EmpleadoVentasRequestDTO requestDTO) {
-        TipoUsuario tipoUsuario = tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())
-                .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
+        unicidadUsuarios.comprobarDisponibles(requestDTO.getEmail(), requestDTO.getRut(), null);
+        String hash = hashContrasenas.hashear(requestDTO.getPassword());
+        return transaccion.execute(estado -> {
+            TipoUsuario tipoUsuario = tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())
+                    .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
 
-        EmpleadoVentas empleado = empleadoVentasMapper.toEntity(requestDTO);
-        empleado.setTipoUsuario(tipoUsuario);
+            EmpleadoVentas empleado = empleadoVentasMapper.toEntity(requestDTO);
+            empleado.setTipoUsuario(tipoUsuario);
+            empleado.setPassword(hash);
 
-        EmpleadoVentas nuevoEmpleado = empleadoVentasRepository.save(empleado);
-        return empleadoVentasMapper.toResponseDTO(nuevoEmpleado);
+            EmpleadoVentas nuevoEmpleado = empleadoVentasRepository.save(empleado);
+            autocompletado.registrar(nuevoEmpleado);
+            unicidadUsuarios.registrar(nuevoEmpleado);
+            return empleadoVentasMapper.toResponseDTO(nuevoEmpleado);
+        });
     }
 
-    @Transactional
+    // Para llamadores internos, sin If-Match: un conflicto de versión se reintenta (ReintentosOptimistas)
+    // con una transacción nueva que relee la entidad, en vez de devolverse como 409
     public EmpleadoVentasResponseDTO actualizarEmpleadoVentas(Long id, EmpleadoVentasRequestDTO requestDTO) {
-        EmpleadoVentas empleadoExistente = empleadoVentasRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Empleado de Ventas no encontrado con id: " + id));
+        // Unicidad y hash una sola vez: cada reintento repite solo la transacción, que relee la entidad
+        String hash = prepararActualizacion(id, requestDTO, null);
+        return reintentos.ejecutar(() -> guardarActualizacion(id, requestDTO, null, hash)).getRespuesta();
+    }
+
+    // versionEsperada viene de If-Match; null omite la precondición, pero la columna @Version sigue
+    // rechazando en el flush cualquier escritura concurrente confirmada después de la lectura
+    public VersionadoDTO<EmpleadoVentasResponseDTO> actualizarEmpleadoVentas(Long id, EmpleadoVentasRequestDTO requestDTO, Long versionEsperada) {
+        String hash = prepararActualizacion(id, requestDTO, versionEsperada);
+        return guardarActualizacion(id, requestDTO, versionEsperada, hash);
+    }
+
+    // Fuera de la transacción: existencia, If-Match, unicidad y hash de la contraseña (null si la petición no la cambia)
+    private String prepararActualizacion(Long id, EmpleadoVentasRequestDTO requestDTO, Long versionEsperada) {
+        EstadoUsuarioDTO actual = obtenerEstadoEmpleadoVentas(id);
+        Long versionActual = actual.getVersion();
+        if (versionEsperada != null && !versionEsperada.equals(versionActual)) {
+            throw new PreconditionFailedException("Empleado de Ventas con id " + id + " fue modificado; versión actual: " + versionActual);
+        }
+        unicidadUsuarios.comprobarCambios(id, actual, requestDTO.getEmail(), requestDTO.getRut());
+        return hashContrasenas.hashearSiPresente(requestDTO.getPassword());
+    }
+
+    private VersionadoDTO<EmpleadoVentasResponseDTO> guardarActualizacion(Long id, EmpleadoVentasRequestDTO requestDTO, Long versionEsperada, String hash) {
+        return transaccion.execute(estado -> {
+            EmpleadoVentas empleadoExistente = empleadoVentasRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Empleado de Ventas no encontrado con id: " + id));
+            if (versionEsperada != null && !versionEsperada.equals(empleadoExistente.getVersion())) {
+                throw new PreconditionFailedException("Empleado de Ventas con id " + id + " fue modificado; versión actual: " + empleadoExistente.getVersion());
+            }
 
-        TipoUsuario tipoUsuario = tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())
-                .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
+            TipoUsuario tipoUsuario = tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())
+                    .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
 
-        empleadoVentasMapper.updateEntityFromDto(requestDTO, empleadoExistente);
-        empleadoExistente.setTipoUsuario(tipoUsuario);
+            empleadoVentasMapper.updateEntityFromDto(requestDTO, empleadoExistente);
+            if (hash != null) {
+                empleadoExistente.setPassword(hash);
+            }
+            empleadoExistente.setTipoUsuario(tipoUsuario);
 
-        EmpleadoVentas empleadoActualizado = empleadoVentasRepository.save(empleadoExistente);
-        return empleadoVentasMapper.toResponseDTO(empleadoActualizado);
+            EmpleadoVentas empleadoActualizado = empleadoVentasRepository.saveAndFlush(empleadoExistente);
+            autocompletado.registrar(empleadoActualizado);
+            unicidadUsuarios.registrar(empleadoActualizado);
+            cacheRespuestas.invalidar(CacheRespuestas.EMPLEADOS_VENTAS, id);
+            return new VersionadoDTO<>(empleadoVentasMapper.toResponseDTO(empleadoActualizado), String.valueOf(empleadoActualizado.getVersion()));
+        });
     }
 
     @Transactional
@@ -76,5 +151,7 @@ public class EmpleadoVentasService {
             throw new ResourceNotFoundException("Empleado de Ventas no encontrado con id: " + id);
         }
         empleadoVentasRepository.deleteById(id);
+        autocompletado.eliminar(id);
+        cacheRespuestas.invalidar(CacheRespuestas.EMPLEADOS_VENTAS, id);
     }
 }
\ No newline at end of file
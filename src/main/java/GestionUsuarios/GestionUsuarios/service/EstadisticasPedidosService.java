@@ -0,0 +1,345 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import GestionUsuarios.GestionUsuarios.DTO.EstadisticasPedidosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.ResumenVentasDTO;
+import GestionUsuarios.GestionUsuarios.exception.ServiceUnavailableException;
+import GestionUsuarios.GestionUsuarios.model.Pedido;
+import GestionUsuarios.GestionUsuarios.repository.PedidoRepository;
+import GestionUsuarios.GestionUsuarios.repository.VentasAgrupadas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Estadísticas de ventas de pedidos mantenidas en memoria de forma incremental. Cada alta, cambio
+ * o baja suma o resta su aporte en los buckets por día, estado, método de pago y cliente al
+ * confirmar la transacción, así que consultar el panel cuesta O(buckets) y no recorre pedidos.
+ * Los acumuladores son LongAdder (cantidad e importe en centavos) y los commits los actualizan sin un
+ * cerrojo global: las escrituras concurrentes no compiten por una sola celda y el importe se resta de forma
+ * exacta, sin deriva de coma flotante.
+ * La reconstrucción recalcula todo con una consulta agregada por dimensión, las cuatro sobre la misma foto
+ * de la base, y reemplaza las tablas de una vez. Los cambios que confirman mientras corre se aplican a las
+ * tablas vigentes y se encolan para repetirlos sobre las nuevas antes del cambio, así que ninguno se pierde
+ * ni se cuenta dos veces. Hasta que termina la primera carga no hay cifras que servir: las consultas
+ * responden 503 en vez de totales en cero.
+ */
+@Service
+public class EstadisticasPedidosService {
+
+    private static final Logger log = LoggerFactory.getLogger(EstadisticasPedidosService.class);
+
+    // Clave para pedidos sin dato en una dimensión (las columnas son NOT NULL, es solo defensivo)
+    static final String SIN_DATO = "DESCONOCIDO";
+
+    private final PedidoRepository pedidoRepository;
+    private final TransactionTemplate foto;
+
+    // null hasta que termina la primera reconstrucción
+    private volatile Tablas tablas;
+    // Cambios confirmados desde que se fijó la foto de la reconstrucción en curso; null si no hay ninguna
+    private volatile Queue<Consumer<Tablas>> pendientes;
+    // Compartido por cada commit que aplica cambios, exclusivo mientras la reconstrucción fija su foto y mientras
+    // cambia las tablas: un commit queda o bien dentro de la foto o bien en pendientes, nunca en ambos ni en
+    // ninguno, y ninguno se aplica a las tablas viejas después de repetir los pendientes sobre las nuevas
+    private final ReentrantReadWriteLock confirmaciones = new ReentrantReadWriteLock();
+    private final Object reconstruccion = new Object();
+
+    public EstadisticasPedidosService(PedidoRepository pedidoRepository, PlatformTransactionManager transactionManager) {
+        this.pedidoRepository = pedidoRepository;
+        // REPEATABLE READ en H2 fija la foto en la primera sentencia y la mantiene para las siguientes
+        this.foto = new TransactionTemplate(transactionManager);
+        this.foto.setReadOnly(true);
+        this.foto.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    // La lanza CargasIniciales en segundo plano después del arranque
+    public void precargar() {
+        long inicio = System.nanoTime();
+        reconstruir();
+        log.info("Estadísticas de ventas cargadas en {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+    }
+
+    // Recalcula desde cero a partir de la tabla de pedidos. La base agrega cada dimensión por separado, así que
+    // solo viajan tantas filas como días, estados, métodos y clientes haya, no una por cada combinación.
+    // Las escrituras no esperan a las consultas: solo se detienen mientras se fija la foto (un count)
+    public void reconstruir() {
+        synchronized (reconstruccion) {
+            Tablas nuevas;
+            try {
+                nuevas = foto.execute(estado -> agregar());
+            } catch (RuntimeException e) {
+                pendientes = null;
+                throw e;
+            }
+            // Los commits esperan solo lo que tarda repetir los cambios encolados durante las consultas
+            confirmaciones.writeLock().lock();
+            try {
+                pendientes.forEach(cambio -> cambio.accept(nuevas));
+                pendientes = null;
+                tablas = nuevas;
+            } finally {
+                confirmaciones.writeLock().unlock();
+            }
+        }
+    }
+
+    public boolean estaCargada() {
+        return tablas != null;
+    }
+
+    private Tablas agregar() {
+        confirmaciones.writeLock().lock();
+        try {
+            pendientes = new ConcurrentLinkedQueue<>();
+            // count() es O(1) en H2 y, como primera sentencia, fija la foto mientras ningún commit está a medias
+            pedidoRepository.count();
+        } finally {
+            confirmaciones.writeLock().unlock();
+        }
+        Tablas nuevas = new Tablas();
+        for (VentasAgrupadas grupo : pedidoRepository.agruparVentasPorDia()) {
+            if (grupo.getDia() != null) {
+                Tablas.acumular(nuevas.porDia, grupo.getDia(), grupo);
+            }
+        }
+        for (VentasAgrupadas grupo : pedidoRepository.agruparVentasPorEstado()) {
+            Tablas.acumular(nuevas.porEstado, Objects.requireNonNullElse(grupo.getEstado(), SIN_DATO), grupo);
+        }
+        for (VentasAgrupadas grupo : pedidoRepository.agruparVentasPorMetodoPago()) {
+            Tablas.acumular(nuevas.porMetodoPago, Objects.requireNonNullElse(grupo.getMetodoPago(), SIN_DATO), grupo);
+        }
+        for (VentasAgrupadas grupo : pedidoRepository.agruparVentasPorCliente()) {
+            if (grupo.getClienteId() != null) {
+                Tablas.acumular(nuevas.porCliente, grupo.getClienteId(), grupo);
+            }
+        }
+        return nuevas;
+    }
+
+    // Foto del aporte de un pedido; se toma antes de modificarlo para poder restarlo después
+    Apunte capturar(Pedido pedido) {
+        return Apunte.de(pedido);
+    }
+
+    void registrarAlta(Pedido pedido) {
+        Apunte alta = capturar(pedido);
+        alConfirmar(actuales -> actuales.sumar(alta, 1));
+    }
+
+    // Una sola sincronización para toda la carga en lote
+    void registrarAltas(List<Apunte> altas) {
+        if (altas.isEmpty()) {
+            return;
+        }
+        alConfirmar(actuales -> altas.forEach(alta -> actuales.sumar(alta, 1)));
+    }
+
+    void registrarCambio(Apunte anterior, Pedido pedido) {
+        Apunte actual = capturar(pedido);
+        alConfirmar(actuales -> {
+            actuales.sumar(anterior, -1);
+            actuales.sumar(actual, 1);
+        });
+    }
+
+    void registrarBaja(Pedido pedido) {
+        Apunte baja = capturar(pedido);
+        alConfirmar(actuales -> actuales.sumar(baja, -1));
+    }
+
+    // El borrado masivo de un cliente no carga sus pedidos: se resta lo que agrega la base antes de borrar
+    void registrarBajasDeCliente(Long clienteId) {
+        List<Apunte> bajas = new ArrayList<>();
+        for (VentasAgrupadas grupo : pedidoRepository.agruparVentasDeCliente(clienteId)) {
+            bajas.add(Apunte.de(grupo));
+        }
+        if (bajas.isEmpty()) {
+            return;
+        }
+        alConfirmar(actuales -> {
+            bajas.forEach(baja -> actuales.sumar(baja, -1));
+            actuales.porCliente.remove(clienteId);
+        });
+    }
+
+    // El commit corre con el cerrojo compartido tomado y el cambio se aplica antes de soltarlo
+    private void alConfirmar(Consumer<Tablas> cambio) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            confirmaciones.readLock().lock();
+            try {
+                aplicar(cambio);
+            } finally {
+                confirmaciones.readLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean retenido;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                confirmaciones.readLock().lock();
+                retenido = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                aplicar(cambio);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (retenido) {
+                    retenido = false;
+                    confirmaciones.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    // Siempre con el cerrojo compartido tomado, así que tablas y pendientes no cambian mientras corre. Los
+    // commits concurrentes se aplican a la vez: los mapas y los LongAdder ya toleran escritores simultáneos.
+    // Antes de la primera carga el cambio solo se encola, o se descarta si la foto aún no se fijó y ya lo incluye
+    private void aplicar(Consumer<Tablas> cambio) {
+        Tablas actuales = tablas;
+        if (actuales != null) {
+            cambio.accept(actuales);
+        }
+        Queue<Consumer<Tablas>> enCurso = pendientes;
+        if (enCurso != null) {
+            enCurso.add(cambio);
+        }
+    }
+
+    // desde/hasta (inclusive, opcionales) acotan solo la serie por día. Los buckets por cliente (uno por cliente
+    // con ventas) no viajan en el panel: se consultan de a uno con obtenerEstadisticasDeCliente
+    public EstadisticasPedidosDTO obtenerEstadisticas(LocalDate desde, LocalDate hasta) {
+        Tablas actuales = cargadas();
+        NavigableMap<LocalDate, Acumulado> dias = actuales.porDia;
+        if (desde != null) {
+            dias = dias.tailMap(desde, true);
+        }
+        if (hasta != null) {
+            dias = dias.headMap(hasta, true);
+        }
+
+        // El total general sale de los buckets por estado (pocos) y se suma en centavos
+        Acumulado general = new Acumulado();
+        actuales.porEstado.values().forEach(acumulado -> general.sumar(acumulado.cantidad.sum(), acumulado.centavos.sum()));
+        return new EstadisticasPedidosDTO(general.resumen(), resumir(dias), resumir(actuales.porEstado),
+                resumir(actuales.porMetodoPago));
+    }
+
+    public ResumenVentasDTO obtenerEstadisticasDeCliente(Long clienteId) {
+        Acumulado acumulado = cargadas().porCliente.get(clienteId);
+        return acumulado != null ? acumulado.resumen() : new ResumenVentasDTO(0, 0.0);
+    }
+
+    // Unas tablas vacías se leerían como "cero ventas", que es falso mientras la carga inicial no termina
+    private Tablas cargadas() {
+        Tablas actuales = tablas;
+        if (actuales == null) {
+            throw new ServiceUnavailableException("Las estadísticas de ventas aún se están cargando");
+        }
+        return actuales;
+    }
+
+    // Copia ordenada sin los buckets que quedaron vacíos tras restar bajas
+    private static <K> Map<K, ResumenVentasDTO> resumir(Map<K, Acumulado> buckets) {
+        Map<K, ResumenVentasDTO> resultado = new TreeMap<>();
+        buckets.forEach((clave, acumulado) -> {
+            ResumenVentasDTO resumen = acumulado.resumen();
+            if (resumen.getCantidad() != 0) {
+                resultado.put(clave, resumen);
+            }
+        });
+        return resultado;
+    }
+
+    static long aCentavos(Double importe) {
+        return importe != null ? Math.round(importe * 100) : 0L;
+    }
+
+    /** Aporte de un pedido (o de un grupo de pedidos) a cada dimensión. */
+    record Apunte(LocalDate dia, String estado, String metodoPago, Long clienteId, long cantidad, long centavos) {
+
+        static Apunte de(Pedido pedido) {
+            return new Apunte(
+                    pedido.getFechaPedido() != null ? pedido.getFechaPedido().toLocalDate() : null,
+                    pedido.getEstado(),
+                    pedido.getMetodoPago(),
+                    pedido.getCliente() != null ? pedido.getCliente().getId() : null,
+                    1,
+                    aCentavos(pedido.getTotal()));
+        }
+
+        static Apunte de(VentasAgrupadas grupo) {
+            return new Apunte(grupo.getDia(), grupo.getEstado(), grupo.getMetodoPago(), grupo.getClienteId(),
+                    grupo.getCantidad(), grupo.getCentavos() != null ? grupo.getCentavos() : 0L);
+        }
+    }
+
+    private static final class Acumulado {
+        private final LongAdder cantidad = new LongAdder();
+        private final LongAdder centavos = new LongAdder();
+
+        void sumar(long cantidadPedidos, long importeCentavos) {
+            cantidad.add(cantidadPedidos);
+            centavos.add(importeCentavos);
+        }
+
+        // Lectura no atómica entre ambos contadores: suficiente para un panel
+        ResumenVentasDTO resumen() {
+            return new ResumenVentasDTO(cantidad.sum(), centavos.sum() / 100.0);
+        }
+    }
+
+    private static final class Tablas {
+        private final ConcurrentSkipListMap<LocalDate, Acumulado> porDia = new ConcurrentSkipListMap<>();
+        private final ConcurrentMap<String, Acumulado> porEstado = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Acumulado> porMetodoPago = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Long, Acumulado> porCliente = new ConcurrentHashMap<>();
+
+        void sumar(Apunte apunte, int signo) {
+            long cantidad = signo * apunte.cantidad();
+            long centavos = signo * apunte.centavos();
+            if (apunte.dia() != null) {
+                porDia.computeIfAbsent(apunte.dia(), dia -> new Acumulado()).sumar(cantidad, centavos);
+            }
+            porEstado.computeIfAbsent(Objects.requireNonNullElse(apunte.estado(), SIN_DATO), estado -> new Acumulado())
+                    .sumar(cantidad, centavos);
+            porMetodoPago.computeIfAbsent(Objects.requireNonNullElse(apunte.metodoPago(), SIN_DATO), metodo -> new Acumulado())
+                    .sumar(cantidad, centavos);
+            if (apunte.clienteId() != null) {
+                porCliente.computeIfAbsent(apunte.clienteId(), id -> new Acumulado()).sumar(cantidad, centavos);
+            }
+        }
+
+        static <K> void acumular(Map<K, Acumulado> buckets, K clave, VentasAgrupadas grupo) {
+            buckets.computeIfAbsent(clave, k -> new Acumulado())
+                    .sumar(grupo.getCantidad(), grupo.getCentavos() != null ? grupo.getCentavos() : 0L);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom escalable (Almeida et al.): cuando la capa activa llega a su capacidad se agrega
+ * otra del doble de tamaño y con la mitad de tasa de falsos positivos, así que la tasa total queda
+ * acotada por el doble de la inicial aunque el número de elementos no se conozca de antemano.
+ * "No contiene" es definitivo; "puede contener" debe confirmarse contra la base.
+ * Lecturas y escrituras son concurrentes sin bloqueo sobre AtomicLongArray; solo el crecimiento se serializa.
+ * No admite borrados: un valor liberado sigue dando positivo y solo cuesta la consulta de confirmación.
+ */
+final class FiltroBloom {
+
+    private static final double LN2 = Math.log(2);
+
+    private final List<Capa> capas = new CopyOnWriteArrayList<>();
+
+    FiltroBloom(int capacidadInicial, double tasaFalsosPositivos) {
+        capas.add(new Capa(Math.max(1, capacidadInicial), tasaFalsosPositivos));
+    }
+
+    boolean puedeContener(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L);
+        for (Capa capa : capas) {
+            if (capa.contiene(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void agregar(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1 ^ 0x9E3779B97F4A7C15L);
+        activa().agregar(h1, h2);
+    }
+
+    int capas() {
+        return capas.size();
+    }
+
+    private Capa activa() {
+        Capa ultima = capas.get(capas.size() - 1);
+        if (ultima.elementos.get() < ultima.capacidad) {
+            return ultima;
+        }
+        synchronized (capas) {
+            ultima = capas.get(capas.size() - 1);
+            if (ultima.elementos.get() >= ultima.capacidad) {
+                ultima = new Capa(ultima.capacidad * 2, ultima.tasa / 2);
+                capas.add(ultima);
+            }
+            return ultima;
+        }
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres, con el finalizador de MurmurHash3 para repartir los bits
+    private static long hash(String valor) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mezclar(h);
+    }
+
+    private static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Capa {
+        private final int capacidad;
+        private final double tasa;
+        private final long bits;
+        private final int funciones;
+        private final AtomicLongArray palabras;
+        private final AtomicInteger elementos = new AtomicInteger();
+
+        // m = -n·ln(p)/ln(2)² bits y k = (m/n)·ln(2) funciones hash, los óptimos para n elementos y tasa p
+        Capa(int capacidad, double tasa) {
+            this.capacidad = capacidad;
+            this.tasa = tasa;
+            long m = (long) Math.ceil(-capacidad * Math.log(tasa) / (LN2 * LN2));
+            this.palabras = new AtomicLongArray((int) ((m + 63) / 64));
+            this.bits = palabras.length() * 64L;
+            this.funciones = Math.max(1, (int) Math.round((double) bits / capacidad * LN2));
+        }
+
+        // Doble hashing (Kirsch-Mitzenmacher): la i-ésima posición es h1 + i·h2
+        boolean contiene(long h1, long h2) {
+            for (int i = 0; i < funciones; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((palabras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void agregar(long h1, long h2) {
+            for (int i = 0; i < funciones; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int indice = (int) (bit >>> 6);
+                long mascara = 1L << bit;
+                long actual;
+                do {
+                    actual = palabras.get(indice);
+                } while ((actual & mascara) == 0 && !palabras.compareAndSet(indice, actual, actual | mascara));
+            }
+            elementos.incrementAndGet();
+        }
+    }
+}
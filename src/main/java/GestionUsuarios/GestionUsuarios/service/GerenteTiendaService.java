@@ -1,73 +1,148 @@
 package GestionUsuarios.GestionUsuarios.service;
 
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
 import GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
+import GestionUsuarios.GestionUsuarios.exception.PreconditionFailedException;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 import GestionUsuarios.GestionUsuarios.mapper.GerenteTiendaMapper;
 import GestionUsuarios.GestionUsuarios.model.GerenteTienda;
 import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
 import GestionUsuarios.GestionUsuarios.repository.GerenteTiendaRepository;
-import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class GerenteTiendaService {
 
     private final GerenteTiendaRepository gerenteTiendaRepository;
-    private final TipoUsuarioRepository tipoUsuarioRepository;
+    private final TipoUsuarioCache tipoUsuarioCache;
     private final GerenteTiendaMapper gerenteTiendaMapper;
+    private final CacheRespuestas cacheRespuestas;
+    private final HashContrasenas hashContrasenas;
+    private final TransactionTemplate transaccion;
+    private final AutocompletadoUsuariosService autocompletado;
+    private final UnicidadUsuariosService unicidadUsuarios;
+    private final ReintentosOptimistas reintentos;
 
     public GerenteTiendaService(GerenteTiendaRepository gerenteTiendaRepository,
-                                TipoUsuarioRepository tipoUsuarioRepository,
-                                GerenteTiendaMapper gerenteTiendaMapper) {
+                                TipoUsuarioCache tipoUsuarioCache,
+                                GerenteTiendaMapper gerenteTiendaMapper,
+                                CacheRespuestas cacheRespuestas,
+                                HashContrasenas hashContrasenas,
+                                TransactionTemplate transaccion,
+                                AutocompletadoUsuariosService autocompletado,
+                                UnicidadUsuariosService unicidadUsuarios,
+                                ReintentosOptimistas reintentos) {
         this.gerenteTiendaRepository = gerenteTiendaRepository;
-        this.tipoUsuarioRepository = tipoUsuarioRepository;
+        this.tipoUsuarioCache = tipoUsuarioCache;
         this.gerenteTiendaMapper = gerenteTiendaMapper;
+        this.cacheRespuestas = cacheRespuestas;
+        this.hashContrasenas = hashContrasenas;
+        this.transaccion = transaccion;
+        this.autocompletado = autocompletado;
+        this.unicidadUsuarios = unicidadUsuarios;
+        this.reintentos = reintentos;
     }
 
     @Transactional(readOnly = true)
     public List<GerenteTiendaResponseDTO> obtenerTodosLosGerentes() {
-        return gerenteTiendaRepository.findAll().stream()
-                .map(gerenteTiendaMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return gerenteTiendaRepository.listarRespuestas();
     }
 
+    public VersionadoDTO<GerenteTiendaResponseDTO> obtenerGerentePorId(Long id) {
+        return cacheRespuestas.obtener(CacheRespuestas.GERENTES_TIENDA, id, () -> {
+            GerenteTienda gerente = gerenteTiendaRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Gerente de Tienda no encontrado con id: " + id));
+            return new VersionadoDTO<>(gerenteTiendaMapper.toResponseDTO(gerente), String.valueOf(gerente.getVersion()));
+        });
+    }
+
+    // Versión, email y RUT sin cargar la entidad: If-Match y unicidad de las actualizaciones
     @Transactional(readOnly = true)
-    public GerenteTiendaResponseDTO obtenerGerentePorId(Long id) {
-        GerenteTienda gerente = gerenteTiendaRepository.findById(id)
+    public EstadoUsuarioDTO obtenerEstadoGerente(Long id) {
+        return gerenteTiendaRepository.findEstadoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Gerente de Tienda no encontrado con id: " + id));
-        return gerenteTiendaMapper.toResponseDTO(gerente);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
+    public String obtenerEtagGerentes() {
+        return gerenteTiendaRepository.obtenerEstadoColeccion().comoEtag();
+    }
+
+    // El hash BCrypt (CPU) se calcula antes de abrir la transacción para no retener una conexión mientras tanto
+    // y solo si el email y el RUT están libres, para no gastarlo en un registro duplicado
     public GerenteTiendaResponseDTO crearGerente(GerenteTiendaRequestDTO requestDTO) {
-        TipoUsuario tipoUsuario = tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())
-                .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
+        unicidadUsuarios.comprobarDisponibles(requestDTO.getEmail(), requestDTO.getRut(), null);
+        String hash = hashContrasenas.hashear(requestDTO.getPassword());
+        return transaccion.execute(estado -> {
+            TipoUsuario tipoUsuario = tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())
+                    .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
 
-        GerenteTienda gerente = gerenteTiendaMapper.toEntity(requestDTO);
-        gerente.setTipoUsuario(tipoUsuario);
+            GerenteTienda gerente = gerenteTiendaMapper.toEntity(requestDTO);
+            gerente.setTipoUsuario(tipoUsuario);
+            gerente.setPassword(hash);
 
-        GerenteTienda nuevoGerente = gerenteTiendaRepository.save(gerente);
-        return gerenteTiendaMapper.toResponseDTO(nuevoGerente);
+            GerenteTienda nuevoGerente = gerenteTiendaRepository.save(gerente);
+            autocompletado.registrar(nuevoGerente);
+            unicidadUsuarios.registrar(nuevoGerente);
+            return gerenteTiendaMapper.toResponseDTO(nuevoGerente);
+        });
     }
 
-    @Transactional
+    // Para llamadores internos, sin If-Match: un conflicto de versión se reintenta (ReintentosOptimistas)
+    // con una transacción nueva que relee la entidad, en vez de devolverse como 409
     public GerenteTiendaResponseDTO actualizarGerente(Long id, GerenteTiendaRequestDTO requestDTO) {
-        GerenteTienda gerenteExistente = gerenteTiendaRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Gerente de Tienda no encontrado con id: " + id));
+        // Unicidad y hash una sola vez: cada reintento repite solo la transacción, que relee la entidad
+        String hash = prepararActualizacion(id, requestDTO, null);
+        return reintentos.ejecutar(() -> guardarActualizacion(id, requestDTO, null, hash)).getRespuesta();
+    }
+
+    // versionEsperada viene de If-Match; null omite la precondición, pero la columna @Version sigue
+    // rechazando en el flush cualquier escritura concurrente confirmada después de la lectura
+    public VersionadoDTO<GerenteTiendaResponseDTO> actualizarGerente(Long id, GerenteTiendaRequestDTO requestDTO, Long versionEsperada) {
+        String hash = prepararActualizacion(id, requestDTO, versionEsperada);
+        return guardarActualizacion(id, requestDTO, versionEsperada, hash);
+    }
+
+    // Fuera de la transacción: existencia, If-Match, unicidad y hash de la contraseña (null si la petición no la cambia)
+    private String prepararActualizacion(Long id, GerenteTiendaRequestDTO requestDTO, Long versionEsperada) {
+        EstadoUsuarioDTO actual = obtenerEstadoGerente(id);
+        Long versionActual = actual.getVersion();
+        if (versionEsperada != null && !versionEsperada.equals(versionActual)) {
+            throw new PreconditionFailedException("Gerente de Tienda con id " + id + " fue modificado; versión actual: " + versionActual);
+        }
+        unicidadUsuarios.comprobarCambios(id, actual, requestDTO.getEmail(), requestDTO.getRut());
+        return hashContrasenas.hashearSiPresente(requestDTO.getPassword());
+    }
+
+    private VersionadoDTO<GerenteTiendaResponseDTO> guardarActualizacion(Long id, GerenteTiendaRequestDTO requestDTO, Long versionEsperada, String hash) {
+        return transaccion.execute(estado -> {
+            GerenteTienda gerenteExistente = gerenteTiendaRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Gerente de Tienda no encontrado con id: " + id));
+            if (versionEsperada != null && !versionEsperada.equals(gerenteExistente.getVersion())) {
+                throw new PreconditionFailedException("Gerente de Tienda con id " + id + " fue modificado; versión actual: " + gerenteExistente.getVersion());
+            }
 
-        TipoUsuario tipoUsuario = tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())
-                .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
+            TipoUsuario tipoUsuario = tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())
+                    .orElseThrow(() -> new ResourceNotFoundException("TipoUsuario no encontrado con id: " + requestDTO.getTipoUsuarioId()));
 
-        gerenteTiendaMapper.updateEntityFromDto(requestDTO, gerenteExistente);
-        gerenteExistente.setTipoUsuario(tipoUsuario);
+            gerenteTiendaMapper.updateEntityFromDto(requestDTO, gerenteExistente);
+            if (hash != null) {
+                gerenteExistente.setPassword(hash);
+            }
+            gerenteExistente.setTipoUsuario(tipoUsuario);
 
-        GerenteTienda gerenteActualizado = gerenteTiendaRepository.save(gerenteExistente);
-        return gerenteTiendaMapper.toResponseDTO(gerenteActualizado);
+            GerenteTienda gerenteActualizado = gerenteTiendaRepository.saveAndFlush(gerenteExistente);
+            autocompletado.registrar(gerenteActualizado);
+            unicidadUsuarios.registrar(gerenteActualizado);
+            cacheRespuestas.invalidar(CacheRespuestas.GERENTES_TIENDA, id);
+            return new VersionadoDTO<>(gerenteTiendaMapper.toResponseDTO(gerenteActualizado), String.valueOf(gerenteActualizado.getVersion()));
+        });
     }
 
     @Transactional
@@ -76,5 +151,7 @@ public class GerenteTiendaService {
             throw new ResourceNotFoundException("Gerente de Tienda no encontrado con id: " + id);
         }
         gerenteTiendaRepository.deleteById(id);
+        autocompletado.eliminar(id);
+        cacheRespuestas.invalidar(CacheRespuestas.GERENTES_TIENDA, id);
     }
 }
\ No newline at end of file
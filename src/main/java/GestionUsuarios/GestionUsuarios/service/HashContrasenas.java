@@ -0,0 +1,87 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import GestionUsuarios.GestionUsuarios.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hash BCrypt de contraseñas en un pool propio y acotado. Los servicios lo invocan antes de abrir su
+ * transacción, así que el trabajo de CPU no retiene conexiones JDBC ni compite sin límite con los hilos
+ * de peticiones. Si la cola está llena la petición se rechaza con 429 en vez de acumular espera.
+ * Publica el timer contrasenas.hash, el gauge contrasenas.hash.cola y el contador contrasenas.hash.rechazos.
+ */
+@Component
+public class HashContrasenas {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer tiempoHash;
+    private final Counter rechazos;
+
+    public HashContrasenas(@Value("${contrasenas.hash.costo:10}") int costo,
+                           @Value("${contrasenas.hash.hilos:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int hilos,
+                           @Value("${contrasenas.hash.cola:100}") int capacidadCola,
+                           MeterRegistry meterRegistry) {
+        this.encoder = new BCryptPasswordEncoder(costo);
+        AtomicInteger numeroHilo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "hash-contrasenas-" + numeroHilo.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.tiempoHash = Timer.builder("contrasenas.hash")
+                .tag("algoritmo", "bcrypt")
+                .register(meterRegistry);
+        this.rechazos = Counter.builder("contrasenas.hash.rechazos")
+                .register(meterRegistry);
+        Gauge.builder("contrasenas.hash.cola", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    // Bloquea al llamador hasta tener el hash; el tiempo medido es solo el de cálculo, no el de cola
+    public String hashear(String contrasena) {
+        Future<String> resultado;
+        try {
+            resultado = executor.submit(() -> tiempoHash.record(() -> encoder.encode(contrasena)));
+        } catch (RejectedExecutionException e) {
+            rechazos.increment();
+            throw new TooManyRequestsException("Demasiadas solicitudes de alta o cambio de contraseña; reintente en unos segundos");
+        }
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hash de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No se pudo calcular el hash de la contraseña", e.getCause());
+        }
+    }
+
+    // Para actualizaciones: null o vacía significa que la contraseña no cambia
+    public String hashearSiPresente(String contrasena) {
+        return contrasena == null || contrasena.isEmpty() ? null : hashear(contrasena);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+}
@@ -1,47 +1,187 @@
 package GestionUsuarios.GestionUsuarios.service;
 
+import GestionUsuarios.GestionUsuarios.DTO.CursorPedidoDTO;
+import GestionUsuarios.GestionUsuarios.DTO.FiltroPedidosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PaginaDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PedidoExportDTO;
 import GestionUsuarios.GestionUsuarios.DTO.PedidoRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.PedidoResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.ResultadoPedidoLoteDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
+import GestionUsuarios.GestionUsuarios.exception.BadRequestException;
+import GestionUsuarios.GestionUsuarios.exception.PreconditionFailedException;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 import GestionUsuarios.GestionUsuarios.mapper.PedidoMapper;
 import GestionUsuarios.GestionUsuarios.model.Cliente;
 import GestionUsuarios.GestionUsuarios.model.Pedido;
 import GestionUsuarios.GestionUsuarios.repository.ClienteRepository;
+import GestionUsuarios.GestionUsuarios.repository.PedidoEspecificaciones;
 import GestionUsuarios.GestionUsuarios.repository.PedidoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class PedidoService {
 
+    public static final int LIMITE_MAXIMO = 500;
+
     private final PedidoRepository pedidoRepository;
     private final ClienteRepository clienteRepository;
     private final PedidoMapper pedidoMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final CacheRespuestas cacheRespuestas;
+    private final EstadisticasPedidosService estadisticasPedidos;
+    private final TransactionTemplate transaccion;
+    private final ReintentosOptimistas reintentos;
+
+    // Cada cuántos pedidos se vacía el contexto de persistencia en la carga en lote (igual al batch JDBC)
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanoLote = 50;
 
     public PedidoService(PedidoRepository pedidoRepository,
                          ClienteRepository clienteRepository,
-                         PedidoMapper pedidoMapper) {
+                         PedidoMapper pedidoMapper,
+                         ObjectMapper objectMapper,
+                         EntityManager entityManager,
+                         Validator validator,
+                         CacheRespuestas cacheRespuestas,
+                         EstadisticasPedidosService estadisticasPedidos,
+                         TransactionTemplate transaccion,
+                         ReintentosOptimistas reintentos) {
         this.pedidoRepository = pedidoRepository;
         this.clienteRepository = clienteRepository;
         this.pedidoMapper = pedidoMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.cacheRespuestas = cacheRespuestas;
+        this.estadisticasPedidos = estadisticasPedidos;
+        this.transaccion = transaccion;
+        this.reintentos = reintentos;
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaDTO<PedidoResponseDTO> obtenerPedidos(Long after, int limit) {
+        int tamano = Math.max(1, Math.min(limit, LIMITE_MAXIMO));
+        // Se pide un elemento extra solo para saber si existe una página siguiente
+        List<Pedido> pedidos = pedidoRepository.findByIdGreaterThanOrderByIdAsc(
+                after != null ? after : 0L, Limit.of(tamano + 1));
+        return aPagina(pedidos, tamano, false);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaDTO<PedidoResponseDTO> obtenerPedidos(FiltroPedidosDTO filtro, CursorPedidoDTO after, int limit) {
+        boolean porFecha = filtro != null && filtro.tieneRangoDeFechas();
+        // Un cursor emitido para el otro orden no marca una posición en este listado
+        if (after != null && (after.getFechaPedido() != null) != porFecha) {
+            throw new BadRequestException("El cursor no corresponde al filtro de fechas del listado");
+        }
+        if (filtro == null || filtro.estaVacio()) {
+            return obtenerPedidos(after != null ? after.getId() : null, limit);
+        }
+        int tamano = Math.max(1, Math.min(limit, LIMITE_MAXIMO));
+        // Misma forma que el listado sin filtros: WHERE filtros AND clave > cursor ORDER BY clave, sin COUNT,
+        // y el cliente en el mismo SELECT mediante un grafo de carga. La clave es (fecha_pedido, id) con rango
+        // de fechas, para que el índice de fecha entregue las filas ya ordenadas desde el cursor.
+        // limit va antes de sortBy: en el orden inverso Spring Data repite el ORDER BY y H2 deja de leer el
+        // índice en orden, así que ordena todas las filas del filtro
+        Sort orden = porFecha ? Sort.by("fechaPedido", "id") : Sort.by("id");
+        List<Pedido> pedidos = pedidoRepository.findBy(PedidoEspecificaciones.conFiltro(filtro, after),
+                consulta -> consulta.limit(tamano + 1).sortBy(orden).project("cliente").all());
+        return aPagina(pedidos, tamano, porFecha);
     }
 
     @Transactional(readOnly = true)
-    public List<PedidoResponseDTO> obtenerTodosLosPedidos() {
-        return pedidoRepository.findAll().stream()
+    public PaginaDTO<PedidoResponseDTO> obtenerPedidosDeCliente(Long clienteId, Long after, int limit) {
+        if (!clienteRepository.existsById(clienteId)) {
+            throw new ResourceNotFoundException("Cliente no encontrado con id: " + clienteId);
+        }
+        return obtenerPedidos(new FiltroPedidosDTO(clienteId, null, null, null, null),
+                after != null ? new CursorPedidoDTO(null, after) : null, limit);
+    }
+
+    private PaginaDTO<PedidoResponseDTO> aPagina(List<Pedido> pedidos, int tamano, boolean porFecha) {
+        List<PedidoResponseDTO> elementos = pedidos.stream()
+                .limit(tamano)
                 .map(pedidoMapper::toResponseDTO)
                 .collect(Collectors.toList());
+        Pedido ultimo = pedidos.size() > tamano ? pedidos.get(tamano - 1) : null;
+        Long siguienteCursor = ultimo != null ? ultimo.getId() : null;
+        LocalDateTime siguienteFecha = ultimo != null && porFecha ? ultimo.getFechaPedido() : null;
+        return new PaginaDTO<>(elementos, siguienteCursor, etagDePagina(pedidos, tamano, siguienteCursor),
+                siguienteFecha);
+    }
+
+    // ETag de lo que realmente se devuelve: id y versiones de cada pedido y de su cliente embebido, más el
+    // cursor siguiente (una alta al final agrega el enlace "next"). Cuesta lo mismo que la página, no la tabla
+    private static String etagDePagina(List<Pedido> pedidos, int tamano, Long siguienteCursor) {
+        StringBuilder clave = new StringBuilder();
+        for (Pedido pedido : pedidos.subList(0, Math.min(tamano, pedidos.size()))) {
+            clave.append(pedido.getId()).append('.').append(pedido.getVersion()).append('.')
+                    .append(pedido.getCliente() != null ? pedido.getCliente().getVersion() : null).append(';');
+        }
+        clave.append(siguienteCursor);
+        return "W/\"" + DigestUtils.md5DigestAsHex(clave.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
     }
 
+    /**
+     * Escribe los pedidos como NDJSON (un objeto JSON por línea) a medida que se leen del cursor,
+     * de modo que la memoria usada no depende del número de filas exportadas.
+     */
     @Transactional(readOnly = true)
-    public PedidoResponseDTO obtenerPedidoPorId(Long id) {
-        Pedido pedido = pedidoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Pedido no encontrado con id: " + id));
-        return pedidoMapper.toResponseDTO(pedido);
+    public long exportarPedidos(LocalDateTime desde, LocalDateTime hasta, OutputStream salida) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(PedidoExportDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long exportados = 0;
+        try (Stream<PedidoExportDTO> pedidos = pedidoRepository.streamParaExportar(desde, hasta);
+             JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generador.setRootValueSeparator(new SerializedString(""));
+            Iterator<PedidoExportDTO> iterador = pedidos.iterator();
+            while (iterador.hasNext()) {
+                writer.writeValue(generador, iterador.next());
+                generador.writeRaw('\n');
+                exportados++;
+            }
+        }
+        return exportados;
+    }
+
+    // La respuesta incluye el cliente, así que la versión combina ambas ("pedido-cliente"), como en actualizarPedido
+    public VersionadoDTO<PedidoResponseDTO> obtenerPedidoPorId(Long id) {
+        return cacheRespuestas.obtenerPedido(id, () -> {
+            Pedido pedido = pedidoRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Pedido no encontrado con id: " + id));
+            return new VersionadoDTO<>(pedidoMapper.toResponseDTO(pedido),
+                    pedido.getVersion() + "-" + pedido.getCliente().getVersion());
+        });
     }
 
     @Transactional
@@ -54,14 +194,96 @@ public class PedidoService {
         pedido.setFechaPedido(LocalDateTime.now());
 
         Pedido nuevoPedido = pedidoRepository.save(pedido);
+        estadisticasPedidos.registrarAlta(nuevoPedido);
         return pedidoMapper.toResponseDTO(nuevoPedido);
     }
 
+    /**
+     * Crea muchos pedidos en una sola transacción. Los clientes referenciados se verifican con una
+     * única consulta IN y los INSERT se envían en lotes JDBC; el contexto de persistencia se vacía
+     * cada {@code tamanoLote} pedidos para que la memoria no crezca con el tamaño de la carga.
+     * Los pedidos inválidos o con cliente inexistente se rechazan individualmente sin abortar el resto.
+     */
     @Transactional
+    public List<ResultadoPedidoLoteDTO> crearPedidosEnLote(List<PedidoRequestDTO> solicitudes) {
+        Set<Long> idsSolicitados = new HashSet<>();
+        for (PedidoRequestDTO solicitud : solicitudes) {
+            if (solicitud != null && solicitud.getClienteId() != null) {
+                idsSolicitados.add(solicitud.getClienteId());
+            }
+        }
+        Set<Long> clientesExistentes = idsSolicitados.isEmpty()
+                ? Set.of()
+                : new HashSet<>(clienteRepository.findIdsExistentes(idsSolicitados));
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<ResultadoPedidoLoteDTO> resultados = new ArrayList<>(solicitudes.size());
+        List<EstadisticasPedidosService.Apunte> altas = new ArrayList<>();
+        int pendientesDeVaciar = 0;
+        for (int i = 0; i < solicitudes.size(); i++) {
+            PedidoRequestDTO solicitud = solicitudes.get(i);
+            String error = validarSolicitudLote(solicitud, clientesExistentes);
+            if (error != null) {
+                resultados.add(new ResultadoPedidoLoteDTO(i, null, ResultadoPedidoLoteDTO.RECHAZADO, error));
+                continue;
+            }
+
+            Pedido pedido = pedidoMapper.toEntity(solicitud);
+            // Referencia sin SELECT: la existencia ya se comprobó con la consulta IN
+            pedido.setCliente(clienteRepository.getReferenceById(solicitud.getClienteId()));
+            pedido.setFechaPedido(ahora);
+            Pedido guardado = pedidoRepository.save(pedido);
+            resultados.add(new ResultadoPedidoLoteDTO(i, guardado.getId(), ResultadoPedidoLoteDTO.CREADO, null));
+            altas.add(estadisticasPedidos.capturar(guardado));
+
+            if (++pendientesDeVaciar >= tamanoLote) {
+                entityManager.flush();
+                entityManager.clear();
+                pendientesDeVaciar = 0;
+            }
+        }
+        estadisticasPedidos.registrarAltas(altas);
+        return resultados;
+    }
+
+    private String validarSolicitudLote(PedidoRequestDTO solicitud, Set<Long> clientesExistentes) {
+        if (solicitud == null) {
+            return "El pedido no puede ser nulo";
+        }
+        Set<ConstraintViolation<PedidoRequestDTO>> violaciones = validator.validate(solicitud);
+        if (!violaciones.isEmpty()) {
+            return violaciones.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!clientesExistentes.contains(solicitud.getClienteId())) {
+            return "Cliente no encontrado con id: " + solicitud.getClienteId();
+        }
+        return null;
+    }
+
+    // Para llamadores internos, sin If-Match: un conflicto de versión se reintenta (ReintentosOptimistas)
+    // con una transacción nueva que relee la entidad, en vez de devolverse como 409. La llamada interna no
+    // pasa por el proxy, así que la transacción de cada intento la abre transaccion
     public PedidoResponseDTO actualizarPedido(Long id, PedidoRequestDTO requestDTO) {
+        return reintentos.ejecutar(() -> transaccion.execute(estado -> actualizarPedido(id, requestDTO, null))).getRespuesta();
+    }
+
+    // versionesEsperadas viene de If-Match con el formato de obtenerPedidoPorId ("pedido-cliente");
+    // null omite la precondición, pero la columna @Version sigue rechazando escrituras concurrentes en el flush
+    @Transactional
+    public VersionadoDTO<PedidoResponseDTO> actualizarPedido(Long id, PedidoRequestDTO requestDTO, String versionesEsperadas) {
         Pedido pedidoExistente = pedidoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Pedido no encontrado con id: " + id));
+        if (versionesEsperadas != null) {
+            String versionesActuales = pedidoExistente.getVersion() + "-" + pedidoExistente.getCliente().getVersion();
+            if (!versionesEsperadas.equals(versionesActuales)) {
+                throw new PreconditionFailedException("Pedido con id " + id + " fue modificado; versión actual: " + versionesActuales);
+            }
+        }
 
+        EstadisticasPedidosService.Apunte anterior = estadisticasPedidos.capturar(pedidoExistente);
         pedidoMapper.updateEntityFromDto(requestDTO, pedidoExistente);
 
         if (pedidoExistente.getCliente() != null &&
@@ -72,15 +294,20 @@ public class PedidoService {
              pedidoExistente.setCliente(nuevoCliente);
         }
 
-        Pedido pedidoActualizado = pedidoRepository.save(pedidoExistente);
-        return pedidoMapper.toResponseDTO(pedidoActualizado);
+        Pedido pedidoActualizado = pedidoRepository.saveAndFlush(pedidoExistente);
+        estadisticasPedidos.registrarCambio(anterior, pedidoActualizado);
+        cacheRespuestas.invalidar(CacheRespuestas.PEDIDOS, id);
+        return new VersionadoDTO<>(pedidoMapper.toResponseDTO(pedidoActualizado),
+                pedidoActualizado.getVersion() + "-" + pedidoActualizado.getCliente().getVersion());
     }
 
     @Transactional
     public void eliminarPedido(Long id) {
-        if (!pedidoRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Pedido no encontrado con id: " + id);
-        }
-        pedidoRepository.deleteById(id);
+        // Se carga el pedido (deleteById también lo haría) para restar su aporte a las estadísticas
+        Pedido pedido = pedidoRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Pedido no encontrado con id: " + id));
+        pedidoRepository.delete(pedido);
+        estadisticasPedidos.registrarBaja(pedido);
+        cacheRespuestas.invalidar(CacheRespuestas.PEDIDOS, id);
     }
 }
\ No newline at end of file
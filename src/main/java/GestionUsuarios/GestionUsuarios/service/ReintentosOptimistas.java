@@ -0,0 +1,53 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// Reintenta operaciones que fallan por bloqueo optimista, para llamadores internos (procesos, integraciones)
+// que no tienen un usuario al que devolver un 409. Cada intento debe abrir su propia transacción y releer la
+// versión vigente; por eso no se admite una transacción ya abierta, que tras el conflicto solo puede deshacerse.
+@Component
+public class ReintentosOptimistas {
+
+    @Value("${reintentos.optimistas.intentos-maximos:3}")
+    private int intentosMaximos = 3;
+
+    @Value("${reintentos.optimistas.espera-base-ms:20}")
+    private long esperaBaseMs = 20;
+
+    public <T> T ejecutar(Supplier<T> operacion) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Los reintentos optimistas necesitan una transacción nueva por intento");
+        }
+        for (int intento = 1; ; intento++) {
+            try {
+                return operacion.get();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (intento >= intentosMaximos) {
+                    throw e;
+                }
+                esperar(intento);
+            }
+        }
+    }
+
+    // Espera aleatoria creciente para que los escritores en conflicto no vuelvan a coincidir
+    private void esperar(int intento) {
+        if (esperaBaseMs <= 0) {
+            return;
+        }
+        long espera = ThreadLocalRandom.current().nextLong(esperaBaseMs * intento, esperaBaseMs * intento * 2 + 1);
+        try {
+            Thread.sleep(espera);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reintento interrumpido", e);
+        }
+    }
+}
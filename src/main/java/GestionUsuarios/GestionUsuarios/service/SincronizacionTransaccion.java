@@ -0,0 +1,42 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidades para ejecutar acciones en memoria (cachés, índices, contadores) alineadas con el
+ * resultado de la transacción en curso. Sin transacción activa la acción se ejecuta en el acto.
+ */
+public final class SincronizacionTransaccion {
+
+    private SincronizacionTransaccion() {
+    }
+
+    // Se ejecuta solo si la transacción confirma; si hace rollback la acción se descarta
+    public static void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    // Se ejecuta ya y otra vez al terminar la transacción (commit o rollback). Pensado para
+    // invalidaciones: cubre a un lector concurrente que repueble la caché antes del commit.
+    public static void ahoraYAlCompletar(Runnable accion) {
+        accion.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    accion.run();
+                }
+            });
+        }
+    }
+}
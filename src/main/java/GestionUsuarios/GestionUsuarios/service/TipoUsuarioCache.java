@@ -0,0 +1,92 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
+import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Caché en memoria de los tipos de usuario. La tabla tiene pocas filas y casi nunca cambia,
+ * así que se precarga al arrancar y las lecturas se resuelven sin ir a la base de datos.
+ * El mapa es inmutable y se reemplaza completo en cada cambio (copy-on-write), por lo que
+ * las lecturas no necesitan bloqueo. Publica las métricas estándar cache.gets (hit/miss) y cache.size.
+ */
+@Component
+public class TipoUsuarioCache {
+
+    private static final String NOMBRE_CACHE = "tiposUsuario";
+
+    private final TipoUsuarioRepository tipoUsuarioRepository;
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    private volatile Map<Long, TipoUsuario> tipos = Map.of();
+
+    public TipoUsuarioCache(TipoUsuarioRepository tipoUsuarioRepository, MeterRegistry meterRegistry) {
+        this.tipoUsuarioRepository = tipoUsuarioRepository;
+        this.aciertos = Counter.builder("cache.gets")
+                .tag("cache", NOMBRE_CACHE).tag("result", "hit")
+                .register(meterRegistry);
+        this.fallos = Counter.builder("cache.gets")
+                .tag("cache", NOMBRE_CACHE).tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, cache -> cache.tipos.size())
+                .tag("cache", NOMBRE_CACHE)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        recargar();
+    }
+
+    public synchronized void recargar() {
+        Map<Long, TipoUsuario> nuevos = new HashMap<>();
+        for (TipoUsuario tipoUsuario : tipoUsuarioRepository.findAll()) {
+            nuevos.put(tipoUsuario.getId(), copiar(tipoUsuario));
+        }
+        tipos = Map.copyOf(nuevos);
+    }
+
+    public Optional<TipoUsuario> buscarPorId(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        TipoUsuario tipoUsuario = tipos.get(id);
+        if (tipoUsuario != null) {
+            aciertos.increment();
+            return Optional.of(tipoUsuario);
+        }
+        fallos.increment();
+        Optional<TipoUsuario> cargado = tipoUsuarioRepository.findById(id).map(this::copiar);
+        cargado.ifPresent(this::registrar);
+        return cargado;
+    }
+
+    public synchronized void registrar(TipoUsuario tipoUsuario) {
+        Map<Long, TipoUsuario> nuevos = new HashMap<>(tipos);
+        nuevos.put(tipoUsuario.getId(), copiar(tipoUsuario));
+        tipos = Map.copyOf(nuevos);
+    }
+
+    public synchronized void invalidar(Long id) {
+        if (tipos.containsKey(id)) {
+            Map<Long, TipoUsuario> nuevos = new HashMap<>(tipos);
+            nuevos.remove(id);
+            tipos = Map.copyOf(nuevos);
+        }
+    }
+
+    // Se guardan copias desacopladas de la sesión de Hibernate (nunca proxies ni instancias gestionadas)
+    private TipoUsuario copiar(TipoUsuario tipoUsuario) {
+        return new TipoUsuario(tipoUsuario.getId(), tipoUsuario.getNombre());
+    }
+}
@@ -0,0 +1,170 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.DTO.FiltroUsuariosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.UsuarioResumenDTO;
+import GestionUsuarios.GestionUsuarios.exception.ConflictException;
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import GestionUsuarios.GestionUsuarios.model.Usuario;
+import GestionUsuarios.GestionUsuarios.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Comprobación previa de unicidad de email y RUT para altas y cambios de cualquier subtipo de usuario.
+ * Un filtro de Bloom por columna responde "seguro que no existe" sin ir a la base, que es el caso
+ * normal de un registro nuevo; los positivos (duplicados reales o falsos positivos) se confirman con
+ * una consulta sobre el índice único. Así un duplicado se rechaza con 409 antes de calcular el hash
+ * BCrypt y de abrir la transacción, en lugar de fallar en el flush.
+ * La comprobación no bloquea: dos altas simultáneas con el mismo valor las resuelve la restricción única
+ * de la base (ver ConcurrencyExceptionHandler), igual que un valor que se pierda durante una reconstrucción.
+ */
+@Service
+public class UnicidadUsuariosService {
+
+    private static final Logger log = LoggerFactory.getLogger(UnicidadUsuariosService.class);
+
+    private static final int TAMANO_BLOQUE_CARGA = 1000;
+
+    private final UsuarioRepository usuarioRepository;
+    private final int capacidadInicial;
+    private final double tasaFalsosPositivos;
+    private final Counter descartadas;
+    private final Counter falsosPositivos;
+    private final Counter duplicados;
+    private final Counter sinFiltro;
+
+    private volatile Filtros filtros;
+    // Hasta la primera carga los filtros no conocen a los usuarios existentes: cada valor se confirma con la base
+    private volatile boolean cargados;
+
+    public UnicidadUsuariosService(UsuarioRepository usuarioRepository,
+                                   @Value("${usuarios.unicidad.capacidad-inicial:100000}") int capacidadInicial,
+                                   @Value("${usuarios.unicidad.tasa-falsos-positivos:0.01}") double tasaFalsosPositivos,
+                                   MeterRegistry meterRegistry) {
+        this.usuarioRepository = usuarioRepository;
+        this.capacidadInicial = capacidadInicial;
+        this.tasaFalsosPositivos = tasaFalsosPositivos;
+        this.filtros = new Filtros(capacidadInicial, tasaFalsosPositivos);
+        this.descartadas = contador(meterRegistry, "descartada");
+        this.falsosPositivos = contador(meterRegistry, "falso_positivo");
+        this.duplicados = contador(meterRegistry, "duplicado");
+        this.sinFiltro = contador(meterRegistry, "sin_filtro");
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("usuarios.unicidad.comprobaciones")
+                .description("Comprobaciones de email/RUT según las resolvió el filtro o la consulta de confirmación")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    // La lanza CargasIniciales en segundo plano después del arranque
+    public void precargar() {
+        long inicio = System.nanoTime();
+        reconstruir();
+        log.info("Filtros de unicidad de email/RUT cargados en {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+    }
+
+    // Los filtros no admiten borrados: reconstruir descarta los valores de usuarios eliminados
+    public synchronized void reconstruir() {
+        Filtros nuevos = new Filtros(capacidadInicial, tasaFalsosPositivos);
+        FiltroUsuariosDTO sinFiltro = new FiltroUsuariosDTO();
+        Long after = null;
+        List<UsuarioResumenDTO> bloque;
+        do {
+            bloque = usuarioRepository.buscarResumenes(sinFiltro, after, TAMANO_BLOQUE_CARGA);
+            for (UsuarioResumenDTO usuario : bloque) {
+                nuevos.agregar(usuario.getEmail(), usuario.getRut());
+            }
+            if (!bloque.isEmpty()) {
+                after = bloque.get(bloque.size() - 1).getId();
+            }
+        } while (bloque.size() == TAMANO_BLOQUE_CARGA);
+        filtros = nuevos;
+        cargados = true;
+    }
+
+    // idActual es null en un alta; en un cambio excluye al propio usuario de la confirmación.
+    // El RUT ya viene validado (@RutValido) y se compara en su forma canónica
+    public void comprobarDisponibles(String email, String rut, Long idActual) {
+        Filtros actuales = filtros;
+        boolean usarFiltro = cargados;
+        if (ocupado(usarFiltro, actuales.emails, email, valor -> usuarioRepository.existeEmail(valor, idActual))) {
+            throw new ConflictException("Ya existe un usuario con email: " + email);
+        }
+        Rut normalizado = Rut.parsear(rut);
+        if (normalizado != null && ocupado(usarFiltro, actuales.ruts, normalizado.toString(),
+                valor -> usuarioRepository.existeRut(normalizado.getNumero(), idActual))) {
+            throw new ConflictException("Ya existe un usuario con RUT: " + normalizado);
+        }
+    }
+
+    // Cambio de un usuario existente: solo se comprueban los valores que la petición modifica. Los que conserva
+    // están en el filtro y siempre pasarían por la base, que además los contaría como falsos positivos
+    public void comprobarCambios(Long id, EstadoUsuarioDTO actual, String email, String rut) {
+        String emailNuevo = Objects.equals(email, actual.getEmail()) ? null : email;
+        Rut normalizado = Rut.parsear(rut);
+        boolean mismoRut = normalizado != null && Objects.equals(normalizado.getNumero(), actual.getRutNumero());
+        comprobarDisponibles(emailNuevo, mismoRut ? null : rut, id);
+    }
+
+    private boolean ocupado(boolean usarFiltro, FiltroBloom filtro, String valor, Predicate<String> confirmar) {
+        if (valor == null) {
+            return false;
+        }
+        if (!usarFiltro) {
+            // Fuera de la cuenta de falsos positivos, que mide solo al filtro
+            boolean existe = confirmar.test(valor);
+            (existe ? duplicados : sinFiltro).increment();
+            return existe;
+        }
+        if (!filtro.puedeContener(valor)) {
+            descartadas.increment();
+            return false;
+        }
+        boolean existe = confirmar.test(valor);
+        (existe ? duplicados : falsosPositivos).increment();
+        return existe;
+    }
+
+    // Alta o cambio de email/RUT: se agrega al confirmar la transacción
+    void registrar(Usuario usuario) {
+        String email = usuario.getEmail();
+        String rut = Objects.toString(usuario.getRut(), null);
+        SincronizacionTransaccion.alConfirmar(() -> agregar(email, rut));
+    }
+
+    // Serializado con reconstruir: un alta confirmada durante la recarga se aplica a los filtros nuevos
+    private synchronized void agregar(String email, String rut) {
+        filtros.agregar(email, rut);
+    }
+
+    private static final class Filtros {
+        private final FiltroBloom emails;
+        private final FiltroBloom ruts;
+
+        Filtros(int capacidadInicial, double tasaFalsosPositivos) {
+            this.emails = new FiltroBloom(capacidadInicial, tasaFalsosPositivos);
+            this.ruts = new FiltroBloom(capacidadInicial, tasaFalsosPositivos);
+        }
+
+        void agregar(String email, String rut) {
+            if (email != null) {
+                emails.agregar(email);
+            }
+            if (rut != null) {
+                ruts.agregar(rut);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import GestionUsuarios.GestionUsuarios.DTO.FiltroUsuariosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PaginaDTO;
+import GestionUsuarios.GestionUsuarios.DTO.UsuarioResumenDTO;
+import GestionUsuarios.GestionUsuarios.exception.BadRequestException;
+import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import GestionUsuarios.GestionUsuarios.repository.UsuarioRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+
+// Búsqueda transversal de usuarios (mesa de ayuda): una sola consulta indexada sobre la tabla base
+@Service
+public class UsuarioService {
+
+    public static final int LIMITE_MAXIMO = 100;
+
+    private final UsuarioRepository usuarioRepository;
+
+    public UsuarioService(UsuarioRepository usuarioRepository) {
+        this.usuarioRepository = usuarioRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaDTO<UsuarioResumenDTO> buscarUsuarios(FiltroUsuariosDTO filtro, Long after, int limit) {
+        int tamano = Math.max(1, Math.min(limit, LIMITE_MAXIMO));
+        if (filtro.getTipo() != null) {
+            filtro.setTipo(filtro.getTipo().trim().toUpperCase(Locale.ROOT));
+        }
+        // Un elemento extra solo para saber si hay página siguiente
+        List<UsuarioResumenDTO> usuarios = usuarioRepository.buscarResumenes(filtro, after, tamano + 1);
+        Long siguienteCursor = usuarios.size() > tamano ? usuarios.get(tamano - 1).getId() : null;
+        return new PaginaDTO<>(usuarios.size() > tamano ? usuarios.subList(0, tamano) : usuarios, siguienteCursor);
+    }
+
+    // Búsqueda exacta por el índice único de rut_numero; acepta el RUT con o sin puntos
+    @Transactional(readOnly = true)
+    public UsuarioResumenDTO buscarPorRut(String rut) {
+        if (!Rut.esValido(rut)) {
+            throw new BadRequestException("RUT inválido: " + rut);
+        }
+        FiltroUsuariosDTO filtro = new FiltroUsuariosDTO();
+        filtro.setRut(rut);
+        return usuarioRepository.buscarResumenes(filtro, null, 1).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con RUT: " + rut));
+    }
+}
@@ -0,0 +1,23 @@
+package GestionUsuarios.GestionUsuarios.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// RUT con formato válido (puntos y guion opcionales) y dígito verificador correcto; null es válido (ver @NotBlank)
+@Documented
+@Constraint(validatedBy = RutValidoValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RutValido {
+    String message() default "El RUT no es válido";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
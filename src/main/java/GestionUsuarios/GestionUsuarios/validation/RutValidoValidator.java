@@ -0,0 +1,13 @@
+package GestionUsuarios.GestionUsuarios.validation;
+
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class RutValidoValidator implements ConstraintValidator<RutValido, CharSequence> {
+
+    @Override
+    public boolean isValid(CharSequence valor, ConstraintValidatorContext contexto) {
+        return valor == null || Rut.esValido(valor);
+    }
+}
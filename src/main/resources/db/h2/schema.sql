@@ -0,0 +1,77 @@
+-- Esquema de la base H2 en disco (perfil "archivo"). Hibernate solo lo valida (ddl-auto=validate), así que
+-- debe mantenerse alineado con las entidades. Es idempotente: se ejecuta en cada arranque y solo crea lo que falte.
+
+create sequence if not exists pedidos_seq start with 1 increment by 50;
+
+create table if not exists tipos_usuario (
+    id bigint generated by default as identity,
+    nombre varchar(255) not null,
+    constraint pk_tipos_usuario primary key (id),
+    constraint uk_tipos_usuario_nombre unique (nombre)
+);
+
+create table if not exists usuarios (
+    id bigint generated by default as identity,
+    tipo_entidad varchar(31) not null,
+    nombre varchar(255) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    fecha_nacimiento varchar(255),
+    rut_numero integer not null,
+    rut_dv char(1) not null,
+    version bigint,
+    tipo_usuario_id bigint not null,
+    constraint pk_usuarios primary key (id),
+    constraint uk_usuarios_email unique (email),
+    constraint uk_usuarios_rut_numero unique (rut_numero),
+    constraint fk_usuarios_tipo_usuario foreign key (tipo_usuario_id) references tipos_usuario (id)
+);
+create index if not exists idx_usuarios_nombre_id on usuarios (nombre, id);
+create index if not exists idx_usuarios_tipo_entidad_id on usuarios (tipo_entidad, id);
+
+create table if not exists administradores (
+    id bigint not null,
+    constraint pk_administradores primary key (id),
+    constraint fk_administradores_usuario foreign key (id) references usuarios (id)
+);
+
+create table if not exists clientes (
+    id bigint not null,
+    direccion_envio varchar(255),
+    constraint pk_clientes primary key (id),
+    constraint fk_clientes_usuario foreign key (id) references usuarios (id)
+);
+
+create table if not exists empleados_ventas (
+    id bigint not null,
+    salario float(53) not null,
+    fecha_contratacion varchar(255),
+    constraint pk_empleados_ventas primary key (id),
+    constraint fk_empleados_ventas_usuario foreign key (id) references usuarios (id)
+);
+
+create table if not exists gerentes_tienda (
+    id bigint not null,
+    anos_experiencia integer,
+    tienda_asignada varchar(255),
+    constraint pk_gerentes_tienda primary key (id),
+    constraint fk_gerentes_tienda_usuario foreign key (id) references usuarios (id)
+);
+
+create table if not exists pedidos (
+    id bigint not null,
+    fecha_pedido timestamp(6) not null,
+    estado varchar(255) not null,
+    total float(53) not null,
+    cliente_id bigint not null,
+    direccion_envio varchar(255) not null,
+    metodo_pago varchar(255) not null,
+    version bigint,
+    constraint pk_pedidos primary key (id),
+    constraint fk_pedidos_cliente foreign key (cliente_id) references clientes (id)
+);
+create index if not exists idx_pedidos_cliente_id on pedidos (cliente_id, id);
+create index if not exists idx_pedidos_estado_id on pedidos (estado, id);
+create index if not exists idx_pedidos_metodo_pago_id on pedidos (metodo_pago, id);
+create index if not exists idx_pedidos_fecha_pedido on pedidos (fecha_pedido, id);
+create index if not exists idx_pedidos_cliente_fecha on pedidos (cliente_id, fecha_pedido, id);
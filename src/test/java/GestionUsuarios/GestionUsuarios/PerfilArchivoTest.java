@@ -0,0 +1,59 @@
+package GestionUsuarios.GestionUsuarios;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import GestionUsuarios.GestionUsuarios.config.CompactacionH2;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
+import GestionUsuarios.GestionUsuarios.repository.ClienteRepository;
+import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
+
+// Arranca dos veces la aplicación con el perfil "archivo" sobre el mismo archivo: el esquema de
+// db/h2/schema.sql debe pasar ddl-auto=validate y los datos deben sobrevivir al reinicio y a la compactación
+class PerfilArchivoTest {
+
+    @TempDir
+    Path directorio;
+
+    private ConfigurableApplicationContext arrancar(boolean compactar) {
+        return new SpringApplicationBuilder(GestionUsuariosApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("archivo")
+                .run("--h2.archivo.ruta=" + directorio.resolve("db").toAbsolutePath(),
+                        "--h2.archivo.compactar-al-cerrar=" + compactar,
+                        "--logging.level.root=WARN");
+    }
+
+    @Test
+    void testDatosSobrevivenAlReinicio() {
+        try (ConfigurableApplicationContext contexto = arrancar(true)) {
+            assertEquals(1, contexto.getBeansOfType(CompactacionH2.class).size());
+            TipoUsuario tipo = contexto.getBean(TipoUsuarioRepository.class).save(new TipoUsuario(null, "CLIENTE"));
+            Cliente cliente = new Cliente();
+            cliente.setNombre("Cliente Persistente");
+            cliente.setEmail("persistente@test.com");
+            cliente.setPassword("hash");
+            cliente.setRut(Rut.parsear("12.345.678-5"));
+            cliente.setTipoUsuario(tipo);
+            contexto.getBean(ClienteRepository.class).save(cliente);
+        }
+        assertTrue(Files.exists(directorio.resolve("db.mv.db")));
+
+        try (ConfigurableApplicationContext contexto = arrancar(false)) {
+            assertTrue(contexto.getBeansOfType(CompactacionH2.class).isEmpty());
+            Cliente cliente = contexto.getBean(ClienteRepository.class).findAll().get(0);
+            assertEquals("Cliente Persistente", cliente.getNombre());
+            assertEquals(Rut.de(12345678), cliente.getRut());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package GestionUsuarios.GestionUsuarios.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import GestionUsuarios.GestionUsuarios.DTO.ClienteRequestDTO;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
+import GestionUsuarios.GestionUsuarios.repository.ClienteRepository;
+import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
+import GestionUsuarios.GestionUsuarios.service.ClienteService;
+import GestionUsuarios.GestionUsuarios.service.TipoUsuarioCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+// Cada llamada al repositorio abre su propia sesión: lo que evita el SELECT es la caché de segundo nivel,
+// no la de primer nivel. La caché de respuestas se apaga para que las lecturas lleguen a Hibernate
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cache_segundo_nivel",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "cache.respuestas.habilitado=false",
+        "contrasenas.hash.costo=4"
+})
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private TipoUsuarioRepository tipoUsuarioRepository;
+
+    @Autowired
+    private TipoUsuarioCache tipoUsuarioCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics estadisticas;
+    private Long idCliente;
+    private ClienteRequestDTO solicitud;
+
+    @BeforeEach
+    void setUp() {
+        TipoUsuario tipo = tipoUsuarioRepository.findAll().stream().findFirst()
+                .orElseGet(() -> tipoUsuarioRepository.save(new TipoUsuario(null, "CLIENTE")));
+        tipoUsuarioCache.recargar();
+        long sufijo = System.nanoTime() % 1_000_000;
+        solicitud = new ClienteRequestDTO("Cliente Cache", "cache" + sufijo + "@test.com", "password", "1995-05-10",
+                Rut.de(60_000_000 + (int) sufijo).toString(), tipo.getId(), "Calle Falsa 123");
+        idCliente = clienteService.crearCliente(solicitud).getId();
+        entityManagerFactory.getCache().evictAll();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    void testFindByIdRepetidoNoVuelveALaBase() {
+        assertTrue(clienteRepository.findById(idCliente).isPresent());
+        long sentenciasPrimera = estadisticas.getPrepareStatementCount();
+        assertTrue(sentenciasPrimera > 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Cliente Cache", clienteRepository.findById(idCliente).orElseThrow().getNombre());
+        }
+        assertEquals(sentenciasPrimera, estadisticas.getPrepareStatementCount());
+        assertEquals(5, estadisticas.getDomainDataRegionStatistics("usuarios").getHitCount());
+    }
+
+    @Test
+    void testActualizarReemplazaLaEntradaYLaVersionGuardada() {
+        Long versionInicial = clienteRepository.findEstadoById(idCliente).orElseThrow().getVersion();
+        clienteRepository.findById(idCliente);
+
+        solicitud.setNombre("Cliente Renombrado");
+        clienteService.actualizarCliente(idCliente, solicitud);
+
+        Cliente cliente = clienteRepository.findById(idCliente).orElseThrow();
+        assertEquals("Cliente Renombrado", cliente.getNombre());
+        assertEquals(versionInicial + 1, clienteRepository.findEstadoById(idCliente).orElseThrow().getVersion());
+        assertEquals(cliente.getVersion(), clienteRepository.findEstadoById(idCliente).orElseThrow().getVersion());
+        assertTrue(estadisticas.getQueryCacheHitCount() > 0);
+    }
+
+    @Test
+    void testEliminarNoDejaLaEntidadEnCache() {
+        clienteRepository.findById(idCliente);
+        clienteRepository.findEstadoById(idCliente);
+        assertTrue(entityManagerFactory.getCache().contains(Cliente.class, idCliente));
+
+        clienteService.eliminarCliente(idCliente);
+
+        assertTrue(clienteRepository.findById(idCliente).isEmpty());
+        assertTrue(clienteRepository.findEstadoById(idCliente).isEmpty());
+    }
+
+    @Test
+    void testPublicaMetricasPorRegion() {
+        clienteRepository.findById(idCliente);
+        clienteRepository.findById(idCliente);
+
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "usuarios").tag("result", "hit")
+                .functionCounter().count() >= 1);
+    }
+}
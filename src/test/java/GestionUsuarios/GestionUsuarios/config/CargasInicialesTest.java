@@ -0,0 +1,51 @@
+package GestionUsuarios.GestionUsuarios.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import GestionUsuarios.GestionUsuarios.service.AutocompletadoUsuariosService;
+import GestionUsuarios.GestionUsuarios.service.EstadisticasPedidosService;
+import GestionUsuarios.GestionUsuarios.service.UnicidadUsuariosService;
+
+@ExtendWith(MockitoExtension.class)
+class CargasInicialesTest {
+
+    @Mock
+    private AutocompletadoUsuariosService autocompletado;
+
+    @Mock
+    private UnicidadUsuariosService unicidadUsuarios;
+
+    @Mock
+    private EstadisticasPedidosService estadisticasPedidos;
+
+    private final List<Runnable> encoladas = new ArrayList<>();
+
+    @Test
+    void testIniciarNoEsperaALasCargas() {
+        new CargasIniciales(autocompletado, unicidadUsuarios, estadisticasPedidos, encoladas::add).iniciar();
+
+        assertEquals(3, encoladas.size());
+        verifyNoInteractions(autocompletado, unicidadUsuarios, estadisticasPedidos);
+    }
+
+    @Test
+    void testUnaCargaFallidaNoDetieneLasDemas() {
+        doThrow(new IllegalStateException("sin memoria")).when(autocompletado).precargar();
+        new CargasIniciales(autocompletado, unicidadUsuarios, estadisticasPedidos, encoladas::add).iniciar();
+
+        encoladas.forEach(Runnable::run);
+
+        verify(autocompletado).precargar();
+        verify(unicidadUsuarios).precargar();
+        verify(estadisticasPedidos).precargar();
+    }
+}
@@ -2,6 +2,7 @@ package GestionUsuarios.GestionUsuarios.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -24,6 +25,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import GestionUsuarios.GestionUsuarios.DTO.AdministradorRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.AdministradorResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 import GestionUsuarios.GestionUsuarios.service.AdministradorService;
 
@@ -45,8 +47,8 @@ public class AdministradorControllerTest {
     @BeforeEach
     void setUp() {
         // Corregido: Usar el constructor con todos los campos del DTO
-        responseDTO = new AdministradorResponseDTO(1L, "Admin de Prueba", "admin@test.com", "2000-01-01", "12345678-9", null);
-        requestDTO = new AdministradorRequestDTO("Admin de Prueba", "admin@test.com", "password", "2000-01-01", "12345678-9", 1L);
+        responseDTO = new AdministradorResponseDTO(1L, "Admin de Prueba", "admin@test.com", "2000-01-01", "12345678-5", null);
+        requestDTO = new AdministradorRequestDTO("Admin de Prueba", "admin@test.com", "password", "2000-01-01", "12345678-5", 1L);
     }
 
     @Test
@@ -62,7 +64,7 @@ public class AdministradorControllerTest {
     
     @Test
     void testObtenerAdministradorPorId() throws Exception {
-        when(administradorService.obtenerAdministradorPorId(1L)).thenReturn(responseDTO);
+        when(administradorService.obtenerAdministradorPorId(1L)).thenReturn(new VersionadoDTO<>(responseDTO, "0"));
 
         mockMvc.perform(get("/administradores/1"))
                 .andExpect(status().isOk())
@@ -91,7 +93,7 @@ public class AdministradorControllerTest {
 
     @Test
     void testActualizarAdministrador() throws Exception {
-        when(administradorService.actualizarAdministrador(eq(1L), any(AdministradorRequestDTO.class))).thenReturn(responseDTO);
+        when(administradorService.actualizarAdministrador(eq(1L), any(AdministradorRequestDTO.class), isNull())).thenReturn(new VersionadoDTO<>(responseDTO, "1"));
 
         mockMvc.perform(put("/administradores/1")
                 .contentType(MediaType.APPLICATION_JSON)
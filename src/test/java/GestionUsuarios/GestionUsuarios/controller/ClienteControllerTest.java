@@ -1,29 +1,44 @@
 package GestionUsuarios.GestionUsuarios.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.hasSize;
 
+import java.sql.SQLException;
 import java.util.Collections;
+import java.util.List;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import GestionUsuarios.GestionUsuarios.DTO.ClienteRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.ClienteResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PaginaDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PedidoResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
+import GestionUsuarios.GestionUsuarios.exception.PreconditionFailedException;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
 import GestionUsuarios.GestionUsuarios.service.ClienteService;
+import GestionUsuarios.GestionUsuarios.service.PedidoService;
 
 @WebMvcTest(ClienteController.class)
 public class ClienteControllerTest {
@@ -34,6 +49,9 @@ public class ClienteControllerTest {
     @MockBean
     private ClienteService clienteService;
 
+    @MockBean
+    private PedidoService pedidoService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -43,8 +61,8 @@ public class ClienteControllerTest {
     @BeforeEach
     void setUp() {
         // Corregido: Usar el constructor con todos los campos del DTO
-        responseDTO = new ClienteResponseDTO(1L, "Cliente de Prueba", "cliente@test.com", "1995-05-10", "22333444-5", null, "Calle Falsa 123");
-        requestDTO = new ClienteRequestDTO("Cliente de Prueba", "cliente@test.com", "password", "1995-05-10", "22333444-5", 1L, "Calle Falsa 123");
+        responseDTO = new ClienteResponseDTO(1L, "Cliente de Prueba", "cliente@test.com", "1995-05-10", "22333444-K", null, "Calle Falsa 123");
+        requestDTO = new ClienteRequestDTO("Cliente de Prueba", "cliente@test.com", "password", "1995-05-10", "22333444-K", 1L, "Calle Falsa 123");
     }
 
     @Test
@@ -59,7 +77,7 @@ public class ClienteControllerTest {
 
     @Test
     void testObtenerClientePorId() throws Exception {
-        when(clienteService.obtenerClientePorId(1L)).thenReturn(responseDTO);
+        when(clienteService.obtenerClientePorId(1L)).thenReturn(new VersionadoDTO<>(responseDTO, "0"));
 
         mockMvc.perform(get("/clientes/1"))
                 .andExpect(status().isOk())
@@ -72,6 +90,68 @@ public class ClienteControllerTest {
         mockMvc.perform(get("/clientes/99")).andExpect(status().isNotFound());
     }
 
+    @Test
+    void testObtenerClientePorId_DevuelveEtagDeVersion() throws Exception {
+        when(clienteService.obtenerClientePorId(1L)).thenReturn(new VersionadoDTO<>(responseDTO, "3"));
+
+        mockMvc.perform(get("/clientes/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    void testObtenerClientePorId_NoModificado() throws Exception {
+        when(clienteService.obtenerClientePorId(1L)).thenReturn(new VersionadoDTO<>(responseDTO, "3"));
+
+        mockMvc.perform(get("/clientes/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        // El ETag sale de la entrada de caché junto al cuerpo, sin una consulta de versión aparte
+        verify(clienteService, never()).obtenerEstadoCliente(any());
+    }
+
+    @Test
+    void testObtenerTodosLosClientes_NoModificado() throws Exception {
+        when(clienteService.obtenerEtagClientes()).thenReturn("W/\"1-3-1\"");
+
+        mockMvc.perform(get("/clientes").header("If-None-Match", "W/\"1-3-1\""))
+                .andExpect(status().isNotModified());
+        verify(clienteService, never()).obtenerTodosLosClientes();
+    }
+
+    @Test
+    void testObtenerPedidosDeCliente() throws Exception {
+        PedidoResponseDTO pedido = new PedidoResponseDTO(7L, null, "Pendiente", 150.99, responseDTO, "Calle Falsa 123", "Tarjeta");
+        when(pedidoService.obtenerPedidosDeCliente(1L, null, 1)).thenReturn(new PaginaDTO<>(List.of(pedido), 7L));
+
+        mockMvc.perform(get("/clientes/1/pedidos?limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.pedidoResponseDTOList", hasSize(1)))
+                .andExpect(jsonPath("$._embedded.pedidoResponseDTOList[0]._links.self.href", is("http://localhost/pedidos/7")))
+                .andExpect(jsonPath("$._links.next.href", is("http://localhost/clientes/1/pedidos?limit=1&after=aWQ6Nw")));
+    }
+
+    @Test
+    void testObtenerPedidosDeCliente_NoModificado() throws Exception {
+        PedidoResponseDTO pedido = new PedidoResponseDTO(7L, null, "Pendiente", 150.99, responseDTO, "Calle Falsa 123", "Tarjeta");
+        when(pedidoService.obtenerPedidosDeCliente(1L, null, 20)).thenReturn(new PaginaDTO<>(List.of(pedido), null, "W/\"abc\""));
+
+        // El validador es el de la propia página, sin una consulta aparte sobre todo el historial
+        mockMvc.perform(get("/clientes/1/pedidos").header("If-None-Match", "W/\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"abc\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testObtenerPedidosDeCliente_ClienteNoEncontrado() throws Exception {
+        when(pedidoService.obtenerPedidosDeCliente(99L, null, 20)).thenThrow(new ResourceNotFoundException("Cliente no encontrado con id: 99"));
+
+        // Un If-None-Match cualquiera no convierte el 404 en 304
+        mockMvc.perform(get("/clientes/99/pedidos").header("If-None-Match", "W/\"0-0-0\""))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testCrearCliente() throws Exception {
         when(clienteService.crearCliente(any(ClienteRequestDTO.class))).thenReturn(responseDTO);
@@ -83,9 +163,49 @@ public class ClienteControllerTest {
                 .andExpect(jsonPath("$.nombre", is("Cliente de Prueba")));
     }
 
+    @Test
+    void testCrearCliente_RutConVerificadorIncorrecto() throws Exception {
+        requestDTO.setRut("22333444-5");
+
+        mockMvc.perform(post("/clientes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isBadRequest());
+        verify(clienteService, never()).crearCliente(any());
+    }
+
+    @Test
+    void testCrearCliente_EmailDuplicadoEnCarrera() throws Exception {
+        when(clienteService.crearCliente(any(ClienteRequestDTO.class))).thenThrow(violacion("PUBLIC.UK_USUARIOS_EMAIL_INDEX_3"));
+
+        mockMvc.perform(post("/clientes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+    }
+
+    @Test
+    void testCrearCliente_OtraViolacionNoEsConflicto() throws Exception {
+        when(clienteService.crearCliente(any(ClienteRequestDTO.class))).thenThrow(violacion("PUBLIC.FK_USUARIOS_TIPO_USUARIO"));
+
+        // Resuelta por el manejador, sin relanzar: 500 sin el SQL en el cuerpo
+        mockMvc.perform(post("/clientes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.status").value(500))
+                .andExpect(jsonPath("$.detail").value("No se pudieron guardar los datos"));
+    }
+
+    private static DataIntegrityViolationException violacion(String restriccion) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), restriccion));
+    }
+
     @Test
     void testActualizarCliente() throws Exception {
-        when(clienteService.actualizarCliente(eq(1L), any(ClienteRequestDTO.class))).thenReturn(responseDTO);
+        when(clienteService.actualizarCliente(eq(1L), any(ClienteRequestDTO.class), isNull())).thenReturn(new VersionadoDTO<>(responseDTO, "1"));
 
         mockMvc.perform(put("/clientes/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -93,6 +213,53 @@ public class ClienteControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testActualizarCliente_ConIfMatch() throws Exception {
+        when(clienteService.actualizarCliente(eq(1L), any(ClienteRequestDTO.class), eq(3L))).thenReturn(new VersionadoDTO<>(responseDTO, "4"));
+
+        mockMvc.perform(put("/clientes/1")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+        // La versión viene de la propia escritura, sin relectura posterior
+        verify(clienteService, never()).obtenerEstadoCliente(any());
+    }
+
+    @Test
+    void testActualizarCliente_VersionDistinta() throws Exception {
+        when(clienteService.actualizarCliente(eq(1L), any(ClienteRequestDTO.class), eq(2L)))
+                .thenThrow(new PreconditionFailedException("Cliente con id 1 fue modificado; versión actual: 3"));
+
+        mockMvc.perform(put("/clientes/1")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testActualizarCliente_IfMatchDebil() throws Exception {
+        mockMvc.perform(put("/clientes/1")
+                .header("If-Match", "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isPreconditionFailed());
+        verify(clienteService, never()).actualizarCliente(any(), any(), any());
+    }
+
+    @Test
+    void testActualizarCliente_ConflictoConcurrente() throws Exception {
+        when(clienteService.actualizarCliente(eq(1L), any(ClienteRequestDTO.class), isNull()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Cliente.class, 1L));
+
+        mockMvc.perform(put("/clientes/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void testEliminarCliente() throws Exception {
         mockMvc.perform(delete("/clientes/1"))
@@ -2,6 +2,7 @@ package GestionUsuarios.GestionUsuarios.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -22,6 +23,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 import GestionUsuarios.GestionUsuarios.service.EmpleadoVentasService;
 
@@ -42,8 +44,8 @@ public class EmpleadoVentasControllerTest {
 
     @BeforeEach
     void setUp() {
-        responseDTO = new EmpleadoVentasResponseDTO(1L, "Empleado de Prueba", "empleado@test.com", "1998-11-20", "33444555-6", null, "2023-01-15", 500000.0);
-        requestDTO = new EmpleadoVentasRequestDTO("Empleado de Prueba", "empleado@test.com", "password", "1998-11-20", "33444555-6", 2L, "2023-01-15", 500000.0);
+        responseDTO = new EmpleadoVentasResponseDTO(1L, "Empleado de Prueba", "empleado@test.com", "1998-11-20", "33444555-0", null, "2023-01-15", 500000.0);
+        requestDTO = new EmpleadoVentasRequestDTO("Empleado de Prueba", "empleado@test.com", "password", "1998-11-20", "33444555-0", 2L, "2023-01-15", 500000.0);
     }
 
     @Test
@@ -59,7 +61,7 @@ public class EmpleadoVentasControllerTest {
     @Test
     void testObtenerEmpleadoVentasPorId_Exitoso() throws Exception {
         // Prueba para el camino feliz (200 OK)
-        when(empleadoVentasService.obtenerEmpleadoVentasPorId(1L)).thenReturn(responseDTO);
+        when(empleadoVentasService.obtenerEmpleadoVentasPorId(1L)).thenReturn(new VersionadoDTO<>(responseDTO, "0"));
 
         mockMvc.perform(get("/empleados-ventas/1"))
                 .andExpect(status().isOk())
@@ -92,7 +94,7 @@ public class EmpleadoVentasControllerTest {
 
     @Test
     void testActualizarEmpleadoVentas() throws Exception {
-        when(empleadoVentasService.actualizarEmpleadoVentas(eq(1L), any(EmpleadoVentasRequestDTO.class))).thenReturn(responseDTO);
+        when(empleadoVentasService.actualizarEmpleadoVentas(eq(1L), any(EmpleadoVentasRequestDTO.class), isNull())).thenReturn(new VersionadoDTO<>(responseDTO, "1"));
 
         mockMvc.perform(put("/empleados-ventas/1")
                 .contentType(MediaType.APPLICATION_JSON)
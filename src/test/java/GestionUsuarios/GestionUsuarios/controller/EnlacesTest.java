@@ -0,0 +1,72 @@
+package GestionUsuarios.GestionUsuarios.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.EvoInflectorLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Los enlaces precalculados deben ser idénticos a los que genera linkTo(methodOn(...))
+public class EnlacesTest {
+
+    private final ObjectMapper hal = new ObjectMapper().registerModule(new Jackson2HalModule());
+
+    @BeforeEach
+    void setUp() {
+        hal.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new EvoInflectorLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/clientes");
+        request.setServerName("api.ejemplo.cl");
+        request.setServerPort(8443);
+        request.setScheme("https");
+        request.addHeader("X-Forwarded-Prefix", "/gestion");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    // Compara el JSON HAL que recibe el cliente: los enlaces de methodOn llevan además affordances,
+    // que HAL no serializa
+    private void assertMismoHal(Link esperado, Link obtenido) throws Exception {
+        assertEquals(hal.writeValueAsString(new RepresentationModel<>(esperado)),
+                hal.writeValueAsString(new RepresentationModel<>(obtenido)));
+    }
+
+    @Test
+    void testEnlacesDeClientesIgualesAMethodOn() throws Exception {
+        Enlaces enlaces = Enlaces.de(ClienteController.class, "clientes");
+
+        assertMismoHal(linkTo(methodOn(ClienteController.class).obtenerClientePorId(42L, null)).withSelfRel(), enlaces.elemento(42L));
+        assertMismoHal(linkTo(methodOn(ClienteController.class).obtenerTodosLosClientes(null)).withRel("clientes"), enlaces.coleccion());
+        assertMismoHal(linkTo(methodOn(ClienteController.class).obtenerTodosLosClientes(null)).withSelfRel(), enlaces.coleccionSelf());
+    }
+
+    @Test
+    void testEnlacesDelRestoDeControladoresIgualesAMethodOn() throws Exception {
+        assertMismoHal(linkTo(methodOn(AdministradorController.class).obtenerAdministradorPorId(7L, null)).withSelfRel(),
+                Enlaces.de(AdministradorController.class, "administradores").elemento(7L));
+        assertMismoHal(linkTo(methodOn(EmpleadoVentasController.class).obtenerTodosLosEmpleadosVentas(null)).withRel("empleados-ventas"),
+                Enlaces.de(EmpleadoVentasController.class, "empleados-ventas").coleccion());
+        assertMismoHal(linkTo(methodOn(GerenteTiendaController.class).obtenerGerentePorId(3L, null)).withSelfRel(),
+                Enlaces.de(GerenteTiendaController.class, "gerentes-tienda").elemento(3L));
+        assertMismoHal(linkTo(methodOn(PedidoController.class).obtenerPedidoPorId(1000000L, null)).withSelfRel(),
+                Enlaces.de(PedidoController.class, "pedidos").elemento(1000000L));
+        assertMismoHal(linkTo(PedidoController.class).withRel("pedidos"), Enlaces.de(PedidoController.class, "pedidos").coleccion());
+    }
+}
@@ -2,6 +2,7 @@ package GestionUsuarios.GestionUsuarios.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -22,6 +23,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 import GestionUsuarios.GestionUsuarios.service.GerenteTiendaService;
 
@@ -42,8 +44,8 @@ public class GerenteTiendaControllerTest {
 
     @BeforeEach
     void setUp() {
-        responseDTO = new GerenteTiendaResponseDTO(1L, "Gerente de Prueba", "gerente@test.com", "1985-03-15", "11222333-k", null, 5, "Tienda Central");
-        requestDTO = new GerenteTiendaRequestDTO("Gerente de Prueba", "gerente@test.com", "password", "1985-03-15", "11222333-k", 3L, 5, "Tienda Central");
+        responseDTO = new GerenteTiendaResponseDTO(1L, "Gerente de Prueba", "gerente@test.com", "1985-03-15", "11222333-9", null, 5, "Tienda Central");
+        requestDTO = new GerenteTiendaRequestDTO("Gerente de Prueba", "gerente@test.com", "password", "1985-03-15", "11222333-9", 3L, 5, "Tienda Central");
     }
 
     @Test
@@ -59,7 +61,7 @@ public class GerenteTiendaControllerTest {
     @Test
     void testObtenerGerentePorId_Exitoso() throws Exception {
         // Prueba para el camino feliz (200 OK)
-        when(gerenteTiendaService.obtenerGerentePorId(1L)).thenReturn(responseDTO);
+        when(gerenteTiendaService.obtenerGerentePorId(1L)).thenReturn(new VersionadoDTO<>(responseDTO, "0"));
 
         mockMvc.perform(get("/gerentes-tienda/1"))
                 .andExpect(status().isOk())
@@ -92,7 +94,7 @@ public class GerenteTiendaControllerTest {
 
     @Test
     void testActualizarGerente() throws Exception {
-        when(gerenteTiendaService.actualizarGerente(eq(1L), any(GerenteTiendaRequestDTO.class))).thenReturn(responseDTO);
+        when(gerenteTiendaService.actualizarGerente(eq(1L), any(GerenteTiendaRequestDTO.class), isNull())).thenReturn(new VersionadoDTO<>(responseDTO, "1"));
 
         mockMvc.perform(put("/gerentes-tienda/1")
                 .contentType(MediaType.APPLICATION_JSON)
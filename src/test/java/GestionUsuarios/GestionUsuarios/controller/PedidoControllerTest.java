@@ -1,15 +1,27 @@
 package GestionUsuarios.GestionUsuarios.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.hasSize;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,13 +30,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import GestionUsuarios.GestionUsuarios.DTO.CursorPedidoDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EstadisticasPedidosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.FiltroPedidosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PaginaDTO;
 import GestionUsuarios.GestionUsuarios.DTO.PedidoRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.PedidoResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.ResultadoPedidoLoteDTO;
+import GestionUsuarios.GestionUsuarios.DTO.ResumenVentasDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
+import GestionUsuarios.GestionUsuarios.exception.ServiceUnavailableException;
+import GestionUsuarios.GestionUsuarios.service.EstadisticasPedidosService;
 import GestionUsuarios.GestionUsuarios.service.PedidoService;
 
 @WebMvcTest(PedidoController.class)
@@ -36,6 +58,9 @@ public class PedidoControllerTest {
     @MockBean
     private PedidoService pedidoService;
 
+    @MockBean
+    private EstadisticasPedidosService estadisticasPedidos;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -51,18 +76,129 @@ public class PedidoControllerTest {
 
     @Test
     void testObtenerTodosLosPedidos() throws Exception {
-        when(pedidoService.obtenerTodosLosPedidos()).thenReturn(Collections.singletonList(responseDTO));
+        when(pedidoService.obtenerPedidos(new FiltroPedidosDTO(), null, 20)).thenReturn(new PaginaDTO<>(Collections.singletonList(responseDTO), null));
 
         mockMvc.perform(get("/pedidos"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$._embedded.pedidoResponseDTOList", hasSize(1)))
-                .andExpect(jsonPath("$._embedded.pedidoResponseDTOList[0].estado", is("Pendiente")));
+                .andExpect(jsonPath("$._embedded.pedidoResponseDTOList[0].estado", is("Pendiente")))
+                .andExpect(jsonPath("$._links.self.href", is("http://localhost/pedidos")))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+    }
+
+    @Test
+    void testObtenerTodosLosPedidos_ConCursorSiguiente() throws Exception {
+        when(pedidoService.obtenerPedidos(new FiltroPedidosDTO(), new CursorPedidoDTO(null, 5L), 1)).thenReturn(new PaginaDTO<>(List.of(responseDTO), 1L));
+
+        mockMvc.perform(get("/pedidos?after=aWQ6NQ&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.pedidoResponseDTOList[0]._links.self.href", is("http://localhost/pedidos/1")))
+                .andExpect(jsonPath("$._embedded.pedidoResponseDTOList[0]._links.pedidos.href", is("http://localhost/pedidos")))
+                .andExpect(jsonPath("$._links.next.href", is("http://localhost/pedidos?limit=1&after=aWQ6MQ")));
+    }
+
+    @Test
+    void testObtenerTodosLosPedidos_ConFiltros() throws Exception {
+        FiltroPedidosDTO filtro = new FiltroPedidosDTO(3L, "Pendiente",
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0), "Tarjeta");
+        when(pedidoService.obtenerPedidos(filtro, null, 20)).thenReturn(new PaginaDTO<>(List.of(responseDTO), 1L, null,
+                LocalDateTime.of(2024, 1, 15, 10, 30)));
+
+        // Con rango de fechas el cursor lleva la fecha y el id del último pedido ("fecha,id:2024-01-15T10:30,1")
+        mockMvc.perform(get("/pedidos?clienteId=3&estado=Pendiente&desde=2024-01-01T00:00:00&hasta=2024-02-01T00:00:00&metodoPago=Tarjeta"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.pedidoResponseDTOList", hasSize(1)))
+                .andExpect(jsonPath("$._links.next.href", is("http://localhost/pedidos?clienteId=3&estado=Pendiente"
+                        + "&desde=2024-01-01T00:00:00&hasta=2024-02-01T00:00:00&metodoPago=Tarjeta"
+                        + "&after=ZmVjaGEsaWQ6MjAyNC0wMS0xNVQxMDozMCwx")));
+    }
+
+    @Test
+    void testObtenerTodosLosPedidos_CursorConFecha() throws Exception {
+        FiltroPedidosDTO filtro = new FiltroPedidosDTO(null, null, LocalDateTime.of(2024, 1, 1, 0, 0), null, null);
+        when(pedidoService.obtenerPedidos(filtro, new CursorPedidoDTO(LocalDateTime.of(2024, 1, 15, 10, 30), 7L), 20))
+                .thenReturn(new PaginaDTO<>(List.of(responseDTO), null));
+
+        mockMvc.perform(get("/pedidos?desde=2024-01-01T00:00:00&after=ZmVjaGEsaWQ6MjAyNC0wMS0xNVQxMDozMCw3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.pedidoResponseDTOList", hasSize(1)));
+        // Prefijo de fecha con una fecha mal formada
+        mockMvc.perform(get("/pedidos?desde=2024-01-01T00:00:00&after=ZmVjaGEsaWQ6bm8tZXMtZmVjaGEsNw"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testObtenerTodosLosPedidos_CursorInvalido() throws Exception {
+        // Un id en claro no es un cursor: solo se aceptan los valores publicados en "next"
+        mockMvc.perform(get("/pedidos?after=5"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/pedidos").param("after", "no-es-un-cursor!"))
+                .andExpect(status().isBadRequest());
+        verify(pedidoService, never()).obtenerPedidos(any(), any(), anyInt());
+    }
+
+    @Test
+    void testObtenerEstadisticas() throws Exception {
+        ResumenVentasDTO resumen = new ResumenVentasDTO(2, 301.5);
+        when(estadisticasPedidos.obtenerEstadisticas(LocalDate.of(2024, 1, 1), null)).thenReturn(new EstadisticasPedidosDTO(
+                resumen, Map.of(LocalDate.of(2024, 1, 2), resumen), Map.of("Pendiente", resumen),
+                Map.of("Tarjeta", resumen)));
+
+        mockMvc.perform(get("/pedidos/estadisticas?desde=2024-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.general.cantidad", is(2)))
+                .andExpect(jsonPath("$.porDia['2024-01-02'].total", is(301.5)))
+                .andExpect(jsonPath("$.porEstado.Pendiente.cantidad", is(2)))
+                .andExpect(jsonPath("$.porCliente").doesNotExist());
+        verify(pedidoService, never()).obtenerPedidos(any(), any(), anyInt());
+    }
+
+    @Test
+    void testEstadisticasSinCargarResponden503() throws Exception {
+        when(estadisticasPedidos.obtenerEstadisticas(null, null))
+                .thenThrow(new ServiceUnavailableException("Las estadísticas de ventas aún se están cargando"));
+        when(estadisticasPedidos.obtenerEstadisticasDeCliente(1L))
+                .thenThrow(new ServiceUnavailableException("Las estadísticas de ventas aún se están cargando"));
+
+        mockMvc.perform(get("/pedidos/estadisticas"))
+                .andExpect(status().isServiceUnavailable());
+        mockMvc.perform(get("/pedidos/estadisticas/clientes/1"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testReconstruirEstadisticasNoEsUnEndpointPublico() throws Exception {
+        // La reconstrucción recorre toda la tabla: solo se expone como operación de actuator
+        mockMvc.perform(post("/pedidos/estadisticas/reconstruir"))
+                .andExpect(status().is4xxClientError());
+        verify(estadisticasPedidos, never()).reconstruir();
+    }
+
+    @Test
+    void testExportarPedidos() throws Exception {
+        LocalDateTime desde = LocalDateTime.of(2024, 1, 1, 0, 0);
+        doAnswer(invocation -> {
+            OutputStream salida = invocation.getArgument(2);
+            salida.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(pedidoService).exportarPedidos(eq(desde), isNull(), any(OutputStream.class));
+
+        MvcResult resultado = mockMvc.perform(get("/pedidos/export").param("desde", "2024-01-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Plazo propio de la exportación (pedidos.export.timeout), no el global
+        assertEquals(Duration.ofHours(1).toMillis(), resultado.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
     }
 
     @Test
     void testObtenerPedidoPorId_Exitoso() throws Exception {
         // Prueba para el camino feliz (200 OK)
-        when(pedidoService.obtenerPedidoPorId(1L)).thenReturn(responseDTO);
+        when(pedidoService.obtenerPedidoPorId(1L)).thenReturn(new VersionadoDTO<>(responseDTO, "0-0"));
 
         mockMvc.perform(get("/pedidos/1"))
                 .andExpect(status().isOk())
@@ -71,6 +207,29 @@ public class PedidoControllerTest {
                 .andExpect(jsonPath("$._links.self.href").exists());
     }
 
+    @Test
+    void testObtenerPedidoPorId_NoModificado() throws Exception {
+        when(pedidoService.obtenerPedidoPorId(1L)).thenReturn(new VersionadoDTO<>(responseDTO, "2-0"));
+
+        mockMvc.perform(get("/pedidos/1").header("If-None-Match", "\"2-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"2-0\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testObtenerTodosLosPedidos_EtagDeLaPagina() throws Exception {
+        when(pedidoService.obtenerPedidos(new FiltroPedidosDTO(), null, 1))
+                .thenReturn(new PaginaDTO<>(List.of(responseDTO), 1L, "W/\"abc\""));
+
+        mockMvc.perform(get("/pedidos?limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"abc\""));
+        mockMvc.perform(get("/pedidos?limit=1").header("If-None-Match", "W/\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void testObtenerPedidoPorId_NoEncontrado() throws Exception {
         // MODIFICACIÓN CLAVE: Prueba para el camino de error (404 Not Found)
@@ -93,9 +252,57 @@ public class PedidoControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    void testCrearPedidosEnLote() throws Exception {
+        when(pedidoService.crearPedidosEnLote(any())).thenReturn(List.of(
+                new ResultadoPedidoLoteDTO(0, 10L, ResultadoPedidoLoteDTO.CREADO, null),
+                new ResultadoPedidoLoteDTO(1, null, ResultadoPedidoLoteDTO.RECHAZADO, "Cliente no encontrado con id: 99")));
+
+        mockMvc.perform(post("/pedidos/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(requestDTO, requestDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(10)))
+                .andExpect(jsonPath("$[1].resultado", is("RECHAZADO")));
+    }
+
+    @Test
+    void testCrearPedidosEnLote_SuperaElMaximo() throws Exception {
+        mockMvc.perform(post("/pedidos/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Collections.nCopies(5001, requestDTO))))
+                .andExpect(status().isPayloadTooLarge());
+        verify(pedidoService, never()).crearPedidosEnLote(any());
+    }
+
+    @Test
+    void testCrearPedidosEnLote_CortaAlPasarElMaximoSinLeerElResto() throws Exception {
+        // Lo que sigue al pedido 5001 no es JSON: si se leyera el cuerpo completo la respuesta sería 400
+        String lote = objectMapper.writeValueAsString(Collections.nCopies(5001, requestDTO));
+        mockMvc.perform(post("/pedidos/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(lote.substring(0, lote.length() - 1) + ", {{{ sin cerrar"))
+                .andExpect(status().isPayloadTooLarge());
+        verify(pedidoService, never()).crearPedidosEnLote(any());
+    }
+
+    @Test
+    void testCrearPedidosEnLote_CuerpoQueNoEsArreglo() throws Exception {
+        mockMvc.perform(post("/pedidos/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/pedidos/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"estado\": "))
+                .andExpect(status().isBadRequest());
+        verify(pedidoService, never()).crearPedidosEnLote(any());
+    }
+
     @Test
     void testActualizarPedido() throws Exception {
-        when(pedidoService.actualizarPedido(eq(1L), any(PedidoRequestDTO.class))).thenReturn(responseDTO);
+        when(pedidoService.actualizarPedido(eq(1L), any(PedidoRequestDTO.class), isNull())).thenReturn(new VersionadoDTO<>(responseDTO, "1-0"));
 
         mockMvc.perform(put("/pedidos/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -103,6 +310,18 @@ public class PedidoControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testActualizarPedido_ConIfMatch() throws Exception {
+        when(pedidoService.actualizarPedido(eq(1L), any(PedidoRequestDTO.class), eq("2-0"))).thenReturn(new VersionadoDTO<>(responseDTO, "3-0"));
+
+        mockMvc.perform(put("/pedidos/1")
+                .header("If-Match", "\"2-0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3-0\""));
+    }
+
     @Test
     void testEliminarPedido() throws Exception {
         mockMvc.perform(delete("/pedidos/1"))
@@ -0,0 +1,105 @@
+package GestionUsuarios.GestionUsuarios.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.hasSize;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import GestionUsuarios.GestionUsuarios.DTO.FiltroUsuariosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PaginaDTO;
+import GestionUsuarios.GestionUsuarios.DTO.SugerenciaUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.DTO.UsuarioResumenDTO;
+import GestionUsuarios.GestionUsuarios.exception.BadRequestException;
+import GestionUsuarios.GestionUsuarios.service.AutocompletadoUsuariosService;
+import GestionUsuarios.GestionUsuarios.service.UsuarioService;
+
+@WebMvcTest(UsuarioController.class)
+public class UsuarioControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UsuarioService usuarioService;
+
+    @MockBean
+    private AutocompletadoUsuariosService autocompletadoUsuarios;
+
+    @Test
+    void testBuscarUsuarios_EnlazaCadaResumenASuSubtipo() throws Exception {
+        when(usuarioService.buscarUsuarios(new FiltroUsuariosDTO(null, null, "Car", null), null, 20)).thenReturn(new PaginaDTO<>(List.of(
+                new UsuarioResumenDTO(1L, "Carla Cliente", "carla@test.com", "22222222-2", "CLIENTE"),
+                new UsuarioResumenDTO(2L, "Carlos Empleado", "carlos@test.com", "33333333-3", "EMPLEADO_VENTAS")), null));
+
+        mockMvc.perform(get("/usuarios?nombre=Car"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.usuarioResumenDTOList", hasSize(2)))
+                .andExpect(jsonPath("$._embedded.usuarioResumenDTOList[0].tipo", is("CLIENTE")))
+                .andExpect(jsonPath("$._embedded.usuarioResumenDTOList[0]._links.self.href", is("http://localhost/clientes/1")))
+                .andExpect(jsonPath("$._embedded.usuarioResumenDTOList[1]._links.self.href", is("http://localhost/empleados-ventas/2")))
+                .andExpect(jsonPath("$._links.self.href", is("http://localhost/usuarios?nombre=Car")))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+    }
+
+    @Test
+    void testBuscarUsuarios_ConCursorSiguiente() throws Exception {
+        when(usuarioService.buscarUsuarios(new FiltroUsuariosDTO(null, null, null, "ADMINISTRADOR"), null, 1)).thenReturn(new PaginaDTO<>(List.of(
+                new UsuarioResumenDTO(7L, "Ana Admin", "ana@test.com", "11111111-1", "ADMINISTRADOR")), 7L));
+
+        mockMvc.perform(get("/usuarios?tipo=ADMINISTRADOR&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.usuarioResumenDTOList[0]._links.administradores.href", is("http://localhost/administradores")))
+                .andExpect(jsonPath("$._links.next.href", is("http://localhost/usuarios?tipo=ADMINISTRADOR&limit=1&after=aWQ6Nw")));
+    }
+
+    @Test
+    void testBuscarUsuarios_CursorOpaco() throws Exception {
+        when(usuarioService.buscarUsuarios(new FiltroUsuariosDTO(null, null, null, null), 7L, 20)).thenReturn(new PaginaDTO<>(List.of(), null));
+
+        mockMvc.perform(get("/usuarios").param("after", "aWQ6Nw"))
+                .andExpect(status().isOk());
+        // Mismo contrato que /pedidos: un id crudo no es un cursor válido
+        mockMvc.perform(get("/usuarios").param("after", "7"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testAutocompletar() throws Exception {
+        when(autocompletadoUsuarios.sugerir("per", 10)).thenReturn(List.of(
+                new SugerenciaUsuarioDTO(4L, "Juan Pérez", "juan@test.com", "CLIENTE")));
+
+        mockMvc.perform(get("/usuarios/autocomplete?q=per"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nombre", is("Juan Pérez")))
+                .andExpect(jsonPath("$[0].tipo", is("CLIENTE")));
+    }
+
+    @Test
+    void testBuscarPorRut() throws Exception {
+        when(usuarioService.buscarPorRut("12.345.678-5")).thenReturn(
+                new UsuarioResumenDTO(9L, "Gabriel Gerente", "gabriel@test.com", "12345678-5", "GERENTE_TIENDA"));
+
+        mockMvc.perform(get("/usuarios/rut/12.345.678-5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rut", is("12345678-5")))
+                .andExpect(jsonPath("$._links.self.href", is("http://localhost/gerentes-tienda/9")));
+    }
+
+    @Test
+    void testBuscarPorRut_Invalido() throws Exception {
+        when(usuarioService.buscarPorRut("12345678-9")).thenThrow(new BadRequestException("RUT inválido: 12345678-9"));
+
+        mockMvc.perform(get("/usuarios/rut/12345678-9"))
+                .andExpect(status().isBadRequest());
+    }
+}
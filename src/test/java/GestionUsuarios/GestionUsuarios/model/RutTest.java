@@ -0,0 +1,62 @@
+package GestionUsuarios.GestionUsuarios.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class RutTest {
+
+    @Test
+    void testParsear_FormatosEquivalentes() {
+        Rut rut = Rut.parsear("12.345.678-5");
+
+        assertEquals(12345678, rut.getNumero());
+        assertEquals('5', rut.getDv());
+        assertEquals(rut, Rut.parsear("12345678-5"));
+        assertEquals(rut, Rut.parsear(" 123456785 "));
+        assertEquals("12345678-5", rut.toString());
+        assertEquals("12.345.678-5", rut.formatear());
+    }
+
+    @Test
+    void testParsear_VerificadorKYCero() {
+        assertEquals('K', Rut.parsear("22.333.444-k").getDv());
+        assertEquals('0', Rut.parsear("33444555-0").getDv());
+        assertEquals(Rut.parsear("22333444-K"), Rut.de(22333444));
+    }
+
+    @Test
+    void testEsValido_Rechazos() {
+        assertFalse(Rut.esValido("12345678-9"));  // verificador incorrecto
+        assertFalse(Rut.esValido("1.2345.678-5")); // puntos fuera de los grupos de miles
+        assertFalse(Rut.esValido("12.345.678.-5"));
+        assertFalse(Rut.esValido("123456789-2")); // más de ocho dígitos
+        assertFalse(Rut.esValido("12a45678-5"));
+        assertFalse(Rut.esValido("-5"));
+        assertFalse(Rut.esValido("0-0"));
+        assertFalse(Rut.esValido(""));
+        assertFalse(Rut.esValido(null));
+        assertThrows(IllegalArgumentException.class, () -> Rut.parsear("12345678-9"));
+        assertNull(Rut.parsear(null));
+    }
+
+    @Test
+    void testEsValido_GruposDeMiles() {
+        assertTrue(Rut.esValido("1.234.567-4"));
+        assertTrue(Rut.esValido("12.345.678-5"));
+        assertTrue(Rut.esValido("1.000-6"));
+        assertFalse(Rut.esValido("12345.678-5"));   // primer grupo de más de tres dígitos
+        assertFalse(Rut.esValido("1234.567-4"));
+        assertFalse(Rut.esValido("12.345678-5"));   // grupo final sin separar
+        assertFalse(Rut.esValido("12.34.5678-5"));
+        assertFalse(Rut.esValido(".345.678-5"));
+        assertFalse(Rut.esValido("12..345.678-5"));
+    }
+
+    @Test
+    void testFormatear_CuerposCortos() {
+        assertEquals("1-9", Rut.de(1).formatear());
+        assertEquals("765.432-4", Rut.de(765432).formatear());
+        assertTrue(Rut.esValido("765.432-4"));
+    }
+}
@@ -0,0 +1,109 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import GestionUsuarios.GestionUsuarios.DTO.ActividadConsultasDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EstadisticasConsultasDTO;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
+import GestionUsuarios.GestionUsuarios.repository.ClienteRepository;
+import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
+
+// Umbral 0: toda sentencia cuenta como lenta, así se comprueba también el registro muestreado
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:estadisticas_consultas",
+        "consultas.lentas.umbral-ms=0",
+        "consultas.lentas.maximo=1",
+        "cache.respuestas.habilitado=false"
+})
+@AutoConfigureMockMvc
+class EstadisticasConsultasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EstadisticasConsultas estadisticas;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private TipoUsuarioRepository tipoUsuarioRepository;
+
+    private Long idCliente;
+
+    @BeforeEach
+    void setUp() {
+        Cliente cliente = new Cliente();
+        cliente.setNombre("Cliente Consultas");
+        cliente.setEmail("consultas" + System.nanoTime() + "@test.com");
+        cliente.setPassword("hash");
+        cliente.setRut(Rut.de(50_000_000 + (int) (System.nanoTime() % 1_000_000)));
+        cliente.setTipoUsuario(tipoUsuarioRepository.findAll().stream().findFirst()
+                .orElseGet(() -> tipoUsuarioRepository.save(new TipoUsuario(null, "CLIENTE"))));
+        idCliente = clienteRepository.save(cliente).getId();
+        estadisticas.reiniciar();
+    }
+
+    @Test
+    void testAtribuyeSentenciasYCargasAlEndpointYAlMetodo() throws Exception {
+        mockMvc.perform(get("/clientes/{id}", idCliente)).andExpect(status().isOk());
+        // Cuerpo y ETag salen de una sola lectura por id: ya no hay consulta de versión aparte
+        long sentenciasPrimera = estadisticas.instantanea().getPorEndpoint().get("GET /clientes/{id}").getSentencias();
+        mockMvc.perform(get("/clientes/{id}", idCliente)).andExpect(status().isOk());
+
+        EstadisticasConsultasDTO instantanea = estadisticas.instantanea();
+        ActividadConsultasDTO endpoint = instantanea.getPorEndpoint().get("GET /clientes/{id}");
+        assertEquals(2, endpoint.getLlamadas());
+        assertTrue(sentenciasPrimera >= 1);
+        // La segunda lectura encuentra el cliente en la caché de segundo nivel y no ejecuta ninguna sentencia
+        assertEquals(sentenciasPrimera, endpoint.getSentencias());
+        assertTrue(endpoint.getEntidadesCargadas() >= 2);
+        assertTrue(endpoint.getAciertosCache() > 0);
+        assertTrue(endpoint.getTasaAciertosCache() > 0);
+
+        ActividadConsultasDTO metodo = instantanea.getPorMetodo().get("ClienteService.obtenerClientePorId");
+        assertEquals(2, metodo.getLlamadas());
+        assertEquals(endpoint.getSentencias(), metodo.getSentencias());
+
+        assertEquals(1, instantanea.getConsultasLentas().size());
+        assertEquals("GET /clientes/{id}", instantanea.getConsultasLentas().get(0).getEndpoint());
+        // La primera sentencia registrada es la única lectura del cliente por id
+        assertTrue(instantanea.getConsultasLentas().get(0).getSql().startsWith("select"));
+        assertTrue(instantanea.getConsultasLentas().get(0).getSql().contains("from clientes"));
+    }
+
+    @Test
+    void testEndpointActuatorLeeYReinicia() throws Exception {
+        mockMvc.perform(get("/clientes/{id}", idCliente)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/consultas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.porEndpoint['GET /clientes/{id}'].llamadas").value(1));
+
+        mockMvc.perform(delete("/actuator/consultas")).andExpect(status().isNoContent());
+        assertTrue(estadisticas.instantanea().getPorEndpoint().isEmpty());
+    }
+
+    @Test
+    void testSinPeticionNiServicioNoSeRegistraNada() {
+        clienteRepository.findAll();
+
+        EstadisticasConsultasDTO instantanea = estadisticas.instantanea();
+        assertTrue(instantanea.getPorEndpoint().isEmpty());
+        assertTrue(instantanea.getPorMetodo().isEmpty());
+    }
+}
@@ -0,0 +1,55 @@
+package GestionUsuarios.GestionUsuarios.monitoring;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// @AutoConfigureObservability: los tests desactivan por defecto la exportación a Prometheus
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metricas_servicios")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricasServiciosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testRegistraTiempoErroresYEnCurso() throws Exception {
+        // GET por id resuelve cuerpo y ETag en una sola lectura, que es la que falla con 404
+        mockMvc.perform(get("/clientes/{id}", 999_999)).andExpect(status().isNotFound());
+
+        Timer tiempo = meterRegistry.get("servicio.llamadas")
+                .tags("clase", "ClienteService", "metodo", "obtenerClientePorId").timer();
+        assertEquals(1, tiempo.count());
+        assertEquals(1, meterRegistry.get("servicio.errores")
+                .tags("clase", "ClienteService", "metodo", "obtenerClientePorId", "excepcion", "ResourceNotFoundException")
+                .counter().count());
+        assertEquals(0, meterRegistry.get("servicio.en_curso")
+                .tags("clase", "ClienteService", "metodo", "obtenerClientePorId").gauge().value());
+    }
+
+    @Test
+    void testPublicaHistogramaSloEnPrometheus() throws Exception {
+        mockMvc.perform(get("/clientes")).andExpect(status().isOk());
+
+        String metricas = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(metricas.contains("servicio_llamadas_seconds_bucket{clase=\"ClienteService\",metodo=\"obtenerTodosLosClientes\",le=\"0.005\"}"),
+                metricas);
+        assertTrue(metricas.contains("servicio_en_curso{clase=\"ClienteService\",metodo=\"obtenerTodosLosClientes\"}"));
+    }
+}
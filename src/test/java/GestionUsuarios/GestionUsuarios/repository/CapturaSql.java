@@ -0,0 +1,32 @@
+package GestionUsuarios.GestionUsuarios.repository;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Registra el SQL que genera Hibernate para poder inspeccionar su plan con EXPLAIN en las pruebas
+public class CapturaSql implements StatementInspector {
+
+    private static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        SENTENCIAS.add(sql);
+        return sql;
+    }
+
+    static void limpiar() {
+        SENTENCIAS.clear();
+    }
+
+    static String ultimaConsultaSobre(String tabla) {
+        for (int i = SENTENCIAS.size() - 1; i >= 0; i--) {
+            String sql = SENTENCIAS.get(i);
+            if (sql.startsWith("select") && sql.contains(" from " + tabla + " ")) {
+                return sql;
+            }
+        }
+        throw new IllegalStateException("No se ejecutó ninguna consulta sobre " + tabla);
+    }
+}
@@ -0,0 +1,167 @@
+package GestionUsuarios.GestionUsuarios.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import GestionUsuarios.GestionUsuarios.DTO.ClienteResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
+import GestionUsuarios.GestionUsuarios.mapper.ClienteMapper;
+import GestionUsuarios.GestionUsuarios.mapper.TipoUsuarioMapper;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.model.Pedido;
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
+import GestionUsuarios.GestionUsuarios.service.AutocompletadoUsuariosService;
+import GestionUsuarios.GestionUsuarios.service.CacheRespuestas;
+import GestionUsuarios.GestionUsuarios.service.CacheRespuestasProperties;
+import GestionUsuarios.GestionUsuarios.service.ClienteService;
+import GestionUsuarios.GestionUsuarios.service.EstadisticasPedidosService;
+import GestionUsuarios.GestionUsuarios.service.HashContrasenas;
+import GestionUsuarios.GestionUsuarios.service.ReintentosOptimistas;
+import GestionUsuarios.GestionUsuarios.service.TipoUsuarioCache;
+import GestionUsuarios.GestionUsuarios.service.UnicidadUsuariosService;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "clientes.eliminacion.tamano-bloque=2"
+})
+@Import({ClienteService.class, ClienteMapper.class, TipoUsuarioMapper.class, TipoUsuarioCache.class,
+        CacheRespuestas.class, CacheRespuestasProperties.class, EstadisticasPedidosService.class, HashContrasenas.class,
+        AutocompletadoUsuariosService.class, UnicidadUsuariosService.class, ReintentosOptimistas.class,
+        SimpleMeterRegistry.class})
+public class ClienteRepositoryTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TipoUsuarioMapper tipoUsuarioMapper;
+
+    private Statistics estadisticas;
+    private Long clienteId;
+    private Long otroClienteId;
+
+    @BeforeEach
+    void setUp() {
+        TipoUsuario tipoUsuario = entityManager.persist(new TipoUsuario(null, "CLIENTE"));
+        clienteId = persistirCliente(tipoUsuario, 0, 5);
+        otroClienteId = persistirCliente(tipoUsuario, 1, 1);
+        entityManager.flush();
+        entityManager.clear();
+
+        estadisticas = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    private Long persistirCliente(TipoUsuario tipoUsuario, int indice, int pedidos) {
+        Cliente cliente = new Cliente();
+        cliente.setNombre("Cliente " + indice);
+        cliente.setEmail("cliente" + indice + "@test.com");
+        cliente.setPassword("password");
+        cliente.setRut(Rut.de(11111110 + indice));
+        cliente.setTipoUsuario(tipoUsuario);
+        cliente.setDireccionEnvio("Calle " + indice);
+        entityManager.persist(cliente);
+        for (int i = 0; i < pedidos; i++) {
+            Pedido pedido = new Pedido();
+            pedido.setFechaPedido(LocalDateTime.of(2024, 1, 1, 12, i));
+            pedido.setEstado("Pendiente");
+            pedido.setTotal(100.0);
+            pedido.setCliente(cliente);
+            pedido.setDireccionEnvio("Calle " + indice);
+            pedido.setMetodoPago("Tarjeta");
+            entityManager.persist(pedido);
+        }
+        return cliente.getId();
+    }
+
+    private int contar(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, id);
+    }
+
+    @Test
+    void testEliminarClienteBorraPedidosPorBloquesSinCargarEntidades() {
+        clienteService.eliminarCliente(clienteId);
+
+        assertEquals(0, contar("select count(*) from pedidos where cliente_id = ?", clienteId));
+        assertEquals(0, contar("select count(*) from clientes where id = ?", clienteId));
+        assertEquals(0, contar("select count(*) from usuarios where id = ?", clienteId));
+        assertEquals(1, contar("select count(*) from pedidos where cliente_id = ?", otroClienteId));
+        // Todo por sentencias masivas: ninguna entidad cargada ni borrada de a una
+        assertEquals(0, estadisticas.getEntityLoadCount());
+        assertEquals(0, estadisticas.getEntityDeleteCount());
+    }
+
+    @Test
+    void testEliminarClienteInexistente() {
+        assertThrows(ResourceNotFoundException.class, () -> clienteService.eliminarCliente(-1L));
+        assertEquals(0, estadisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void testEstadoParaActualizarSinCargarEntidades() {
+        EstadoUsuarioDTO estado = clienteRepository.findEstadoById(clienteId).orElseThrow();
+
+        assertEquals(0L, estado.getVersion());
+        assertEquals("cliente0@test.com", estado.getEmail());
+        assertEquals(11111110, estado.getRutNumero());
+        assertTrue(clienteRepository.findEstadoById(-1L).isEmpty());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void testListarRespuestasProyectaSinCargarEntidades() {
+        List<ClienteResponseDTO> clientes = clienteRepository.listarRespuestas();
+
+        assertEquals(2, clientes.size());
+        ClienteResponseDTO primero = clientes.get(0);
+        assertEquals(clienteId, primero.getId());
+        assertEquals("Cliente 0", primero.getNombre());
+        assertEquals("cliente0@test.com", primero.getEmail());
+        assertEquals(Rut.de(11111110).toString(), primero.getRut());
+        assertEquals("CLIENTE", primero.getTipoUsuario().getNombre());
+        assertNotNull(primero.getTipoUsuario().getId());
+        assertEquals("Calle 0", primero.getDireccionEnvio());
+        assertEquals(otroClienteId, clientes.get(1).getId());
+        // Una sola sentencia con join al tipo y ninguna entidad en el contexto de persistencia
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void testMapearTipoUsuarioLazySinSesion() {
+        Cliente cliente = clienteRepository.findById(clienteId).orElseThrow();
+        entityManager.clear();
+        // Proxy sin inicializar y ya desacoplado: el nombre sale de la caché y no del proxy
+        assertEquals("CLIENTE", tipoUsuarioMapper.toResponseDTO(cliente.getTipoUsuario()).getNombre());
+
+        TipoUsuario inexistente = entityManager.getEntityManager().getReference(TipoUsuario.class, -1L);
+        entityManager.clear();
+        assertThrows(ResourceNotFoundException.class, () -> tipoUsuarioMapper.toResponseDTO(inexistente));
+    }
+}
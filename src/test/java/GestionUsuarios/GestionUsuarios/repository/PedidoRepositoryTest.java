@@ -0,0 +1,326 @@
+package GestionUsuarios.GestionUsuarios.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import GestionUsuarios.GestionUsuarios.DTO.CursorPedidoDTO;
+import GestionUsuarios.GestionUsuarios.DTO.FiltroPedidosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PedidoExportDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PedidoResponseDTO;
+import GestionUsuarios.GestionUsuarios.mapper.ClienteMapper;
+import GestionUsuarios.GestionUsuarios.mapper.PedidoMapper;
+import GestionUsuarios.GestionUsuarios.mapper.TipoUsuarioMapper;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.model.Pedido;
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
+import GestionUsuarios.GestionUsuarios.service.TipoUsuarioCache;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=GestionUsuarios.GestionUsuarios.repository.CapturaSql"
+})
+@Import({PedidoMapper.class, ClienteMapper.class, TipoUsuarioMapper.class, TipoUsuarioCache.class, SimpleMeterRegistry.class})
+public class PedidoRepositoryTest {
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PedidoMapper pedidoMapper;
+
+    @Autowired
+    private TipoUsuarioCache tipoUsuarioCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics estadisticas;
+    private Long primerPedidoId;
+    private final List<Long> clienteIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        TipoUsuario tipoUsuario = entityManager.persist(new TipoUsuario(null, "CLIENTE"));
+        for (int i = 0; i < 3; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setNombre("Cliente " + i);
+            cliente.setEmail("cliente" + i + "@test.com");
+            cliente.setPassword("password");
+            cliente.setRut(Rut.de(11111110 + i));
+            cliente.setTipoUsuario(tipoUsuario);
+            cliente.setDireccionEnvio("Calle " + i);
+            entityManager.persist(cliente);
+            clienteIds.add(cliente.getId());
+            for (int j = 0; j < 2; j++) {
+                Pedido pedido = new Pedido();
+                pedido.setFechaPedido(LocalDateTime.of(2024, 1, 1 + i, 12, 0));
+                pedido.setEstado(j == 0 ? "Pendiente" : "Enviado");
+                pedido.setTotal(100.0 + j);
+                pedido.setCliente(cliente);
+                pedido.setDireccionEnvio("Calle " + i);
+                pedido.setMetodoPago(i == 0 ? "Efectivo" : "Tarjeta");
+                entityManager.persist(pedido);
+                if (primerPedidoId == null) {
+                    primerPedidoId = pedido.getId();
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        tipoUsuarioCache.recargar();
+
+        estadisticas = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        CapturaSql.limpiar();
+    }
+
+    // Mismo orden que PedidoService: (fecha_pedido, id) con rango de fechas, id en los demás casos
+    private List<Pedido> filtrar(FiltroPedidosDTO filtro, CursorPedidoDTO after, int limite) {
+        Sort orden = filtro.tieneRangoDeFechas() ? Sort.by("fechaPedido", "id") : Sort.by("id");
+        return pedidoRepository.findBy(PedidoEspecificaciones.conFiltro(filtro, after),
+                consulta -> consulta.limit(limite).sortBy(orden).project("cliente").all());
+    }
+
+    // Plan de H2 para la última consulta sobre pedidos, con valores representativos en sus parámetros
+    private String planDeUltimaConsulta(Object... parametros) {
+        String sql = CapturaSql.ultimaConsultaSobre("pedidos");
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, parametros));
+    }
+
+    @Test
+    void testListadoMapeadoEnUnaSolaConsulta() {
+        List<PedidoResponseDTO> pedidos = pedidoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(50)).stream()
+                .map(pedidoMapper::toResponseDTO)
+                .toList();
+
+        assertEquals(6, pedidos.size());
+        assertNotNull(pedidos.get(5).getCliente().getTipoUsuario().getNombre());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void testListadoNoCreceConElNumeroDeClientes() {
+        pedidoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1)).forEach(pedidoMapper::toResponseDTO);
+        long consultasUnPedido = estadisticas.getPrepareStatementCount();
+        estadisticas.clear();
+        entityManager.clear();
+
+        pedidoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(50)).forEach(pedidoMapper::toResponseDTO);
+
+        assertEquals(consultasUnPedido, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void testDetalleMapeadoEnUnaSolaConsulta() {
+        Pedido pedido = pedidoRepository.findById(primerPedidoId).orElseThrow();
+        PedidoResponseDTO dto = pedidoMapper.toResponseDTO(pedido);
+
+        assertEquals("CLIENTE", dto.getCliente().getTipoUsuario().getNombre());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void testStreamParaExportarFiltraPorFechaSinCargarEntidades() {
+        try (Stream<PedidoExportDTO> pedidos = pedidoRepository.streamParaExportar(
+                LocalDateTime.of(2024, 1, 2, 0, 0), LocalDateTime.of(2024, 1, 3, 0, 0))) {
+            List<PedidoExportDTO> exportados = pedidos.toList();
+
+            assertEquals(2, exportados.size());
+            assertTrue(exportados.get(0).getId() < exportados.get(1).getId());
+            assertEquals(exportados.get(0).getClienteId(), exportados.get(1).getClienteId());
+        }
+        assertEquals(0, estadisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void testFiltroPorClienteConCursorEnUnaSolaConsulta() {
+        Long clienteId = clienteIds.get(1);
+        List<Pedido> primeraPagina = filtrar(new FiltroPedidosDTO(clienteId, null, null, null, null), null, 1);
+        List<Pedido> segundaPagina = filtrar(new FiltroPedidosDTO(clienteId, null, null, null, null), new CursorPedidoDTO(null, primeraPagina.get(0).getId()), 50);
+
+        assertEquals(1, primeraPagina.size());
+        assertEquals(1, segundaPagina.size());
+        assertTrue(segundaPagina.get(0).getId() > primeraPagina.get(0).getId());
+        assertEquals(clienteId, segundaPagina.get(0).getCliente().getId());
+        pedidoMapper.toResponseDTO(segundaPagina.get(0));
+        assertEquals(2, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void testHistorialDeClienteNoInicializaLaColeccion() {
+        Cliente cliente = entityManager.find(Cliente.class, clienteIds.get(2));
+        List<Pedido> pedidos = filtrar(new FiltroPedidosDTO(cliente.getId(), null, null, null, null), null, 50);
+
+        assertEquals(2, pedidos.size());
+        pedidos.forEach(pedido -> {
+            pedido.hashCode();
+            pedido.toString();
+            pedidoMapper.toResponseDTO(pedido);
+        });
+        cliente.hashCode();
+        cliente.toString();
+        assertFalse(Hibernate.isInitialized(cliente.getPedidos()));
+    }
+
+    @Test
+    void testFiltrosCombinados() {
+        FiltroPedidosDTO filtro = new FiltroPedidosDTO(null, "Enviado",
+                LocalDateTime.of(2024, 1, 2, 0, 0), LocalDateTime.of(2024, 1, 4, 0, 0), "Tarjeta");
+
+        List<Pedido> pedidos = filtrar(filtro, null, 50);
+
+        assertEquals(2, pedidos.size());
+        assertTrue(pedidos.stream().allMatch(p -> "Enviado".equals(p.getEstado()) && "Tarjeta".equals(p.getMetodoPago())));
+    }
+
+    @Test
+    void testPlanFiltroPorClienteUsaIndice() {
+        filtrar(new FiltroPedidosDTO(clienteIds.get(0), null, null, null, null), new CursorPedidoDTO(null, 10L), 21);
+        assertTrue(planDeUltimaConsulta(10L, clienteIds.get(0), 21).toUpperCase().contains("IDX_PEDIDOS_CLIENTE_ID"));
+    }
+
+    @Test
+    void testPlanFiltroPorEstadoUsaIndice() {
+        filtrar(new FiltroPedidosDTO(null, "Pendiente", null, null, null), null, 21);
+        assertTrue(planDeUltimaConsulta("Pendiente", 21).toUpperCase().contains("IDX_PEDIDOS_ESTADO_ID"));
+    }
+
+    @Test
+    void testPlanFiltroPorMetodoPagoUsaIndice() {
+        filtrar(new FiltroPedidosDTO(null, null, null, null, "Tarjeta"), null, 21);
+        assertTrue(planDeUltimaConsulta("Tarjeta", 21).toUpperCase().contains("IDX_PEDIDOS_METODO_PAGO_ID"));
+    }
+
+    @Test
+    void testPlanFiltroPorFechaUsaIndice() {
+        LocalDateTime desde = LocalDateTime.of(2024, 1, 2, 0, 0);
+        LocalDateTime hasta = LocalDateTime.of(2024, 1, 3, 0, 0);
+        filtrar(new FiltroPedidosDTO(null, null, desde, hasta, null), null, 21);
+        assertTrue(planDeUltimaConsulta(desde, hasta, 21).toUpperCase().contains("IDX_PEDIDOS_FECHA_PEDIDO"));
+    }
+
+    @Test
+    void testFiltroPorFechaPaginaPorFechaEId() {
+        // Id mayor que todos pero fecha anterior: con cursor por id quedaría al final o se perdería
+        Pedido temprano = new Pedido();
+        temprano.setFechaPedido(LocalDateTime.of(2024, 1, 1, 6, 0));
+        temprano.setEstado("Pendiente");
+        temprano.setTotal(50.0);
+        temprano.setCliente(entityManager.find(Cliente.class, clienteIds.get(2)));
+        temprano.setDireccionEnvio("Calle 2");
+        temprano.setMetodoPago("Tarjeta");
+        entityManager.persistAndFlush(temprano);
+        entityManager.clear();
+        FiltroPedidosDTO filtro = new FiltroPedidosDTO(null, null,
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 3, 0, 0), null);
+
+        List<Pedido> recorridos = new ArrayList<>();
+        CursorPedidoDTO cursor = null;
+        List<Pedido> pagina;
+        do {
+            pagina = filtrar(filtro, cursor, 2);
+            recorridos.addAll(pagina);
+            if (!pagina.isEmpty()) {
+                Pedido ultimo = pagina.get(pagina.size() - 1);
+                cursor = new CursorPedidoDTO(ultimo.getFechaPedido(), ultimo.getId());
+            }
+        } while (pagina.size() == 2);
+
+        assertEquals(5, recorridos.size());
+        assertEquals(temprano.getId(), recorridos.get(0).getId());
+        for (int i = 1; i < recorridos.size(); i++) {
+            Pedido anterior = recorridos.get(i - 1);
+            Pedido actual = recorridos.get(i);
+            assertTrue(actual.getFechaPedido().isAfter(anterior.getFechaPedido())
+                    || actual.getFechaPedido().isEqual(anterior.getFechaPedido()) && actual.getId() > anterior.getId());
+        }
+    }
+
+    @Test
+    void testPlanFiltroPorFechaConCursorArrancaEnElIndice() {
+        LocalDateTime desde = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime hasta = LocalDateTime.of(2024, 1, 3, 0, 0);
+        LocalDateTime fechaCursor = LocalDateTime.of(2024, 1, 2, 12, 0);
+        filtrar(new FiltroPedidosDTO(null, null, desde, hasta, null), new CursorPedidoDTO(fechaCursor, 10L), 21);
+
+        String plan = planDeUltimaConsulta(fechaCursor, fechaCursor, 10L, desde, hasta, 21).toUpperCase();
+        assertTrue(plan.contains("IDX_PEDIDOS_FECHA_PEDIDO"), plan);
+        // El índice ya entrega el orden (fecha_pedido, id): H2 no ordena el rango
+        assertTrue(plan.contains("INDEX SORTED"), plan);
+    }
+
+    @Test
+    void testPlanFiltroPorClienteYFechaUsaIndiceCompuesto() {
+        LocalDateTime desde = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime hasta = LocalDateTime.of(2024, 1, 3, 0, 0);
+        filtrar(new FiltroPedidosDTO(clienteIds.get(0), null, desde, hasta, null), null, 21);
+
+        // El seek acota cliente y rango a la vez; H2 ordena solo esas filas (no marca como ordenado un índice
+        // con un prefijo de igualdad)
+        String plan = planDeUltimaConsulta(clienteIds.get(0), desde, hasta, 21).toUpperCase();
+        assertTrue(plan.contains("IDX_PEDIDOS_CLIENTE_FECHA"), plan);
+    }
+
+    @Test
+    void testAgruparVentasPorCadaDimension() {
+        List<VentasAgrupadas> porDia = pedidoRepository.agruparVentasPorDia();
+        assertEquals(3, porDia.size());
+        assertTrue(porDia.stream().allMatch(grupo -> grupo.getCantidad() == 2 && grupo.getCentavos() == 20100L
+                && grupo.getEstado() == null && grupo.getClienteId() == null));
+
+        List<VentasAgrupadas> porEstado = pedidoRepository.agruparVentasPorEstado();
+        assertEquals(2, porEstado.size());
+        assertEquals(3 * (10000L + 10100L), porEstado.stream().mapToLong(VentasAgrupadas::getCentavos).sum());
+        assertTrue(porEstado.stream().allMatch(grupo -> grupo.getDia() == null));
+
+        List<VentasAgrupadas> porMetodoPago = pedidoRepository.agruparVentasPorMetodoPago();
+        assertEquals(2L, porMetodoPago.stream().filter(grupo -> "Efectivo".equals(grupo.getMetodoPago()))
+                .findFirst().orElseThrow().getCantidad());
+
+        List<VentasAgrupadas> porCliente = pedidoRepository.agruparVentasPorCliente();
+        assertEquals(3, porCliente.size());
+        assertEquals(6L, porCliente.stream().mapToLong(VentasAgrupadas::getCantidad).sum());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void testAgruparVentasDeCliente() {
+        List<VentasAgrupadas> grupos = pedidoRepository.agruparVentasDeCliente(clienteIds.get(0));
+
+        assertEquals(2, grupos.size());
+        assertTrue(grupos.stream().allMatch(grupo -> clienteIds.get(0).equals(grupo.getClienteId())
+                && LocalDate.of(2024, 1, 1).equals(grupo.getDia()) && "Efectivo".equals(grupo.getMetodoPago())));
+    }
+
+    @Test
+    void testStreamParaExportarSinFiltros() {
+        try (Stream<PedidoExportDTO> pedidos = pedidoRepository.streamParaExportar(null, null)) {
+            assertEquals(6, pedidos.count());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package GestionUsuarios.GestionUsuarios.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import GestionUsuarios.GestionUsuarios.DTO.FiltroUsuariosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.UsuarioResumenDTO;
+import GestionUsuarios.GestionUsuarios.model.Administrador;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.model.EmpleadoVentas;
+import GestionUsuarios.GestionUsuarios.model.GerenteTienda;
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
+import GestionUsuarios.GestionUsuarios.model.Usuario;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=GestionUsuarios.GestionUsuarios.repository.CapturaSql"
+})
+public class UsuarioRepositoryTest {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        TipoUsuario tipoUsuario = entityManager.persist(new TipoUsuario(null, "GENERAL"));
+        persistir(new Administrador(), "Ana Admin", "ana@test.com", "11111111-1", tipoUsuario);
+        Cliente cliente = new Cliente();
+        cliente.setDireccionEnvio("Calle 1");
+        persistir(cliente, "Carla Cliente", "carla@test.com", "22222222-2", tipoUsuario);
+        EmpleadoVentas empleado = new EmpleadoVentas();
+        empleado.setSalario(1000.0);
+        persistir(empleado, "Carlos Empleado", "carlos@test.com", "33333333-3", tipoUsuario);
+        persistir(new GerenteTienda(), "Gabriel Gerente", "gabriel@test.com", "44444444-4", tipoUsuario);
+        entityManager.flush();
+        entityManager.clear();
+
+        estadisticas = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        CapturaSql.limpiar();
+    }
+
+    private void persistir(Usuario usuario, String nombre, String email, String rut, TipoUsuario tipoUsuario) {
+        usuario.setNombre(nombre);
+        usuario.setEmail(email);
+        usuario.setPassword("password");
+        usuario.setRut(Rut.parsear(rut));
+        usuario.setTipoUsuario(tipoUsuario);
+        entityManager.persist(usuario);
+    }
+
+    private List<UsuarioResumenDTO> buscar(String email, String rut, String nombre, String tipo) {
+        return usuarioRepository.buscarResumenes(new FiltroUsuariosDTO(email, rut, nombre, tipo), null, 50);
+    }
+
+    private String planDeUltimaConsulta(Object... parametros) {
+        String sql = CapturaSql.ultimaConsultaSobre("usuarios");
+        return String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class, parametros)).toUpperCase();
+    }
+
+    @Test
+    void testBusquedaPorEmailDevuelveElSubtipo() {
+        List<UsuarioResumenDTO> usuarios = buscar("carlos@test.com", null, null, null);
+
+        assertEquals(1, usuarios.size());
+        assertEquals("EMPLEADO_VENTAS", usuarios.get(0).getTipo());
+        assertEquals("Carlos Empleado", usuarios.get(0).getNombre());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void testConsultaSoloSobreLaTablaBase() {
+        buscar(null, null, "C", "CLIENTE");
+
+        String sql = CapturaSql.ultimaConsultaSobre("usuarios").toLowerCase();
+        for (String tabla : List.of("administradores", "clientes", "empleados_ventas", "gerentes_tienda")) {
+            assertFalse(sql.contains(tabla), () -> "JOIN a " + tabla + ": " + sql);
+        }
+    }
+
+    @Test
+    void testPrefijoDeNombreYTipo() {
+        List<UsuarioResumenDTO> porNombre = buscar(null, null, "Car", null);
+        List<UsuarioResumenDTO> porNombreYTipo = buscar(null, null, "Car", "CLIENTE");
+
+        assertEquals(List.of("Carla Cliente", "Carlos Empleado"), porNombre.stream().map(UsuarioResumenDTO::getNombre).toList());
+        assertEquals(1, porNombreYTipo.size());
+        assertEquals("22222222-2", porNombreYTipo.get(0).getRut());
+    }
+
+    @Test
+    void testComodinesDelPrefijoSonLiterales() {
+        assertTrue(buscar(null, null, "%", null).isEmpty());
+    }
+
+    @Test
+    void testCursorYLimite() {
+        List<UsuarioResumenDTO> primeros = usuarioRepository.buscarResumenes(new FiltroUsuariosDTO(), null, 2);
+        List<UsuarioResumenDTO> resto = usuarioRepository.buscarResumenes(new FiltroUsuariosDTO(), primeros.get(1).getId(), 50);
+
+        assertEquals(2, primeros.size());
+        assertEquals(2, resto.size());
+        assertTrue(resto.get(0).getId() > primeros.get(1).getId());
+    }
+
+    @Test
+    void testPlanPorEmailUsaIndiceUnico() {
+        buscar("ana@test.com", null, null, null);
+        String plan = planDeUltimaConsulta("ana@test.com", 50);
+        assertFalse(plan.contains("TABLE SCAN"), plan);
+    }
+
+    @Test
+    void testPlanPorRutUsaIndiceUnico() {
+        buscar(null, "11111111-1", null, null);
+        String plan = planDeUltimaConsulta(11111111, 50);
+        assertFalse(plan.contains("TABLE SCAN"), plan);
+    }
+
+    @Test
+    void testRutNormalizadoConYSinPuntos() {
+        List<UsuarioResumenDTO> conPuntos = buscar(null, "22.222.222-2", null, null);
+        List<UsuarioResumenDTO> sinPuntos = buscar(null, " 22222222-2", null, null);
+
+        assertEquals(1, conPuntos.size());
+        assertEquals(conPuntos, sinPuntos);
+        assertEquals("22222222-2", conPuntos.get(0).getRut());
+    }
+
+    @Test
+    void testRutConVerificadorIncorrectoNoConsulta() {
+        assertTrue(buscar(null, "22222222-3", null, null).isEmpty());
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void testPlanPorNombreUsaIndice() {
+        buscar(null, null, "Car", null);
+        assertTrue(planDeUltimaConsulta("Car%", 50).contains("IDX_USUARIOS_NOMBRE_ID"));
+    }
+
+    @Test
+    void testPlanPorTipoUsaIndice() {
+        buscar(null, null, null, "CLIENTE");
+        assertTrue(planDeUltimaConsulta("CLIENTE", 50).contains("IDX_USUARIOS_TIPO_ENTIDAD_ID"));
+    }
+
+    @Test
+    void testConfirmacionDeUnicidadExcluyeAlPropioUsuario() {
+        Long idCarla = buscar("carla@test.com", null, null, null).get(0).getId();
+
+        assertTrue(usuarioRepository.existeEmail("carla@test.com", null));
+        assertFalse(usuarioRepository.existeEmail("carla@test.com", idCarla));
+        assertTrue(usuarioRepository.existeRut(22222222, idCarla + 1));
+        assertFalse(usuarioRepository.existeRut(99999999, null));
+
+        String sql = CapturaSql.ultimaConsultaSobre("usuarios").toLowerCase();
+        assertFalse(sql.contains("clientes"), () -> "JOIN a un subtipo: " + sql);
+    }
+
+    @Test
+    void testRestriccionesDeUnicidadConNombreFijo() {
+        TipoUsuario tipoUsuario = entityManager.persistAndFlush(new TipoUsuario(null, "DUPLICADOS"));
+
+        // ConcurrencyExceptionHandler reconoce el conflicto por estos nombres
+        assertTrue(restriccionViolada(tipoUsuario, "carla@test.com", "55555555-5").contains("UK_USUARIOS_EMAIL"));
+        assertTrue(restriccionViolada(tipoUsuario, "otra@test.com", "22222222-2").contains("UK_USUARIOS_RUT_NUMERO"));
+    }
+
+    private String restriccionViolada(TipoUsuario tipoUsuario, String email, String rut) {
+        Administrador duplicado = new Administrador();
+        duplicado.setNombre("Duplicado");
+        duplicado.setEmail(email);
+        duplicado.setPassword("password");
+        duplicado.setRut(Rut.parsear(rut));
+        duplicado.setTipoUsuario(tipoUsuario);
+        DataIntegrityViolationException excepcion = assertThrows(DataIntegrityViolationException.class,
+                () -> usuarioRepository.saveAndFlush(duplicado));
+        entityManager.clear();
+        return ((ConstraintViolationException) excepcion.getCause()).getConstraintName().toUpperCase();
+    }
+}
@@ -10,29 +10,33 @@ import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 
 import GestionUsuarios.GestionUsuarios.DTO.AdministradorRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.AdministradorResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 import GestionUsuarios.GestionUsuarios.mapper.AdministradorMapper;
 import GestionUsuarios.GestionUsuarios.model.Administrador;
 import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
 import GestionUsuarios.GestionUsuarios.repository.AdministradorRepository;
-import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
 
-@ExtendWith(MockitoExtension.class)
-public class AdministradorServiceTest {
+public class AdministradorServiceTest extends ServicioUsuariosTestBase {
 
     @Mock
     private AdministradorRepository administradorRepository;
     @Mock
-    private TipoUsuarioRepository tipoUsuarioRepository;
+    private TipoUsuarioCache tipoUsuarioCache;
     @Mock
     private AdministradorMapper administradorMapper;
+    @Mock
+    private HashContrasenas hashContrasenas;
+    @Mock
+    private AutocompletadoUsuariosService autocompletado;
+    @Mock
+    private UnicidadUsuariosService unicidadUsuarios;
     @InjectMocks
     private AdministradorService administradorService;
 
@@ -44,7 +48,7 @@ public class AdministradorServiceTest {
     @BeforeEach
     void setUp() {
         tipoUsuario = new TipoUsuario(1L, "ADMIN");
-        requestDTO = new AdministradorRequestDTO("Admin de Prueba", "admin@test.com", "password", "2000-01-01", "12345678-9", 1L);
+        requestDTO = new AdministradorRequestDTO("Admin de Prueba", "admin@test.com", "password", "2000-01-01", "12345678-5", 1L);
 
         administrador = new Administrador();
         administrador.setId(1L);
@@ -58,14 +62,15 @@ public class AdministradorServiceTest {
     // Pruebas para obtenerTodosLosAdministradores
     @Test
     void testObtenerTodosLosAdministradores_Exitoso() {
-        when(administradorRepository.findAll()).thenReturn(Collections.singletonList(administrador));
-        when(administradorMapper.toResponseDTO(any(Administrador.class))).thenReturn(responseDTO);
+        when(administradorRepository.listarRespuestas()).thenReturn(Collections.singletonList(responseDTO));
 
         List<AdministradorResponseDTO> resultado = administradorService.obtenerTodosLosAdministradores();
 
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(administradorRepository).findAll();
+        assertSame(responseDTO, resultado.get(0));
+        verify(administradorRepository).listarRespuestas();
+        verifyNoInteractions(administradorMapper);
     }
 
     // Pruebas para obtenerAdministradorPorId
@@ -74,10 +79,11 @@ public class AdministradorServiceTest {
         when(administradorRepository.findById(1L)).thenReturn(Optional.of(administrador));
         when(administradorMapper.toResponseDTO(administrador)).thenReturn(responseDTO);
 
-        AdministradorResponseDTO resultado = administradorService.obtenerAdministradorPorId(1L);
+        VersionadoDTO<AdministradorResponseDTO> resultado = administradorService.obtenerAdministradorPorId(1L);
 
         assertNotNull(resultado);
-        assertEquals(responseDTO.getNombre(), resultado.getNombre());
+        assertEquals(responseDTO.getNombre(), resultado.getRespuesta().getNombre());
+        assertEquals(String.valueOf(administrador.getVersion()), resultado.getVersion());
     }
 
     @Test
@@ -89,7 +95,7 @@ public class AdministradorServiceTest {
     // Pruebas para crearAdministrador
     @Test
     void testCrearAdministrador_Exitoso() {
-        when(tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
+        when(tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
         when(administradorMapper.toEntity(any(AdministradorRequestDTO.class))).thenReturn(administrador);
         when(administradorRepository.save(any(Administrador.class))).thenReturn(administrador);
         when(administradorMapper.toResponseDTO(any(Administrador.class))).thenReturn(responseDTO);
@@ -99,38 +105,44 @@ public class AdministradorServiceTest {
         assertNotNull(resultado);
         assertEquals(responseDTO.getNombre(), resultado.getNombre());
         verify(administradorRepository).save(administrador);
+        verify(autocompletado).registrar(administrador);
     }
     
     @Test
     void testCrearAdministrador_TipoUsuarioNoEncontrado() {
-        when(tipoUsuarioRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(tipoUsuarioCache.buscarPorId(anyLong())).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> administradorService.crearAdministrador(requestDTO));
     }
 
     // Pruebas para actualizarAdministrador
     @Test
     void testActualizarAdministrador_Exitoso() {
+        when(administradorRepository.findEstadoById(1L)).thenReturn(Optional.of(new EstadoUsuarioDTO(0L, null, null)));
         when(administradorRepository.findById(1L)).thenReturn(Optional.of(administrador));
-        when(tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
-        when(administradorRepository.save(any(Administrador.class))).thenReturn(administrador);
+        when(tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
+        when(administradorRepository.saveAndFlush(any(Administrador.class))).thenReturn(administrador);
         when(administradorMapper.toResponseDTO(any(Administrador.class))).thenReturn(responseDTO);
         
         administradorService.actualizarAdministrador(1L, requestDTO);
 
         verify(administradorMapper).updateEntityFromDto(requestDTO, administrador);
-        verify(administradorRepository).save(administrador);
+        verify(administradorRepository).saveAndFlush(administrador);
+        verify(autocompletado).registrar(administrador);
     }
 
     @Test
     void testActualizarAdministrador_AdministradorNoEncontrado() {
-        when(administradorRepository.findById(99L)).thenReturn(Optional.empty());
+        when(administradorRepository.findEstadoById(99L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> administradorService.actualizarAdministrador(99L, requestDTO));
+        verify(hashContrasenas, never()).hashearSiPresente(any());
+        verify(administradorRepository, never()).findById(any());
     }
     
     @Test
     void testActualizarAdministrador_TipoUsuarioNoEncontrado() {
+        when(administradorRepository.findEstadoById(1L)).thenReturn(Optional.of(new EstadoUsuarioDTO(0L, null, null)));
         when(administradorRepository.findById(1L)).thenReturn(Optional.of(administrador));
-        when(tipoUsuarioRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(tipoUsuarioCache.buscarPorId(anyLong())).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> administradorService.actualizarAdministrador(1L, requestDTO));
     }
 
@@ -143,6 +155,7 @@ public class AdministradorServiceTest {
         administradorService.eliminarAdministrador(1L);
 
         verify(administradorRepository, times(1)).deleteById(1L);
+        verify(autocompletado).eliminar(1L);
     }
 
     @Test
@@ -0,0 +1,104 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import GestionUsuarios.GestionUsuarios.DTO.SugerenciaUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.DTO.UsuarioResumenDTO;
+import GestionUsuarios.GestionUsuarios.exception.ServiceUnavailableException;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.repository.UsuarioRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class AutocompletadoUsuariosServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+    @InjectMocks
+    private AutocompletadoUsuariosService autocompletado;
+
+    @BeforeEach
+    void setUp() {
+        when(usuarioRepository.buscarResumenes(any(), isNull(), anyInt())).thenReturn(List.of(
+                new UsuarioResumenDTO(1L, "Juan Pérez", "jperez@test.com", "11111111-1", "CLIENTE"),
+                new UsuarioResumenDTO(2L, "Ana María Soto", "ana@test.com", "22222222-2", "ADMINISTRADOR"),
+                new UsuarioResumenDTO(3L, "Andrés Pereira", "andres@test.com", "33333333-3", "EMPLEADO_VENTAS")));
+        autocompletado.reconstruir();
+    }
+
+    private List<Long> ids(List<SugerenciaUsuarioDTO> sugerencias) {
+        return sugerencias.stream().map(SugerenciaUsuarioDTO::getId).toList();
+    }
+
+    @Test
+    void testSugerir_AntesDeLaPrimeraCargaRespondeNoDisponible() {
+        AutocompletadoUsuariosService sinCargar = new AutocompletadoUsuariosService(usuarioRepository);
+
+        assertFalse(sinCargar.estaCargado());
+        assertThrows(ServiceUnavailableException.class, () -> sinCargar.sugerir("pere", 10));
+        assertTrue(autocompletado.estaCargado());
+    }
+
+    @Test
+    void testSugerir_PorCualquierPalabraDelNombreSinTildes() {
+        assertEquals(List.of(3L, 1L), ids(autocompletado.sugerir("PERE", 10)));
+        assertEquals(List.of(2L), ids(autocompletado.sugerir("maria s", 10)));
+        assertEquals("ADMINISTRADOR", autocompletado.sugerir("soto", 10).get(0).getTipo());
+    }
+
+    @Test
+    void testSugerir_PorEmailSinRepetirUsuarios() {
+        // "an" coincide con el nombre y el email de Ana y Andrés
+        assertEquals(List.of(2L, 3L), ids(autocompletado.sugerir("an", 10)));
+        assertEquals(List.of(1L), ids(autocompletado.sugerir("jperez@", 10)));
+    }
+
+    @Test
+    void testSugerir_RespetaElLimiteYConsultaVacia() {
+        assertEquals(1, autocompletado.sugerir("pere", 1).size());
+        assertTrue(autocompletado.sugerir("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testSugerir_PrefijoMasLargoQueLaClave() {
+        Cliente cliente = new Cliente();
+        cliente.setId(4L);
+        cliente.setNombre("Maximiliano Bartolomé de las Casas");
+        autocompletado.registrar(cliente);
+
+        assertEquals(List.of(4L), ids(autocompletado.sugerir("maximiliano bartolome de las", 10)));
+        assertTrue(autocompletado.sugerir("maximiliano bartolome de los", 10).isEmpty());
+    }
+
+    @Test
+    void testRegistrar_AltaCambioYBaja() {
+        Cliente cliente = new Cliente();
+        cliente.setId(5L);
+        cliente.setNombre("Carla Rojas");
+        cliente.setEmail("carla@test.com");
+        autocompletado.registrar(cliente);
+
+        SugerenciaUsuarioDTO sugerencia = autocompletado.sugerir("roj", 10).get(0);
+        assertEquals(5L, sugerencia.getId());
+        assertEquals("CLIENTE", sugerencia.getTipo());
+
+        cliente.setNombre("Carla Muñoz");
+        autocompletado.registrar(cliente);
+        assertTrue(autocompletado.sugerir("roj", 10).isEmpty());
+        assertEquals(List.of(5L), ids(autocompletado.sugerir("munoz", 10)));
+
+        autocompletado.eliminar(5L);
+        assertTrue(autocompletado.sugerir("carla", 10).isEmpty());
+    }
+}
@@ -0,0 +1,158 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import GestionUsuarios.GestionUsuarios.DTO.ClienteResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PedidoResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
+
+public class CacheRespuestasTest {
+
+    private CacheRespuestasProperties properties;
+    private AtomicInteger cargas;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CacheRespuestasProperties();
+        cargas = new AtomicInteger();
+        transactionManager = mock(PlatformTransactionManager.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private CacheRespuestas crearCache() {
+        return new CacheRespuestas(properties, new SimpleMeterRegistry(), transactionManager);
+    }
+
+    private VersionadoDTO<PedidoResponseDTO> pedido(Long id, Long clienteId) {
+        cargas.incrementAndGet();
+        ClienteResponseDTO cliente = new ClienteResponseDTO(clienteId, "Cliente", "c@test.com", null, null, null, null);
+        return new VersionadoDTO<>(new PedidoResponseDTO(id, null, "Pendiente", 10.0, cliente, "Calle", "Tarjeta"), "0-0");
+    }
+
+    @Test
+    void testLecturaRepetidaNoRecarga() {
+        CacheRespuestas cache = crearCache();
+
+        cache.obtener(CacheRespuestas.CLIENTES, 1L, () -> cargas.incrementAndGet());
+        Integer valor = cache.obtener(CacheRespuestas.CLIENTES, 1L, () -> cargas.incrementAndGet());
+
+        assertEquals(1, valor);
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void testAciertoNoAbreTransaccion() {
+        CacheRespuestas cache = crearCache();
+
+        cache.obtener(CacheRespuestas.CLIENTES, 1L, () -> cargas.incrementAndGet());
+        cache.obtener(CacheRespuestas.CLIENTES, 1L, () -> cargas.incrementAndGet());
+
+        // Solo el fallo abrió transacción, y de solo lectura
+        verify(transactionManager, times(1)).getTransaction(argThat(definicion -> definicion.isReadOnly()));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void testEntidadDeshabilitadaPorPropiedades() {
+        CacheRespuestasProperties.Entidad clientes = new CacheRespuestasProperties.Entidad();
+        clientes.setHabilitado(false);
+        properties.getEntidades().put(CacheRespuestas.CLIENTES, clientes);
+        CacheRespuestas cache = crearCache();
+
+        cache.obtener(CacheRespuestas.CLIENTES, 1L, () -> cargas.incrementAndGet());
+        cache.obtener(CacheRespuestas.CLIENTES, 1L, () -> cargas.incrementAndGet());
+        cache.obtener(CacheRespuestas.PEDIDOS, 1L, () -> cargas.incrementAndGet());
+        cache.obtener(CacheRespuestas.PEDIDOS, 1L, () -> cargas.incrementAndGet());
+
+        assertEquals(3, cargas.get());
+    }
+
+    @Test
+    void testInvalidarSoloLaEntradaIndicada() {
+        CacheRespuestas cache = crearCache();
+        cache.obtener(CacheRespuestas.CLIENTES, 1L, () -> cargas.incrementAndGet());
+        cache.obtener(CacheRespuestas.CLIENTES, 2L, () -> cargas.incrementAndGet());
+        cache.obtener(CacheRespuestas.ADMINISTRADORES, 1L, () -> cargas.incrementAndGet());
+
+        cache.invalidar(CacheRespuestas.CLIENTES, 1L);
+        cache.obtener(CacheRespuestas.CLIENTES, 1L, () -> cargas.incrementAndGet());
+        cache.obtener(CacheRespuestas.CLIENTES, 2L, () -> cargas.incrementAndGet());
+        cache.obtener(CacheRespuestas.ADMINISTRADORES, 1L, () -> cargas.incrementAndGet());
+
+        assertEquals(4, cargas.get());
+    }
+
+    @Test
+    void testCambioDeClienteInvalidaSusPedidos() {
+        CacheRespuestas cache = crearCache();
+        cache.obtenerPedido(10L, () -> pedido(10L, 1L));
+        cache.obtenerPedido(11L, () -> pedido(11L, 1L));
+        cache.obtenerPedido(20L, () -> pedido(20L, 2L));
+
+        cache.invalidarPedidosDeCliente(1L);
+        cache.obtenerPedido(10L, () -> pedido(10L, 1L));
+        cache.obtenerPedido(11L, () -> pedido(11L, 1L));
+        cache.obtenerPedido(20L, () -> pedido(20L, 2L));
+
+        assertEquals(5, cargas.get());
+    }
+
+    @Test
+    void testPedidoGuardaSuVersionJuntoAlCuerpo() {
+        CacheRespuestas cache = crearCache();
+        cache.obtenerPedido(10L, () -> pedido(10L, 1L));
+
+        VersionadoDTO<PedidoResponseDTO> enCache = cache.obtenerPedido(10L, () -> pedido(10L, 1L));
+
+        assertEquals("0-0", enCache.getVersion());
+        assertEquals(10L, enCache.getRespuesta().getId());
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void testExpiraPorTtl() throws InterruptedException {
+        properties.setTtl(Duration.ofMillis(20));
+        CacheRespuestas cache = crearCache();
+
+        cache.obtener(CacheRespuestas.PEDIDOS, 1L, () -> cargas.incrementAndGet());
+        Thread.sleep(50);
+        cache.obtener(CacheRespuestas.PEDIDOS, 1L, () -> cargas.incrementAndGet());
+
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void testInvalidacionSeRepiteAlTerminarLaTransaccion() {
+        CacheRespuestas cache = crearCache();
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidar(CacheRespuestas.CLIENTES, 1L);
+        // Un lector concurrente repuebla la entrada antes del commit con datos aún no confirmados
+        cache.obtener(CacheRespuestas.CLIENTES, 1L, () -> cargas.incrementAndGet());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        cache.obtener(CacheRespuestas.CLIENTES, 1L, () -> cargas.incrementAndGet());
+
+        assertEquals(2, cargas.get());
+    }
+}
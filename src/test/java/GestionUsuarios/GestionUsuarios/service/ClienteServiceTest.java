@@ -7,32 +7,45 @@ import static org.mockito.Mockito.*;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import GestionUsuarios.GestionUsuarios.DTO.ClienteRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.ClienteResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
+import GestionUsuarios.GestionUsuarios.exception.ConflictException;
+import GestionUsuarios.GestionUsuarios.exception.PreconditionFailedException;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 import GestionUsuarios.GestionUsuarios.mapper.ClienteMapper;
 import GestionUsuarios.GestionUsuarios.model.Cliente;
 import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
 import GestionUsuarios.GestionUsuarios.repository.ClienteRepository;
-import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
+import GestionUsuarios.GestionUsuarios.repository.PedidoRepository;
 
-@ExtendWith(MockitoExtension.class)
-public class ClienteServiceTest {
+public class ClienteServiceTest extends ServicioUsuariosTestBase {
 
     @Mock
     private ClienteRepository clienteRepository;
     @Mock
-    private TipoUsuarioRepository tipoUsuarioRepository;
+    private PedidoRepository pedidoRepository;
+    @Mock
+    private TipoUsuarioCache tipoUsuarioCache;
     @Mock
     private ClienteMapper clienteMapper;
+    @Mock
+    private HashContrasenas hashContrasenas;
+    @Mock
+    private AutocompletadoUsuariosService autocompletado;
+    @Mock
+    private UnicidadUsuariosService unicidadUsuarios;
+    @Mock
+    private EstadisticasPedidosService estadisticasPedidos;
     @InjectMocks
     private ClienteService clienteService;
 
@@ -44,27 +57,28 @@ public class ClienteServiceTest {
     @BeforeEach
     void setUp() {
         tipoUsuario = new TipoUsuario(1L, "CLIENTE");
-        requestDTO = new ClienteRequestDTO("Cliente de Prueba", "cliente@test.com", "password", "1995-05-10", "22333444-5", 1L, "Calle Falsa 123");
+        requestDTO = new ClienteRequestDTO("Cliente de Prueba", "cliente@test.com", "password", "1995-05-10", "22333444-K", 1L, "Calle Falsa 123");
 
         cliente = new Cliente();
         cliente.setId(1L);
         cliente.setNombre("Cliente Uno");
         cliente.setTipoUsuario(tipoUsuario);
         
-        responseDTO = new ClienteResponseDTO(1L, "Cliente Uno", "cliente1@test.com", "1995-05-10", "22333444-5", null, "Calle Falsa 123");
+        responseDTO = new ClienteResponseDTO(1L, "Cliente Uno", "cliente1@test.com", "1995-05-10", "22333444-K", null, "Calle Falsa 123");
     }
 
     // Pruebas para obtenerTodosLosClientes
     @Test
     void testObtenerTodosLosClientes_Exitoso() {
-        when(clienteRepository.findAll()).thenReturn(Collections.singletonList(cliente));
-        when(clienteMapper.toResponseDTO(any(Cliente.class))).thenReturn(responseDTO);
+        when(clienteRepository.listarRespuestas()).thenReturn(Collections.singletonList(responseDTO));
 
         List<ClienteResponseDTO> resultado = clienteService.obtenerTodosLosClientes();
 
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(clienteRepository).findAll();
+        assertSame(responseDTO, resultado.get(0));
+        verify(clienteRepository).listarRespuestas();
+        verifyNoInteractions(clienteMapper);
     }
 
     // Pruebas para obtenerClientePorId
@@ -73,10 +87,23 @@ public class ClienteServiceTest {
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
         when(clienteMapper.toResponseDTO(cliente)).thenReturn(responseDTO);
 
-        ClienteResponseDTO resultado = clienteService.obtenerClientePorId(1L);
+        VersionadoDTO<ClienteResponseDTO> resultado = clienteService.obtenerClientePorId(1L);
 
         assertNotNull(resultado);
-        assertEquals(responseDTO.getNombre(), resultado.getNombre());
+        assertEquals(responseDTO.getNombre(), resultado.getRespuesta().getNombre());
+        assertEquals(String.valueOf(cliente.getVersion()), resultado.getVersion());
+    }
+
+    @Test
+    void testObtenerClientePorId_SegundaLecturaDesdeCache() {
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(clienteMapper.toResponseDTO(cliente)).thenReturn(responseDTO);
+
+        clienteService.obtenerClientePorId(1L);
+        VersionadoDTO<ClienteResponseDTO> resultado = clienteService.obtenerClientePorId(1L);
+
+        assertSame(responseDTO, resultado.getRespuesta());
+        verify(clienteRepository, times(1)).findById(1L);
     }
 
     @Test
@@ -88,66 +115,159 @@ public class ClienteServiceTest {
     // Pruebas para crearCliente
     @Test
     void testCrearCliente_Exitoso() {
-        when(tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
+        when(tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
         when(clienteMapper.toEntity(any(ClienteRequestDTO.class))).thenReturn(cliente);
         when(clienteRepository.save(any(Cliente.class))).thenReturn(cliente);
         when(clienteMapper.toResponseDTO(any(Cliente.class))).thenReturn(responseDTO);
 
+        when(hashContrasenas.hashear("password")).thenReturn("hash(password)");
+
         ClienteResponseDTO resultado = clienteService.crearCliente(requestDTO);
 
         assertNotNull(resultado);
         assertEquals(responseDTO.getNombre(), resultado.getNombre());
         verify(clienteRepository).save(cliente);
+        verify(autocompletado).registrar(cliente);
+        verify(unicidadUsuarios).registrar(cliente);
+        assertEquals("hash(password)", cliente.getPassword());
+    }
+
+    @Test
+    void testCrearCliente_EmailDuplicadoSinHashNiTransaccion() {
+        doThrow(new ConflictException("Ya existe un usuario con email: cliente@test.com"))
+                .when(unicidadUsuarios).comprobarDisponibles("cliente@test.com", "22333444-K", null);
+
+        assertThrows(ConflictException.class, () -> clienteService.crearCliente(requestDTO));
+        verifyNoInteractions(hashContrasenas, clienteRepository);
+        verify(transaccion, never()).execute(any());
     }
     
     @Test
     void testCrearCliente_TipoUsuarioNoEncontrado() {
-        when(tipoUsuarioRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(tipoUsuarioCache.buscarPorId(anyLong())).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> clienteService.crearCliente(requestDTO));
     }
 
     // Pruebas para actualizarCliente
     @Test
     void testActualizarCliente_Exitoso() {
+        when(clienteRepository.findEstadoById(1L)).thenReturn(Optional.of(new EstadoUsuarioDTO(0L, null, null)));
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
-        when(tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
-        when(clienteRepository.save(any(Cliente.class))).thenReturn(cliente);
+        when(tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
+        when(clienteRepository.saveAndFlush(any(Cliente.class))).thenReturn(cliente);
         
         requestDTO.setPassword("newPassword"); // Probando la actualización de contraseña
+        when(hashContrasenas.hashearSiPresente("newPassword")).thenReturn("hash(newPassword)");
         clienteService.actualizarCliente(1L, requestDTO);
 
         verify(clienteMapper).updateEntityFromDto(requestDTO, cliente);
-        verify(clienteRepository).save(cliente);
-        assertEquals("newPassword", cliente.getPassword());
+        verify(clienteRepository).saveAndFlush(cliente);
+        verify(autocompletado).registrar(cliente);
+        verify(cacheRespuestas).invalidar(CacheRespuestas.CLIENTES, 1L);
+        verify(cacheRespuestas).invalidarPedidosDeCliente(1L);
+        assertEquals("hash(newPassword)", cliente.getPassword());
+    }
+
+    @Test
+    void testActualizarCliente_DevuelveVersionDelFlush() {
+        cliente.setVersion(3L);
+        when(clienteRepository.findEstadoById(1L)).thenReturn(Optional.of(new EstadoUsuarioDTO(3L, null, null)));
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
+        // El flush es quien incrementa @Version
+        when(clienteRepository.saveAndFlush(cliente)).thenAnswer(invocation -> {
+            cliente.setVersion(4L);
+            return cliente;
+        });
+        when(clienteMapper.toResponseDTO(cliente)).thenReturn(responseDTO);
+
+        VersionadoDTO<ClienteResponseDTO> resultado = clienteService.actualizarCliente(1L, requestDTO, 3L);
+
+        assertSame(responseDTO, resultado.getRespuesta());
+        assertEquals("4", resultado.getVersion());
+        // Solo la comprobación previa al hash: la versión devuelta no se relee tras el commit
+        verify(clienteRepository, times(1)).findEstadoById(1L);
+    }
+
+    @Test
+    void testActualizarCliente_VersionDistinta() {
+        when(clienteRepository.findEstadoById(1L)).thenReturn(Optional.of(new EstadoUsuarioDTO(3L, null, null)));
+        requestDTO.setPassword("newPassword");
+
+        assertThrows(PreconditionFailedException.class, () -> clienteService.actualizarCliente(1L, requestDTO, 2L));
+        // 412 sin ocupar el pool de BCrypt ni abrir la transacción
+        verify(hashContrasenas, never()).hashearSiPresente(any());
+        verify(clienteRepository, never()).findById(any());
+        verify(cacheRespuestas, never()).invalidar(any(), any());
+    }
+
+    @Test
+    void testActualizarCliente_VersionCambiaTrasLaComprobacion() {
+        // Otra escritura entre la comprobación previa y la transacción: la entidad cargada decide
+        when(clienteRepository.findEstadoById(1L)).thenReturn(Optional.of(new EstadoUsuarioDTO(2L, null, null)));
+        cliente.setVersion(3L);
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+
+        assertThrows(PreconditionFailedException.class, () -> clienteService.actualizarCliente(1L, requestDTO, 2L));
+        verify(clienteMapper, never()).updateEntityFromDto(any(), any());
+        verify(cacheRespuestas, never()).invalidar(any(), any());
     }
 
     @Test
     void testActualizarCliente_ClienteNoEncontrado() {
-        when(clienteRepository.findById(99L)).thenReturn(Optional.empty());
+        when(clienteRepository.findEstadoById(99L)).thenReturn(Optional.empty());
+        requestDTO.setPassword("newPassword");
         assertThrows(ResourceNotFoundException.class, () -> clienteService.actualizarCliente(99L, requestDTO));
+        verify(hashContrasenas, never()).hashearSiPresente(any());
     }
     
     @Test
     void testActualizarCliente_TipoUsuarioNoEncontrado() {
+        when(clienteRepository.findEstadoById(1L)).thenReturn(Optional.of(new EstadoUsuarioDTO(0L, null, null)));
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
-        when(tipoUsuarioRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(tipoUsuarioCache.buscarPorId(anyLong())).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> clienteService.actualizarCliente(1L, requestDTO));
     }
 
     // Pruebas para eliminarCliente
     @Test
     void testEliminarCliente_Exitoso() {
-        when(clienteRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(clienteRepository).deleteById(1L);
+        when(pedidoRepository.findIdsByClienteId(1L, Limit.of(1000))).thenReturn(List.of(10L, 11L));
+        when(clienteRepository.eliminarPorId(1L)).thenReturn(1);
 
         clienteService.eliminarCliente(1L);
 
-        verify(clienteRepository, times(1)).deleteById(1L);
+        verify(estadisticasPedidos).registrarBajasDeCliente(1L);
+        verify(pedidoRepository).deleteAllByIdInBatch(List.of(10L, 11L));
+        verify(clienteRepository, times(1)).eliminarPorId(1L);
+        verify(autocompletado).eliminar(1L);
+        verify(clienteRepository, never()).deleteById(any());
+        verify(cacheRespuestas).invalidar(CacheRespuestas.CLIENTES, 1L);
+        verify(cacheRespuestas).invalidarPedidosDeCliente(1L);
+    }
+
+    @Test
+    void testEliminarCliente_BorraPedidosPorBloques() {
+        List<Long> bloqueCompleto = LongStream.rangeClosed(1, 1000).boxed().toList();
+        when(pedidoRepository.findIdsByClienteId(1L, Limit.of(1000)))
+                .thenReturn(bloqueCompleto)
+                .thenReturn(List.of(1001L))
+                .thenReturn(List.of());
+        when(clienteRepository.eliminarPorId(1L)).thenReturn(1);
+
+        clienteService.eliminarCliente(1L);
+
+        verify(pedidoRepository).deleteAllByIdInBatch(bloqueCompleto);
+        verify(pedidoRepository).deleteAllByIdInBatch(List.of(1001L));
+        verify(pedidoRepository, times(2)).findIdsByClienteId(1L, Limit.of(1000));
     }
 
     @Test
     void testEliminarCliente_NoEncontrado() {
-        when(clienteRepository.existsById(99L)).thenReturn(false);
+        when(pedidoRepository.findIdsByClienteId(99L, Limit.of(1000))).thenReturn(List.of());
+        when(clienteRepository.eliminarPorId(99L)).thenReturn(0);
+
         assertThrows(ResourceNotFoundException.class, () -> clienteService.eliminarCliente(99L));
+        verify(pedidoRepository, never()).deleteAllByIdInBatch(any());
     }
 }
\ No newline at end of file
@@ -10,29 +10,33 @@ import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 
 import GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.EmpleadoVentasResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 import GestionUsuarios.GestionUsuarios.mapper.EmpleadoVentasMapper;
 import GestionUsuarios.GestionUsuarios.model.EmpleadoVentas;
 import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
 import GestionUsuarios.GestionUsuarios.repository.EmpleadoVentasRepository;
-import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
 
-@ExtendWith(MockitoExtension.class)
-public class EmpleadoVentasServiceTest {
+public class EmpleadoVentasServiceTest extends ServicioUsuariosTestBase {
 
     @Mock
     private EmpleadoVentasRepository empleadoVentasRepository;
     @Mock
-    private TipoUsuarioRepository tipoUsuarioRepository;
+    private TipoUsuarioCache tipoUsuarioCache;
     @Mock
     private EmpleadoVentasMapper empleadoVentasMapper;
+    @Mock
+    private HashContrasenas hashContrasenas;
+    @Mock
+    private AutocompletadoUsuariosService autocompletado;
+    @Mock
+    private UnicidadUsuariosService unicidadUsuarios;
     @InjectMocks
     private EmpleadoVentasService empleadoVentasService;
 
@@ -44,27 +48,28 @@ public class EmpleadoVentasServiceTest {
     @BeforeEach
     void setUp() {
         tipoUsuario = new TipoUsuario(2L, "VENTAS");
-        requestDTO = new EmpleadoVentasRequestDTO("Empleado de Prueba", "empleado@test.com", "password", "1998-11-20", "33444555-6", 2L, "2023-01-15", 500000.0);
+        requestDTO = new EmpleadoVentasRequestDTO("Empleado de Prueba", "empleado@test.com", "password", "1998-11-20", "33444555-0", 2L, "2023-01-15", 500000.0);
 
         empleado = new EmpleadoVentas();
         empleado.setId(1L);
         empleado.setNombre("Empleado Uno");
         empleado.setTipoUsuario(tipoUsuario);
 
-        responseDTO = new EmpleadoVentasResponseDTO(1L, "Empleado Uno", "empleado1@test.com", "1990-01-01", "44555666-7", null, "2020-01-01", 600000.0);
+        responseDTO = new EmpleadoVentasResponseDTO(1L, "Empleado Uno", "empleado1@test.com", "1990-01-01", "44555666-1", null, "2020-01-01", 600000.0);
     }
 
     // Pruebas para obtenerTodosLosEmpleadosVentas
     @Test
     void testObtenerTodosLosEmpleadosVentas_Exitoso() {
-        when(empleadoVentasRepository.findAll()).thenReturn(Collections.singletonList(empleado));
-        when(empleadoVentasMapper.toResponseDTO(any(EmpleadoVentas.class))).thenReturn(responseDTO);
+        when(empleadoVentasRepository.listarRespuestas()).thenReturn(Collections.singletonList(responseDTO));
 
         List<EmpleadoVentasResponseDTO> resultado = empleadoVentasService.obtenerTodosLosEmpleadosVentas();
 
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(empleadoVentasRepository).findAll();
+        assertSame(responseDTO, resultado.get(0));
+        verify(empleadoVentasRepository).listarRespuestas();
+        verifyNoInteractions(empleadoVentasMapper);
     }
 
     // Pruebas para obtenerEmpleadoVentasPorId
@@ -73,10 +78,11 @@ public class EmpleadoVentasServiceTest {
         when(empleadoVentasRepository.findById(1L)).thenReturn(Optional.of(empleado));
         when(empleadoVentasMapper.toResponseDTO(empleado)).thenReturn(responseDTO);
 
-        EmpleadoVentasResponseDTO resultado = empleadoVentasService.obtenerEmpleadoVentasPorId(1L);
+        VersionadoDTO<EmpleadoVentasResponseDTO> resultado = empleadoVentasService.obtenerEmpleadoVentasPorId(1L);
 
         assertNotNull(resultado);
-        assertEquals(responseDTO.getNombre(), resultado.getNombre());
+        assertEquals(responseDTO.getNombre(), resultado.getRespuesta().getNombre());
+        assertEquals(String.valueOf(empleado.getVersion()), resultado.getVersion());
     }
 
     @Test
@@ -88,7 +94,7 @@ public class EmpleadoVentasServiceTest {
     // Pruebas para crearEmpleadoVentas
     @Test
     void testCrearEmpleadoVentas_Exitoso() {
-        when(tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
+        when(tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
         when(empleadoVentasMapper.toEntity(any(EmpleadoVentasRequestDTO.class))).thenReturn(empleado);
         when(empleadoVentasRepository.save(any(EmpleadoVentas.class))).thenReturn(empleado);
         when(empleadoVentasMapper.toResponseDTO(any(EmpleadoVentas.class))).thenReturn(responseDTO);
@@ -98,39 +104,46 @@ public class EmpleadoVentasServiceTest {
         assertNotNull(resultado);
         assertEquals(responseDTO.getNombre(), resultado.getNombre());
         verify(empleadoVentasRepository).save(empleado);
+        verify(autocompletado).registrar(empleado);
     }
     
     @Test
     void testCrearEmpleadoVentas_TipoUsuarioNoEncontrado() {
-        when(tipoUsuarioRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(tipoUsuarioCache.buscarPorId(anyLong())).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> empleadoVentasService.crearEmpleadoVentas(requestDTO));
     }
 
     // Pruebas para actualizarEmpleadoVentas
     @Test
     void testActualizarEmpleadoVentas_Exitoso() {
+        when(empleadoVentasRepository.findEstadoById(1L)).thenReturn(Optional.of(new EstadoUsuarioDTO(0L, null, null)));
         when(empleadoVentasRepository.findById(1L)).thenReturn(Optional.of(empleado));
-        when(tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
-        when(empleadoVentasRepository.save(any(EmpleadoVentas.class))).thenReturn(empleado);
+        when(tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
+        when(empleadoVentasRepository.saveAndFlush(any(EmpleadoVentas.class))).thenReturn(empleado);
 
         requestDTO.setPassword("newPassword"); // Probando la actualización de contraseña
+        when(hashContrasenas.hashearSiPresente("newPassword")).thenReturn("hash(newPassword)");
         empleadoVentasService.actualizarEmpleadoVentas(1L, requestDTO);
 
         verify(empleadoVentasMapper).updateEntityFromDto(requestDTO, empleado);
-        verify(empleadoVentasRepository).save(empleado);
-        assertEquals("newPassword", empleado.getPassword());
+        verify(empleadoVentasRepository).saveAndFlush(empleado);
+        verify(autocompletado).registrar(empleado);
+        assertEquals("hash(newPassword)", empleado.getPassword());
     }
 
     @Test
     void testActualizarEmpleadoVentas_EmpleadoNoEncontrado() {
-        when(empleadoVentasRepository.findById(99L)).thenReturn(Optional.empty());
+        when(empleadoVentasRepository.findEstadoById(99L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> empleadoVentasService.actualizarEmpleadoVentas(99L, requestDTO));
+        verify(hashContrasenas, never()).hashearSiPresente(any());
+        verify(empleadoVentasRepository, never()).findById(any());
     }
 
     @Test
     void testActualizarEmpleadoVentas_TipoUsuarioNoEncontrado() {
+        when(empleadoVentasRepository.findEstadoById(1L)).thenReturn(Optional.of(new EstadoUsuarioDTO(0L, null, null)));
         when(empleadoVentasRepository.findById(1L)).thenReturn(Optional.of(empleado));
-        when(tipoUsuarioRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(tipoUsuarioCache.buscarPorId(anyLong())).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> empleadoVentasService.actualizarEmpleadoVentas(1L, requestDTO));
     }
 
@@ -143,6 +156,7 @@ public class EmpleadoVentasServiceTest {
         empleadoVentasService.eliminarEmpleadoVentas(1L);
 
         verify(empleadoVentasRepository, times(1)).deleteById(1L);
+        verify(autocompletado).eliminar(1L);
     }
 
     @Test
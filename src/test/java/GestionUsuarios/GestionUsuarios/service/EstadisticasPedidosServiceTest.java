@@ -0,0 +1,300 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import GestionUsuarios.GestionUsuarios.DTO.EstadisticasPedidosDTO;
+import GestionUsuarios.GestionUsuarios.exception.ServiceUnavailableException;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.model.Pedido;
+import GestionUsuarios.GestionUsuarios.repository.PedidoRepository;
+import GestionUsuarios.GestionUsuarios.repository.VentasAgrupadas;
+
+@ExtendWith(MockitoExtension.class)
+public class EstadisticasPedidosServiceTest {
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @InjectMocks
+    private EstadisticasPedidosService estadisticasPedidos;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new Cliente();
+        cliente.setId(1L);
+        // Carga inicial sobre una base vacía; los tests verifican solo sus propias consultas
+        estadisticasPedidos.reconstruir();
+        clearInvocations(pedidoRepository, transactionManager);
+    }
+
+    private Pedido pedido(int dia, String estado, double total) {
+        Pedido pedido = new Pedido();
+        pedido.setFechaPedido(LocalDateTime.of(2024, 1, dia, 10, 0));
+        pedido.setEstado(estado);
+        pedido.setTotal(total);
+        pedido.setMetodoPago("Tarjeta");
+        pedido.setCliente(cliente);
+        return pedido;
+    }
+
+    private VentasAgrupadas grupo(LocalDate dia, String estado, String metodoPago, Long clienteId, long cantidad, long centavos) {
+        return new VentasAgrupadas() {
+            public LocalDate getDia() { return dia; }
+            public String getEstado() { return estado; }
+            public String getMetodoPago() { return metodoPago; }
+            public Long getClienteId() { return clienteId; }
+            public Long getCantidad() { return cantidad; }
+            public Long getCentavos() { return centavos; }
+        };
+    }
+
+    @Test
+    void testAltasAcumulanEnCadaDimension() {
+        estadisticasPedidos.registrarAlta(pedido(1, "Pendiente", 10.10));
+        estadisticasPedidos.registrarAlta(pedido(2, "Enviado", 0.20));
+
+        EstadisticasPedidosDTO resultado = estadisticasPedidos.obtenerEstadisticas(null, null);
+
+        assertEquals(2, resultado.getGeneral().getCantidad());
+        assertEquals(10.30, resultado.getGeneral().getTotal());
+        assertEquals(10.10, resultado.getPorDia().get(LocalDate.of(2024, 1, 1)).getTotal());
+        assertEquals(1, resultado.getPorEstado().get("Enviado").getCantidad());
+        assertEquals(2, resultado.getPorMetodoPago().get("Tarjeta").getCantidad());
+        assertEquals(10.30, estadisticasPedidos.obtenerEstadisticasDeCliente(1L).getTotal());
+    }
+
+    @Test
+    void testCambioMueveElAporteEntreBuckets() {
+        Pedido pedido = pedido(1, "Pendiente", 10.10);
+        estadisticasPedidos.registrarAlta(pedido);
+
+        EstadisticasPedidosService.Apunte anterior = estadisticasPedidos.capturar(pedido);
+        pedido.setEstado("Enviado");
+        pedido.setTotal(12.00);
+        estadisticasPedidos.registrarCambio(anterior, pedido);
+
+        EstadisticasPedidosDTO resultado = estadisticasPedidos.obtenerEstadisticas(null, null);
+        assertFalse(resultado.getPorEstado().containsKey("Pendiente"));
+        assertEquals(12.00, resultado.getPorEstado().get("Enviado").getTotal());
+        assertEquals(1, resultado.getGeneral().getCantidad());
+    }
+
+    @Test
+    void testBajaRestaExactamente() {
+        Pedido pedido = pedido(1, "Pendiente", 0.10);
+        estadisticasPedidos.registrarAlta(pedido(1, "Pendiente", 0.20));
+        estadisticasPedidos.registrarAlta(pedido);
+        estadisticasPedidos.registrarBaja(pedido);
+
+        assertEquals(0.20, estadisticasPedidos.obtenerEstadisticas(null, null).getGeneral().getTotal());
+    }
+
+    @Test
+    void testRangoDeDiasSoloAcotaLaSerieDiaria() {
+        for (int dia = 1; dia <= 5; dia++) {
+            estadisticasPedidos.registrarAlta(pedido(dia, "Pendiente", 1.0));
+        }
+
+        EstadisticasPedidosDTO resultado = estadisticasPedidos.obtenerEstadisticas(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 4));
+
+        assertEquals(List.of(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 4)),
+                List.copyOf(resultado.getPorDia().keySet()));
+        assertEquals(5, resultado.getGeneral().getCantidad());
+    }
+
+    @Test
+    void testReconstruirReemplazaLosAcumulados() {
+        estadisticasPedidos.registrarAlta(pedido(1, "Pendiente", 99.0));
+        // Una consulta por dimensión: cada fila trae solo su clave
+        when(pedidoRepository.agruparVentasPorDia()).thenReturn(List.of(
+                grupo(LocalDate.of(2024, 1, 3), null, null, null, 3, 4500)));
+        when(pedidoRepository.agruparVentasPorEstado()).thenReturn(List.of(
+                grupo(null, "Enviado", null, null, 3, 4500)));
+        when(pedidoRepository.agruparVentasPorMetodoPago()).thenReturn(List.of(
+                grupo(null, null, "Efectivo", null, 3, 4500)));
+        when(pedidoRepository.agruparVentasPorCliente()).thenReturn(List.of(
+                grupo(null, null, null, 2L, 3, 4500)));
+
+        estadisticasPedidos.reconstruir();
+
+        EstadisticasPedidosDTO resultado = estadisticasPedidos.obtenerEstadisticas(null, null);
+        assertEquals(3, resultado.getGeneral().getCantidad());
+        assertEquals(Set.of(LocalDate.of(2024, 1, 3)), resultado.getPorDia().keySet());
+        assertEquals(Set.of("Enviado"), resultado.getPorEstado().keySet());
+        assertEquals(45.0, resultado.getPorMetodoPago().get("Efectivo").getTotal());
+        assertEquals(45.0, estadisticasPedidos.obtenerEstadisticasDeCliente(2L).getTotal());
+        assertEquals(0, estadisticasPedidos.obtenerEstadisticasDeCliente(1L).getCantidad());
+        // Las cuatro agregaciones leen la misma foto: una sola transacción de solo lectura en REPEATABLE READ
+        verify(transactionManager, times(1)).getTransaction(argThat(definicion -> definicion.isReadOnly()
+                && definicion.getIsolationLevel() == TransactionDefinition.ISOLATION_REPEATABLE_READ));
+    }
+
+    @Test
+    void testCambioConfirmadoDuranteLaReconstruccionNoSePierde() {
+        when(pedidoRepository.agruparVentasPorDia()).thenAnswer(invocacion -> {
+            // Confirma después de fijada la foto, así que las consultas no lo ven
+            estadisticasPedidos.registrarAlta(pedido(1, "Pendiente", 10.0));
+            return List.of(grupo(LocalDate.of(2024, 1, 3), null, null, null, 3, 4500));
+        });
+        when(pedidoRepository.agruparVentasPorEstado()).thenReturn(List.of(
+                grupo(null, "Enviado", null, null, 3, 4500)));
+        when(pedidoRepository.agruparVentasPorMetodoPago()).thenReturn(List.of(
+                grupo(null, null, "Efectivo", null, 3, 4500)));
+        when(pedidoRepository.agruparVentasPorCliente()).thenReturn(List.of(
+                grupo(null, null, null, 2L, 3, 4500)));
+
+        estadisticasPedidos.reconstruir();
+
+        EstadisticasPedidosDTO resultado = estadisticasPedidos.obtenerEstadisticas(null, null);
+        assertEquals(4, resultado.getGeneral().getCantidad());
+        assertEquals(55.0, resultado.getGeneral().getTotal());
+        assertEquals(1, resultado.getPorEstado().get("Pendiente").getCantidad());
+        assertEquals(10.0, estadisticasPedidos.obtenerEstadisticasDeCliente(1L).getTotal());
+
+        // Tras el cambio de tablas los cambios vuelven a aplicarse una sola vez
+        estadisticasPedidos.registrarAlta(pedido(1, "Pendiente", 1.0));
+        assertEquals(5, estadisticasPedidos.obtenerEstadisticas(null, null).getGeneral().getCantidad());
+    }
+
+    @Test
+    void testCommitEnCursoTerminaAntesDeFijarLaFoto() throws Exception {
+        CountDownLatch confirmando = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        Thread escritor = new Thread(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                estadisticasPedidos.registrarAlta(pedido(1, "Pendiente", 10.0));
+                List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+                sincronizaciones.forEach(sincronizacion -> sincronizacion.beforeCommit(false));
+                confirmando.countDown();
+                // Aquí confirmaría la base: la foto que se fije después ya incluye este pedido
+                continuar.await();
+                sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+                sincronizaciones.forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+        when(pedidoRepository.agruparVentasPorEstado()).thenReturn(List.of(
+                grupo(null, "Pendiente", null, null, 1, 1000)));
+        escritor.start();
+        confirmando.await();
+
+        Thread reconstruccion = new Thread(estadisticasPedidos::reconstruir);
+        reconstruccion.start();
+        // La foto espera a que el commit en curso aplique su cambio
+        verify(pedidoRepository, after(100).never()).count();
+        continuar.countDown();
+        escritor.join();
+        reconstruccion.join();
+
+        verify(pedidoRepository).count();
+        // Contado una vez, por la foto, y no además como cambio pendiente
+        assertEquals(1, estadisticasPedidos.obtenerEstadisticas(null, null).getGeneral().getCantidad());
+    }
+
+    @Test
+    void testReconstruccionFallidaDejaLasTablasVigentes() {
+        estadisticasPedidos.registrarAlta(pedido(1, "Pendiente", 10.0));
+        when(pedidoRepository.agruparVentasPorDia()).thenThrow(new IllegalStateException("sin conexión"));
+
+        assertThrows(IllegalStateException.class, () -> estadisticasPedidos.reconstruir());
+        estadisticasPedidos.registrarAlta(pedido(1, "Pendiente", 5.0));
+
+        assertEquals(15.0, estadisticasPedidos.obtenerEstadisticas(null, null).getGeneral().getTotal());
+    }
+
+    @Test
+    void testAntesDeLaPrimeraCargaRespondeNoDisponible() {
+        EstadisticasPedidosService sinCargar = new EstadisticasPedidosService(pedidoRepository, transactionManager);
+        // Confirmado antes de fijar la foto: la carga ya lo cuenta, así que no se aplica aparte
+        sinCargar.registrarAlta(pedido(1, "Pendiente", 10.0));
+
+        assertFalse(sinCargar.estaCargada());
+        assertThrows(ServiceUnavailableException.class, () -> sinCargar.obtenerEstadisticas(null, null));
+        assertThrows(ServiceUnavailableException.class, () -> sinCargar.obtenerEstadisticasDeCliente(1L));
+
+        when(pedidoRepository.agruparVentasPorEstado()).thenReturn(List.of(
+                grupo(null, "Pendiente", null, null, 1, 1000)));
+        sinCargar.reconstruir();
+
+        assertTrue(sinCargar.estaCargada());
+        assertEquals(1, sinCargar.obtenerEstadisticas(null, null).getGeneral().getCantidad());
+    }
+
+    @Test
+    void testCambiosDuranteLaPrimeraCargaSeAplicanAlTerminar() {
+        EstadisticasPedidosService sinCargar = new EstadisticasPedidosService(pedidoRepository, transactionManager);
+        when(pedidoRepository.agruparVentasPorDia()).thenAnswer(invocacion -> {
+            sinCargar.registrarAlta(pedido(1, "Pendiente", 10.0));
+            return List.of();
+        });
+
+        sinCargar.reconstruir();
+
+        assertEquals(1, sinCargar.obtenerEstadisticas(null, null).getGeneral().getCantidad());
+    }
+
+    @Test
+    void testLasEscriturasNoEsperanUnMonitorComun() throws Exception {
+        ExecutorService escritores = Executors.newFixedThreadPool(8);
+        try {
+            // Un monitor tomado sobre el servicio no debe frenar los commits
+            synchronized (estadisticasPedidos) {
+                for (int i = 0; i < 8_000; i++) {
+                    int dia = 1 + i % 28;
+                    escritores.execute(() -> estadisticasPedidos.registrarAlta(pedido(dia, "Pendiente", 0.01)));
+                }
+                escritores.shutdown();
+                assertTrue(escritores.awaitTermination(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            escritores.shutdownNow();
+        }
+
+        EstadisticasPedidosDTO resultado = estadisticasPedidos.obtenerEstadisticas(null, null);
+        assertEquals(8_000, resultado.getGeneral().getCantidad());
+        assertEquals(80.0, resultado.getGeneral().getTotal());
+    }
+
+    @Test
+    void testBajasDeClienteRestanLoAgregadoPorLaBase() {
+        estadisticasPedidos.registrarAlta(pedido(1, "Pendiente", 10.0));
+        estadisticasPedidos.registrarAlta(pedido(1, "Pendiente", 5.0));
+        when(pedidoRepository.agruparVentasDeCliente(1L)).thenReturn(List.of(
+                grupo(LocalDate.of(2024, 1, 1), "Pendiente", "Tarjeta", 1L, 2, 1500)));
+
+        estadisticasPedidos.registrarBajasDeCliente(1L);
+
+        EstadisticasPedidosDTO resultado = estadisticasPedidos.obtenerEstadisticas(null, null);
+        assertEquals(0, resultado.getGeneral().getCantidad());
+        assertTrue(resultado.getPorDia().isEmpty());
+        assertEquals(0, estadisticasPedidos.obtenerEstadisticasDeCliente(1L).getCantidad());
+    }
+}
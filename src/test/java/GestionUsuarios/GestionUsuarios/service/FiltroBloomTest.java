@@ -0,0 +1,38 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class FiltroBloomTest {
+
+    @Test
+    void testSinFalsosNegativosAlCrecer() {
+        FiltroBloom filtro = new FiltroBloom(100, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filtro.agregar("usuario" + i + "@test.com");
+        }
+
+        assertTrue(filtro.capas() > 1);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filtro.puedeContener("usuario" + i + "@test.com"));
+        }
+    }
+
+    @Test
+    void testTasaDeFalsosPositivosAcotada() {
+        FiltroBloom filtro = new FiltroBloom(1000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.agregar(i + "-k");
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filtro.puedeContener(i + "-k")) {
+                falsosPositivos++;
+            }
+        }
+        // La cota teórica del filtro escalable es el doble de la tasa inicial
+        assertTrue(falsosPositivos < 2_000, "falsos positivos: " + falsosPositivos);
+    }
+}
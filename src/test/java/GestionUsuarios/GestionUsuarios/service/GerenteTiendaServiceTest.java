@@ -10,29 +10,33 @@ import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
 import GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.GerenteTiendaResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 import GestionUsuarios.GestionUsuarios.mapper.GerenteTiendaMapper;
 import GestionUsuarios.GestionUsuarios.model.GerenteTienda;
 import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
 import GestionUsuarios.GestionUsuarios.repository.GerenteTiendaRepository;
-import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
 
-@ExtendWith(MockitoExtension.class)
-public class GerenteTiendaServiceTest {
+public class GerenteTiendaServiceTest extends ServicioUsuariosTestBase {
 
     @Mock
     private GerenteTiendaRepository gerenteTiendaRepository;
     @Mock
-    private TipoUsuarioRepository tipoUsuarioRepository;
+    private TipoUsuarioCache tipoUsuarioCache;
     @Mock
     private GerenteTiendaMapper gerenteTiendaMapper;
+    @Mock
+    private HashContrasenas hashContrasenas;
+    @Mock
+    private AutocompletadoUsuariosService autocompletado;
+    @Mock
+    private UnicidadUsuariosService unicidadUsuarios;
     @InjectMocks
     private GerenteTiendaService gerenteTiendaService;
 
@@ -44,27 +48,28 @@ public class GerenteTiendaServiceTest {
     @BeforeEach
     void setUp() {
         tipoUsuario = new TipoUsuario(3L, "GERENTE");
-        requestDTO = new GerenteTiendaRequestDTO("Gerente de Prueba", "gerente@test.com", "password", "1985-03-15", "11222333-k", 3L, 5, "Tienda Central");
+        requestDTO = new GerenteTiendaRequestDTO("Gerente de Prueba", "gerente@test.com", "password", "1985-03-15", "11222333-9", 3L, 5, "Tienda Central");
 
         gerente = new GerenteTienda();
         gerente.setId(1L);
         gerente.setNombre("Gerente Uno");
         gerente.setTipoUsuario(tipoUsuario);
 
-        responseDTO = new GerenteTiendaResponseDTO(1L, "Gerente Uno", "gerente1@test.com", "1980-01-01", "12345678-9", null, 10, "Tienda Norte");
+        responseDTO = new GerenteTiendaResponseDTO(1L, "Gerente Uno", "gerente1@test.com", "1980-01-01", "12345678-5", null, 10, "Tienda Norte");
     }
 
     // Pruebas para obtenerTodosLosGerentes
     @Test
     void testObtenerTodosLosGerentes_Exitoso() {
-        when(gerenteTiendaRepository.findAll()).thenReturn(Collections.singletonList(gerente));
-        when(gerenteTiendaMapper.toResponseDTO(any(GerenteTienda.class))).thenReturn(responseDTO);
+        when(gerenteTiendaRepository.listarRespuestas()).thenReturn(Collections.singletonList(responseDTO));
 
         List<GerenteTiendaResponseDTO> resultado = gerenteTiendaService.obtenerTodosLosGerentes();
 
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
-        verify(gerenteTiendaRepository).findAll();
+        assertSame(responseDTO, resultado.get(0));
+        verify(gerenteTiendaRepository).listarRespuestas();
+        verifyNoInteractions(gerenteTiendaMapper);
     }
 
     // Pruebas para obtenerGerentePorId
@@ -73,10 +78,11 @@ public class GerenteTiendaServiceTest {
         when(gerenteTiendaRepository.findById(1L)).thenReturn(Optional.of(gerente));
         when(gerenteTiendaMapper.toResponseDTO(gerente)).thenReturn(responseDTO);
 
-        GerenteTiendaResponseDTO resultado = gerenteTiendaService.obtenerGerentePorId(1L);
+        VersionadoDTO<GerenteTiendaResponseDTO> resultado = gerenteTiendaService.obtenerGerentePorId(1L);
 
         assertNotNull(resultado);
-        assertEquals(responseDTO.getNombre(), resultado.getNombre());
+        assertEquals(responseDTO.getNombre(), resultado.getRespuesta().getNombre());
+        assertEquals(String.valueOf(gerente.getVersion()), resultado.getVersion());
     }
 
     @Test
@@ -88,7 +94,7 @@ public class GerenteTiendaServiceTest {
     // Pruebas para crearGerente
     @Test
     void testCrearGerente_Exitoso() {
-        when(tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
+        when(tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
         when(gerenteTiendaMapper.toEntity(any(GerenteTiendaRequestDTO.class))).thenReturn(gerente);
         when(gerenteTiendaRepository.save(any(GerenteTienda.class))).thenReturn(gerente);
         when(gerenteTiendaMapper.toResponseDTO(any(GerenteTienda.class))).thenReturn(responseDTO);
@@ -98,37 +104,43 @@ public class GerenteTiendaServiceTest {
         assertNotNull(resultado);
         assertEquals(responseDTO.getNombre(), resultado.getNombre());
         verify(gerenteTiendaRepository).save(gerente);
+        verify(autocompletado).registrar(gerente);
     }
     
     @Test
     void testCrearGerente_TipoUsuarioNoEncontrado() {
-        when(tipoUsuarioRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(tipoUsuarioCache.buscarPorId(anyLong())).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> gerenteTiendaService.crearGerente(requestDTO));
     }
 
     // Pruebas para actualizarGerente
     @Test
     void testActualizarGerente_Exitoso() {
+        when(gerenteTiendaRepository.findEstadoById(1L)).thenReturn(Optional.of(new EstadoUsuarioDTO(0L, null, null)));
         when(gerenteTiendaRepository.findById(1L)).thenReturn(Optional.of(gerente));
-        when(tipoUsuarioRepository.findById(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
-        when(gerenteTiendaRepository.save(any(GerenteTienda.class))).thenReturn(gerente);
+        when(tipoUsuarioCache.buscarPorId(requestDTO.getTipoUsuarioId())).thenReturn(Optional.of(tipoUsuario));
+        when(gerenteTiendaRepository.saveAndFlush(any(GerenteTienda.class))).thenReturn(gerente);
         
         gerenteTiendaService.actualizarGerente(1L, requestDTO);
 
         verify(gerenteTiendaMapper).updateEntityFromDto(requestDTO, gerente);
-        verify(gerenteTiendaRepository).save(gerente);
+        verify(gerenteTiendaRepository).saveAndFlush(gerente);
+        verify(autocompletado).registrar(gerente);
     }
 
     @Test
     void testActualizarGerente_GerenteNoEncontrado() {
-        when(gerenteTiendaRepository.findById(99L)).thenReturn(Optional.empty());
+        when(gerenteTiendaRepository.findEstadoById(99L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> gerenteTiendaService.actualizarGerente(99L, requestDTO));
+        verify(hashContrasenas, never()).hashearSiPresente(any());
+        verify(gerenteTiendaRepository, never()).findById(any());
     }
     
     @Test
     void testActualizarGerente_TipoUsuarioNoEncontrado() {
+        when(gerenteTiendaRepository.findEstadoById(1L)).thenReturn(Optional.of(new EstadoUsuarioDTO(0L, null, null)));
         when(gerenteTiendaRepository.findById(1L)).thenReturn(Optional.of(gerente));
-        when(tipoUsuarioRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(tipoUsuarioCache.buscarPorId(anyLong())).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> gerenteTiendaService.actualizarGerente(1L, requestDTO));
     }
 
@@ -141,6 +153,7 @@ public class GerenteTiendaServiceTest {
         gerenteTiendaService.eliminarGerente(1L);
 
         verify(gerenteTiendaRepository, times(1)).deleteById(1L);
+        verify(autocompletado).eliminar(1L);
     }
 
     @Test
@@ -0,0 +1,62 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import GestionUsuarios.GestionUsuarios.exception.TooManyRequestsException;
+
+public class HashContrasenasTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private HashContrasenas hashContrasenas;
+
+    @AfterEach
+    void tearDown() {
+        hashContrasenas.cerrar();
+    }
+
+    @Test
+    void testHashBCryptConElCostoConfigurado() {
+        hashContrasenas = new HashContrasenas(5, 1, 10, registry);
+
+        String hash = hashContrasenas.hashear("secreta");
+
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertTrue(new BCryptPasswordEncoder().matches("secreta", hash));
+        assertEquals(1, registry.get("contrasenas.hash").timer().count());
+    }
+
+    @Test
+    void testSinContrasenaNoSeCalculaHash() {
+        hashContrasenas = new HashContrasenas(5, 1, 10, registry);
+
+        assertNull(hashContrasenas.hashearSiPresente(null));
+        assertNull(hashContrasenas.hashearSiPresente(""));
+        assertEquals(0, registry.get("contrasenas.hash").timer().count());
+    }
+
+    @Test
+    void testColaLlenaRechazaCon429() throws Exception {
+        // Un hilo y una plaza en cola: con un hash en curso y otro esperando, el tercero se rechaza
+        hashContrasenas = new HashContrasenas(12, 1, 1, registry);
+        CompletableFuture<String> enCurso = CompletableFuture.supplyAsync(() -> hashContrasenas.hashear("a"));
+        CompletableFuture<String> enCola = CompletableFuture.supplyAsync(() -> hashContrasenas.hashear("b"));
+        long limite = System.currentTimeMillis() + 5_000;
+        while (registry.get("contrasenas.hash.cola").gauge().value() < 1) {
+            assertTrue(System.currentTimeMillis() < limite, "El segundo hash nunca quedó en cola");
+            Thread.onSpinWait();
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> hashContrasenas.hashear("c"));
+        assertEquals(1.0, registry.get("contrasenas.hash.rechazos").counter().count());
+        assertNotNull(enCurso.get());
+        assertNotNull(enCola.get());
+    }
+}
@@ -4,20 +4,49 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import GestionUsuarios.GestionUsuarios.DTO.CursorPedidoDTO;
+import GestionUsuarios.GestionUsuarios.DTO.FiltroPedidosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PaginaDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PedidoExportDTO;
 import GestionUsuarios.GestionUsuarios.DTO.PedidoRequestDTO;
 import GestionUsuarios.GestionUsuarios.DTO.PedidoResponseDTO;
+import GestionUsuarios.GestionUsuarios.DTO.ResultadoPedidoLoteDTO;
+import GestionUsuarios.GestionUsuarios.DTO.VersionadoDTO;
+import GestionUsuarios.GestionUsuarios.exception.BadRequestException;
+import GestionUsuarios.GestionUsuarios.exception.PreconditionFailedException;
 import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
 import GestionUsuarios.GestionUsuarios.mapper.PedidoMapper;
 import GestionUsuarios.GestionUsuarios.model.Cliente;
@@ -34,6 +63,23 @@ public class PedidoServiceTest {
     private ClienteRepository clienteRepository;
     @Mock
     private PedidoMapper pedidoMapper;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    @Spy
+    private CacheRespuestas cacheRespuestas = new CacheRespuestas(new CacheRespuestasProperties(), new SimpleMeterRegistry(), mock(PlatformTransactionManager.class));
+    @Mock
+    private EstadisticasPedidosService estadisticasPedidos;
+    // Ejecuta el callback sin transacción real
+    @Spy
+    private TransactionTemplate transaccion = new TransactionTemplate(mock(PlatformTransactionManager.class));
+    @Spy
+    private ReintentosOptimistas reintentos = new ReintentosOptimistas();
     @InjectMocks
     private PedidoService pedidoService;
 
@@ -58,17 +104,133 @@ public class PedidoServiceTest {
         responseDTO = new PedidoResponseDTO(1L, LocalDateTime.now(), "Entregado", 200.50, null, "Calle Falsa 123", "Tarjeta");
     }
 
-    // Pruebas para obtenerTodosLosPedidos
+    // Pruebas para obtenerPedidos (paginación por cursor)
     @Test
-    void testObtenerTodosLosPedidos_Exitoso() {
-        when(pedidoRepository.findAll()).thenReturn(Collections.singletonList(pedido));
+    void testObtenerPedidos_PrimeraPaginaSinSiguiente() {
+        when(pedidoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21))).thenReturn(Collections.singletonList(pedido));
         when(pedidoMapper.toResponseDTO(any(Pedido.class))).thenReturn(responseDTO);
 
-        List<PedidoResponseDTO> resultado = pedidoService.obtenerTodosLosPedidos();
+        PaginaDTO<PedidoResponseDTO> resultado = pedidoService.obtenerPedidos(null, 20);
 
         assertNotNull(resultado);
-        assertEquals(1, resultado.size());
-        verify(pedidoRepository).findAll();
+        assertEquals(1, resultado.getElementos().size());
+        assertNull(resultado.getSiguienteCursor());
+        verify(pedidoRepository, never()).findAll();
+    }
+
+    @Test
+    void testObtenerPedidos_ConPaginaSiguiente() {
+        Pedido segundo = new Pedido();
+        segundo.setId(2L);
+        Pedido tercero = new Pedido();
+        tercero.setId(3L);
+        when(pedidoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(Arrays.asList(pedido, segundo, tercero));
+        when(pedidoMapper.toResponseDTO(any(Pedido.class))).thenReturn(responseDTO);
+
+        PaginaDTO<PedidoResponseDTO> resultado = pedidoService.obtenerPedidos(0L, 2);
+
+        assertEquals(2, resultado.getElementos().size());
+        assertEquals(2L, resultado.getSiguienteCursor());
+        verify(pedidoMapper, times(2)).toResponseDTO(any(Pedido.class));
+    }
+
+    @Test
+    void testObtenerPedidos_EtagCambiaConLaPagina() {
+        Cliente clientePedido = new Cliente();
+        clientePedido.setVersion(0L);
+        Pedido segundo = new Pedido();
+        segundo.setId(2L);
+        segundo.setVersion(0L);
+        segundo.setCliente(clientePedido);
+        when(pedidoRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(2))).thenReturn(List.of(segundo));
+        when(pedidoMapper.toResponseDTO(any(Pedido.class))).thenReturn(responseDTO);
+
+        String inicial = pedidoService.obtenerPedidos(1L, 1).getEtag();
+        assertTrue(inicial.startsWith("W/\""));
+        assertEquals(inicial, pedidoService.obtenerPedidos(1L, 1).getEtag());
+
+        segundo.setVersion(1L);
+        String trasCambioDePedido = pedidoService.obtenerPedidos(1L, 1).getEtag();
+        assertNotEquals(inicial, trasCambioDePedido);
+
+        clientePedido.setVersion(1L);
+        String trasCambioDeCliente = pedidoService.obtenerPedidos(1L, 1).getEtag();
+        assertNotEquals(trasCambioDePedido, trasCambioDeCliente);
+
+        // Misma fila pero ahora con página siguiente: cambia el enlace "next" y por tanto el validador
+        Pedido tercero = new Pedido();
+        tercero.setId(3L);
+        when(pedidoRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(2))).thenReturn(List.of(segundo, tercero));
+        assertNotEquals(trasCambioDeCliente, pedidoService.obtenerPedidos(1L, 1).getEtag());
+    }
+
+    @Test
+    void testObtenerPedidos_LimiteAcotado() {
+        when(pedidoRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(PedidoService.LIMITE_MAXIMO + 1))).thenReturn(Collections.emptyList());
+
+        PaginaDTO<PedidoResponseDTO> resultado = pedidoService.obtenerPedidos(10L, 1_000_000);
+
+        assertTrue(resultado.getElementos().isEmpty());
+        assertNull(resultado.getSiguienteCursor());
+    }
+
+    @Test
+    void testObtenerPedidos_FiltroVacioUsaListadoSinFiltros() {
+        when(pedidoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21))).thenReturn(Collections.emptyList());
+
+        pedidoService.obtenerPedidos(new FiltroPedidosDTO(), null, 20);
+
+        verify(pedidoRepository, never()).findBy(cualquierEspecificacion(), any());
+    }
+
+    @Test
+    void testObtenerPedidos_CursorDeOtroOrdenSeRechaza() {
+        FiltroPedidosDTO porFecha = new FiltroPedidosDTO(null, null, LocalDateTime.of(2024, 1, 1, 0, 0), null, null);
+        FiltroPedidosDTO porCliente = new FiltroPedidosDTO(3L, null, null, null, null);
+
+        // Un cursor por id no marca una posición en el orden (fecha_pedido, id), ni al revés
+        assertThrows(BadRequestException.class,
+                () -> pedidoService.obtenerPedidos(porFecha, new CursorPedidoDTO(null, 5L), 20));
+        assertThrows(BadRequestException.class, () -> pedidoService.obtenerPedidos(porCliente,
+                new CursorPedidoDTO(LocalDateTime.of(2024, 1, 2, 0, 0), 5L), 20));
+        verify(pedidoRepository, never()).findBy(cualquierEspecificacion(), any());
+    }
+
+    @Test
+    void testObtenerPedidosDeCliente_ClienteNoEncontrado() {
+        when(clienteRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> pedidoService.obtenerPedidosDeCliente(99L, null, 20));
+        verify(pedidoRepository, never()).findBy(cualquierEspecificacion(), any());
+    }
+
+    // Pruebas para exportarPedidos
+    @Test
+    void testExportarPedidos_UnaLineaPorPedido() throws Exception {
+        LocalDateTime fecha = LocalDateTime.of(2024, 5, 1, 10, 30);
+        when(pedidoRepository.streamParaExportar(null, null)).thenReturn(Stream.of(
+                new PedidoExportDTO(1L, fecha, "Pendiente", 10.0, 1L, "Calle Falsa 123", "Tarjeta"),
+                new PedidoExportDTO(2L, fecha, "Entregado", 20.0, 1L, "Calle Falsa 123", "Efectivo")));
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        long exportados = pedidoService.exportarPedidos(null, null, salida);
+
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, exportados);
+        assertEquals(2, lineas.length);
+        assertTrue(lineas[0].startsWith("{\"id\":1,\"fechaPedido\":\"2024-05-01T10:30:00\""));
+        assertTrue(lineas[1].contains("\"estado\":\"Entregado\""));
+        assertTrue(salida.toString(StandardCharsets.UTF_8).endsWith("}\n"));
+    }
+
+    @Test
+    void testExportarPedidos_SinResultados() throws Exception {
+        LocalDateTime desde = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(pedidoRepository.streamParaExportar(desde, null)).thenReturn(Stream.empty());
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        assertEquals(0, pedidoService.exportarPedidos(desde, null, salida));
+        assertEquals(0, salida.size());
     }
 
     // Pruebas para obtenerPedidoPorId
@@ -77,10 +239,22 @@ public class PedidoServiceTest {
         when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
         when(pedidoMapper.toResponseDTO(pedido)).thenReturn(responseDTO);
 
-        PedidoResponseDTO resultado = pedidoService.obtenerPedidoPorId(1L);
+        VersionadoDTO<PedidoResponseDTO> resultado = pedidoService.obtenerPedidoPorId(1L);
 
         assertNotNull(resultado);
-        assertEquals(responseDTO.getEstado(), resultado.getEstado());
+        assertEquals(responseDTO.getEstado(), resultado.getRespuesta().getEstado());
+        assertEquals(pedido.getVersion() + "-" + pedido.getCliente().getVersion(), resultado.getVersion());
+    }
+
+    @Test
+    void testObtenerPedidoPorId_SegundaLecturaDesdeCache() {
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
+        when(pedidoMapper.toResponseDTO(pedido)).thenReturn(responseDTO);
+
+        pedidoService.obtenerPedidoPorId(1L);
+        pedidoService.obtenerPedidoPorId(1L);
+
+        verify(pedidoRepository, times(1)).findById(1L);
     }
 
     @Test
@@ -102,6 +276,7 @@ public class PedidoServiceTest {
         assertNotNull(resultado);
         assertEquals(responseDTO.getEstado(), resultado.getEstado());
         verify(pedidoRepository).save(pedido);
+        verify(estadisticasPedidos).registrarAlta(pedido);
     }
     
     @Test
@@ -110,16 +285,77 @@ public class PedidoServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> pedidoService.crearPedido(requestDTO));
     }
 
+    // Pruebas para crearPedidosEnLote
+    @Test
+    void testCrearPedidosEnLote_ResultadoPorElemento() {
+        PedidoRequestDTO clienteInexistente = new PedidoRequestDTO("Pendiente", 10.0, 99L, "Calle 1", "Efectivo");
+        PedidoRequestDTO invalido = new PedidoRequestDTO("", -5.0, 1L, "Calle 1", "Efectivo");
+        when(clienteRepository.findIdsExistentes(Set.of(1L, 99L))).thenReturn(List.of(1L));
+        when(clienteRepository.getReferenceById(1L)).thenReturn(cliente);
+        when(pedidoMapper.toEntity(requestDTO)).thenReturn(pedido);
+        when(pedidoRepository.save(pedido)).thenReturn(pedido);
+
+        List<ResultadoPedidoLoteDTO> resultados = pedidoService.crearPedidosEnLote(
+                Arrays.asList(requestDTO, clienteInexistente, invalido));
+
+        assertEquals(3, resultados.size());
+        assertEquals(ResultadoPedidoLoteDTO.CREADO, resultados.get(0).getResultado());
+        assertEquals(1L, resultados.get(0).getId());
+        assertEquals(ResultadoPedidoLoteDTO.RECHAZADO, resultados.get(1).getResultado());
+        assertEquals("Cliente no encontrado con id: 99", resultados.get(1).getMensaje());
+        assertEquals(2, resultados.get(2).getIndice());
+        assertTrue(resultados.get(2).getMensaje().contains("El estado del pedido no puede estar vacío"));
+        verify(clienteRepository, times(1)).findIdsExistentes(any());
+        verify(clienteRepository, never()).findById(anyLong());
+        verify(pedidoRepository, times(1)).save(any(Pedido.class));
+    }
+
+    @Test
+    void testCrearPedidosEnLote_VaciaElContextoPorLotes() {
+        List<PedidoRequestDTO> solicitudes = Collections.nCopies(120, requestDTO);
+        when(clienteRepository.findIdsExistentes(Set.of(1L))).thenReturn(List.of(1L));
+        when(pedidoMapper.toEntity(requestDTO)).thenAnswer(invocation -> new Pedido());
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ResultadoPedidoLoteDTO> resultados = pedidoService.crearPedidosEnLote(solicitudes);
+
+        assertEquals(120, resultados.size());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void testCrearPedidosEnLote_Vacio() {
+        assertTrue(pedidoService.crearPedidosEnLote(Collections.emptyList()).isEmpty());
+        verify(clienteRepository, never()).findIdsExistentes(any());
+    }
+
     // Pruebas para actualizarPedido
     @Test
     void testActualizarPedido_Exitoso() {
         when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
-        when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
+        when(pedidoRepository.saveAndFlush(any(Pedido.class))).thenReturn(pedido);
         
         pedidoService.actualizarPedido(1L, requestDTO);
 
         verify(pedidoMapper).updateEntityFromDto(requestDTO, pedido);
-        verify(pedidoRepository).save(pedido);
+        verify(pedidoRepository).saveAndFlush(pedido);
+        verify(cacheRespuestas).invalidar(CacheRespuestas.PEDIDOS, 1L);
+    }
+
+    @Test
+    void testActualizarPedido_SinIfMatchReintentaElConflictoDeVersion() {
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
+        when(pedidoRepository.saveAndFlush(any(Pedido.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Pedido.class, 1L))
+                .thenReturn(pedido);
+
+        pedidoService.actualizarPedido(1L, requestDTO);
+
+        // Cada intento relee el pedido en su propia transacción
+        verify(pedidoRepository, times(2)).findById(1L);
+        verify(transaccion, times(2)).execute(any());
+        verify(estadisticasPedidos, times(1)).registrarCambio(any(), eq(pedido));
     }
 
     @Test
@@ -130,14 +366,24 @@ public class PedidoServiceTest {
 
         when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
         when(clienteRepository.findById(2L)).thenReturn(Optional.of(nuevoCliente));
-        when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
+        when(pedidoRepository.saveAndFlush(any(Pedido.class))).thenReturn(pedido);
         
         pedidoService.actualizarPedido(1L, requestDTO);
 
-        verify(pedidoRepository).save(pedido);
+        verify(pedidoRepository).saveAndFlush(pedido);
         assertEquals(2L, pedido.getCliente().getId());
     }
 
+    @Test
+    void testActualizarPedido_VersionDistinta() {
+        pedido.setVersion(2L);
+        pedido.getCliente().setVersion(0L);
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
+
+        assertThrows(PreconditionFailedException.class, () -> pedidoService.actualizarPedido(1L, requestDTO, "1-0"));
+        verify(pedidoRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     void testActualizarPedido_PedidoNoEncontrado() {
         when(pedidoRepository.findById(99L)).thenReturn(Optional.empty());
@@ -156,17 +402,24 @@ public class PedidoServiceTest {
     // Pruebas para eliminarPedido
     @Test
     void testEliminarPedido_Exitoso() {
-        when(pedidoRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(pedidoRepository).deleteById(1L);
+        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
 
         pedidoService.eliminarPedido(1L);
 
-        verify(pedidoRepository, times(1)).deleteById(1L);
+        verify(pedidoRepository, times(1)).delete(pedido);
+        verify(estadisticasPedidos).registrarBaja(pedido);
+        verify(cacheRespuestas).invalidar(CacheRespuestas.PEDIDOS, 1L);
     }
 
     @Test
     void testEliminarPedido_NoEncontrado() {
-        when(pedidoRepository.existsById(99L)).thenReturn(false);
+        when(pedidoRepository.findById(99L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> pedidoService.eliminarPedido(99L));
+        verify(estadisticasPedidos, never()).registrarBaja(any());
+    }
+
+    // any(Specification.class) es un tipo crudo y deja una conversión sin verificar
+    private static Specification<Pedido> cualquierEspecificacion() {
+        return any();
     }
 }
\ No newline at end of file
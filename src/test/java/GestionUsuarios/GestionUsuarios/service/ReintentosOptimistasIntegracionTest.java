@@ -0,0 +1,103 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import GestionUsuarios.GestionUsuarios.DTO.ClienteRequestDTO;
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
+import GestionUsuarios.GestionUsuarios.repository.ClienteRepository;
+import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
+
+// Conflicto de versión real: otro hilo confirma un cambio del mismo cliente entre la lectura y el flush del primer
+// intento. El punto de enganche es la búsqueda del tipo de usuario, que ocurre dentro de la transacción de escritura
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reintentos_optimistas",
+        "contrasenas.hash.costo=4"
+})
+class ReintentosOptimistasIntegracionTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private TipoUsuarioRepository tipoUsuarioRepository;
+
+    @SpyBean
+    private TipoUsuarioCache tipoUsuarioCache;
+
+    @SpyBean
+    private HashContrasenas hashContrasenas;
+
+    @SpyBean
+    private UnicidadUsuariosService unicidadUsuarios;
+
+    private final AtomicBoolean escrituraConcurrente = new AtomicBoolean();
+    private Long idCliente;
+    private ClienteRequestDTO solicitud;
+    private ClienteRequestDTO concurrente;
+
+    @BeforeEach
+    void setUp() {
+        TipoUsuario tipo = tipoUsuarioRepository.findAll().stream().findFirst()
+                .orElseGet(() -> tipoUsuarioRepository.save(new TipoUsuario(null, "CLIENTE")));
+        tipoUsuarioCache.recargar();
+        long sufijo = System.nanoTime() % 1_000_000;
+        String email = "reintentos" + sufijo + "@test.com";
+        String rut = Rut.de(70_000_000 + (int) sufijo).toString();
+        idCliente = clienteService.crearCliente(new ClienteRequestDTO("Original", email, "password", "1995-05-10",
+                rut, tipo.getId(), "Calle 1")).getId();
+        solicitud = new ClienteRequestDTO("Interno", email, "nuevaClave", "1995-05-10", rut, tipo.getId(), "Calle 2");
+        concurrente = new ClienteRequestDTO("Concurrente", email, null, "1995-05-10", rut, tipo.getId(), "Calle 3");
+
+        doAnswer(invocacion -> {
+            if (escrituraConcurrente.compareAndSet(true, false)) {
+                CompletableFuture.runAsync(() -> clienteService.actualizarCliente(idCliente, concurrente, null)).join();
+            }
+            return invocacion.callRealMethod();
+        }).when(tipoUsuarioCache).buscarPorId(any());
+        clearInvocations(tipoUsuarioCache, hashContrasenas, unicidadUsuarios);
+    }
+
+    @Test
+    void testActualizacionInternaReintentaTrasUnConflictoDeVersion() {
+        long versionInicial = clienteRepository.findEstadoById(idCliente).orElseThrow().getVersion();
+        escrituraConcurrente.set(true);
+
+        assertEquals("Interno", clienteService.actualizarCliente(idCliente, solicitud).getNombre());
+
+        // El primer intento chocó con la escritura concurrente; el segundo la releyó y escribió encima
+        verify(tipoUsuarioCache, times(3)).buscarPorId(any());
+        // El hash y la comprobación de unicidad quedan fuera del reintento: una vez por actualización (esta y la
+        // concurrente), no por intento
+        verify(hashContrasenas, times(1)).hashearSiPresente("nuevaClave");
+        verify(unicidadUsuarios, times(2)).comprobarCambios(eq(idCliente), any(), any(), any());
+        assertEquals(versionInicial + 2, clienteRepository.findEstadoById(idCliente).orElseThrow().getVersion());
+        assertEquals("Interno", clienteRepository.findById(idCliente).orElseThrow().getNombre());
+    }
+
+    @Test
+    void testConIfMatchElConflictoNoSeReintenta() {
+        long versionInicial = clienteRepository.findEstadoById(idCliente).orElseThrow().getVersion();
+        escrituraConcurrente.set(true);
+
+        // La petición HTTP lo recibe como 409: decidir si reescribir es cosa del cliente
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> clienteService.actualizarCliente(idCliente, solicitud, versionInicial));
+        assertEquals("Concurrente", clienteRepository.findById(idCliente).orElseThrow().getNombre());
+    }
+}
@@ -0,0 +1,78 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import jakarta.persistence.OptimisticLockException;
+
+public class ReintentosOptimistasTest {
+
+    private final ReintentosOptimistas reintentos = new ReintentosOptimistas();
+
+    @Test
+    void testReintentaHastaQueNoHayConflicto() {
+        AtomicInteger intentos = new AtomicInteger();
+
+        String resultado = reintentos.ejecutar(() -> {
+            if (intentos.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Cliente.class, 1L);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", resultado);
+        assertEquals(3, intentos.get());
+    }
+
+    @Test
+    void testPropagaElConflictoAlAgotarLosIntentos() {
+        AtomicInteger intentos = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> reintentos.ejecutar(() -> {
+            intentos.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Cliente.class, 1L);
+        }));
+        assertEquals(3, intentos.get());
+    }
+
+    @Test
+    void testReintentaTambienElConflictoSinTraducir() {
+        AtomicInteger intentos = new AtomicInteger();
+
+        reintentos.ejecutar(() -> {
+            if (intentos.incrementAndGet() == 1) {
+                throw new OptimisticLockException("versión obsoleta");
+            }
+            return null;
+        });
+
+        assertEquals(2, intentos.get());
+    }
+
+    @Test
+    void testRechazaUnaTransaccionYaAbierta() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(IllegalStateException.class, () -> reintentos.ejecutar(() -> "ok"));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void testNoReintentaOtrasExcepciones() {
+        AtomicInteger intentos = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> reintentos.ejecutar(() -> {
+            intentos.incrementAndGet();
+            throw new IllegalStateException("fallo");
+        }));
+        assertEquals(1, intentos.get());
+    }
+}
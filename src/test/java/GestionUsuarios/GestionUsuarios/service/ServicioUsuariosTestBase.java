@@ -0,0 +1,27 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Colaboradores reales que comparten los tests de los cuatro servicios de usuario. @InjectMocks de la
+ * subclase también recoge estos espías.
+ */
+@ExtendWith(MockitoExtension.class)
+abstract class ServicioUsuariosTestBase {
+
+    @Spy
+    protected CacheRespuestas cacheRespuestas = new CacheRespuestas(new CacheRespuestasProperties(), new SimpleMeterRegistry(), mock(PlatformTransactionManager.class));
+    // Ejecuta el callback sin transacción real
+    @Spy
+    protected TransactionTemplate transaccion = new TransactionTemplate(mock(PlatformTransactionManager.class));
+    @Spy
+    protected ReintentosOptimistas reintentos = new ReintentosOptimistas();
+}
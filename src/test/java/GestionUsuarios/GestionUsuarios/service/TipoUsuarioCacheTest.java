@@ -0,0 +1,95 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import GestionUsuarios.GestionUsuarios.model.TipoUsuario;
+import GestionUsuarios.GestionUsuarios.repository.TipoUsuarioRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class TipoUsuarioCacheTest {
+
+    @Mock
+    private TipoUsuarioRepository tipoUsuarioRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TipoUsuarioCache tipoUsuarioCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tipoUsuarioCache = new TipoUsuarioCache(tipoUsuarioRepository, meterRegistry);
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get("cache.gets").tag("cache", "tiposUsuario").tag("result", resultado).counter().count();
+    }
+
+    @Test
+    void testPrecargaEvitaConsultasPosteriores() {
+        when(tipoUsuarioRepository.findAll()).thenReturn(List.of(new TipoUsuario(1L, "CLIENTE"), new TipoUsuario(2L, "ADMIN")));
+        tipoUsuarioCache.precargar();
+
+        assertEquals("ADMIN", tipoUsuarioCache.buscarPorId(2L).orElseThrow().getNombre());
+        assertEquals("CLIENTE", tipoUsuarioCache.buscarPorId(1L).orElseThrow().getNombre());
+
+        verify(tipoUsuarioRepository, never()).findById(anyLong());
+        assertEquals(2, contador("hit"));
+        assertEquals(0, contador("miss"));
+        assertEquals(2, meterRegistry.get("cache.size").gauge().value());
+    }
+
+    @Test
+    void testFalloCargaDesdeRepositorioUnaSolaVez() {
+        when(tipoUsuarioRepository.findById(3L)).thenReturn(Optional.of(new TipoUsuario(3L, "GERENTE")));
+
+        assertTrue(tipoUsuarioCache.buscarPorId(3L).isPresent());
+        assertTrue(tipoUsuarioCache.buscarPorId(3L).isPresent());
+
+        verify(tipoUsuarioRepository, times(1)).findById(3L);
+        assertEquals(1, contador("hit"));
+        assertEquals(1, contador("miss"));
+    }
+
+    @Test
+    void testInexistenteNoSeCachea() {
+        when(tipoUsuarioRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertTrue(tipoUsuarioCache.buscarPorId(99L).isEmpty());
+        assertTrue(tipoUsuarioCache.buscarPorId(99L).isEmpty());
+        assertTrue(tipoUsuarioCache.buscarPorId(null).isEmpty());
+
+        verify(tipoUsuarioRepository, times(2)).findById(99L);
+    }
+
+    @Test
+    void testInvalidarFuerzaRecarga() {
+        when(tipoUsuarioRepository.findAll()).thenReturn(List.of(new TipoUsuario(1L, "CLIENTE")));
+        tipoUsuarioCache.recargar();
+        when(tipoUsuarioRepository.findById(1L)).thenReturn(Optional.of(new TipoUsuario(1L, "CLIENTE_VIP")));
+
+        tipoUsuarioCache.invalidar(1L);
+
+        assertEquals("CLIENTE_VIP", tipoUsuarioCache.buscarPorId(1L).orElseThrow().getNombre());
+    }
+
+    @Test
+    void testGuardaCopiasDesacopladas() {
+        TipoUsuario original = new TipoUsuario(5L, "EMPLEADO");
+        tipoUsuarioCache.registrar(original);
+        original.setNombre("MODIFICADO");
+
+        assertEquals("EMPLEADO", tipoUsuarioCache.buscarPorId(5L).orElseThrow().getNombre());
+    }
+}
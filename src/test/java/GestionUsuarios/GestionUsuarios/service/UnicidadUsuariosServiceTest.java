@@ -0,0 +1,121 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import GestionUsuarios.GestionUsuarios.DTO.EstadoUsuarioDTO;
+import GestionUsuarios.GestionUsuarios.DTO.UsuarioResumenDTO;
+import GestionUsuarios.GestionUsuarios.exception.ConflictException;
+import GestionUsuarios.GestionUsuarios.model.Cliente;
+import GestionUsuarios.GestionUsuarios.model.Rut;
+import GestionUsuarios.GestionUsuarios.repository.UsuarioRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class UnicidadUsuariosServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UnicidadUsuariosService unicidadUsuarios;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        unicidadUsuarios = new UnicidadUsuariosService(usuarioRepository, 1000, 0.01, meterRegistry);
+        when(usuarioRepository.buscarResumenes(any(), isNull(), anyInt())).thenReturn(List.of(
+                new UsuarioResumenDTO(1L, "Juan Pérez", "juan@test.com", "11111111-1", "CLIENTE")));
+        unicidadUsuarios.reconstruir();
+    }
+
+    private double comprobaciones(String resultado) {
+        return meterRegistry.get("usuarios.unicidad.comprobaciones").tag("resultado", resultado).counter().count();
+    }
+
+    @Test
+    void testComprobarDisponibles_ValoresNuevosNoConsultanLaBase() {
+        unicidadUsuarios.comprobarDisponibles("nuevo@test.com", "22222222-2", null);
+
+        verify(usuarioRepository, never()).existeEmail(any(), any());
+        verify(usuarioRepository, never()).existeRut(anyInt(), any());
+        assertEquals(2.0, comprobaciones("descartada"));
+    }
+
+    @Test
+    void testComprobarDisponibles_AntesDeLaPrimeraCargaConfirmaConLaBase() {
+        UnicidadUsuariosService sinCargar = new UnicidadUsuariosService(usuarioRepository, 1000, 0.01, meterRegistry);
+        when(usuarioRepository.existeEmail("juan@test.com", null)).thenReturn(true);
+
+        assertThrows(ConflictException.class,
+                () -> sinCargar.comprobarDisponibles("juan@test.com", "22222222-2", null));
+        sinCargar.comprobarDisponibles("nuevo@test.com", "22222222-2", null);
+
+        verify(usuarioRepository).existeEmail("nuevo@test.com", null);
+        verify(usuarioRepository).existeRut(22222222, null);
+        assertEquals(1.0, comprobaciones("duplicado"));
+        assertEquals(2.0, comprobaciones("sin_filtro"));
+        assertEquals(0.0, comprobaciones("falso_positivo"));
+    }
+
+    @Test
+    void testComprobarDisponibles_EmailDuplicadoConfirmadoEnLaBase() {
+        when(usuarioRepository.existeEmail("juan@test.com", null)).thenReturn(true);
+
+        assertThrows(ConflictException.class,
+                () -> unicidadUsuarios.comprobarDisponibles("juan@test.com", "22222222-2", null));
+        assertEquals(1.0, comprobaciones("duplicado"));
+    }
+
+    @Test
+    void testComprobarDisponibles_PropioUsuarioEnUnCambio() {
+        when(usuarioRepository.existeEmail("juan@test.com", 1L)).thenReturn(false);
+        when(usuarioRepository.existeRut(11111111, 1L)).thenReturn(false);
+
+        unicidadUsuarios.comprobarDisponibles("juan@test.com", "11111111-1", 1L);
+
+        assertEquals(2.0, comprobaciones("falso_positivo"));
+    }
+
+    @Test
+    void testComprobarCambios_ValoresQueNoCambianNoSeConsultan() {
+        unicidadUsuarios.comprobarCambios(1L, new EstadoUsuarioDTO(3L, "juan@test.com", 11111111),
+                "juan@test.com", "11.111.111-1");
+
+        verify(usuarioRepository, never()).existeEmail(any(), any());
+        verify(usuarioRepository, never()).existeRut(anyInt(), any());
+        assertEquals(0.0, comprobaciones("falso_positivo"));
+    }
+
+    @Test
+    void testComprobarCambios_EmailNuevoOcupado() {
+        when(usuarioRepository.existeEmail("juan@test.com", 2L)).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> unicidadUsuarios.comprobarCambios(2L,
+                new EstadoUsuarioDTO(0L, "ana@test.com", 22222222), "juan@test.com", "22222222-2"));
+        verify(usuarioRepository, never()).existeRut(anyInt(), any());
+    }
+
+    @Test
+    void testRegistrar_AltaPasaAConsultarLaBase() {
+        Cliente cliente = new Cliente();
+        cliente.setEmail("ana@test.com");
+        cliente.setRut(Rut.parsear("33333333-3"));
+        unicidadUsuarios.registrar(cliente);
+        when(usuarioRepository.existeRut(33333333, null)).thenReturn(true);
+
+        assertThrows(ConflictException.class,
+                () -> unicidadUsuarios.comprobarDisponibles("otra@test.com", "33333333-3", null));
+    }
+}
@@ -0,0 +1,71 @@
+package GestionUsuarios.GestionUsuarios.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import GestionUsuarios.GestionUsuarios.DTO.FiltroUsuariosDTO;
+import GestionUsuarios.GestionUsuarios.DTO.PaginaDTO;
+import GestionUsuarios.GestionUsuarios.DTO.UsuarioResumenDTO;
+import GestionUsuarios.GestionUsuarios.exception.BadRequestException;
+import GestionUsuarios.GestionUsuarios.exception.ResourceNotFoundException;
+import GestionUsuarios.GestionUsuarios.repository.UsuarioRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class UsuarioServiceTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+    @InjectMocks
+    private UsuarioService usuarioService;
+
+    private UsuarioResumenDTO resumen(long id) {
+        return new UsuarioResumenDTO(id, "Usuario " + id, "u" + id + "@test.com", id + "-5", "CLIENTE");
+    }
+
+    @Test
+    void testBuscarUsuarios_ConPaginaSiguiente() {
+        FiltroUsuariosDTO filtro = new FiltroUsuariosDTO(null, null, "Usu", null);
+        when(usuarioRepository.buscarResumenes(filtro, null, 3)).thenReturn(List.of(resumen(1), resumen(2), resumen(3)));
+
+        PaginaDTO<UsuarioResumenDTO> pagina = usuarioService.buscarUsuarios(filtro, null, 2);
+
+        assertEquals(2, pagina.getElementos().size());
+        assertEquals(2L, pagina.getSiguienteCursor());
+    }
+
+    @Test
+    void testBuscarUsuarios_NormalizaTipoYAcotaLimite() {
+        FiltroUsuariosDTO filtro = new FiltroUsuariosDTO(null, null, null, " cliente ");
+        when(usuarioRepository.buscarResumenes(filtro, 5L, UsuarioService.LIMITE_MAXIMO + 1)).thenReturn(List.of(resumen(6)));
+
+        PaginaDTO<UsuarioResumenDTO> pagina = usuarioService.buscarUsuarios(filtro, 5L, 10_000);
+
+        assertEquals("CLIENTE", filtro.getTipo());
+        assertEquals(1, pagina.getElementos().size());
+        assertNull(pagina.getSiguienteCursor());
+    }
+
+    @Test
+    void testBuscarPorRut_NoEncontrado() {
+        when(usuarioRepository.buscarResumenes(any(FiltroUsuariosDTO.class), isNull(), eq(1))).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> usuarioService.buscarPorRut("12.345.678-5"));
+    }
+
+    @Test
+    void testBuscarPorRut_InvalidoSinConsultar() {
+        assertThrows(BadRequestException.class, () -> usuarioService.buscarPorRut("12.345.678-9"));
+        verifyNoInteractions(usuarioRepository);
+    }
+}